@@ -0,0 +1,93 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.lunarray.model.descriptor.builder.annotation.presentation.builder.PresQualBuilder;
+import org.lunarray.model.descriptor.converter.def.DefaultConverterTool;
+import org.lunarray.model.descriptor.dictionary.composite.EntityDictionary;
+import org.lunarray.model.descriptor.dictionary.composite.simple.CompositeDictionary;
+import org.lunarray.model.descriptor.dictionary.enumeration.EnumDictionary;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.resource.simpleresource.SimpleClazzResource;
+import org.lunarray.model.descriptor.validator.beanvalidation.BeanValidationValidator;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchEntity;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchRelated;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchRelatedDictionary;
+
+/**
+ * Builds synthetic models and entities for the benchmarks.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public enum BenchModels {
+
+	/** The instance. */
+	INSTANCE;
+
+	/** The entity key. */
+	public static final String ENTITY_KEY = "BenchEntity";
+
+	/**
+	 * Creates entities.
+	 * 
+	 * @param dictionary
+	 *            The dictionary to relate entities to.
+	 * @param size
+	 *            The amount of entities.
+	 * @return The entities.
+	 */
+	public static List<BenchEntity> createEntities(final BenchRelatedDictionary dictionary, final int size) {
+		final List<BenchEntity> result = new ArrayList<BenchEntity>(size);
+		final Date date = new Date();
+		for (int i = 0; i < size; i = i + 1) {
+			final BenchEntity entity = new BenchEntity();
+			entity.setId("entity" + i);
+			entity.setName("Entity " + i);
+			entity.setCount(Integer.valueOf(i));
+			entity.setTotal(i * 1000L);
+			entity.setRatio(i / 7d);
+			entity.setActive((i % 2) == 0);
+			entity.setDate(date);
+			entity.setRelated(dictionary.get(i));
+			result.add(entity);
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a model like the one used by the test applications.
+	 * 
+	 * @param dictionary
+	 *            The related entity dictionary.
+	 * @return The model.
+	 */
+	public static Model<Object> createModel(final BenchRelatedDictionary dictionary) {
+		@SuppressWarnings("unchecked")
+		final SimpleClazzResource<Object> resource = new SimpleClazzResource<Object>(BenchEntity.class, BenchRelated.class);
+		final List<EntityDictionary<?, ?>> dictionaries = new LinkedList<EntityDictionary<?, ?>>();
+		dictionaries.add(dictionary);
+		return PresQualBuilder.createBuilder()
+				.extensions(new EnumDictionary(new CompositeDictionary(dictionaries)), new BeanValidationValidator(), new DefaultConverterTool())
+				.resources(resource).build();
+	}
+}
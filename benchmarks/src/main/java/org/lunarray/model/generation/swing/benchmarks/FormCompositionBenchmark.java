@@ -0,0 +1,85 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchEntity;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchRelatedDictionary;
+import org.lunarray.model.generation.swing.components.FormComponent;
+import org.lunarray.model.generation.swing.components.impl.FormComponentBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link FormComponentBuilder#build()}.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FormCompositionBenchmark {
+
+	/** The size of the related entity dictionary. */
+	@Param({ "100", "10000" })
+	private int dictionarySize;
+	/** The entity. */
+	private BenchEntity entity;
+	/** The model. */
+	private Model<Object> model;
+
+	/**
+	 * Composes a form.
+	 * 
+	 * @return The form.
+	 */
+	@Benchmark
+	public FormComponent<BenchEntity> build() {
+		final FormComponentBuilder<Object, BenchEntity> builder = FormComponentBuilder.createBuilder();
+		builder.model(this.model).entityKey(BenchModels.ENTITY_KEY).entity(this.entity).locale(Locale.ENGLISH).bottomMessages();
+		return builder.build();
+	}
+
+	/**
+	 * Sets up the model.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		final BenchRelatedDictionary dictionary = new BenchRelatedDictionary(this.dictionarySize);
+		this.model = BenchModels.createModel(dictionary);
+		final List<BenchEntity> entities = BenchModels.createEntities(dictionary, 1);
+		this.entity = entities.get(0);
+	}
+}
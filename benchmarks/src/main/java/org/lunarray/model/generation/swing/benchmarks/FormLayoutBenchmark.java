@@ -0,0 +1,161 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks;
+
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+
+import org.lunarray.model.generation.swing.components.impl.FormComponentImpl.MessagePosition;
+import org.lunarray.model.generation.swing.components.impl.FormLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares resize and validate latency of the {@link FormLayout} with the grid
+ * bag layout, on a panel with rows of a label, a text field and a message below
+ * it, as the form component lays them out.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FormLayoutBenchmark {
+
+	/** The height of the panel. */
+	private static final int HEIGHT = 600;
+	/** The narrow width of the panel. */
+	private static final int NARROW = 600;
+	/** The wide width of the panel. */
+	private static final int WIDE = 800;
+
+	/** The input components. */
+	private JComponent[] components;
+	/** The layout, either grid bag or form. */
+	@Param({ "gridBag", "form" })
+	private String layout;
+	/** The next row to change. */
+	private int next;
+	/** The panel. */
+	private JPanel panel;
+	/** The amount of rows. */
+	@Param({ "500" })
+	private int rows;
+	/** Whether the panel is wide. */
+	private boolean wide;
+
+	/**
+	 * Resizes the panel and lays it out.
+	 * 
+	 * @return The panel.
+	 */
+	@Benchmark
+	public JPanel resize() {
+		this.wide = !this.wide;
+		if (this.wide) {
+			this.panel.setSize(FormLayoutBenchmark.WIDE, FormLayoutBenchmark.HEIGHT);
+		} else {
+			this.panel.setSize(FormLayoutBenchmark.NARROW, FormLayoutBenchmark.HEIGHT);
+		}
+		this.panel.validate();
+		return this.panel;
+	}
+
+	/**
+	 * Sets up the panel.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		final boolean form = "form".equals(this.layout);
+		if (form) {
+			this.panel = new JPanel(new FormLayout(MessagePosition.BOTTOM));
+		} else {
+			this.panel = new JPanel(new GridBagLayout());
+		}
+		this.components = new JComponent[this.rows];
+		for (int i = 0; i < this.rows; i = i + 1) {
+			final JLabel label = new JLabel("Property " + i);
+			this.components[i] = new JTextField("Value " + i);
+			final JLabel message = new JLabel();
+			if (form) {
+				this.panel.add(label, new FormLayout.Constraint(i, FormLayout.Cell.LABEL));
+				this.panel.add(this.components[i], new FormLayout.Constraint(i, FormLayout.Cell.COMPONENT));
+				this.panel.add(message, new FormLayout.Constraint(i, FormLayout.Cell.MESSAGE));
+			} else {
+				this.panel.add(label, FormLayoutBenchmark.createConstraints(0, 2 * i, 1, 0.3));
+				this.panel.add(this.components[i], FormLayoutBenchmark.createConstraints(1, 2 * i, 2, 0.7));
+				this.panel.add(message, FormLayoutBenchmark.createConstraints(1, (2 * i) + 1, 2, 0.7));
+			}
+		}
+		// Lightweight peers let the panel validate without a window.
+		this.panel.addNotify();
+		this.panel.setSize(FormLayoutBenchmark.NARROW, FormLayoutBenchmark.HEIGHT);
+		this.panel.validate();
+	}
+
+	/**
+	 * Invalidates a single row and lays out the panel.
+	 * 
+	 * @return The panel.
+	 */
+	@Benchmark
+	public JPanel validateRow() {
+		this.next = (this.next + 1) % this.rows;
+		this.components[this.next].invalidate();
+		this.panel.validate();
+		return this.panel;
+	}
+
+	/**
+	 * Creates grid bag constraints like the form component does.
+	 * 
+	 * @param column
+	 *            The column.
+	 * @param row
+	 *            The row.
+	 * @param width
+	 *            The width.
+	 * @param weight
+	 *            The horizontal weight.
+	 * @return The constraints.
+	 */
+	private static GridBagConstraints createConstraints(final int column, final int row, final int width, final double weight) {
+		return new GridBagConstraints(column, row, width, 1, weight, 0, GridBagConstraints.FIRST_LINE_START,
+				GridBagConstraints.HORIZONTAL, new Insets(0, 0, 0, 0), 2, 2);
+	}
+}
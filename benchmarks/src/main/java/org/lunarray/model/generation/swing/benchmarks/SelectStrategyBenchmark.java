@@ -0,0 +1,106 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchEntity;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchRelated;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchRelatedDictionary;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.impl.property.PropertyDescriptorImpl;
+import org.lunarray.model.generation.swing.render.factories.form.swing.components.MenuSelectPropertyStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.swing.components.RadioSelectPropertyStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.swing.components.SingleListSelectPropertyStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures select strategy creation over large dictionaries.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SelectStrategyBenchmark {
+
+	/** The size of the related entity dictionary. */
+	@Param({ "100", "1000", "10000" })
+	private int dictionarySize;
+	/** The entity. */
+	private BenchEntity entity;
+	/** The strategy factory. */
+	private FormPropertyRenderStrategy.DescriptorFactory factory;
+	/** The model. */
+	private Model<Object> model;
+	/** The related property. */
+	private PropertyDescriptor<BenchRelated, BenchEntity> property;
+	/** The strategy. */
+	@Param({ "dropdown", "menu", "radio" })
+	private String strategy;
+
+	/**
+	 * Creates a strategy.
+	 * 
+	 * @return The strategy.
+	 */
+	@Benchmark
+	public FormPropertyRenderStrategy<BenchRelated> createStrategy() {
+		final PropertyDescriptorImpl<BenchRelated, BenchEntity> descriptor = new PropertyDescriptorImpl<BenchRelated, BenchEntity>(
+				this.property, this.model);
+		descriptor.setEntity(this.entity);
+		return this.factory.createStrategy(new RenderContext<BenchEntity>(this.model), descriptor);
+	}
+
+	/**
+	 * Sets up the model.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		final BenchRelatedDictionary dictionary = new BenchRelatedDictionary(this.dictionarySize);
+		this.model = BenchModels.createModel(dictionary);
+		final List<BenchEntity> entities = BenchModels.createEntities(dictionary, 1);
+		this.entity = entities.get(0);
+		this.property = this.model.getEntity(BenchEntity.class).getProperty("related", BenchRelated.class);
+		if ("menu".equals(this.strategy)) {
+			this.factory = new MenuSelectPropertyStrategy.StrategyFactory();
+		} else if ("radio".equals(this.strategy)) {
+			this.factory = new RadioSelectPropertyStrategy.StrategyFactory();
+		} else {
+			this.factory = new SingleListSelectPropertyStrategy.StrategyFactory();
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JLabel;
+
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchEntity;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchRelatedDictionary;
+import org.lunarray.model.generation.swing.render.factories.form.impl.property.PropertyDescriptorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures conversion and validation through
+ * {@link PropertyDescriptorImpl#setStringValue(JLabel, String)}.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SetStringValueBenchmark {
+
+	/** The int descriptor. */
+	private PropertyDescriptorImpl<Integer, BenchEntity> countDescriptor;
+	/** The message label. */
+	private JLabel message;
+	/** The text descriptor. */
+	private PropertyDescriptorImpl<String, BenchEntity> nameDescriptor;
+
+	/**
+	 * Sets an int value that does not convert.
+	 * 
+	 * @return The message.
+	 */
+	@Benchmark
+	public String setInvalidInt() {
+		this.countDescriptor.setStringValue(this.message, "invalid");
+		return this.message.getText();
+	}
+
+	/**
+	 * Sets an int value that converts, but does not validate.
+	 * 
+	 * @return The message.
+	 */
+	@Benchmark
+	public String setOutOfRangeInt() {
+		this.countDescriptor.setStringValue(this.message, "-12345");
+		return this.message.getText();
+	}
+
+	/**
+	 * Sets a text value.
+	 * 
+	 * @return The message.
+	 */
+	@Benchmark
+	public String setText() {
+		this.nameDescriptor.setStringValue(this.message, "Entity name");
+		return this.message.getText();
+	}
+
+	/**
+	 * Sets up the descriptors.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		final BenchRelatedDictionary dictionary = new BenchRelatedDictionary(1);
+		final Model<Object> model = BenchModels.createModel(dictionary);
+		final List<BenchEntity> entities = BenchModels.createEntities(dictionary, 1);
+		final EntityDescriptor<BenchEntity> entity = model.getEntity(BenchEntity.class);
+		this.countDescriptor = new PropertyDescriptorImpl<Integer, BenchEntity>(entity.getProperty("count", Integer.class), model);
+		this.countDescriptor.setEntity(entities.get(0));
+		this.nameDescriptor = new PropertyDescriptorImpl<String, BenchEntity>(entity.getProperty("name", String.class), model);
+		this.nameDescriptor.setEntity(entities.get(0));
+		this.message = new JLabel();
+	}
+
+	/**
+	 * Sets a valid int value.
+	 * 
+	 * @return The message.
+	 */
+	@Benchmark
+	public String setValidInt() {
+		this.countDescriptor.setStringValue(this.message, "12345");
+		return this.message.getText();
+	}
+}
@@ -0,0 +1,128 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchEntity;
+import org.lunarray.model.generation.swing.benchmarks.model.BenchRelatedDictionary;
+import org.lunarray.model.generation.swing.components.DataTableModel;
+import org.lunarray.model.generation.swing.components.impl.TableComponentBuilder;
+import org.lunarray.model.generation.swing.render.factories.table.GeneratedColumn;
+import org.lunarray.model.generation.swing.render.factories.table.swing.components.AbstractGeneratedColumn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link DataTableModel#getValueAt(int, int)} per column type.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TableCellBenchmark {
+
+	/** The amount of rows. */
+	private static final int ROWS = 1000;
+
+	/**
+	 * The cell cache size, in rows. No cache, the default cache that holds
+	 * about half of the rows, and a cache that holds all rows.
+	 */
+	@Param({ "0", "512", "1000" })
+	private int cacheSize;
+	/** The column index. */
+	private int columnIndex;
+	/** The property shown in the column. */
+	@Param({ "name", "count", "total", "ratio", "active", "date", "related" })
+	private String property;
+	/** The row. */
+	private int row;
+	/** The table model. */
+	private DataTableModel<BenchEntity> tableModel;
+
+	/**
+	 * Reads a single cell, cycling through the rows.
+	 * 
+	 * @return The cell value.
+	 */
+	@Benchmark
+	public Object getValueAt() {
+		this.row = (this.row + 1) % TableCellBenchmark.ROWS;
+		return this.tableModel.getValueAt(this.row, this.columnIndex);
+	}
+
+	/**
+	 * Reads all cells of the column.
+	 * 
+	 * @param blackhole
+	 *            The blackhole.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(TableCellBenchmark.ROWS)
+	public void getValueAtColumn(final Blackhole blackhole) {
+		for (int i = 0; i < TableCellBenchmark.ROWS; i = i + 1) {
+			blackhole.consume(this.tableModel.getValueAt(i, this.columnIndex));
+		}
+	}
+
+	/**
+	 * Sets up the table.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		final BenchRelatedDictionary dictionary = new BenchRelatedDictionary(100);
+		final Model<Object> model = BenchModels.createModel(dictionary);
+		final List<BenchEntity> entities = BenchModels.createEntities(dictionary, TableCellBenchmark.ROWS);
+		final TableComponentBuilder<Object, BenchEntity> builder = TableComponentBuilder.createBuilder();
+		builder.model(model).entityKey(BenchModels.ENTITY_KEY).entity(entities).locale(Locale.ENGLISH);
+		this.tableModel = builder.build().getTableModel();
+		this.tableModel.setCacheSize(this.cacheSize);
+		this.columnIndex = -1;
+		final List<GeneratedColumn<BenchEntity, ?>> columns = this.tableModel.getColumns();
+		for (int i = 0; i < columns.size(); i = i + 1) {
+			final GeneratedColumn<BenchEntity, ?> column = columns.get(i);
+			if (column instanceof AbstractGeneratedColumn
+					&& this.property.equals(((AbstractGeneratedColumn<?, ?, ?>) column).getOutputPropertyStrategy().getProperty().getName())) {
+				this.columnIndex = i;
+			}
+		}
+		if (this.columnIndex < 0) {
+			throw new IllegalStateException("No column for property " + this.property);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks.model;
+
+import java.util.Date;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+import org.hibernate.validator.constraints.NotEmpty;
+import org.lunarray.model.descriptor.model.annotations.Key;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.descriptor.presentation.annotations.PresentationHint;
+
+/**
+ * A synthetic entity with a property of every common column type.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public class BenchEntity {
+
+	/** A boolean. */
+	private boolean active;
+	/** An integer. */
+	@Min(0)
+	@Max(1000000)
+	private Integer count;
+	/** A date. */
+	@PresentationHint(render = RenderType.DATE_PICKER)
+	private Date date;
+	/** The id. */
+	@Key
+	private String id;
+	/** A text. */
+	@NotEmpty
+	private String name;
+	/** A double. */
+	private double ratio;
+	/** A relation. */
+	@PresentationHint(render = RenderType.DROPDOWN)
+	private BenchRelated related;
+	/** A long. */
+	private long total;
+
+	/**
+	 * Default constructor.
+	 */
+	public BenchEntity() {
+		// Default constructor.
+	}
+
+	/**
+	 * Gets the value for the count field.
+	 * 
+	 * @return The value for the count field.
+	 */
+	public Integer getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Gets the value for the date field.
+	 * 
+	 * @return The value for the date field.
+	 */
+	public Date getDate() {
+		return this.date;
+	}
+
+	/**
+	 * Gets the value for the id field.
+	 * 
+	 * @return The value for the id field.
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Gets the value for the name field.
+	 * 
+	 * @return The value for the name field.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets the value for the ratio field.
+	 * 
+	 * @return The value for the ratio field.
+	 */
+	public double getRatio() {
+		return this.ratio;
+	}
+
+	/**
+	 * Gets the value for the related field.
+	 * 
+	 * @return The value for the related field.
+	 */
+	public BenchRelated getRelated() {
+		return this.related;
+	}
+
+	/**
+	 * Gets the value for the total field.
+	 * 
+	 * @return The value for the total field.
+	 */
+	public long getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * Gets the value for the active field.
+	 * 
+	 * @return The value for the active field.
+	 */
+	public boolean isActive() {
+		return this.active;
+	}
+
+	/**
+	 * Sets a new value for the active field.
+	 * 
+	 * @param active
+	 *            The new value for the active field.
+	 */
+	public void setActive(final boolean active) {
+		this.active = active;
+	}
+
+	/**
+	 * Sets a new value for the count field.
+	 * 
+	 * @param count
+	 *            The new value for the count field.
+	 */
+	public void setCount(final Integer count) {
+		this.count = count;
+	}
+
+	/**
+	 * Sets a new value for the date field.
+	 * 
+	 * @param date
+	 *            The new value for the date field.
+	 */
+	public void setDate(final Date date) {
+		this.date = date;
+	}
+
+	/**
+	 * Sets a new value for the id field.
+	 * 
+	 * @param id
+	 *            The new value for the id field.
+	 */
+	public void setId(final String id) {
+		this.id = id;
+	}
+
+	/**
+	 * Sets a new value for the name field.
+	 * 
+	 * @param name
+	 *            The new value for the name field.
+	 */
+	public void setName(final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Sets a new value for the ratio field.
+	 * 
+	 * @param ratio
+	 *            The new value for the ratio field.
+	 */
+	public void setRatio(final double ratio) {
+		this.ratio = ratio;
+	}
+
+	/**
+	 * Sets a new value for the related field.
+	 * 
+	 * @param related
+	 *            The new value for the related field.
+	 */
+	public void setRelated(final BenchRelated related) {
+		this.related = related;
+	}
+
+	/**
+	 * Sets a new value for the total field.
+	 * 
+	 * @param total
+	 *            The new value for the total field.
+	 */
+	public void setTotal(final long total) {
+		this.total = total;
+	}
+}
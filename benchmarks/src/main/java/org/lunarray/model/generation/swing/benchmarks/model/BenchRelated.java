@@ -0,0 +1,96 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks.model;
+
+import org.lunarray.model.descriptor.model.annotations.Key;
+import org.lunarray.model.descriptor.presentation.annotations.PresentationHint;
+import org.lunarray.model.descriptor.util.BooleanInherit;
+
+/**
+ * A related entity, looked up through a dictionary.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public class BenchRelated {
+
+	/** The id. */
+	@Key
+	private String id;
+
+	/** The name. */
+	@PresentationHint(name = BooleanInherit.TRUE)
+	private String name;
+
+	/**
+	 * Default constructor.
+	 */
+	public BenchRelated() {
+		// Default constructor.
+	}
+
+	/**
+	 * Constructs the entity.
+	 * 
+	 * @param id
+	 *            The id.
+	 * @param name
+	 *            The name.
+	 */
+	public BenchRelated(final String id, final String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	/**
+	 * Gets the value for the id field.
+	 * 
+	 * @return The value for the id field.
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Gets the value for the name field.
+	 * 
+	 * @return The value for the name field.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Sets a new value for the id field.
+	 * 
+	 * @param id
+	 *            The new value for the id field.
+	 */
+	public void setId(final String id) {
+		this.id = id;
+	}
+
+	/**
+	 * Sets a new value for the name field.
+	 * 
+	 * @param name
+	 *            The new value for the name field.
+	 */
+	public void setName(final String name) {
+		this.name = name;
+	}
+}
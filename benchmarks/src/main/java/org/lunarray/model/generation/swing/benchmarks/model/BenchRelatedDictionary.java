@@ -0,0 +1,85 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.benchmarks.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.lunarray.model.descriptor.dictionary.composite.EntityDictionary;
+
+/**
+ * A dictionary of a configurable amount of related entities.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public class BenchRelatedDictionary
+		implements EntityDictionary<BenchRelated, String> {
+
+	/** The entities. */
+	private final List<BenchRelated> entities;
+	/** The entities, by id. */
+	private final Map<String, BenchRelated> index;
+
+	/**
+	 * Constructs the dictionary.
+	 * 
+	 * @param size
+	 *            The amount of entities.
+	 */
+	public BenchRelatedDictionary(final int size) {
+		this.entities = new ArrayList<BenchRelated>(size);
+		this.index = new HashMap<String, BenchRelated>();
+		for (int i = 0; i < size; i = i + 1) {
+			final BenchRelated entity = new BenchRelated("id" + i, "Related entity " + i);
+			this.entities.add(entity);
+			this.index.put(entity.getId(), entity);
+		}
+	}
+
+	/**
+	 * Gets an entity by index.
+	 * 
+	 * @param index
+	 *            The index.
+	 * @return The entity.
+	 */
+	public BenchRelated get(final int index) {
+		return this.entities.get(index % this.entities.size());
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getEntityName() {
+		return "BenchRelated";
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Collection<BenchRelated> lookup() {
+		return this.entities;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public BenchRelated lookup(final String identifier) {
+		return this.index.get(identifier);
+	}
+}
@@ -0,0 +1,175 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.generator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.RenderPlan;
+import org.lunarray.model.generation.swing.render.RenderPlanComposer;
+import org.lunarray.model.generation.swing.render.generator.GeneratedRenderPlan;
+
+/**
+ * Generates the source of {@link GeneratedRenderPlan} subclasses.
+ * <p>
+ * The generator is meant to run during the build, for example from the exec
+ * plugin, with the same model as the application, and is not needed at
+ * runtime. The generated classes are compiled with the application and
+ * installed at startup, after which forms and tables of the entities are
+ * rendered without composing. Plans of entities with operations are only used
+ * for tables, forms of those entities are composed as usual.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public enum RenderPlanGenerator {
+
+	/** The instance. */
+	INSTANCE;
+
+	/**
+	 * Generates the source of a plan.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @param entityKey
+	 *            The entity key. May not be null.
+	 * @param locale
+	 *            The locale. May be null.
+	 * @param packageName
+	 *            The package of the generated class. May be null for the
+	 *            default package.
+	 * @param className
+	 *            The simple name of the generated class. May not be null.
+	 * @return The source.
+	 * @param <S>
+	 *            The model super type.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S, E extends S> String generate(final Model<S> model, final String entityKey, final Locale locale,
+			final String packageName, final String className) {
+		Validate.notNull(model, "Model may not be null.");
+		Validate.notNull(entityKey, "Entity key may not be null.");
+		Validate.notNull(className, "Class name may not be null.");
+		final EntityDescriptor<E> entity = (EntityDescriptor<E>) model.getEntity(entityKey);
+		Validate.notNull(entity, String.format("No entity descriptor for key '%s' found.", entityKey));
+		final RenderPlanComposer<S, E> composer = new RenderPlanComposer<S, E>(model, entity, locale, null);
+		RenderPlan<E> plan = composer.getRenderPlan(true);
+		RenderPlanSourceWriter<E> writer = new RenderPlanSourceWriter<E>(model);
+		plan.replay(new RenderContext<E>(model), writer);
+		final boolean forms = !writer.hasOperations();
+		if (!forms) {
+			plan = composer.getRenderPlan(false);
+			writer = new RenderPlanSourceWriter<E>(model);
+			plan.replay(new RenderContext<E>(model), writer);
+		}
+		final StringBuilder source = new StringBuilder();
+		if (!CheckUtil.isNull(packageName)) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("import java.util.Locale;\n\n");
+		source.append("import org.lunarray.model.descriptor.presentation.RenderType;\n");
+		source.append("import org.lunarray.model.generation.swing.render.generator.GeneratedRenderPlan;\n\n");
+		source.append("/**\n * The generated render plan of ").append(entityKey).append(".\n */\n");
+		source.append("public final class ").append(className).append("\n\t\textends GeneratedRenderPlan {\n\n");
+		source.append("\t/**\n\t * Default constructor.\n\t */\n");
+		source.append("\tpublic ").append(className).append("() {\n\t\tsuper(").append(RenderPlanSourceWriter.literal(entityKey))
+				.append(", ").append(RenderPlanGenerator.localeLiteral(locale)).append(", ")
+				.append(RenderPlanSourceWriter.literal(plan.getLabel())).append(", ").append(forms).append(", ")
+				.append(RenderPlanSourceWriter.fingerprintLiteral(entity)).append(");\n\t}\n\n");
+		source.append("\t/** {@inheritDoc} */\n\t@Override\n");
+		source.append("\tprotected void record(final Recorder recorder) {\n");
+		source.append(writer.getStatements());
+		source.append("\t}\n}\n");
+		return source.toString();
+	}
+
+	/**
+	 * Generates the source of a plan into a source directory.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @param entityKey
+	 *            The entity key. May not be null.
+	 * @param locale
+	 *            The locale. May be null.
+	 * @param packageName
+	 *            The package of the generated class. May be null for the
+	 *            default package.
+	 * @param className
+	 *            The simple name of the generated class. May not be null.
+	 * @param directory
+	 *            The source directory. May not be null.
+	 * @return The written file.
+	 * @throws IOException
+	 *             Thrown if the file could not be written.
+	 * @param <S>
+	 *            The model super type.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	public static <S, E extends S> File write(final Model<S> model, final String entityKey, final Locale locale,
+			final String packageName, final String className, final File directory) throws IOException {
+		Validate.notNull(directory, "Directory may not be null.");
+		final String source = RenderPlanGenerator.<S, E> generate(model, entityKey, locale, packageName, className);
+		File packageDirectory = directory;
+		if (!CheckUtil.isNull(packageName)) {
+			packageDirectory = new File(directory, packageName.replace('.', File.separatorChar));
+		}
+		if (!packageDirectory.isDirectory() && !packageDirectory.mkdirs()) {
+			throw new IOException(String.format("Could not create directory '%s'.", packageDirectory));
+		}
+		final File file = new File(packageDirectory, className + ".java");
+		final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			writer.write(source);
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+
+	/**
+	 * Writes a locale expression.
+	 * 
+	 * @param locale
+	 *            The locale. May be null.
+	 * @return The expression.
+	 */
+	private static String localeLiteral(final Locale locale) {
+		final String result;
+		if (CheckUtil.isNull(locale)) {
+			result = "null";
+		} else {
+			result = String.format("new Locale(%s, %s, %s)", RenderPlanSourceWriter.literal(locale.getLanguage()),
+					RenderPlanSourceWriter.literal(locale.getCountry()), RenderPlanSourceWriter.literal(locale.getVariant()));
+		}
+		return result;
+	}
+}
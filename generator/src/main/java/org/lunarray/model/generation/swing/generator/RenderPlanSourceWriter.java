@@ -0,0 +1,248 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.CollectionParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.ParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.CollectionResultDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.ResultDescriptor;
+import org.lunarray.model.descriptor.model.property.CollectionPropertyDescriptor;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.generator.GeneratedRenderPlan;
+import org.lunarray.model.generation.util.RenderFactory;
+
+/**
+ * Writes the recorder statements of a generated render plan. Operations are
+ * not written, only noted.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <E>
+ *            The entity type.
+ */
+final class RenderPlanSourceWriter<E>
+		implements RenderFactory<RenderContext<E>, E> {
+
+	/** The indentation of statements. */
+	private static final String INDENT = "\t\t";
+	/** The model. */
+	private final Model<?> model;
+	/** Whether operations were rendered. */
+	private boolean operations;
+	/** The prefixes of the last written statement. */
+	private final List<PropertyDescriptor<?, ?>> prefixes;
+	/** The statements. */
+	private final StringBuilder statements;
+
+	/**
+	 * Constructs the writer.
+	 * 
+	 * @param model
+	 *            The model.
+	 */
+	RenderPlanSourceWriter(final Model<?> model) {
+		this.model = model;
+		this.prefixes = new ArrayList<PropertyDescriptor<?, ?>>();
+		this.statements = new StringBuilder();
+	}
+
+	/**
+	 * Writes the fingerprint literal of an entity.
+	 * 
+	 * @param entity
+	 *            The entity.
+	 * @return The literal.
+	 */
+	static String fingerprintLiteral(final EntityDescriptor<?> entity) {
+		return String.format("0x%016xL", Long.valueOf(GeneratedRenderPlan.fingerprint(entity)));
+	}
+
+	/**
+	 * Writes a string literal.
+	 * 
+	 * @param value
+	 *            The value. May be null.
+	 * @return The literal.
+	 */
+	static String literal(final String value) {
+		final StringBuilder builder = new StringBuilder();
+		if (CheckUtil.isNull(value)) {
+			builder.append("null");
+		} else {
+			builder.append('"');
+			for (final char c : value.toCharArray()) {
+				if ((c == '"') || (c == '\\')) {
+					builder.append('\\').append(c);
+				} else if ((c < ' ') || (c > '~')) {
+					builder.append(String.format("\\u%04x", Integer.valueOf(c)));
+				} else {
+					builder.append(c);
+				}
+			}
+			builder.append('"');
+		}
+		return builder.toString();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void beginOperation(final RenderContext<E> context, final OperationDescriptor<E> descriptor) {
+		this.operations = true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void endOperation(final RenderContext<E> context, final OperationDescriptor<E> descriptor) {
+		this.operations = true;
+	}
+
+	/**
+	 * Gets the statements, closing all embedded entities.
+	 * 
+	 * @return The statements.
+	 */
+	public String getStatements() {
+		this.writePrefixes(new ArrayList<PropertyDescriptor<?, ?>>());
+		return this.statements.toString();
+	}
+
+	/**
+	 * Gets the value for the operations field.
+	 * 
+	 * @return The value for the operations field.
+	 */
+	public boolean hasOperations() {
+		return this.operations;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, P extends Collection<D>> void renderCollectionParameter(final RenderContext<E> context,
+			final OperationDescriptor<E> operation, final CollectionParameterDescriptor<D, P> descriptor, final RenderType renderType) {
+		this.operations = true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, P extends Collection<D>> void renderCollectionProperty(final RenderContext<E> context,
+			final CollectionPropertyDescriptor<D, P, E> descriptor, final RenderType renderType) {
+		this.writeProperty(context, "collection", descriptor, renderType);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, R extends Collection<D>> void renderCollectionResultType(final RenderContext<E> context,
+			final OperationDescriptor<E> operation, final CollectionResultDescriptor<D, R> resultDescriptor, final RenderType renderType) {
+		this.operations = true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <P> void renderParameter(final RenderContext<E> context, final ParameterDescriptor<P> descriptor,
+			final OperationDescriptor<E> operation, final RenderType renderType) {
+		this.operations = true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <P> void renderProperty(final RenderContext<E> context, final PropertyDescriptor<P, E> descriptor, final RenderType renderType) {
+		this.writeProperty(context, "property", descriptor, renderType);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <R> void renderResultType(final RenderContext<E> context, final OperationDescriptor<E> operation,
+			final ResultDescriptor<R> resultDescriptor, final RenderType renderType) {
+		this.operations = true;
+	}
+
+	/**
+	 * Writes a class literal.
+	 * 
+	 * @param type
+	 *            The type.
+	 * @return The literal.
+	 */
+	private String classLiteral(final Class<?> type) {
+		Validate.notNull(type.getCanonicalName(), String.format("Type '%s' has no canonical name.", type));
+		return type.getCanonicalName() + ".class";
+	}
+
+	/**
+	 * Writes the changes to the prefixes.
+	 * 
+	 * @param current
+	 *            The prefixes of the next statement.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void writePrefixes(final List<PropertyDescriptor<?, ?>> current) {
+		int common = 0;
+		while ((common < this.prefixes.size()) && (common < current.size())
+				&& (this.prefixes.get(common).equals(current.get(common)))) {
+			common = common + 1;
+		}
+		while (this.prefixes.size() > common) {
+			this.prefixes.remove(this.prefixes.size() - 1);
+			this.statements.append(RenderPlanSourceWriter.INDENT).append("recorder.popPrefix();\n");
+		}
+		for (final PropertyDescriptor<?, ?> prefix : current.subList(common, current.size())) {
+			final EntityDescriptor<?> embedded = ((Model) this.model).getEntity(prefix.getPropertyType());
+			Validate.notNull(embedded, String.format("No entity descriptor for type '%s' found.", prefix.getPropertyType()));
+			this.prefixes.add(prefix);
+			this.statements.append(RenderPlanSourceWriter.INDENT).append("recorder.pushPrefix(")
+					.append(RenderPlanSourceWriter.literal(prefix.getName())).append(", ").append(this.classLiteral(prefix.getPropertyType()))
+					.append(", ").append(RenderPlanSourceWriter.fingerprintLiteral(embedded)).append(");\n");
+		}
+	}
+
+	/**
+	 * Writes a property statement.
+	 * 
+	 * @param context
+	 *            The context.
+	 * @param method
+	 *            The recorder method.
+	 * @param descriptor
+	 *            The property.
+	 * @param renderType
+	 *            The render type.
+	 */
+	private void writeProperty(final RenderContext<E> context, final String method, final PropertyDescriptor<?, ?> descriptor,
+			final RenderType renderType) {
+		this.writePrefixes(context.getPrefixes());
+		this.statements.append(RenderPlanSourceWriter.INDENT).append("recorder.").append(method).append('(')
+				.append(RenderPlanSourceWriter.literal(descriptor.getName())).append(", ")
+				.append(this.classLiteral(descriptor.getPropertyType())).append(", ");
+		if (CheckUtil.isNull(renderType)) {
+			this.statements.append("null");
+		} else {
+			this.statements.append("RenderType.").append(renderType.name());
+		}
+		this.statements.append(");\n");
+	}
+}
@@ -0,0 +1,246 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.generator;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.lunarray.model.descriptor.builder.annotation.presentation.builder.PresQualBuilder;
+import org.lunarray.model.descriptor.converter.ConverterTool;
+import org.lunarray.model.descriptor.converter.def.DefaultConverterTool;
+import org.lunarray.model.descriptor.dictionary.enumeration.EnumDictionary;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.CollectionParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.ParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.CollectionResultDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.ResultDescriptor;
+import org.lunarray.model.descriptor.model.property.CollectionPropertyDescriptor;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.descriptor.resource.simpleresource.SimpleClazzResource;
+import org.lunarray.model.descriptor.validator.beanvalidation.BeanValidationValidator;
+import org.lunarray.model.generation.swing.generator.model.PlanAddress;
+import org.lunarray.model.generation.swing.generator.model.PlanEntity;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.RenderPlan;
+import org.lunarray.model.generation.swing.render.RenderPlanCache;
+import org.lunarray.model.generation.swing.render.RenderPlanComposer;
+import org.lunarray.model.generation.swing.render.generator.GeneratedRenderPlan;
+import org.lunarray.model.generation.util.RenderFactory;
+
+/**
+ * Tests the render plan generator.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see RenderPlanGenerator
+ */
+public class RenderPlanGeneratorTest {
+	/** The simple name of the generated class. */
+	private static final String CLASS_NAME = "PlanEntityRenderPlan";
+	/** The package of the generated class. */
+	private static final String PACKAGE_NAME = "org.lunarray.model.generation.swing.generator.plans";
+	/** The entity. */
+	private EntityDescriptor<PlanEntity> entity;
+	/** The temporary source and class directory. */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	/** The model. */
+	private Model<Object> model;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() throws Exception {
+		@SuppressWarnings("unchecked")
+		final SimpleClazzResource<Object> resource = new SimpleClazzResource<Object>(PlanEntity.class, PlanAddress.class);
+		final BeanValidationValidator validator = new BeanValidationValidator();
+		final EnumDictionary dictionary = new EnumDictionary(null);
+		final ConverterTool converter = new DefaultConverterTool();
+		this.model = PresQualBuilder.createBuilder().resources(resource).extensions(validator, dictionary, converter).build();
+		this.entity = this.model.getEntity(PlanEntity.class);
+	}
+
+	/**
+	 * Test a plan is not installed if the fingerprint of the entity changed.
+	 * 
+	 * @see GeneratedRenderPlan#install(Model)
+	 */
+	@Test
+	public void testInstallChangedModel() {
+		final RenderPlanCache cache = RenderPlanCache.getInstance(this.model);
+		cache.clear();
+		final GeneratedRenderPlan generated = new StalePlan(this.entity.getName(), GeneratedRenderPlan.fingerprint(this.entity) + 1);
+		Assert.assertFalse(generated.install(this.model));
+		Assert.assertEquals(0, cache.size());
+	}
+
+	/**
+	 * Test replaying an installed generated plan renders the same as a
+	 * composed plan.
+	 * 
+	 * @see RenderPlanGenerator#write(Model, String, Locale, String, String,
+	 *      File)
+	 * @see GeneratedRenderPlan#install(Model)
+	 */
+	@Test
+	public void testInstalledReplayEqualsCompose() throws Exception {
+		final File directory = this.folder.getRoot();
+		final File source = RenderPlanGenerator.<Object, PlanEntity> write(this.model, this.entity.getName(), Locale.ENGLISH,
+				RenderPlanGeneratorTest.PACKAGE_NAME, RenderPlanGeneratorTest.CLASS_NAME, directory);
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Assert.assertNotNull(compiler);
+		Assert.assertEquals(0, compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"), "-d",
+				directory.getPath(), source.getPath()));
+		final RenderPlanCache cache = RenderPlanCache.getInstance(this.model);
+		cache.clear();
+		final RenderPlan<PlanEntity> composedPlan = new RenderPlanComposer<Object, PlanEntity>(this.model, this.entity,
+				Locale.ENGLISH, null).getRenderPlan(false);
+		final RecordingFactory composed = new RecordingFactory();
+		composedPlan.replay(new RenderContext<PlanEntity>(this.model), composed);
+		cache.clear();
+		final URLClassLoader loader = new URLClassLoader(new URL[] { directory.toURI().toURL() },
+				RenderPlanGeneratorTest.class.getClassLoader());
+		final GeneratedRenderPlan generated = (GeneratedRenderPlan) loader.loadClass(
+				RenderPlanGeneratorTest.PACKAGE_NAME + "." + RenderPlanGeneratorTest.CLASS_NAME).newInstance();
+		Assert.assertEquals(GeneratedRenderPlan.fingerprint(this.entity), generated.getFingerprint());
+		Assert.assertTrue(generated.install(this.model));
+		final RenderPlan<PlanEntity> installedPlan = cache.getPlan(this.entity, null, Locale.ENGLISH, false);
+		Assert.assertNotNull(installedPlan);
+		Assert.assertNotSame(composedPlan, installedPlan);
+		Assert.assertEquals(composedPlan.getLabel(), installedPlan.getLabel());
+		final RecordingFactory replayed = new RecordingFactory();
+		installedPlan.replay(new RenderContext<PlanEntity>(this.model), replayed);
+		Assert.assertFalse(composed.calls.isEmpty());
+		Assert.assertTrue(composed.calls.toString().contains("address."));
+		Assert.assertEquals(composed.calls, replayed.calls);
+	}
+
+	/**
+	 * A factory that records the calls made to it, with the variable names
+	 * they resolve to.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class RecordingFactory
+			implements RenderFactory<RenderContext<PlanEntity>, PlanEntity> {
+		/** The calls. */
+		private final List<String> calls;
+
+		/** Default constructor. */
+		public RecordingFactory() {
+			this.calls = new ArrayList<String>();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void beginOperation(final RenderContext<PlanEntity> context, final OperationDescriptor<PlanEntity> descriptor) {
+			this.calls.add("begin " + context.getName(descriptor.getName()));
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void endOperation(final RenderContext<PlanEntity> context, final OperationDescriptor<PlanEntity> descriptor) {
+			this.calls.add("end " + context.getName(descriptor.getName()));
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <D, P extends Collection<D>> void renderCollectionParameter(final RenderContext<PlanEntity> context,
+				final OperationDescriptor<PlanEntity> operation, final CollectionParameterDescriptor<D, P> descriptor,
+				final RenderType renderType) {
+			this.calls.add("collection parameter " + operation.getName() + " " + descriptor.getIndex() + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <D, P extends Collection<D>> void renderCollectionProperty(final RenderContext<PlanEntity> context,
+				final CollectionPropertyDescriptor<D, P, PlanEntity> descriptor, final RenderType renderType) {
+			this.calls.add("collection property " + context.getName(descriptor.getName()) + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <D, R extends Collection<D>> void renderCollectionResultType(final RenderContext<PlanEntity> context,
+				final OperationDescriptor<PlanEntity> operation, final CollectionResultDescriptor<D, R> resultDescriptor,
+				final RenderType renderType) {
+			this.calls.add("collection result " + operation.getName() + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <P> void renderParameter(final RenderContext<PlanEntity> context, final ParameterDescriptor<P> descriptor,
+				final OperationDescriptor<PlanEntity> operation, final RenderType renderType) {
+			this.calls.add("parameter " + operation.getName() + " " + descriptor.getIndex() + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <P> void renderProperty(final RenderContext<PlanEntity> context, final PropertyDescriptor<P, PlanEntity> descriptor,
+				final RenderType renderType) {
+			this.calls.add("property " + context.getName(descriptor.getName()) + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <R> void renderResultType(final RenderContext<PlanEntity> context, final OperationDescriptor<PlanEntity> operation,
+				final ResultDescriptor<R> resultDescriptor, final RenderType renderType) {
+			this.calls.add("result " + operation.getName() + " " + renderType);
+		}
+	}
+
+	/**
+	 * A plan generated for an older version of the entity.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class StalePlan
+			extends GeneratedRenderPlan {
+
+		/**
+		 * Constructs the plan.
+		 * 
+		 * @param entityKey
+		 *            The entity key.
+		 * @param fingerprint
+		 *            The fingerprint.
+		 */
+		public StalePlan(final String entityKey, final long fingerprint) {
+			super(entityKey, Locale.ENGLISH, null, true, fingerprint);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected void record(final Recorder recorder) {
+			recorder.property("name", String.class, RenderType.TEXT_AREA);
+		}
+	}
+}
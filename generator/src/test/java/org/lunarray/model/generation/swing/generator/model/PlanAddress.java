@@ -0,0 +1,76 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.generator.model;
+
+/**
+ * An entity embedded in the plan entity.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public class PlanAddress {
+
+	/** The city. */
+	private String city;
+	/** The street. */
+	private String street;
+
+	/**
+	 * Default constructor.
+	 */
+	public PlanAddress() {
+		// Default constructor.
+	}
+
+	/**
+	 * Gets the value for the city field.
+	 * 
+	 * @return The value for the city field.
+	 */
+	public String getCity() {
+		return this.city;
+	}
+
+	/**
+	 * Gets the value for the street field.
+	 * 
+	 * @return The value for the street field.
+	 */
+	public String getStreet() {
+		return this.street;
+	}
+
+	/**
+	 * Sets a new value for the city field.
+	 * 
+	 * @param city
+	 *            The new value for the city field.
+	 */
+	public void setCity(final String city) {
+		this.city = city;
+	}
+
+	/**
+	 * Sets a new value for the street field.
+	 * 
+	 * @param street
+	 *            The new value for the street field.
+	 */
+	public void setStreet(final String street) {
+		this.street = street;
+	}
+}
@@ -0,0 +1,150 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.generator.model;
+
+import java.util.Date;
+
+import org.lunarray.model.descriptor.model.annotations.Embedded;
+import org.lunarray.model.descriptor.model.annotations.Key;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.descriptor.presentation.annotations.PresentationHint;
+
+/**
+ * An entity with an embedded entity, to generate a plan for.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public class PlanEntity {
+
+	/** A boolean. */
+	private boolean active;
+	/** An embedded entity. */
+	@Embedded
+	private PlanAddress address = new PlanAddress();
+	/** A date. */
+	@PresentationHint(render = RenderType.DATE_PICKER)
+	private Date date;
+	/** The id. */
+	@Key
+	private String id;
+	/** A text. */
+	@PresentationHint(render = RenderType.TEXT_AREA)
+	private String name;
+
+	/**
+	 * Default constructor.
+	 */
+	public PlanEntity() {
+		// Default constructor.
+	}
+
+	/**
+	 * Gets the value for the address field.
+	 * 
+	 * @return The value for the address field.
+	 */
+	public PlanAddress getAddress() {
+		return this.address;
+	}
+
+	/**
+	 * Gets the value for the date field.
+	 * 
+	 * @return The value for the date field.
+	 */
+	public Date getDate() {
+		return this.date;
+	}
+
+	/**
+	 * Gets the value for the id field.
+	 * 
+	 * @return The value for the id field.
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Gets the value for the name field.
+	 * 
+	 * @return The value for the name field.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets the value for the active field.
+	 * 
+	 * @return The value for the active field.
+	 */
+	public boolean isActive() {
+		return this.active;
+	}
+
+	/**
+	 * Sets a new value for the active field.
+	 * 
+	 * @param active
+	 *            The new value for the active field.
+	 */
+	public void setActive(final boolean active) {
+		this.active = active;
+	}
+
+	/**
+	 * Sets a new value for the address field.
+	 * 
+	 * @param address
+	 *            The new value for the address field.
+	 */
+	public void setAddress(final PlanAddress address) {
+		this.address = address;
+	}
+
+	/**
+	 * Sets a new value for the date field.
+	 * 
+	 * @param date
+	 *            The new value for the date field.
+	 */
+	public void setDate(final Date date) {
+		this.date = date;
+	}
+
+	/**
+	 * Sets a new value for the id field.
+	 * 
+	 * @param id
+	 *            The new value for the id field.
+	 */
+	public void setId(final String id) {
+		this.id = id;
+	}
+
+	/**
+	 * Sets a new value for the name field.
+	 * 
+	 * @param name
+	 *            The new value for the name field.
+	 */
+	public void setName(final String name) {
+		this.name = name;
+	}
+}
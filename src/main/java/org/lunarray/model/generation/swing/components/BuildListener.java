@@ -0,0 +1,46 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components;
+
+/**
+ * Listens for components built in the background.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <C>
+ *            The component type.
+ */
+public interface BuildListener<C> {
+
+	/**
+	 * Called on the event dispatch thread once the component is built.
+	 * 
+	 * @param component
+	 *            The component.
+	 */
+	void componentBuilt(C component);
+
+	/**
+	 * Called on the event dispatch thread if the component could not be
+	 * prepared or built. Either this or {@link #componentBuilt(Object)} is
+	 * called, once.
+	 * 
+	 * @param failure
+	 *            The failure.
+	 */
+	void componentFailed(Throwable failure);
+}
@@ -0,0 +1,50 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components;
+
+import java.util.List;
+
+/**
+ * Provides entities for a table on demand, allowing tables to browse more
+ * entities than fit in memory.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <E>
+ *            The entity type.
+ */
+public interface DataProvider<E> {
+
+	/**
+	 * Fetches a range of entities.
+	 * 
+	 * @param offset
+	 *            The index of the first entity.
+	 * @param limit
+	 *            The maximum amount of entities to fetch.
+	 * @return The entities, in order. Never null, may contain less than the
+	 *         limit at the end of the data.
+	 */
+	List<E> fetch(int offset, int limit);
+
+	/**
+	 * Gets the total amount of entities.
+	 * 
+	 * @return The amount of entities.
+	 */
+	int size();
+}
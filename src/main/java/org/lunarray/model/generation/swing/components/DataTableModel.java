@@ -19,17 +19,26 @@ package org.lunarray.model.generation.swing.components;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.TableModel;
 
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
 import org.lunarray.model.generation.swing.render.factories.table.GeneratedColumn;
 
 /**
  * The data table model.
+ * <p>
+ * Resolved cell values are kept in a bounded, direct mapped cache of rows. The
+ * cache is only accessed from the event dispatch thread and has to be
+ * invalidated whenever entity values change outside of the table.
+ * </p>
  * 
  * @author Pal Hargitai (pal@lunarray.org)
  * @param <E>
@@ -38,8 +47,24 @@ import org.lunarray.model.generation.swing.render.factories.table.GeneratedColum
 public final class DataTableModel<E>
 		implements TableModel, Serializable {
 
+	/** The default amount of rows in the cell cache. */
+	public static final int DEFAULT_CACHE_SIZE = 512;
 	/** The serial id. */
 	private static final long serialVersionUID = -193903937377182047L;
+	/** Marks a cell that has not been resolved. */
+	private static final Object UNCACHED = new Object();
+	/** Marks a cache slot that holds no row. */
+	private static final int UNUSED_SLOT = -1;
+	/** The amount of cache hits. */
+	private transient long cacheHits;
+	/** The amount of cache misses. */
+	private transient long cacheMisses;
+	/** The row index held by every cache slot. */
+	private transient int[] cacheRows;
+	/** The cache size, in rows. */
+	private int cacheSize;
+	/** The cell values held by every cache slot. */
+	private transient Object[][] cacheValues;
 	/** The columns. */
 	private List<GeneratedColumn<E, ?>> columns;
 	/** The entities. */
@@ -54,9 +79,23 @@ public final class DataTableModel<E>
 	 *            The entities.
 	 */
 	public DataTableModel(final List<E> entities) {
+		this(entities, DataTableModel.DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructs the model with a given cache size.
+	 * 
+	 * @param entities
+	 *            The entities.
+	 * @param cacheSize
+	 *            The amount of rows to cache. A size of 0 or less disables the
+	 *            cache.
+	 */
+	public DataTableModel(final List<E> entities, final int cacheSize) {
 		this.entities = entities;
 		this.listeners = new LinkedList<TableModelListener>();
 		this.columns = new ArrayList<GeneratedColumn<E, ?>>();
+		this.cacheSize = cacheSize;
 	}
 
 	/**
@@ -67,6 +106,7 @@ public final class DataTableModel<E>
 	 */
 	public void addColumn(final GeneratedColumn<E, ?> column) {
 		this.columns.add(column);
+		this.invalidateAll();
 	}
 
 	/** {@inheritDoc} */
@@ -75,6 +115,110 @@ public final class DataTableModel<E>
 		this.listeners.add(listener);
 	}
 
+	/**
+	 * Gets the amount of cell cache hits.
+	 * 
+	 * @return The amount of hits.
+	 */
+	public long getCacheHits() {
+		return this.cacheHits;
+	}
+
+	/**
+	 * Gets the amount of cell cache misses.
+	 * 
+	 * @return The amount of misses.
+	 */
+	public long getCacheMisses() {
+		return this.cacheMisses;
+	}
+
+	/**
+	 * Gets the value for the cacheSize field.
+	 * 
+	 * @return The value for the cacheSize field.
+	 */
+	public int getCacheSize() {
+		return this.cacheSize;
+	}
+
+	/**
+	 * Propagate entity insertion events. The entities in the given range have
+	 * been inserted in the list of entities.
+	 * 
+	 * @param fromIndex
+	 *            The first inserted row.
+	 * @param toIndex
+	 *            The last inserted row, inclusive.
+	 */
+	public void entitiesInserted(final int fromIndex, final int toIndex) {
+		this.invalidateFrom(fromIndex);
+		this.fireTableChanged(new TableModelEvent(this, fromIndex, toIndex, TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
+	}
+
+	/**
+	 * Propagate entity removal events. The entities in the given range have
+	 * been removed from the list of entities.
+	 * 
+	 * @param fromIndex
+	 *            The first removed row.
+	 * @param toIndex
+	 *            The last removed row, inclusive.
+	 */
+	public void entitiesRemoved(final int fromIndex, final int toIndex) {
+		this.invalidateFrom(fromIndex);
+		this.fireTableChanged(new TableModelEvent(this, fromIndex, toIndex, TableModelEvent.ALL_COLUMNS, TableModelEvent.DELETE));
+	}
+
+	/**
+	 * Propagate entity update events. The entities in the given range have
+	 * changed values.
+	 * 
+	 * @param fromIndex
+	 *            The first updated row.
+	 * @param toIndex
+	 *            The last updated row, inclusive.
+	 */
+	public void entitiesUpdated(final int fromIndex, final int toIndex) {
+		if (!CheckUtil.isNull(this.cacheRows)) {
+			if ((toIndex - fromIndex) < this.cacheRows.length) {
+				for (int row = fromIndex; row <= toIndex; row = row + 1) {
+					this.invalidateRow(row);
+				}
+			} else {
+				this.invalidateAll();
+			}
+		}
+		this.fireTableChanged(new TableModelEvent(this, fromIndex, toIndex, TableModelEvent.ALL_COLUMNS, TableModelEvent.UPDATE));
+	}
+
+	/**
+	 * Propagate an update event for a single entity. Every row showing the
+	 * entity is updated. For a {@link PagedEntityList} only the loaded pages
+	 * are searched, and cached cells of rows outside of them are dropped.
+	 * 
+	 * @param entity
+	 *            The updated entity. May not be null.
+	 */
+	public void entityUpdated(final E entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		if (this.entities instanceof PagedEntityList) {
+			final PagedEntityList<E> paged = (PagedEntityList<E>) this.entities;
+			for (final Integer row : paged.indexesOfLoaded(entity)) {
+				this.entitiesUpdated(row.intValue(), row.intValue());
+			}
+			this.invalidateUnloaded(paged);
+		} else {
+			final ListIterator<E> entityIt = this.entities.listIterator();
+			while (entityIt.hasNext()) {
+				final int row = entityIt.nextIndex();
+				if (entity.equals(entityIt.next())) {
+					this.entitiesUpdated(row, row);
+				}
+			}
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public Class<?> getColumnClass(final int columnIndex) {
@@ -129,7 +273,62 @@ public final class DataTableModel<E>
 	/** {@inheritDoc} */
 	@Override
 	public Object getValueAt(final int rowIndex, final int columnIndex) {
-		return this.columns.get(columnIndex).getValue(this.entities.get(rowIndex));
+		Object result;
+		if (this.cacheSize > 0) {
+			final Object[] row = this.cachedRow(rowIndex);
+			result = row[columnIndex];
+			if (result == DataTableModel.UNCACHED) {
+				this.cacheMisses = this.cacheMisses + 1;
+				result = this.resolveValue(rowIndex, columnIndex);
+				row[columnIndex] = result;
+			} else {
+				this.cacheHits = this.cacheHits + 1;
+			}
+		} else {
+			result = this.resolveValue(rowIndex, columnIndex);
+		}
+		return result;
+	}
+
+	/**
+	 * Invalidates all cached cells.
+	 */
+	public void invalidateAll() {
+		if (!CheckUtil.isNull(this.cacheRows)) {
+			Arrays.fill(this.cacheRows, DataTableModel.UNUSED_SLOT);
+		}
+	}
+
+	/**
+	 * Invalidates the cached cells of a column.
+	 * 
+	 * @param columnIndex
+	 *            The column index.
+	 */
+	public void invalidateColumn(final int columnIndex) {
+		if (!CheckUtil.isNull(this.cacheRows)) {
+			for (int slot = 0; slot < this.cacheRows.length; slot = slot + 1) {
+				final Object[] row = this.cacheValues[slot];
+				if ((this.cacheRows[slot] != DataTableModel.UNUSED_SLOT) && (columnIndex < row.length)) {
+					row[columnIndex] = DataTableModel.UNCACHED;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Invalidates the cached cells of a row.
+	 * 
+	 * @param rowIndex
+	 *            The row index.
+	 */
+	public void invalidateRow(final int rowIndex) {
+		if (!CheckUtil.isNull(this.cacheRows)) {
+			final int slot = rowIndex & (this.cacheRows.length - 1);
+			if (this.cacheRows[slot] == rowIndex) {
+				this.cacheRows[slot] = DataTableModel.UNUSED_SLOT;
+			}
+		}
 	}
 
 	/** {@inheritDoc} */
@@ -144,6 +343,27 @@ public final class DataTableModel<E>
 		this.listeners.remove(listener);
 	}
 
+	/**
+	 * Resets the cache hit and miss counters.
+	 */
+	public void resetCacheStatistics() {
+		this.cacheHits = 0;
+		this.cacheMisses = 0;
+	}
+
+	/**
+	 * Sets a new value for the cacheSize field. This drops all cached cells.
+	 * 
+	 * @param cacheSize
+	 *            The new value for the cacheSize field. A size of 0 or less
+	 *            disables the cache.
+	 */
+	public void setCacheSize(final int cacheSize) {
+		this.cacheSize = cacheSize;
+		this.cacheRows = null;
+		this.cacheValues = null;
+	}
+
 	/**
 	 * Sets a new value for the columns field.
 	 * 
@@ -152,6 +372,7 @@ public final class DataTableModel<E>
 	 */
 	public void setColumns(final List<GeneratedColumn<E, ?>> columns) {
 		this.columns = columns;
+		this.invalidateAll();
 	}
 
 	/**
@@ -162,6 +383,7 @@ public final class DataTableModel<E>
 	 */
 	public void setEntities(final List<E> entities) {
 		this.entities = entities;
+		this.invalidateAll();
 	}
 
 	/**
@@ -181,12 +403,102 @@ public final class DataTableModel<E>
 	}
 
 	/**
-	 * Propagate entity update events.
+	 * Propagate entity update events. All rows may have changed, including
+	 * the amount of rows.
 	 */
 	public void updatedEntities() {
-		final TableModelEvent event = new TableModelEvent(this, 0, this.entities.size(), TableModelEvent.ALL_COLUMNS);
+		this.invalidateAll();
+		this.fireTableChanged(new TableModelEvent(this));
+	}
+
+	/**
+	 * Gets the cache row for a given row index, claiming its slot if needed.
+	 * 
+	 * @param rowIndex
+	 *            The row index.
+	 * @return The cached row values.
+	 */
+	private Object[] cachedRow(final int rowIndex) {
+		if (CheckUtil.isNull(this.cacheRows)) {
+			int slots = 1;
+			while (slots < this.cacheSize) {
+				slots = slots << 1;
+			}
+			this.cacheRows = new int[slots];
+			this.cacheValues = new Object[slots][];
+			Arrays.fill(this.cacheRows, DataTableModel.UNUSED_SLOT);
+		}
+		final int slot = rowIndex & (this.cacheRows.length - 1);
+		final int columnCount = this.columns.size();
+		Object[] row = this.cacheValues[slot];
+		if (CheckUtil.isNull(row) || (row.length != columnCount)) {
+			row = new Object[columnCount];
+			this.cacheValues[slot] = row;
+			this.cacheRows[slot] = DataTableModel.UNUSED_SLOT;
+		}
+		if (this.cacheRows[slot] != rowIndex) {
+			Arrays.fill(row, DataTableModel.UNCACHED);
+			this.cacheRows[slot] = rowIndex;
+		}
+		return row;
+	}
+
+	/**
+	 * Notifies all listeners.
+	 * 
+	 * @param event
+	 *            The event.
+	 */
+	private void fireTableChanged(final TableModelEvent event) {
 		for (final TableModelListener listener : this.listeners) {
 			listener.tableChanged(event);
 		}
 	}
+
+	/**
+	 * Invalidates all cached rows from a given row onwards.
+	 * 
+	 * @param fromIndex
+	 *            The first row to invalidate.
+	 */
+	private void invalidateFrom(final int fromIndex) {
+		if (!CheckUtil.isNull(this.cacheRows)) {
+			for (int slot = 0; slot < this.cacheRows.length; slot = slot + 1) {
+				if (this.cacheRows[slot] >= fromIndex) {
+					this.cacheRows[slot] = DataTableModel.UNUSED_SLOT;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Invalidates the cached rows whose page is not loaded, as these may show
+	 * an updated entity.
+	 * 
+	 * @param paged
+	 *            The paged entities.
+	 */
+	private void invalidateUnloaded(final PagedEntityList<E> paged) {
+		if (!CheckUtil.isNull(this.cacheRows)) {
+			for (int slot = 0; slot < this.cacheRows.length; slot = slot + 1) {
+				final int row = this.cacheRows[slot];
+				if ((row != DataTableModel.UNUSED_SLOT) && !paged.isLoaded(row)) {
+					this.cacheRows[slot] = DataTableModel.UNUSED_SLOT;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resolves a cell value from its column.
+	 * 
+	 * @param rowIndex
+	 *            The row index.
+	 * @param columnIndex
+	 *            The column index.
+	 * @return The value.
+	 */
+	private Object resolveValue(final int rowIndex, final int columnIndex) {
+		return this.columns.get(columnIndex).getValue(this.entities.get(rowIndex));
+	}
 }
@@ -0,0 +1,684 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.render.factories.table.GeneratedColumn;
+import org.lunarray.model.generation.swing.util.DaemonThreadFactory;
+import org.lunarray.model.generation.swing.util.ParallelMergeSort;
+import org.lunarray.model.generation.swing.util.ParallelMergeSort.IndexComparator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sorts and filters a table in the background.
+ * <p>
+ * Rows are compared on the sort values of the columns, rather than on the
+ * rendered values. The sort runs on a worker pool, and the new row order is
+ * applied on the event dispatch thread in one step. A new sort cancels any
+ * sort that is still running. Inserted and deleted rows are mapped right away,
+ * so that the view stays consistent until the new order is applied.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <E>
+ *            The entity type.
+ */
+public final class EntityRowSorter<E>
+		extends RowSorter<DataTableModel<E>> {
+
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(EntityRowSorter.class);
+	/** The maximum amount of sort keys. */
+	private static final int MAX_SORT_KEYS = 3;
+	/** The amount of runs to sort in parallel. */
+	private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+	/** Runs the sorts. */
+	private static final ExecutorService SORTERS = Executors.newCachedThreadPool(new DaemonThreadFactory("table-sort"));
+	/** Sorts and merges runs of large sorts. */
+	private static final ExecutorService WORKERS = Executors.newFixedThreadPool(EntityRowSorter.PARALLELISM, new DaemonThreadFactory(
+			"table-sort-worker"));
+	/** The amount of applied sorts. */
+	private long appliedSorts;
+	/** The amount of cancelled sorts. */
+	private long cancelledSorts;
+	/** The filter. */
+	private EntityFilter<? super E> filter;
+	/** The sort generation. */
+	private long generation;
+	/** The locale. */
+	private final Locale locale;
+	/** The model. */
+	private final DataTableModel<E> model;
+	/** The model to view mapping, null if not sorted or filtered. */
+	private int[] modelToView;
+	/** The running sort. */
+	private Future<?> pending;
+	/** The sort keys. */
+	private List<SortKey> sortKeys;
+	/** The view to model mapping, null if not sorted or filtered. */
+	private int[] viewToModel;
+
+	/**
+	 * Constructs the sorter.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @param locale
+	 *            The locale to compare text with. May be null.
+	 */
+	public EntityRowSorter(final DataTableModel<E> model, final Locale locale) {
+		Validate.notNull(model, "Model may not be null.");
+		this.model = model;
+		if (CheckUtil.isNull(locale)) {
+			this.locale = Locale.getDefault();
+		} else {
+			this.locale = locale;
+		}
+		this.sortKeys = Collections.emptyList();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void allRowsChanged() {
+		this.viewToModel = null;
+		this.modelToView = null;
+		this.resort();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int convertRowIndexToModel(final int index) {
+		int result = index;
+		if (CheckUtil.isNull(this.viewToModel)) {
+			this.checkIndex(index, this.model.getRowCount());
+		} else {
+			this.checkIndex(index, this.viewToModel.length);
+			result = this.viewToModel[index];
+		}
+		return result;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int convertRowIndexToView(final int index) {
+		int result = index;
+		if (CheckUtil.isNull(this.modelToView)) {
+			this.checkIndex(index, this.model.getRowCount());
+		} else {
+			this.checkIndex(index, this.modelToView.length);
+			result = this.modelToView[index];
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the amount of sorts that were applied.
+	 * 
+	 * @return The amount of sorts.
+	 */
+	public long getAppliedSorts() {
+		return this.appliedSorts;
+	}
+
+	/**
+	 * Gets the amount of sorts that were cancelled by a newer sort.
+	 * 
+	 * @return The amount of sorts.
+	 */
+	public long getCancelledSorts() {
+		return this.cancelledSorts;
+	}
+
+	/**
+	 * Gets the value for the filter field.
+	 * 
+	 * @return The value for the filter field.
+	 */
+	public EntityFilter<? super E> getFilter() {
+		return this.filter;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public DataTableModel<E> getModel() {
+		return this.model;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int getModelRowCount() {
+		return this.model.getRowCount();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public List<? extends SortKey> getSortKeys() {
+		return this.sortKeys;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int getViewRowCount() {
+		int result;
+		if (CheckUtil.isNull(this.viewToModel)) {
+			result = this.model.getRowCount();
+		} else {
+			result = this.viewToModel.length;
+		}
+		return result;
+	}
+
+	/**
+	 * Tests if a sort is running.
+	 * 
+	 * @return True if and only if a sort is running.
+	 */
+	public boolean isSorting() {
+		return !CheckUtil.isNull(this.pending);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void modelStructureChanged() {
+		this.allRowsChanged();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void rowsDeleted(final int firstRow, final int endRow) {
+		if (!CheckUtil.isNull(this.viewToModel)) {
+			final int count = (endRow - firstRow) + 1;
+			final int[] remaining = new int[this.viewToModel.length];
+			int size = 0;
+			for (final int modelIndex : this.viewToModel) {
+				if (modelIndex < firstRow) {
+					remaining[size] = modelIndex;
+					size = size + 1;
+				} else if (modelIndex > endRow) {
+					remaining[size] = modelIndex - count;
+					size = size + 1;
+				}
+			}
+			this.updateMapping(Arrays.copyOf(remaining, size));
+		}
+		this.resortIfNeeded();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void rowsInserted(final int firstRow, final int endRow) {
+		if (!CheckUtil.isNull(this.viewToModel)) {
+			final int count = (endRow - firstRow) + 1;
+			final int[] mapping = new int[this.viewToModel.length + count];
+			int size = 0;
+			for (final int modelIndex : this.viewToModel) {
+				if (modelIndex < firstRow) {
+					mapping[size] = modelIndex;
+				} else {
+					mapping[size] = modelIndex + count;
+				}
+				size = size + 1;
+			}
+			final List<E> entities = this.model.getEntities();
+			for (int i = firstRow; i <= endRow; i = i + 1) {
+				if (CheckUtil.isNull(this.filter) || this.filter.include(entities.get(i))) {
+					mapping[size] = i;
+					size = size + 1;
+				}
+			}
+			this.updateMapping(Arrays.copyOf(mapping, size));
+		}
+		this.resortIfNeeded();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void rowsUpdated(final int firstRow, final int endRow) {
+		if (this.isSorted() || !CheckUtil.isNull(this.filter)) {
+			this.resort();
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void rowsUpdated(final int firstRow, final int endRow, final int column) {
+		this.rowsUpdated(firstRow, endRow);
+	}
+
+	/**
+	 * Sets a new value for the filter field, and filters the rows again.
+	 * 
+	 * @param filter
+	 *            The new value for the filter field. May be null to show all
+	 *            rows.
+	 */
+	public void setFilter(final EntityFilter<? super E> filter) {
+		this.filter = filter;
+		this.resort();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setSortKeys(final List<? extends SortKey> keys) {
+		final List<SortKey> newKeys = new ArrayList<SortKey>();
+		if (!CheckUtil.isNull(keys)) {
+			for (final SortKey key : keys) {
+				Validate.notNull(key, "Sort key may not be null.");
+				Validate.isTrue((key.getColumn() >= 0) && (key.getColumn() < this.model.getColumnCount()),
+						String.format("Invalid sort column %s.", key.getColumn()));
+				newKeys.add(key);
+			}
+		}
+		if (!newKeys.equals(this.sortKeys)) {
+			this.sortKeys = Collections.unmodifiableList(newKeys);
+			this.fireSortOrderChanged();
+			this.resort();
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void toggleSortOrder(final int column) {
+		final List<SortKey> keys = new ArrayList<SortKey>(this.sortKeys);
+		SortOrder order = SortOrder.ASCENDING;
+		if (!keys.isEmpty() && (keys.get(0).getColumn() == column) && (keys.get(0).getSortOrder() == SortOrder.ASCENDING)) {
+			order = SortOrder.DESCENDING;
+		}
+		for (int i = keys.size() - 1; i >= 0; i = i - 1) {
+			if (keys.get(i).getColumn() == column) {
+				keys.remove(i);
+			}
+		}
+		keys.add(0, new SortKey(column, order));
+		if (keys.size() > EntityRowSorter.MAX_SORT_KEYS) {
+			keys.subList(EntityRowSorter.MAX_SORT_KEYS, keys.size()).clear();
+		}
+		this.setSortKeys(keys);
+	}
+
+	/**
+	 * Forgets a failed sort, if no newer sort was requested.
+	 * 
+	 * @param sortGeneration
+	 *            The generation of the sort.
+	 */
+	private void abandonSort(final long sortGeneration) {
+		if (sortGeneration == this.generation) {
+			this.pending = null;
+		}
+	}
+
+	/**
+	 * Applies the result of a sort, if no newer sort was requested.
+	 * 
+	 * @param sortGeneration
+	 *            The generation of the sort.
+	 * @param rowCount
+	 *            The row count the sort was done for.
+	 * @param mapping
+	 *            The view to model mapping.
+	 */
+	private void applySort(final long sortGeneration, final int rowCount, final int[] mapping) {
+		if ((sortGeneration == this.generation) && (rowCount == this.model.getRowCount())) {
+			this.pending = null;
+			this.appliedSorts = this.appliedSorts + 1;
+			final int[] previous = this.viewToModel;
+			this.updateMapping(mapping);
+			this.fireRowSorterChanged(previous);
+		}
+	}
+
+	/**
+	 * Checks an index.
+	 * 
+	 * @param index
+	 *            The index.
+	 * @param size
+	 *            The size.
+	 */
+	private void checkIndex(final int index, final int size) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException(String.format("Invalid index %s for %s rows.", index, size));
+		}
+	}
+
+	/**
+	 * Tests if any sort key sorts.
+	 * 
+	 * @return True if and only if the rows are sorted.
+	 */
+	private boolean isSorted() {
+		boolean result = false;
+		for (final SortKey key : this.sortKeys) {
+			result = result || (key.getSortOrder() != SortOrder.UNSORTED);
+		}
+		return result;
+	}
+
+	/**
+	 * Cancels the running sort and starts a new one, or shows the rows in
+	 * model order if they need not be sorted or filtered.
+	 */
+	private void resort() {
+		this.generation = this.generation + 1;
+		if (!CheckUtil.isNull(this.pending)) {
+			this.pending.cancel(true);
+			this.cancelledSorts = this.cancelledSorts + 1;
+			this.pending = null;
+		}
+		if (this.isSorted() || !CheckUtil.isNull(this.filter)) {
+			final List<GeneratedColumn<E, ?>> columns = new ArrayList<GeneratedColumn<E, ?>>();
+			final List<SortOrder> orders = new ArrayList<SortOrder>();
+			for (final SortKey key : this.sortKeys) {
+				if (key.getSortOrder() != SortOrder.UNSORTED) {
+					columns.add(this.model.getColumns().get(key.getColumn()));
+					orders.add(key.getSortOrder());
+				}
+			}
+			this.pending = EntityRowSorter.SORTERS.submit(new SortTask(this.generation, new ArrayList<E>(this.model.getEntities()),
+					columns, orders, this.filter));
+		} else if (!CheckUtil.isNull(this.viewToModel)) {
+			final int[] previous = this.viewToModel;
+			this.updateMapping(null);
+			this.fireRowSorterChanged(previous);
+		}
+	}
+
+	/**
+	 * Resorts if a sort is running or the rows are sorted.
+	 */
+	private void resortIfNeeded() {
+		if (this.isSorted() || !CheckUtil.isNull(this.pending)) {
+			this.resort();
+		}
+	}
+
+	/**
+	 * Updates the mapping.
+	 * 
+	 * @param mapping
+	 *            The view to model mapping. May be null.
+	 */
+	private void updateMapping(final int[] mapping) {
+		this.viewToModel = mapping;
+		if (CheckUtil.isNull(mapping)) {
+			this.modelToView = null;
+		} else {
+			this.modelToView = new int[this.model.getRowCount()];
+			Arrays.fill(this.modelToView, -1);
+			for (int i = 0; i < mapping.length; i = i + 1) {
+				this.modelToView[mapping[i]] = i;
+			}
+		}
+	}
+
+	/**
+	 * Compares rows on their sort values.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class KeyComparator
+			implements IndexComparator {
+
+		/** Whether the keys are descending. */
+		private final boolean[] descending;
+		/** The sort values, per key per row. */
+		private final Object[][] values;
+
+		/**
+		 * Constructs the comparator.
+		 * 
+		 * @param values
+		 *            The sort values.
+		 * @param descending
+		 *            Whether the keys are descending.
+		 */
+		public KeyComparator(final Object[][] values, final boolean[] descending) {
+			this.values = values;
+			this.descending = descending;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int compare(final int left, final int right) {
+			int result = 0;
+			for (int i = 0; (i < this.values.length) && (result == 0); i = i + 1) {
+				result = this.compareValues(this.values[i][left], this.values[i][right]);
+				if (this.descending[i]) {
+					result = -result;
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Compares two values. Null values order first.
+		 * 
+		 * @param left
+		 *            The left value.
+		 * @param right
+		 *            The right value.
+		 * @return The comparison.
+		 */
+		@SuppressWarnings("unchecked")
+		private int compareValues(final Object left, final Object right) {
+			int result;
+			if (left == right) {
+				result = 0;
+			} else if (CheckUtil.isNull(left)) {
+				result = -1;
+			} else if (CheckUtil.isNull(right)) {
+				result = 1;
+			} else if ((left instanceof Comparable) && left.getClass().equals(right.getClass())) {
+				result = ((Comparable<Object>) left).compareTo(right);
+			} else {
+				result = left.toString().compareTo(right.toString());
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Forgets a failed sort on the event dispatch thread.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class AbandonTask
+			implements Runnable {
+
+		/** The sort generation. */
+		private final long sortGeneration;
+
+		/**
+		 * Constructs the task.
+		 * 
+		 * @param sortGeneration
+		 *            The sort generation.
+		 */
+		public AbandonTask(final long sortGeneration) {
+			this.sortGeneration = sortGeneration;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			EntityRowSorter.this.abandonSort(this.sortGeneration);
+		}
+	}
+
+	/**
+	 * Applies a sort on the event dispatch thread.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class ApplyTask
+			implements Runnable {
+
+		/** The mapping. */
+		private final int[] mapping;
+		/** The row count. */
+		private final int rowCount;
+		/** The sort generation. */
+		private final long sortGeneration;
+
+		/**
+		 * Constructs the task.
+		 * 
+		 * @param sortGeneration
+		 *            The sort generation.
+		 * @param rowCount
+		 *            The row count.
+		 * @param mapping
+		 *            The view to model mapping.
+		 */
+		public ApplyTask(final long sortGeneration, final int rowCount, final int[] mapping) {
+			this.sortGeneration = sortGeneration;
+			this.rowCount = rowCount;
+			this.mapping = mapping;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			EntityRowSorter.this.applySort(this.sortGeneration, this.rowCount, this.mapping);
+		}
+	}
+
+	/**
+	 * Filters and sorts a snapshot of the entities.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class SortTask
+			implements Runnable {
+
+		/** The sort columns. */
+		private final List<GeneratedColumn<E, ?>> columns;
+		/** The entities. */
+		private final List<E> entities;
+		/** The filter. */
+		private final EntityFilter<? super E> entityFilter;
+		/** The sort orders. */
+		private final List<SortOrder> orders;
+		/** The sort generation. */
+		private final long sortGeneration;
+
+		/**
+		 * Constructs the task.
+		 * 
+		 * @param sortGeneration
+		 *            The sort generation.
+		 * @param entities
+		 *            The entities.
+		 * @param columns
+		 *            The sort columns.
+		 * @param orders
+		 *            The sort orders.
+		 * @param entityFilter
+		 *            The filter. May be null.
+		 */
+		public SortTask(final long sortGeneration, final List<E> entities, final List<GeneratedColumn<E, ?>> columns,
+				final List<SortOrder> orders, final EntityFilter<? super E> entityFilter) {
+			this.sortGeneration = sortGeneration;
+			this.entities = entities;
+			this.columns = columns;
+			this.orders = orders;
+			this.entityFilter = entityFilter;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			try {
+				final int size = this.entities.size();
+				final Collator collator = Collator.getInstance(EntityRowSorter.this.locale);
+				final Object[][] values = new Object[this.columns.size()][size];
+				final boolean[] descending = new boolean[this.columns.size()];
+				for (int i = 0; i < descending.length; i = i + 1) {
+					descending[i] = this.orders.get(i) == SortOrder.DESCENDING;
+				}
+				int[] mapping = new int[size];
+				int count = 0;
+				for (int row = 0; row < size; row = row + 1) {
+					if (Thread.interrupted()) {
+						throw new InterruptedException();
+					}
+					final E entity = this.entities.get(row);
+					if (CheckUtil.isNull(this.entityFilter) || this.entityFilter.include(entity)) {
+						mapping[count] = row;
+						count = count + 1;
+						for (int i = 0; i < values.length; i = i + 1) {
+							values[i][row] = this.sortValue(collator, this.columns.get(i), entity);
+						}
+					}
+				}
+				mapping = Arrays.copyOf(mapping, count);
+				if (values.length > 0) {
+					ParallelMergeSort.sort(mapping, new KeyComparator(values, descending), EntityRowSorter.WORKERS,
+							EntityRowSorter.PARALLELISM);
+				}
+				SwingUtilities.invokeLater(new ApplyTask(this.sortGeneration, size, mapping));
+			} catch (final InterruptedException e) {
+				EntityRowSorter.LOGGER.debug("Sort was cancelled.", e);
+			} catch (final RuntimeException e) {
+				EntityRowSorter.LOGGER.warn("Could not sort.", e);
+				SwingUtilities.invokeLater(new AbandonTask(this.sortGeneration));
+			}
+		}
+
+		/**
+		 * Gets a sort value. Text is compared by its collation key.
+		 * 
+		 * @param collator
+		 *            The collator.
+		 * @param column
+		 *            The column.
+		 * @param entity
+		 *            The entity.
+		 * @return The sort value.
+		 */
+		private Object sortValue(final Collator collator, final GeneratedColumn<E, ?> column, final E entity) {
+			Object result = null;
+			if (!CheckUtil.isNull(entity)) {
+				result = column.getSortValue(entity);
+				if (result instanceof String) {
+					final CollationKey key = collator.getCollationKey((String) result);
+					result = key;
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -43,6 +43,13 @@ public interface FormComponent<E> {
 	 */
 	void addActionListener(ActionListener listener);
 
+	/**
+	 * Gets the action listeners added to the form.
+	 * 
+	 * @return The listeners.
+	 */
+	ActionListener[] getActionListeners();
+
 	/**
 	 * Gets the value for the cancelButton field.
 	 * 
@@ -104,6 +111,15 @@ public interface FormComponent<E> {
 	 */
 	<P> void processStrategy(final FormPropertyRenderStrategy<P> strategy);
 
+	/**
+	 * Binds the form to another entity, keeping the rendered components. All
+	 * pending edits are discarded and operations in flight are cancelled.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 */
+	void rebind(E entity);
+
 	/**
 	 * Removes an action listener.
 	 * 
@@ -0,0 +1,277 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+
+/**
+ * A read only list that pages entities in from a {@link DataProvider}.
+ * <p>
+ * Only the pages that are accessed, and a prefetch margin after them, are
+ * held. The least recently used pages are evicted once more than the maximum
+ * amount of pages are loaded.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <E>
+ *            The entity type.
+ */
+public final class PagedEntityList<E>
+		extends AbstractList<E>
+		implements RandomAccess {
+
+	/** The default amount of loaded pages. */
+	public static final int DEFAULT_MAX_PAGES = 16;
+	/** The default page size. */
+	public static final int DEFAULT_PAGE_SIZE = 100;
+	/** The default amount of pages to prefetch. */
+	public static final int DEFAULT_PREFETCH_PAGES = 1;
+	/** Marks an unknown size. */
+	private static final int UNKNOWN_SIZE = -1;
+	/** The amount of fetches. */
+	private long fetches;
+	/** The last accessed page. */
+	private List<E> lastPage;
+	/** The index of the last accessed page. */
+	private int lastPageIndex;
+	/** The maximum amount of loaded pages. */
+	private final int maxPages;
+	/** The page size. */
+	private final int pageSize;
+	/** The loaded pages. */
+	private final Map<Integer, List<E>> pages;
+	/** The amount of pages to prefetch. */
+	private final int prefetchPages;
+	/** The data provider. */
+	private final DataProvider<E> provider;
+	/** The size. */
+	private int size;
+
+	/**
+	 * Constructs the list with default paging.
+	 * 
+	 * @param provider
+	 *            The data provider. May not be null.
+	 */
+	public PagedEntityList(final DataProvider<E> provider) {
+		this(provider, PagedEntityList.DEFAULT_PAGE_SIZE, PagedEntityList.DEFAULT_MAX_PAGES, PagedEntityList.DEFAULT_PREFETCH_PAGES);
+	}
+
+	/**
+	 * Constructs the list.
+	 * 
+	 * @param provider
+	 *            The data provider. May not be null.
+	 * @param pageSize
+	 *            The page size. Must be positive.
+	 * @param maxPages
+	 *            The maximum amount of loaded pages. Must be larger than the
+	 *            amount of prefetched pages.
+	 * @param prefetchPages
+	 *            The amount of pages to fetch after a missed page. May not be
+	 *            negative.
+	 */
+	public PagedEntityList(final DataProvider<E> provider, final int pageSize, final int maxPages, final int prefetchPages) {
+		Validate.notNull(provider, "Provider may not be null.");
+		Validate.isTrue(pageSize > 0, "Page size must be positive.");
+		Validate.isTrue(prefetchPages >= 0, "Prefetch pages may not be negative.");
+		Validate.isTrue(maxPages > prefetchPages, "Maximum pages must exceed the prefetched pages.");
+		this.provider = provider;
+		this.pageSize = pageSize;
+		this.maxPages = maxPages;
+		this.prefetchPages = prefetchPages;
+		this.pages = new PageMap();
+		this.refresh();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public E get(final int index) {
+		if ((index < 0) || (index >= this.size())) {
+			throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for size %s.", index, this.size()));
+		}
+		final int pageIndex = index / this.pageSize;
+		if ((pageIndex != this.lastPageIndex) || CheckUtil.isNull(this.lastPage)) {
+			List<E> page = this.pages.get(Integer.valueOf(pageIndex));
+			if (CheckUtil.isNull(page)) {
+				page = this.fetchPages(pageIndex);
+			}
+			this.lastPage = page;
+			this.lastPageIndex = pageIndex;
+		}
+		final int pageOffset = index % this.pageSize;
+		E result = null;
+		if (pageOffset < this.lastPage.size()) {
+			result = this.lastPage.get(pageOffset);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the amount of fetches done.
+	 * 
+	 * @return The amount of fetches.
+	 */
+	public long getFetches() {
+		return this.fetches;
+	}
+
+	/**
+	 * Gets the amount of loaded pages.
+	 * 
+	 * @return The amount of pages.
+	 */
+	public int getLoadedPages() {
+		return this.pages.size();
+	}
+
+	/**
+	 * Gets the value for the pageSize field.
+	 * 
+	 * @return The value for the pageSize field.
+	 */
+	public int getPageSize() {
+		return this.pageSize;
+	}
+
+	/**
+	 * Gets the value for the provider field.
+	 * 
+	 * @return The value for the provider field.
+	 */
+	public DataProvider<E> getProvider() {
+		return this.provider;
+	}
+
+	/**
+	 * Finds the indexes of an entity in the loaded pages, without fetching or
+	 * touching any page.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 * @return The indexes, in ascending order.
+	 */
+	public List<Integer> indexesOfLoaded(final E entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		final List<Integer> result = new ArrayList<Integer>();
+		for (final Map.Entry<Integer, List<E>> page : this.pages.entrySet()) {
+			final int offset = page.getKey().intValue() * this.pageSize;
+			final List<E> entities = page.getValue();
+			for (int i = 0; i < entities.size(); i = i + 1) {
+				if (entity.equals(entities.get(i))) {
+					result.add(Integer.valueOf(offset + i));
+				}
+			}
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	/**
+	 * Tests if the page holding an index is loaded, without touching the
+	 * page.
+	 * 
+	 * @param index
+	 *            The index.
+	 * @return True if and only if the page is loaded.
+	 */
+	public boolean isLoaded(final int index) {
+		return (index >= 0) && this.pages.containsKey(Integer.valueOf(index / this.pageSize));
+	}
+
+	/**
+	 * Drops all loaded pages and the known size, so that everything is read
+	 * again from the provider.
+	 */
+	public void refresh() {
+		this.pages.clear();
+		this.lastPage = null;
+		this.lastPageIndex = PagedEntityList.UNKNOWN_SIZE;
+		this.size = PagedEntityList.UNKNOWN_SIZE;
+		this.modCount = this.modCount + 1;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int size() {
+		if (this.size == PagedEntityList.UNKNOWN_SIZE) {
+			this.size = this.provider.size();
+		}
+		return this.size;
+	}
+
+	/**
+	 * Fetches a page, and the prefetched pages after it.
+	 * 
+	 * @param pageIndex
+	 *            The page index.
+	 * @return The requested page.
+	 */
+	private List<E> fetchPages(final int pageIndex) {
+		final int offset = pageIndex * this.pageSize;
+		final int limit = Math.min(this.pageSize * (1 + this.prefetchPages), this.size() - offset);
+		final List<E> fetched = this.provider.fetch(offset, limit);
+		this.fetches = this.fetches + 1;
+		List<E> result = null;
+		int current = pageIndex;
+		for (int start = 0; (start < fetched.size()) || CheckUtil.isNull(result); start = start + this.pageSize) {
+			final List<E> page = fetched.subList(Math.min(start, fetched.size()), Math.min(start + this.pageSize, fetched.size()));
+			if (CheckUtil.isNull(result)) {
+				result = page;
+			}
+			this.pages.put(Integer.valueOf(current), page);
+			current = current + 1;
+		}
+		this.pages.put(Integer.valueOf(pageIndex), result);
+		return result;
+	}
+
+	/**
+	 * A map of pages that evicts the least recently used page.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class PageMap
+			extends LinkedHashMap<Integer, List<E>> {
+
+		/** Serial id. */
+		private static final long serialVersionUID = 6010437839318405236L;
+		/** The load factor. */
+		private static final float LOAD_FACTOR = 0.75f;
+
+		/** Default constructor. */
+		public PageMap() {
+			super(PagedEntityList.this.maxPages + 1, PageMap.LOAD_FACTOR, true);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Integer, List<E>> eldest) {
+			return this.size() > PagedEntityList.this.maxPages;
+		}
+	}
+}
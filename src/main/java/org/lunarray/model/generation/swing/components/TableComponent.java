@@ -17,6 +17,9 @@
  */
 package org.lunarray.model.generation.swing.components;
 
+import java.util.Iterator;
+import java.util.concurrent.Future;
+
 import javax.swing.JComponent;
 import javax.swing.JPanel;
 
@@ -41,6 +44,53 @@ public interface TableComponent<E> {
 	 */
 	<R> void addColumn(GeneratedColumn<E, R> column);
 
+	/**
+	 * Appends an entity. May be called from any thread. Appended entities are
+	 * shown in batches, at most one batch per frame.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 */
+	void append(E entity);
+
+	/**
+	 * Notifies the table that entities were inserted.
+	 * 
+	 * @param fromIndex
+	 *            The first inserted row.
+	 * @param toIndex
+	 *            The last inserted row, inclusive.
+	 */
+	void entitiesInserted(int fromIndex, int toIndex);
+
+	/**
+	 * Notifies the table that entities were removed.
+	 * 
+	 * @param fromIndex
+	 *            The first removed row.
+	 * @param toIndex
+	 *            The last removed row, inclusive.
+	 */
+	void entitiesRemoved(int fromIndex, int toIndex);
+
+	/**
+	 * Notifies the table that entities were updated.
+	 * 
+	 * @param fromIndex
+	 *            The first updated row.
+	 * @param toIndex
+	 *            The last updated row, inclusive.
+	 */
+	void entitiesUpdated(int fromIndex, int toIndex);
+
+	/**
+	 * Notifies the table that an entity was updated.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 */
+	void entityUpdated(E entity);
+
 	/**
 	 * Gets the component.
 	 * 
@@ -61,4 +111,22 @@ public interface TableComponent<E> {
 	 * @return The value for the tableModel field.
 	 */
 	DataTableModel<E> getTableModel();
+
+	/**
+	 * Filters the shown entities. Filtering, like sorting, is done in the
+	 * background.
+	 * 
+	 * @param filter
+	 *            The filter. May be null to show all entities.
+	 */
+	void setFilter(EntityFilter<? super E> filter);
+
+	/**
+	 * Reads entities in the background and appends them as they are read.
+	 * 
+	 * @param entities
+	 *            The entities. May not be null.
+	 * @return The future of the read, may be cancelled to stop reading.
+	 */
+	Future<?> stream(Iterator<? extends E> entities);
 }
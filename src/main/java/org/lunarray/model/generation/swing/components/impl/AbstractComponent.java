@@ -26,8 +26,10 @@ import javax.swing.JPanel;
 import org.apache.commons.lang.Validate;
 import org.lunarray.model.descriptor.model.Model;
 import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
-import org.lunarray.model.generation.swing.render.RenderContext;
-import org.lunarray.model.generation.util.VariableResolver;
+import org.lunarray.model.generation.swing.render.DictionaryCache;
+import org.lunarray.model.generation.swing.render.RelationLabelCache;
+import org.lunarray.model.generation.swing.render.RenderPlan;
+import org.lunarray.model.generation.swing.render.RenderPlanComposer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -179,46 +181,24 @@ public abstract class AbstractComponent<S, E extends S>
 	}
 
 	/**
-	 * A variable resolver.
+	 * Drops the cached labels and dictionary lookups of the entities of this
+	 * component, after they changed.
+	 */
+	protected final void entitiesChanged() {
+		final String name = this.entityDescriptor.getName();
+		RelationLabelCache.getInstance(this.model).invalidate(name);
+		DictionaryCache.getInstance(this.model).invalidate(name);
+	}
+
+	/**
+	 * Gets the render plan of this component, composing it if it is not
+	 * cached for the model.
 	 * 
-	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param operations
+	 *            Whether operations are composed.
+	 * @return The plan.
 	 */
-	protected final class ComponentVariableResolver
-			implements VariableResolver<RenderContext<E>, S, E> {
-
-		/** The default constructor. */
-		public ComponentVariableResolver() {
-			// Default constructor.
-		}
-
-		/** {@inheritDoc} */
-		@Override
-		public EntityDescriptor<E> getDescriptor(final RenderContext<E> arg0) {
-			return AbstractComponent.this.entityDescriptor;
-		}
-
-		/** {@inheritDoc} */
-		@Override
-		public Locale getLocale(final RenderContext<E> arg0) {
-			return AbstractComponent.this.getLocale();
-		}
-
-		/** {@inheritDoc} */
-		@Override
-		public Model<S> getModel(final RenderContext<E> arg0) {
-			return AbstractComponent.this.getModel();
-		}
-
-		/** {@inheritDoc} */
-		@Override
-		public Class<?> getQualifier(final RenderContext<E> arg0) {
-			return AbstractComponent.this.getQualifier();
-		}
-
-		/** {@inheritDoc} */
-		@Override
-		public boolean hasQualifier(final RenderContext<E> arg0) {
-			return AbstractComponent.this.getQualifier() != null;
-		}
+	protected final RenderPlan<E> getRenderPlan(final boolean operations) {
+		return new RenderPlanComposer<S, E>(this.model, this.entityDescriptor, this.locale, this.qualifier).getRenderPlan(operations);
 	}
 }
@@ -0,0 +1,257 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components.impl;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
+import org.lunarray.model.generation.swing.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Feeds entities into a table from any thread.
+ * <p>
+ * Appended entities are queued and inserted on the event dispatch thread in
+ * batches, at most one batch per frame. The first batch is inserted right
+ * away, so the first rows show as soon as they are read.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <E>
+ *            The entity type.
+ */
+public final class EntityFeed<E>
+		implements ActionListener {
+
+	/** The frame delay, in milliseconds. */
+	public static final int FRAME_DELAY = 16;
+	/** Reads the streams. */
+	private static final ExecutorService LOADERS = Executors.newCachedThreadPool(new DaemonThreadFactory("table-feed"));
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(EntityFeed.class);
+	/** Marks an unmeasured time. */
+	private static final long UNMEASURED = -1L;
+	/** The amount of inserted batches. */
+	private long batches;
+	/** Whether a flush is scheduled. */
+	private final AtomicBoolean flushScheduled;
+	/** The queued entities. */
+	private final Queue<E> queue;
+	/** The amount of inserted rows. */
+	private long rows;
+	/** Schedules the flush on the event dispatch thread. */
+	private final Runnable scheduler;
+	/** The time the feed started, in nanoseconds. */
+	private final AtomicLong startTime;
+	/** The table. */
+	private final TableComponentImpl<? super E, E> table;
+	/** The time to the first row, in nanoseconds. */
+	private long timeToFirstRow;
+	/** The frame timer. */
+	private final Timer timer;
+
+	/**
+	 * Constructs the feed.
+	 * 
+	 * @param table
+	 *            The table. May not be null.
+	 */
+	public EntityFeed(final TableComponentImpl<? super E, E> table) {
+		Validate.notNull(table, "Table may not be null.");
+		this.table = table;
+		this.queue = new ConcurrentLinkedQueue<E>();
+		this.flushScheduled = new AtomicBoolean();
+		this.timer = new Timer(EntityFeed.FRAME_DELAY, this);
+		this.timer.setRepeats(false);
+		this.timeToFirstRow = EntityFeed.UNMEASURED;
+		this.startTime = new AtomicLong(EntityFeed.UNMEASURED);
+		this.scheduler = new FlushScheduler();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void actionPerformed(final ActionEvent event) {
+		EdtWatchdog.enter(this.table.getEntityDescriptor().getName());
+		try {
+			this.flush();
+		} finally {
+			EdtWatchdog.exit();
+		}
+	}
+
+	/**
+	 * Appends an entity. May be called from any thread, for example from a
+	 * subscriber of a publisher of entities.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 */
+	public void append(final E entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		this.start();
+		this.queue.add(entity);
+		if (this.flushScheduled.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this.scheduler);
+		}
+	}
+
+	/**
+	 * Gets the value for the batches field.
+	 * 
+	 * @return The value for the batches field.
+	 */
+	public long getBatches() {
+		return this.batches;
+	}
+
+	/**
+	 * Gets the value for the rows field.
+	 * 
+	 * @return The value for the rows field.
+	 */
+	public long getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * Gets the time between the start of the feed and the insertion of the
+	 * first row.
+	 * 
+	 * @return The time, in nanoseconds, or -1 if no rows were inserted.
+	 */
+	public long getTimeToFirstRow() {
+		return this.timeToFirstRow;
+	}
+
+	/**
+	 * Reads entities in the background and appends them.
+	 * 
+	 * @param entities
+	 *            The entities. May not be null.
+	 * @return The future of the read, may be cancelled to stop reading.
+	 */
+	public Future<?> stream(final Iterator<? extends E> entities) {
+		Validate.notNull(entities, "Entities may not be null.");
+		this.start();
+		return EntityFeed.LOADERS.submit(new StreamTask(entities));
+	}
+
+	/**
+	 * Inserts all queued entities as one batch.
+	 */
+	private void flush() {
+		this.flushScheduled.set(false);
+		final List<E> entities = this.table.getEntities();
+		final int fromIndex = entities.size();
+		E entity = this.queue.poll();
+		while (!CheckUtil.isNull(entity)) {
+			entities.add(entity);
+			entity = this.queue.poll();
+		}
+		final int toIndex = entities.size() - 1;
+		if (toIndex >= fromIndex) {
+			if (this.timeToFirstRow == EntityFeed.UNMEASURED) {
+				this.timeToFirstRow = System.nanoTime() - this.startTime.get();
+			}
+			this.batches = this.batches + 1;
+			this.rows = this.rows + (toIndex - fromIndex) + 1;
+			this.table.entitiesInserted(fromIndex, toIndex);
+		}
+	}
+
+	/**
+	 * Marks the start of the feed, if it was not started yet.
+	 */
+	private void start() {
+		this.startTime.compareAndSet(EntityFeed.UNMEASURED, System.nanoTime());
+	}
+
+	/**
+	 * Flushes the first batch right away and later batches after a frame.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class FlushScheduler
+			implements Runnable {
+
+		/** Default constructor. */
+		public FlushScheduler() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			if (EntityFeed.this.batches == 0) {
+				EntityFeed.this.flush();
+			} else {
+				EntityFeed.this.timer.restart();
+			}
+		}
+	}
+
+	/**
+	 * Reads a stream of entities.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class StreamTask
+			implements Runnable {
+
+		/** The entities. */
+		private final Iterator<? extends E> entities;
+
+		/**
+		 * Constructs the task.
+		 * 
+		 * @param entities
+		 *            The entities.
+		 */
+		public StreamTask(final Iterator<? extends E> entities) {
+			this.entities = entities;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			try {
+				while (!Thread.currentThread().isInterrupted() && this.entities.hasNext()) {
+					EntityFeed.this.append(this.entities.next());
+				}
+			} catch (final RuntimeException e) {
+				EntityFeed.LOGGER.warn("Could not read entities.", e);
+			}
+		}
+	}
+}
@@ -17,12 +17,18 @@
  */
 package org.lunarray.model.generation.swing.components.impl;
 
+import java.util.Arrays;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang.Validate;
 import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.generation.swing.components.BuildListener;
 import org.lunarray.model.generation.swing.components.FormComponent;
 import org.lunarray.model.generation.swing.components.impl.FormComponentImpl.MessagePosition;
+import org.lunarray.model.generation.swing.render.factories.form.FormSettings;
+import org.lunarray.model.generation.swing.render.factories.form.FormSettings.ValidationMode;
 
 /**
  * The builder.
@@ -44,13 +50,26 @@ public final class FormComponentBuilder<S, E extends S> {
 	private transient MessagePosition messagePositionBuilder;
 	/** The model. */
 	private transient Model<S> modelBuilder;
+	/** The settings. */
+	private final transient FormSettings settingsBuilder;
 
 	/**
 	 * Default constructor.
 	 */
 	private FormComponentBuilder() {
+		this(new FormSettings());
+	}
+
+	/**
+	 * Constructs the builder.
+	 * 
+	 * @param settings
+	 *            The settings.
+	 */
+	private FormComponentBuilder(final FormSettings settings) {
 		this.localeBuilder = Locale.getDefault();
 		this.messagePositionBuilder = MessagePosition.RIGHT;
+		this.settingsBuilder = settings;
 	}
 
 	/**
@@ -87,7 +106,40 @@ public final class FormComponentBuilder<S, E extends S> {
 		Validate.notNull(this.entityBuilder, "Entity may not be null.");
 		Validate.notNull(this.messagePositionBuilder, "Message position has to be set.");
 		return new FormComponentImpl<S, E>(this.modelBuilder, this.entityKeyBuilder, this.entityBuilder, this.localeBuilder,
-				this.messagePositionBuilder);
+				this.messagePositionBuilder, new FormSettings(this.settingsBuilder));
+	}
+
+	/**
+	 * Builds the component in the background. The render plan is composed
+	 * and the dictionaries of the select components are looked up in parallel
+	 * on a background thread, after which the component is built on the event
+	 * dispatch thread.
+	 * 
+	 * @param listener
+	 *            The listener that receives the component, or the failure. May
+	 *            not be null.
+	 */
+	public void buildAsync(final BuildListener<? super FormComponent<E>> listener) {
+		Validate.notNull(this.modelBuilder, "Model may not be null.");
+		Validate.notNull(this.entityKeyBuilder, "Entity key may not be null.");
+		Validate.notNull(this.entityBuilder, "Entity may not be null.");
+		Validate.notNull(this.messagePositionBuilder, "Message position has to be set.");
+		new FormPrepareTask(listener).start();
+	}
+
+	/**
+	 * Debounces conversion and validation of text inputs. Edits are converted
+	 * and validated once the input has been quiet for the delay, or loses
+	 * focus.
+	 * 
+	 * @param debounceDelay
+	 *            The delay, in milliseconds. 0 to convert and validate on
+	 *            every edit, which is the default. May not be negative.
+	 * @return The builder.
+	 */
+	public FormComponentBuilder<S, E> debounce(final int debounceDelay) {
+		this.settingsBuilder.setDebounceDelay(debounceDelay);
+		return this;
 	}
 
 	/**
@@ -114,6 +166,17 @@ public final class FormComponentBuilder<S, E extends S> {
 		return this;
 	}
 
+	/**
+	 * Lays out the form with the form layout instead of the grid bag layout.
+	 * Suited for forms with very many properties.
+	 * 
+	 * @return The builder.
+	 */
+	public FormComponentBuilder<S, E> formLayout() {
+		this.settingsBuilder.setFormLayout(true);
+		return this;
+	}
+
 	/**
 	 * Sets a new value for the messagePosition field.
 	 * 
@@ -160,6 +223,66 @@ public final class FormComponentBuilder<S, E extends S> {
 		return this;
 	}
 
+	/**
+	 * Sets the executor operations are invoked on.
+	 * 
+	 * @param operationExecutor
+	 *            The executor. Null for the default executor, which uses
+	 *            virtual threads if the runtime supports them.
+	 * @return The builder.
+	 */
+	public FormComponentBuilder<S, E> operationExecutor(final ExecutorService operationExecutor) {
+		this.settingsBuilder.setOperationExecutor(operationExecutor);
+		return this;
+	}
+
+	/**
+	 * Sets the time after which operations are cancelled.
+	 * 
+	 * @param operationTimeout
+	 *            The timeout, in milliseconds. 0 for no timeout, which is the
+	 *            default. May not be negative.
+	 * @return The builder.
+	 */
+	public FormComponentBuilder<S, E> operationTimeout(final long operationTimeout) {
+		this.settingsBuilder.setOperationTimeout(operationTimeout);
+		return this;
+	}
+
+	/**
+	 * Creates a pool of ready forms with the current configuration. The
+	 * current entity is bound to idle forms.
+	 * 
+	 * @param size
+	 *            The number of idle forms kept. May not be negative.
+	 * @return The pool. It is not filled until it is warmed.
+	 */
+	public FormComponentPool<S, E> pool(final int size) {
+		Validate.notNull(this.modelBuilder, "Model may not be null.");
+		Validate.notNull(this.entityKeyBuilder, "Entity key may not be null.");
+		Validate.notNull(this.entityBuilder, "Entity may not be null.");
+		Validate.notNull(this.messagePositionBuilder, "Message position has to be set.");
+		final FormComponentBuilder<S, E> copy = new FormComponentBuilder<S, E>(new FormSettings(this.settingsBuilder));
+		copy.entityBuilder = this.entityBuilder;
+		copy.entityKeyBuilder = this.entityKeyBuilder;
+		copy.localeBuilder = this.localeBuilder;
+		copy.messagePositionBuilder = this.messagePositionBuilder;
+		copy.modelBuilder = this.modelBuilder;
+		return new FormComponentPool<S, E>(copy, this.entityBuilder, size);
+	}
+
+	/**
+	 * Looks up the dictionaries of all select components in parallel before
+	 * the form is rendered, so the form opens in about the time of the slowest
+	 * lookup.
+	 * 
+	 * @return The builder.
+	 */
+	public FormComponentBuilder<S, E> prefetch() {
+		this.settingsBuilder.setPrefetch(true);
+		return this;
+	}
+
 	/**
 	 * Sets a new value for the messagePosition field.
 	 * 
@@ -179,4 +302,79 @@ public final class FormComponentBuilder<S, E extends S> {
 		this.messagePositionBuilder = MessagePosition.TOP;
 		return this;
 	}
+
+	/**
+	 * Renders properties of the given render types as type ahead selects, a
+	 * text field that suggests matching entities. Suited for relations to
+	 * very many entities.
+	 * 
+	 * @param renderTypes
+	 *            The render types. May not be null.
+	 * @return The builder.
+	 */
+	public FormComponentBuilder<S, E> typeAhead(final RenderType... renderTypes) {
+		Validate.notNull(renderTypes, "Render types may not be null.");
+		this.settingsBuilder.getTypeAheadRenderTypes().addAll(Arrays.asList(renderTypes));
+		return this;
+	}
+
+	/**
+	 * Sets how the entity is validated on commit.
+	 * 
+	 * @param validationMode
+	 *            The validation mode. May not be null.
+	 * @return The builder.
+	 */
+	public FormComponentBuilder<S, E> validation(final ValidationMode validationMode) {
+		this.settingsBuilder.setValidationMode(validationMode);
+		return this;
+	}
+
+	/**
+	 * Only renders the rows near the viewport, the form is placed in a scroll
+	 * pane. Suited for entities with hundreds of properties.
+	 * 
+	 * @return The builder.
+	 */
+	public FormComponentBuilder<S, E> virtual() {
+		this.settingsBuilder.setVirtual(true);
+		return this;
+	}
+
+	/**
+	 * Prepares a form in the background.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class FormPrepareTask
+			extends PrepareTask<S, E, FormComponent<E>> {
+
+		/** The entity. */
+		private final E entity;
+		/** The message position. */
+		private final MessagePosition messagePosition;
+		/** The settings. */
+		private final FormSettings settings;
+
+		/**
+		 * Constructs the task from the current builder state.
+		 * 
+		 * @param listener
+		 *            The listener. May not be null.
+		 */
+		public FormPrepareTask(final BuildListener<? super FormComponent<E>> listener) {
+			super(FormComponentBuilder.this.modelBuilder, FormComponentBuilder.this.entityKeyBuilder,
+					FormComponentBuilder.this.localeBuilder, true, new FormSettings(FormComponentBuilder.this.settingsBuilder), listener);
+			this.entity = FormComponentBuilder.this.entityBuilder;
+			this.messagePosition = FormComponentBuilder.this.messagePositionBuilder;
+			this.settings = new FormSettings(FormComponentBuilder.this.settingsBuilder);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected FormComponent<E> build() {
+			return new FormComponentImpl<S, E>(this.getModel(), this.getEntityKey(), this.entity, this.getLocale(), this.messagePosition,
+					this.settings);
+		}
+	}
 }
@@ -38,6 +38,7 @@ import javax.swing.JButton;
 import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.border.BevelBorder;
 
 import org.apache.commons.lang.Validate;
@@ -46,16 +47,22 @@ import org.lunarray.model.descriptor.model.Model;
 import org.lunarray.model.descriptor.validator.EntityValidator;
 import org.lunarray.model.descriptor.validator.PropertyViolation;
 import org.lunarray.model.generation.swing.components.FormComponent;
+import org.lunarray.model.generation.swing.metrics.ComponentMetrics;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
+import org.lunarray.model.generation.swing.metrics.MetricsRegistry;
 import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.RenderPlan;
 import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.FormSettings;
+import org.lunarray.model.generation.swing.render.factories.form.FormSettings.ValidationMode;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.ValueVisitor;
+import org.lunarray.model.generation.swing.render.factories.form.swing.DictionaryPrefetcher;
 import org.lunarray.model.generation.swing.render.factories.form.swing.FormPropertyRenderStrategyFactoryImpl;
 import org.lunarray.model.generation.swing.render.factories.form.swing.components.OperationOutputStrategy;
 import org.lunarray.model.generation.swing.util.CellLocation;
 import org.lunarray.model.generation.swing.util.ComponentLocation;
 import org.lunarray.model.generation.swing.util.ComponentLocation.ComponentLocationBuilder;
 import org.lunarray.model.generation.swing.util.MessageUtil;
-import org.lunarray.model.generation.util.Composer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -134,8 +141,16 @@ public final class FormComponentImpl<S, E extends S>
 	private MessagePosition position;
 	/** A row counter. */
 	private int rows;
+	/** The form settings. */
+	private FormSettings settings;
+	/** The strategy factory. */
+	private FormPropertyRenderStrategyFactoryImpl<E> strategyFactory;
 	/** The submit button. */
 	private JButton submitButton;
+	/** The virtual panel, if the form is virtual. */
+	private VirtualFormPanel virtualPanel;
+	/** The value visitor names. */
+	private Map<ValueVisitor, String> visitorNames;
 	/** The value visitors. */
 	private List<ValueVisitor> visitors;
 
@@ -155,13 +170,37 @@ public final class FormComponentImpl<S, E extends S>
 	 */
 	protected FormComponentImpl(final Model<S> model, final String entityKey, final E entity, final Locale locale,
 			final MessagePosition position) {
+		this(model, entityKey, entity, locale, position, new FormSettings());
+	}
+
+	/**
+	 * Constructs the form component.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @param entityKey
+	 *            The entity key. Must be a non-null known key.
+	 * @param entity
+	 *            The entity. May not be null.
+	 * @param locale
+	 *            The locale.
+	 * @param position
+	 *            The Message position. May not be null.
+	 * @param settings
+	 *            The form settings. May not be null.
+	 */
+	protected FormComponentImpl(final Model<S> model, final String entityKey, final E entity, final Locale locale,
+			final MessagePosition position, final FormSettings settings) {
 		super(model, entityKey, locale);
 		Validate.notNull(entity, "Entity may not be null.");
 		Validate.notNull(position, "Position has to be set.");
+		Validate.notNull(settings, "Settings may not be null.");
+		this.settings = settings;
 		this.setLayout(new BorderLayout());
 		this.labels = new HashMap<String, JLabel>();
 		this.entity = entity;
 		this.visitors = new LinkedList<ValueVisitor>();
+		this.visitorNames = new HashMap<ValueVisitor, String>();
 		this.position = position;
 		this.init();
 		this.rows = 0;
@@ -175,6 +214,18 @@ public final class FormComponentImpl<S, E extends S>
 		this.submitButton.addActionListener(listener);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public ActionListener[] getActionListeners() {
+		final List<ActionListener> listeners = new LinkedList<ActionListener>();
+		for (final ActionListener listener : this.submitButton.getActionListeners()) {
+			if (!(listener instanceof FormComponentImpl<?, ?>.ButtonListener)) {
+				listeners.add(listener);
+			}
+		}
+		return listeners.toArray(new ActionListener[listeners.size()]);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public JButton getCancelButton() {
@@ -257,12 +308,49 @@ public final class FormComponentImpl<S, E extends S>
 		return this.rows;
 	}
 
+	/**
+	 * Gets the value for the settings field.
+	 * 
+	 * @return The value for the settings field.
+	 */
+	public FormSettings getSettings() {
+		return this.settings;
+	}
+
+	/**
+	 * Gets the value for the strategyFactory field.
+	 * 
+	 * @return The value for the strategyFactory field.
+	 */
+	public FormPropertyRenderStrategyFactoryImpl<E> getStrategyFactory() {
+		return this.strategyFactory;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public JButton getSubmitButton() {
 		return this.submitButton;
 	}
 
+	/**
+	 * Gets the value for the virtualPanel field.
+	 * 
+	 * @return The value for the virtualPanel field. Null if the form is not
+	 *         virtual.
+	 */
+	public VirtualFormPanel getVirtualPanel() {
+		return this.virtualPanel;
+	}
+
+	/**
+	 * Gets the value for the visitorNames field.
+	 * 
+	 * @return The value for the visitorNames field.
+	 */
+	public Map<ValueVisitor, String> getVisitorNames() {
+		return this.visitorNames;
+	}
+
 	/**
 	 * Gets the value for the visitors field.
 	 * 
@@ -279,11 +367,12 @@ public final class FormComponentImpl<S, E extends S>
 		FormComponentImpl.LOGGER.debug("Processing operation begin strategy: {}", strategy);
 		final int realRow = this.calculateRealRow();
 		final JComponent label = strategy.getLabel();
-		this.componentPanel.add(label, new GridBagConstraints(FormComponentImpl.LABEL_INDEX, realRow, FormComponentImpl.LABEL_WIDTH,
-				FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.LABEL_HOR_WEIGHT, FormComponentImpl.COMPONENT_VERT_WEIGHT,
-				GridBagConstraints.FIRST_LINE_START, GridBagConstraints.HORIZONTAL, new Insets(FormComponentImpl.DEFAULT_PAD,
-						FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD),
-				FormComponentImpl.COMPONENT_PADDING, FormComponentImpl.COMPONENT_PADDING));
+		if (this.settings.isVirtual()) {
+			this.virtualPanel.addRow(label, null, null);
+		} else {
+			this.addCell(label, FormLayout.Cell.LABEL, FormComponentImpl.LABEL_INDEX, realRow,
+					FormComponentImpl.LABEL_WIDTH, FormComponentImpl.LABEL_HOR_WEIGHT, GridBagConstraints.FIRST_LINE_START);
+		}
 		this.extraRowCounter = this.extraRowCounter + 1;
 
 	}
@@ -301,19 +390,17 @@ public final class FormComponentImpl<S, E extends S>
 		final JComponent button = strategy.getButton();
 		final JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
 		buttonPanel.add(button);
-		this.componentPanel.add(buttonPanel, new GridBagConstraints(componentLocation.getColumn(), componentLocation.getRow(),
-				FormComponentImpl.LABEL_WIDTH, FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.LABEL_HOR_WEIGHT,
-				FormComponentImpl.COMPONENT_VERT_WEIGHT, GridBagConstraints.FIRST_LINE_START, GridBagConstraints.HORIZONTAL, new Insets(
-						FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD,
-						FormComponentImpl.DEFAULT_PAD), FormComponentImpl.COMPONENT_PADDING, FormComponentImpl.COMPONENT_PADDING));
 		final JLabel message = strategy.getMessage();
 		message.setSize(label.getWidth(), label.getHeight());
 		message.setForeground(Color.RED);
-		this.componentPanel.add(message, new GridBagConstraints(messageLocation.getColumn(), messageLocation.getRow(),
-				FormComponentImpl.COMPONENT_WIDTH, FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.COMPONENT_HOR_WEIGHT,
-				FormComponentImpl.COMPONENT_VERT_WEIGHT, GridBagConstraints.FIRST_LINE_END, GridBagConstraints.HORIZONTAL, new Insets(
-						FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD,
-						FormComponentImpl.DEFAULT_PAD), FormComponentImpl.COMPONENT_PADDING, FormComponentImpl.COMPONENT_PADDING));
+		if (this.settings.isVirtual()) {
+			this.virtualPanel.addRow(null, buttonPanel, message);
+		} else {
+			this.addCell(buttonPanel, FormLayout.Cell.COMPONENT, componentLocation.getColumn(), componentLocation.getRow(),
+					FormComponentImpl.LABEL_WIDTH, FormComponentImpl.LABEL_HOR_WEIGHT, GridBagConstraints.FIRST_LINE_START);
+			this.addCell(message, FormLayout.Cell.MESSAGE, messageLocation.getColumn(), messageLocation.getRow(),
+					FormComponentImpl.COMPONENT_WIDTH, FormComponentImpl.COMPONENT_HOR_WEIGHT, GridBagConstraints.FIRST_LINE_END);
+		}
 		this.rows = this.rows + 1;
 	}
 
@@ -333,31 +420,43 @@ public final class FormComponentImpl<S, E extends S>
 		final ComponentLocation location = this.calculateLocation(realRow);
 		final CellLocation componentLocation = location.getComponent();
 		final CellLocation messageLocation = location.getMessage();
-		final JComponent label = strategy.getLabel();
-		this.componentPanel.add(label, new GridBagConstraints(FormComponentImpl.LABEL_INDEX, realRow, FormComponentImpl.LABEL_WIDTH,
-				FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.LABEL_HOR_WEIGHT, FormComponentImpl.COMPONENT_VERT_WEIGHT,
-				GridBagConstraints.FIRST_LINE_START, GridBagConstraints.HORIZONTAL, new Insets(FormComponentImpl.DEFAULT_PAD,
-						FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD),
-				FormComponentImpl.COMPONENT_PADDING, FormComponentImpl.COMPONENT_PADDING));
-		final JComponent component = strategy.getComponent();
-		this.componentPanel.add(component, new GridBagConstraints(componentLocation.getColumn(), componentLocation.getRow(),
-				FormComponentImpl.COMPONENT_WIDTH, FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.COMPONENT_HOR_WEIGHT,
-				FormComponentImpl.COMPONENT_VERT_WEIGHT, GridBagConstraints.PAGE_START, GridBagConstraints.HORIZONTAL, new Insets(
-						FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD,
-						FormComponentImpl.DEFAULT_PAD), FormComponentImpl.COMPONENT_PADDING, FormComponentImpl.COMPONENT_PADDING));
 		final JLabel message = strategy.getMessage();
-		message.setSize(label.getWidth(), label.getHeight());
 		message.setForeground(Color.RED);
 		this.labels.put(strategy.getName(), message);
-		this.componentPanel.add(message, new GridBagConstraints(messageLocation.getColumn(), messageLocation.getRow(),
-				FormComponentImpl.COMPONENT_WIDTH, FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.COMPONENT_HOR_WEIGHT,
-				FormComponentImpl.COMPONENT_VERT_WEIGHT, GridBagConstraints.FIRST_LINE_END, GridBagConstraints.HORIZONTAL, new Insets(
-						FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD,
-						FormComponentImpl.DEFAULT_PAD), FormComponentImpl.COMPONENT_PADDING, FormComponentImpl.COMPONENT_PADDING));
-		this.visitors.add(strategy.getVisitor());
+		if (this.settings.isVirtual()) {
+			this.virtualPanel.addRow(strategy);
+		} else {
+			final JComponent label = strategy.getLabel();
+			this.addCell(label, FormLayout.Cell.LABEL, FormComponentImpl.LABEL_INDEX, realRow,
+					FormComponentImpl.LABEL_WIDTH, FormComponentImpl.LABEL_HOR_WEIGHT, GridBagConstraints.FIRST_LINE_START);
+			final JComponent component = strategy.getComponent();
+			this.addCell(component, FormLayout.Cell.COMPONENT, componentLocation.getColumn(), componentLocation.getRow(),
+					FormComponentImpl.COMPONENT_WIDTH, FormComponentImpl.COMPONENT_HOR_WEIGHT, GridBagConstraints.PAGE_START);
+			message.setSize(label.getWidth(), label.getHeight());
+			this.addCell(message, FormLayout.Cell.MESSAGE, messageLocation.getColumn(), messageLocation.getRow(),
+					FormComponentImpl.COMPONENT_WIDTH, FormComponentImpl.COMPONENT_HOR_WEIGHT, GridBagConstraints.FIRST_LINE_END);
+		}
+		final ValueVisitor visitor = strategy.getVisitor();
+		this.visitors.add(visitor);
+		this.visitorNames.put(visitor, strategy.getName());
 		this.rows = this.rows + 1;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void rebind(final E entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		FormComponentImpl.LOGGER.debug("Rebinding form to entity: {}", entity);
+		this.entity = entity;
+		this.strategyFactory.rebind(entity);
+		for (final ValueVisitor visitor : this.visitors) {
+			visitor.revert();
+		}
+		for (final JLabel label : this.labels.values()) {
+			label.setText("");
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void removeActionListener(final ActionListener listener) {
@@ -391,7 +490,8 @@ public final class FormComponentImpl<S, E extends S>
 	}
 
 	/**
-	 * Sets a new value for the entity field.
+	 * Sets a new value for the entity field. This recomposes the form, use
+	 * {@link #rebind(Object)} to keep the rendered components.
 	 * 
 	 * @param entity
 	 *            The new value for the entity field.
@@ -461,6 +561,16 @@ public final class FormComponentImpl<S, E extends S>
 		this.rows = rows;
 	}
 
+	/**
+	 * Sets a new value for the strategyFactory field.
+	 * 
+	 * @param strategyFactory
+	 *            The new value for the strategyFactory field.
+	 */
+	public void setStrategyFactory(final FormPropertyRenderStrategyFactoryImpl<E> strategyFactory) {
+		this.strategyFactory = strategyFactory;
+	}
+
 	/**
 	 * Sets a new value for the submitButton field.
 	 * 
@@ -471,6 +581,26 @@ public final class FormComponentImpl<S, E extends S>
 		this.submitButton = submitButton;
 	}
 
+	/**
+	 * Sets a new value for the virtualPanel field.
+	 * 
+	 * @param virtualPanel
+	 *            The new value for the virtualPanel field.
+	 */
+	public void setVirtualPanel(final VirtualFormPanel virtualPanel) {
+		this.virtualPanel = virtualPanel;
+	}
+
+	/**
+	 * Sets a new value for the visitorNames field.
+	 * 
+	 * @param visitorNames
+	 *            The new value for the visitorNames field.
+	 */
+	public void setVisitorNames(final Map<ValueVisitor, String> visitorNames) {
+		this.visitorNames = visitorNames;
+	}
+
 	/**
 	 * Sets a new value for the visitors field.
 	 * 
@@ -481,6 +611,57 @@ public final class FormComponentImpl<S, E extends S>
 		this.visitors = visitors;
 	}
 
+	/**
+	 * Adds a cell to the component panel. The grid bag constraints are only
+	 * created if the grid bag layout is used.
+	 * 
+	 * @param component
+	 *            The component.
+	 * @param cell
+	 *            The cell, if the form layout is used.
+	 * @param column
+	 *            The grid column.
+	 * @param row
+	 *            The grid row.
+	 * @param width
+	 *            The grid width.
+	 * @param weight
+	 *            The horizontal weight.
+	 * @param anchor
+	 *            The anchor.
+	 */
+	private void addCell(final JComponent component, final FormLayout.Cell cell, final int column, final int row, final int width,
+			final double weight, final int anchor) {
+		if (this.settings.isFormLayout()) {
+			this.componentPanel.add(component, new FormLayout.Constraint(this.rows + this.extraRowCounter, cell));
+		} else {
+			this.componentPanel.add(component, new GridBagConstraints(column, row, width, FormComponentImpl.DEFAULT_HEIGHT, weight,
+					FormComponentImpl.COMPONENT_VERT_WEIGHT, anchor, GridBagConstraints.HORIZONTAL, new Insets(FormComponentImpl.DEFAULT_PAD,
+							FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD),
+					FormComponentImpl.COMPONENT_PADDING, FormComponentImpl.COMPONENT_PADDING));
+		}
+	}
+
+	/**
+	 * Adds a filler below the rows of the grid bag layout, keeping the rows at
+	 * the top. The form layout and the virtual panel do not need one.
+	 */
+	private void addFiller() {
+		if ((MessagePosition.BOTTOM == this.position) || (MessagePosition.TOP == this.position)) {
+			this.componentPanel.add(new JPanel(), new GridBagConstraints(FormComponentImpl.DEFAULT_PAD, FormComponentImpl.ROW_DUPLICATION
+					* this.rows, FormComponentImpl.SMALL_WIDTH, FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.HOR_WEIGHT,
+					FormComponentImpl.VERT_WEIGHT, GridBagConstraints.PAGE_END, GridBagConstraints.BOTH, new Insets(
+							FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD,
+							FormComponentImpl.DEFAULT_PAD), FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD));
+		} else {
+			this.componentPanel.add(new JPanel(), new GridBagConstraints(FormComponentImpl.DEFAULT_PAD, this.rows,
+					FormComponentImpl.LARGE_WIDTH, FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.HOR_WEIGHT,
+					FormComponentImpl.VERT_WEIGHT, GridBagConstraints.PAGE_END, GridBagConstraints.BOTH, new Insets(
+							FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD,
+							FormComponentImpl.DEFAULT_PAD), FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD));
+		}
+	}
+
 	/**
 	 * Calculates the location.
 	 * 
@@ -532,28 +713,36 @@ public final class FormComponentImpl<S, E extends S>
 	/** Initializes the form. */
 	private void init() {
 		this.removeAll();
+		// Drop the visitors of a previous composition.
+		this.visitors.clear();
+		this.visitorNames.clear();
+		this.labels.clear();
 		this.form = new JPanel(new BorderLayout());
-		final Composer<RenderContext<E>, S, E> composer = new Composer<RenderContext<E>, S, E>();
-		final Model<S> model = this.getModel();
-		composer.setContext(new RenderContext<E>(model));
-		composer.setPropertyRenderStrategyFactory(new FormPropertyRenderStrategyFactoryImpl<E>(this));
-		composer.setVariableResolver(new ComponentVariableResolver());
-		this.form.add(new JLabel(composer.getLabel()), BorderLayout.NORTH);
-		this.componentPanel = new JPanel(new GridBagLayout());
-		this.form.add(this.componentPanel, BorderLayout.CENTER);
-		composer.compose(true);
-		if ((MessagePosition.BOTTOM == this.position) || (MessagePosition.TOP == this.position)) {
-			this.componentPanel.add(new JPanel(), new GridBagConstraints(FormComponentImpl.DEFAULT_PAD, FormComponentImpl.ROW_DUPLICATION
-					* this.rows, FormComponentImpl.SMALL_WIDTH, FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.HOR_WEIGHT,
-					FormComponentImpl.VERT_WEIGHT, GridBagConstraints.PAGE_END, GridBagConstraints.BOTH, new Insets(
-							FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD,
-							FormComponentImpl.DEFAULT_PAD), FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD));
+		final RenderPlan<E> plan = this.getRenderPlan(true);
+		this.strategyFactory = new FormPropertyRenderStrategyFactoryImpl<E>(this, this.settings);
+		this.form.add(new JLabel(plan.getLabel()), BorderLayout.NORTH);
+		this.rows = 0;
+		this.extraRowCounter = 0;
+		this.virtualPanel = null;
+		if (this.settings.isVirtual()) {
+			this.virtualPanel = new VirtualFormPanel(this.position, FormComponentImpl.COMPONENT_PADDING, this.getEntityDescriptor().getName());
+			this.componentPanel = this.virtualPanel;
+			this.form.add(new JScrollPane(this.virtualPanel), BorderLayout.CENTER);
+		} else if (this.settings.isFormLayout()) {
+			this.componentPanel = new JPanel(new FormLayout(this.position, FormComponentImpl.COMPONENT_PADDING));
+			this.form.add(this.componentPanel, BorderLayout.CENTER);
 		} else {
-			this.componentPanel.add(new JPanel(), new GridBagConstraints(FormComponentImpl.DEFAULT_PAD, this.rows,
-					FormComponentImpl.LARGE_WIDTH, FormComponentImpl.DEFAULT_HEIGHT, FormComponentImpl.HOR_WEIGHT,
-					FormComponentImpl.VERT_WEIGHT, GridBagConstraints.PAGE_END, GridBagConstraints.BOTH, new Insets(
-							FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD,
-							FormComponentImpl.DEFAULT_PAD), FormComponentImpl.DEFAULT_PAD, FormComponentImpl.DEFAULT_PAD));
+			this.componentPanel = new JPanel(new GridBagLayout());
+			this.form.add(this.componentPanel, BorderLayout.CENTER);
+		}
+		if (this.settings.isPrefetch()) {
+			final DictionaryPrefetcher<E> prefetcher = new DictionaryPrefetcher<E>(this.settings);
+			plan.replay(new RenderContext<E>(this.getModel(), this.getEntityDescriptor()), prefetcher);
+			prefetcher.await();
+		}
+		plan.replay(new RenderContext<E>(this.getModel(), this.getEntityDescriptor()), this.strategyFactory);
+		if (!this.settings.isVirtual() && !this.settings.isFormLayout()) {
+			this.addFiller();
 		}
 		this.form.setBorder(new BevelBorder(BevelBorder.LOWERED));
 		final JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
@@ -587,30 +776,71 @@ public final class FormComponentImpl<S, E extends S>
 		/** {@inheritDoc} */
 		@Override
 		public void actionPerformed(final ActionEvent event) {
-			if (FormComponentImpl.COMMIT_ACTION.equals(event.getActionCommand())) {
-				for (final ValueVisitor visitor : FormComponentImpl.this.visitors) {
-					visitor.apply();
-				}
-				final EntityValidator validator = FormComponentImpl.this.getModel().getExtension(EntityValidator.class);
-				if (!CheckUtil.isNull(validator)) {
-					final Set<String> unviolated = new HashSet<String>(FormComponentImpl.this.labels.keySet());
-					final Collection<PropertyViolation<E, ?>> violations = validator.validate(FormComponentImpl.this.getEntityDescriptor(),
-							FormComponentImpl.this.getEntity());
-					for (final PropertyViolation<E, ?> violation : violations) {
-						final String name = violation.getProperty().getName();
-						FormComponentImpl.this.labels.get(name).setText(violation.getMessage());
-						unviolated.remove(name);
+			EdtWatchdog.enter(FormComponentImpl.this.getEntityDescriptor().getName());
+			try {
+				if (FormComponentImpl.COMMIT_ACTION.equals(event.getActionCommand())) {
+					final Set<String> applied = new HashSet<String>();
+					for (final ValueVisitor visitor : FormComponentImpl.this.visitors) {
+						if (visitor.isDirty()) {
+							visitor.apply();
+							applied.add(FormComponentImpl.this.visitorNames.get(visitor));
+						}
+					}
+					FormComponentImpl.LOGGER.debug("Applied changed values: {}", applied);
+					if (!applied.isEmpty()) {
+						FormComponentImpl.this.entitiesChanged();
 					}
-					for (final String unviolate : unviolated) {
-						FormComponentImpl.this.labels.get(unviolate).setText("");
+					this.validate(applied);
+				} else if (FormComponentImpl.CANCEL_ACTION.equals(event.getActionCommand())) {
+					for (final ValueVisitor visitor : FormComponentImpl.this.visitors) {
+						visitor.revert();
+					}
+					for (final JLabel label : FormComponentImpl.this.labels.values()) {
+						label.setText("");
 					}
 				}
-			} else if (FormComponentImpl.CANCEL_ACTION.equals(event.getActionCommand())) {
-				for (final ValueVisitor visitor : FormComponentImpl.this.visitors) {
-					visitor.revert();
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+
+		/**
+		 * Validates the entity after a commit.
+		 * 
+		 * @param applied
+		 *            The names of the applied values.
+		 */
+		private void validate(final Set<String> applied) {
+			final ValidationMode mode = FormComponentImpl.this.settings.getValidationMode();
+			final EntityValidator validator = FormComponentImpl.this.getModel().getExtension(EntityValidator.class);
+			final boolean entityMode = ValidationMode.ENTITY == mode;
+			if (!CheckUtil.isNull(validator) && (entityMode || ((ValidationMode.DIRTY == mode) && !applied.isEmpty()))) {
+				final Set<String> unviolated;
+				if (entityMode) {
+					unviolated = new HashSet<String>(FormComponentImpl.this.labels.keySet());
+				} else {
+					unviolated = new HashSet<String>(applied);
 				}
-				for (final JLabel label : FormComponentImpl.this.labels.values()) {
-					label.setText("");
+				final ComponentMetrics metrics = MetricsRegistry.getMetrics();
+				final long start = MetricsRegistry.start(metrics);
+				final Collection<PropertyViolation<E, ?>> violations = validator.validate(FormComponentImpl.this.getEntityDescriptor(),
+						FormComponentImpl.this.getEntity());
+				if (metrics.isEnabled()) {
+					metrics.recordValidation(FormComponentImpl.this.getEntityDescriptor().getName(), System.nanoTime() - start);
+				}
+				for (final PropertyViolation<E, ?> violation : violations) {
+					final String name = violation.getProperty().getName();
+					final JLabel label = FormComponentImpl.this.labels.get(name);
+					if (!CheckUtil.isNull(label) && (entityMode || applied.contains(name))) {
+						label.setText(violation.getMessage());
+						unviolated.remove(name);
+					}
+				}
+				for (final String unviolate : unviolated) {
+					final JLabel label = FormComponentImpl.this.labels.get(unviolate);
+					if (!CheckUtil.isNull(label)) {
+						label.setText("");
+					}
 				}
 			}
 		}
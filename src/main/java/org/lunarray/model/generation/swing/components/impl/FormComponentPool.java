@@ -0,0 +1,222 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components.impl;
+
+import java.awt.event.ActionListener;
+import java.util.Deque;
+import java.util.LinkedList;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.components.BuildListener;
+import org.lunarray.model.generation.swing.components.FormComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of ready forms for one entity key and locale.
+ * <p>
+ * Forms are prepared in the background and built on the event dispatch
+ * thread, before they are shown. Taking a form rebinds a pooled form to the
+ * entity, releasing it reverts it and returns it to the pool. The pool is
+ * refilled in the background whenever a form is taken. The pool should only
+ * be used on the event dispatch thread.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <S>
+ *            The model super type.
+ * @param <E>
+ *            The entity type.
+ */
+public final class FormComponentPool<S, E extends S> {
+
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(FormComponentPool.class);
+	/** The builder, holding the form configuration. */
+	private final FormComponentBuilder<S, E> builder;
+	/** The hits. */
+	private long hits;
+	/** The idle forms. */
+	private final Deque<FormComponent<E>> idle;
+	/** The misses. */
+	private long misses;
+	/** The forms being prepared, until they are built or fail. */
+	private int pending;
+	/** The entity idle forms are bound to. */
+	private final E placeholder;
+	/** The pool size. */
+	private final int size;
+
+	/**
+	 * Constructs the pool.
+	 * 
+	 * @param builder
+	 *            The builder, holding the form configuration. May not be null.
+	 * @param placeholder
+	 *            The entity idle forms are bound to. May not be null.
+	 * @param size
+	 *            The number of idle forms kept. May not be negative.
+	 */
+	FormComponentPool(final FormComponentBuilder<S, E> builder, final E placeholder, final int size) {
+		Validate.notNull(builder, "Builder may not be null.");
+		Validate.notNull(placeholder, "Placeholder may not be null.");
+		Validate.isTrue(size >= 0, "Size may not be negative.");
+		this.builder = builder;
+		this.placeholder = placeholder;
+		this.size = size;
+		this.idle = new LinkedList<FormComponent<E>>();
+	}
+
+	/**
+	 * Removes all idle forms.
+	 */
+	public void clear() {
+		this.idle.clear();
+	}
+
+	/**
+	 * Gets the value for the hits field.
+	 * 
+	 * @return The value for the hits field.
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Gets the number of idle forms.
+	 * 
+	 * @return The number of idle forms.
+	 */
+	public int getIdle() {
+		return this.idle.size();
+	}
+
+	/**
+	 * Gets the value for the misses field.
+	 * 
+	 * @return The value for the misses field.
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Gets the value for the pending field.
+	 * 
+	 * @return The value for the pending field.
+	 */
+	public int getPending() {
+		return this.pending;
+	}
+
+	/**
+	 * Gets the value for the size field.
+	 * 
+	 * @return The value for the size field.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns a form to the pool. All pending edits are discarded,
+	 * operations in flight are cancelled and action listeners added to the
+	 * form are removed. The form is dropped if the pool is full.
+	 * 
+	 * @param form
+	 *            The form. May not be null.
+	 */
+	public void release(final FormComponent<E> form) {
+		Validate.notNull(form, "Form may not be null.");
+		for (final ActionListener listener : form.getActionListeners()) {
+			form.removeActionListener(listener);
+		}
+		if (this.idle.size() < this.size) {
+			form.rebind(this.placeholder);
+			this.idle.addLast(form);
+		}
+	}
+
+	/**
+	 * Takes a form from the pool, bound to the entity. Operations still in
+	 * flight for a previous entity are cancelled. A form is built if the
+	 * pool is empty. The pool is refilled in the background.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 * @return The form.
+	 */
+	public FormComponent<E> take(final E entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		FormComponent<E> form = this.idle.pollFirst();
+		if (CheckUtil.isNull(form)) {
+			this.misses = this.misses + 1;
+			FormComponentPool.LOGGER.debug("No idle form, building one.");
+			form = this.builder.build();
+		} else {
+			this.hits = this.hits + 1;
+		}
+		form.rebind(entity);
+		this.warm();
+		return form;
+	}
+
+	/**
+	 * Prepares forms in the background until the pool is full.
+	 */
+	public void warm() {
+		while ((this.idle.size() + this.pending) < this.size) {
+			this.pending = this.pending + 1;
+			this.builder.buildAsync(new PoolListener());
+		}
+	}
+
+	/**
+	 * Adds prepared forms to the pool.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class PoolListener
+			implements BuildListener<FormComponent<E>> {
+
+		/**
+		 * Default constructor.
+		 */
+		public PoolListener() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void componentBuilt(final FormComponent<E> component) {
+			FormComponentPool.this.pending = FormComponentPool.this.pending - 1;
+			if (FormComponentPool.this.idle.size() < FormComponentPool.this.size) {
+				FormComponentPool.this.idle.addLast(component);
+			}
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void componentFailed(final Throwable failure) {
+			FormComponentPool.this.pending = FormComponentPool.this.pending - 1;
+			FormComponentPool.LOGGER.warn("Could not prepare a pooled form.", failure);
+		}
+	}
+}
@@ -0,0 +1,401 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components.impl;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.LayoutManager2;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.components.impl.FormComponentImpl.MessagePosition;
+
+/**
+ * Lays out the rows of a form, each row holding a label, a component and a
+ * message.
+ * <p>
+ * Labels are placed in the first column, sized to the widest label. The
+ * message is placed beside or stacked with the component, depending on the
+ * message position. The preferred sizes of a row are cached until one of its
+ * components is invalidated, and rows that did not move or change are not laid
+ * out again. A change in width of the container or of the label column lays out
+ * all rows.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class FormLayout
+		implements LayoutManager2 {
+
+	/** The default padding, in pixels. */
+	public static final int DEFAULT_PADDING = 2;
+	/** The components, with their rows. */
+	private final Map<Component, Row> cells;
+	/** The amount of rows laid out by the last layout. */
+	private int laidOutRows;
+	/** The label column width of the last layout. */
+	private int lastLabelWidth;
+	/** The width of the last layout. */
+	private int lastWidth;
+	/** The placement of the rows. */
+	private final FormRowPlacement placement;
+	/** The rows. */
+	private final List<Row> rows;
+
+	/**
+	 * Constructs the layout.
+	 * 
+	 * @param position
+	 *            The message position. May not be null.
+	 */
+	public FormLayout(final MessagePosition position) {
+		this(position, FormLayout.DEFAULT_PADDING);
+	}
+
+	/**
+	 * Constructs the layout.
+	 * 
+	 * @param position
+	 *            The message position. May not be null.
+	 * @param padding
+	 *            The padding added to the preferred size of each component.
+	 *            May not be negative.
+	 */
+	public FormLayout(final MessagePosition position, final int padding) {
+		this.placement = new FormRowPlacement(position, padding);
+		this.rows = new ArrayList<Row>();
+		this.cells = new HashMap<Component, Row>();
+		this.lastWidth = -1;
+		this.lastLabelWidth = -1;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void addLayoutComponent(final Component component, final Object constraints) {
+		Validate.isTrue(constraints instanceof Constraint, "Constraints must be a form layout constraint.");
+		final Constraint constraint = (Constraint) constraints;
+		while (this.rows.size() <= constraint.getRow()) {
+			this.rows.add(new Row());
+		}
+		final Row row = this.rows.get(constraint.getRow());
+		final Component previous = row.set(constraint.getCell(), component);
+		if (!CheckUtil.isNull(previous)) {
+			this.cells.remove(previous);
+		}
+		this.cells.put(component, row);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void addLayoutComponent(final String name, final Component component) {
+		// Components are added with constraints.
+	}
+
+	/**
+	 * Gets the value for the laidOutRows field.
+	 * 
+	 * @return The value for the laidOutRows field.
+	 */
+	public int getLaidOutRows() {
+		return this.laidOutRows;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public float getLayoutAlignmentX(final Container target) {
+		return Component.CENTER_ALIGNMENT;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public float getLayoutAlignmentY(final Container target) {
+		return Component.CENTER_ALIGNMENT;
+	}
+
+	/**
+	 * Gets the padding added to the preferred size of each component.
+	 * 
+	 * @return The padding.
+	 */
+	public int getPadding() {
+		return this.placement.getPadding();
+	}
+
+	/**
+	 * Gets the message position.
+	 * 
+	 * @return The message position.
+	 */
+	public MessagePosition getPosition() {
+		return this.placement.getPosition();
+	}
+
+	/**
+	 * Gets the amount of rows.
+	 * 
+	 * @return The amount of rows.
+	 */
+	public int getRowCount() {
+		return this.rows.size();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void invalidateLayout(final Container target) {
+		// Rows are measured again once their components are invalid.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void layoutContainer(final Container target) {
+		synchronized (target.getTreeLock()) {
+			final Insets insets = target.getInsets();
+			final int width = target.getWidth() - insets.left - insets.right;
+			int labelWidth = 0;
+			for (final Row row : this.rows) {
+				this.measure(row);
+				labelWidth = Math.max(labelWidth, row.getLabelWidth());
+			}
+			final boolean resized = (width != this.lastWidth) || (labelWidth != this.lastLabelWidth);
+			this.lastWidth = width;
+			this.lastLabelWidth = labelWidth;
+			final int x = insets.left;
+			final int contentX = x + labelWidth;
+			final int contentWidth = Math.max(0, width - labelWidth);
+			int y = insets.top;
+			int laidOut = 0;
+			for (final Row row : this.rows) {
+				if (resized || row.dirty || (row.getY() != y)) {
+					row.setY(y);
+					row.dirty = false;
+					this.placement.layoutRow(row, x, labelWidth, contentX, contentWidth);
+					laidOut = laidOut + 1;
+				}
+				y = y + row.getHeight();
+			}
+			this.laidOutRows = laidOut;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Dimension maximumLayoutSize(final Container target) {
+		return new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Dimension minimumLayoutSize(final Container target) {
+		return this.preferredLayoutSize(target);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Dimension preferredLayoutSize(final Container target) {
+		synchronized (target.getTreeLock()) {
+			int labelWidth = 0;
+			int componentWidth = 0;
+			int messageWidth = 0;
+			int height = 0;
+			for (final Row row : this.rows) {
+				this.measure(row);
+				labelWidth = Math.max(labelWidth, row.getLabelWidth());
+				componentWidth = Math.max(componentWidth, row.getComponentWidth());
+				messageWidth = Math.max(messageWidth, row.getMessageWidth());
+				height = height + row.getHeight();
+			}
+			final int width = this.placement.width(labelWidth, Math.max(componentWidth, messageWidth));
+			final Insets insets = target.getInsets();
+			return new Dimension(width + insets.left + insets.right, height + insets.top + insets.bottom);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void removeLayoutComponent(final Component component) {
+		final Row row = this.cells.remove(component);
+		if (!CheckUtil.isNull(row)) {
+			row.remove(component);
+		}
+	}
+
+	/**
+	 * Measures a row, if any of its components changed.
+	 * 
+	 * @param row
+	 *            The row.
+	 */
+	private void measure(final Row row) {
+		if (!row.isMeasured()) {
+			this.placement.measure(row);
+			row.measured = true;
+			row.dirty = true;
+		}
+	}
+
+	/**
+	 * A cell in a row.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public enum Cell {
+		/** The input component. */
+		COMPONENT,
+		/** The label. */
+		LABEL,
+		/** The message. */
+		MESSAGE;
+	}
+
+	/**
+	 * The constraint of a component, its row and cell.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public static final class Constraint {
+
+		/** The cell. */
+		private final Cell cell;
+		/** The row. */
+		private final int row;
+
+		/**
+		 * Constructs the constraint.
+		 * 
+		 * @param row
+		 *            The row. May not be negative.
+		 * @param cell
+		 *            The cell. May not be null.
+		 */
+		public Constraint(final int row, final Cell cell) {
+			Validate.isTrue(row >= 0, "Row may not be negative.");
+			Validate.notNull(cell, "Cell may not be null.");
+			this.row = row;
+			this.cell = cell;
+		}
+
+		/**
+		 * Gets the value for the cell field.
+		 * 
+		 * @return The value for the cell field.
+		 */
+		public Cell getCell() {
+			return this.cell;
+		}
+
+		/**
+		 * Gets the value for the row field.
+		 * 
+		 * @return The value for the row field.
+		 */
+		public int getRow() {
+			return this.row;
+		}
+	}
+
+	/**
+	 * A row and whether its metrics are cached.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class Row
+			extends FormRowPlacement.Row {
+
+		/** Whether the row needs to be laid out. */
+		private boolean dirty;
+		/** Whether the metrics are known. */
+		private boolean measured;
+
+		/**
+		 * Default constructor.
+		 */
+		public Row() {
+			super();
+		}
+
+		/**
+		 * Tests if the metrics are known and none of the components changed.
+		 * 
+		 * @return True if the row is measured.
+		 */
+		public boolean isMeasured() {
+			return this.measured && Row.isValid(this.getLabel()) && Row.isValid(this.getComponent()) && Row.isValid(this.getMessage());
+		}
+
+		/**
+		 * Removes a component.
+		 * 
+		 * @param removed
+		 *            The component.
+		 */
+		public void remove(final Component removed) {
+			if (this.getLabel() == removed) {
+				this.setLabel(null);
+			}
+			if (this.getComponent() == removed) {
+				this.setComponent(null);
+			}
+			if (this.getMessage() == removed) {
+				this.setMessage(null);
+			}
+			this.measured = false;
+		}
+
+		/**
+		 * Sets a cell.
+		 * 
+		 * @param cell
+		 *            The cell.
+		 * @param value
+		 *            The component.
+		 * @return The component that was in the cell, or null.
+		 */
+		public Component set(final Cell cell, final Component value) {
+			Component previous;
+			if (Cell.LABEL == cell) {
+				previous = this.getLabel();
+				this.setLabel(value);
+			} else if (Cell.COMPONENT == cell) {
+				previous = this.getComponent();
+				this.setComponent(value);
+			} else {
+				previous = this.getMessage();
+				this.setMessage(value);
+			}
+			this.measured = false;
+			return previous;
+		}
+
+		/**
+		 * Tests if a component is valid.
+		 * 
+		 * @param component
+		 *            The component. May be null.
+		 * @return True if there is no component, or if it is valid.
+		 */
+		private static boolean isValid(final Component component) {
+			return CheckUtil.isNull(component) || component.isValid();
+		}
+	}
+}
@@ -0,0 +1,370 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components.impl;
+
+import java.awt.Component;
+import java.awt.Dimension;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.components.impl.FormComponentImpl.MessagePosition;
+
+/**
+ * Measures and places the rows of a form, each row holding a label, a
+ * component and a message.
+ * <p>
+ * The label is placed in the label column. The message is placed beside or
+ * stacked with the component, depending on the message position.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+final class FormRowPlacement {
+
+	/** The padding added to the preferred size of each component. */
+	private final int padding;
+	/** The message position. */
+	private final MessagePosition position;
+
+	/**
+	 * Constructs the placement.
+	 * 
+	 * @param position
+	 *            The message position. May not be null.
+	 * @param padding
+	 *            The padding added to the preferred size of each component.
+	 *            May not be negative.
+	 */
+	public FormRowPlacement(final MessagePosition position, final int padding) {
+		Validate.notNull(position, "Position may not be null.");
+		Validate.isTrue(padding >= 0, "Padding may not be negative.");
+		this.position = position;
+		this.padding = padding;
+	}
+
+	/**
+	 * Gets the value for the padding field.
+	 * 
+	 * @return The value for the padding field.
+	 */
+	public int getPadding() {
+		return this.padding;
+	}
+
+	/**
+	 * Gets the value for the position field.
+	 * 
+	 * @return The value for the position field.
+	 */
+	public MessagePosition getPosition() {
+		return this.position;
+	}
+
+	/**
+	 * Tests if messages are stacked with the component.
+	 * 
+	 * @return True if the message is above or beneath the component.
+	 */
+	public boolean isStacked() {
+		return (MessagePosition.TOP == this.position) || (MessagePosition.BOTTOM == this.position);
+	}
+
+	/**
+	 * Lays out a row at its vertical position.
+	 * 
+	 * @param row
+	 *            The row. May not be null.
+	 * @param x
+	 *            The label position.
+	 * @param labelWidth
+	 *            The label column width.
+	 * @param contentX
+	 *            The position of the content columns.
+	 * @param contentWidth
+	 *            The width of the content columns.
+	 */
+	public void layoutRow(final Row row, final int x, final int labelWidth, final int contentX, final int contentWidth) {
+		final int lineHeight = Math.max(row.labelHeight, row.componentHeight);
+		if (MessagePosition.TOP == this.position) {
+			FormRowPlacement.place(row.message, contentX, row.y, contentWidth, row.messageHeight);
+			FormRowPlacement.place(row.label, x, row.y + row.messageHeight, labelWidth, row.labelHeight);
+			FormRowPlacement.place(row.component, contentX, row.y + row.messageHeight, contentWidth, row.componentHeight);
+		} else if (MessagePosition.BOTTOM == this.position) {
+			FormRowPlacement.place(row.label, x, row.y, labelWidth, row.labelHeight);
+			FormRowPlacement.place(row.component, contentX, row.y, contentWidth, row.componentHeight);
+			FormRowPlacement.place(row.message, contentX, row.y + lineHeight, contentWidth, row.messageHeight);
+		} else {
+			final int half = contentWidth / 2;
+			FormRowPlacement.place(row.label, x, row.y, labelWidth, row.labelHeight);
+			if (MessagePosition.LEFT == this.position) {
+				FormRowPlacement.place(row.message, contentX, row.y, half, row.messageHeight);
+				FormRowPlacement.place(row.component, contentX + half, row.y, contentWidth - half, row.componentHeight);
+			} else {
+				FormRowPlacement.place(row.component, contentX, row.y, half, row.componentHeight);
+				FormRowPlacement.place(row.message, contentX + half, row.y, contentWidth - half, row.messageHeight);
+			}
+		}
+	}
+
+	/**
+	 * Measures a row from the preferred sizes of its components.
+	 * 
+	 * @param row
+	 *            The row. May not be null.
+	 */
+	public void measure(final Row row) {
+		final Dimension labelSize = FormRowPlacement.preferredSize(row.label);
+		final Dimension componentSize = FormRowPlacement.preferredSize(row.component);
+		final Dimension messageSize = FormRowPlacement.preferredSize(row.message);
+		row.labelWidth = this.pad(labelSize.width, row.label);
+		row.labelHeight = this.pad(labelSize.height, row.label);
+		row.componentWidth = this.pad(componentSize.width, row.component);
+		row.componentHeight = this.pad(componentSize.height, row.component);
+		row.messageWidth = this.pad(messageSize.width, row.message);
+		row.messageHeight = this.pad(messageSize.height, row.message);
+		if (this.isStacked()) {
+			row.height = Math.max(row.labelHeight, row.componentHeight) + row.messageHeight;
+		} else {
+			row.height = Math.max(row.labelHeight, Math.max(row.componentHeight, row.messageHeight));
+		}
+	}
+
+	/**
+	 * Gets the width of the rows, from the widest label and content.
+	 * 
+	 * @param labelWidth
+	 *            The label column width.
+	 * @param contentWidth
+	 *            The widest component or message.
+	 * @return The width.
+	 */
+	public int width(final int labelWidth, final int contentWidth) {
+		int width;
+		if (this.isStacked()) {
+			width = labelWidth + contentWidth;
+		} else {
+			width = labelWidth + (2 * contentWidth);
+		}
+		return width;
+	}
+
+	/**
+	 * Pads a preferred size.
+	 * 
+	 * @param size
+	 *            The size.
+	 * @param component
+	 *            The component. May be null.
+	 * @return The padded size, or 0 if there is no component.
+	 */
+	private int pad(final int size, final Component component) {
+		int result = 0;
+		if (!CheckUtil.isNull(component)) {
+			result = size + this.padding;
+		}
+		return result;
+	}
+
+	/**
+	 * Places a component.
+	 * 
+	 * @param component
+	 *            The component. May be null.
+	 * @param x
+	 *            The horizontal position.
+	 * @param y
+	 *            The vertical position.
+	 * @param width
+	 *            The width.
+	 * @param height
+	 *            The height.
+	 */
+	private static void place(final Component component, final int x, final int y, final int width, final int height) {
+		if (!CheckUtil.isNull(component)) {
+			component.setBounds(x, y, width, height);
+		}
+	}
+
+	/**
+	 * Gets the preferred size of a component.
+	 * 
+	 * @param component
+	 *            The component. May be null.
+	 * @return The preferred size, or an empty size if there is no component.
+	 */
+	private static Dimension preferredSize(final Component component) {
+		Dimension size;
+		if (CheckUtil.isNull(component)) {
+			size = new Dimension();
+		} else {
+			size = component.getPreferredSize();
+		}
+		return size;
+	}
+
+	/**
+	 * A row and its metrics.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	static class Row {
+
+		/** The component. */
+		private Component component;
+		/** The preferred component height. */
+		private int componentHeight;
+		/** The preferred component width. */
+		private int componentWidth;
+		/** The row height, negative if the row was never measured. */
+		private int height;
+		/** The label. */
+		private Component label;
+		/** The preferred label height. */
+		private int labelHeight;
+		/** The preferred label width. */
+		private int labelWidth;
+		/** The message. */
+		private Component message;
+		/** The preferred message height. */
+		private int messageHeight;
+		/** The preferred message width. */
+		private int messageWidth;
+		/** The vertical position, negative if the row was never placed. */
+		private int y;
+
+		/**
+		 * Default constructor.
+		 */
+		public Row() {
+			this.height = -1;
+			this.y = -1;
+		}
+
+		/**
+		 * Gets the value for the component field.
+		 * 
+		 * @return The value for the component field.
+		 */
+		public final Component getComponent() {
+			return this.component;
+		}
+
+		/**
+		 * Gets the value for the componentWidth field.
+		 * 
+		 * @return The value for the componentWidth field.
+		 */
+		public final int getComponentWidth() {
+			return this.componentWidth;
+		}
+
+		/**
+		 * Gets the value for the height field.
+		 * 
+		 * @return The value for the height field.
+		 */
+		public final int getHeight() {
+			return this.height;
+		}
+
+		/**
+		 * Gets the value for the label field.
+		 * 
+		 * @return The value for the label field.
+		 */
+		public final Component getLabel() {
+			return this.label;
+		}
+
+		/**
+		 * Gets the value for the labelWidth field.
+		 * 
+		 * @return The value for the labelWidth field.
+		 */
+		public final int getLabelWidth() {
+			return this.labelWidth;
+		}
+
+		/**
+		 * Gets the value for the message field.
+		 * 
+		 * @return The value for the message field.
+		 */
+		public final Component getMessage() {
+			return this.message;
+		}
+
+		/**
+		 * Gets the value for the messageWidth field.
+		 * 
+		 * @return The value for the messageWidth field.
+		 */
+		public final int getMessageWidth() {
+			return this.messageWidth;
+		}
+
+		/**
+		 * Gets the value for the y field.
+		 * 
+		 * @return The value for the y field.
+		 */
+		public final int getY() {
+			return this.y;
+		}
+
+		/**
+		 * Sets a new value for the component field.
+		 * 
+		 * @param component
+		 *            The new value for the component field.
+		 */
+		public final void setComponent(final Component component) {
+			this.component = component;
+		}
+
+		/**
+		 * Sets a new value for the label field.
+		 * 
+		 * @param label
+		 *            The new value for the label field.
+		 */
+		public final void setLabel(final Component label) {
+			this.label = label;
+		}
+
+		/**
+		 * Sets a new value for the message field.
+		 * 
+		 * @param message
+		 *            The new value for the message field.
+		 */
+		public final void setMessage(final Component message) {
+			this.message = message;
+		}
+
+		/**
+		 * Sets a new value for the y field.
+		 * 
+		 * @param y
+		 *            The new value for the y field.
+		 */
+		public final void setY(final int y) {
+			this.y = y;
+		}
+	}
+}
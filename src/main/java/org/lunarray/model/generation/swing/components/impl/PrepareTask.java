@@ -0,0 +1,244 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components.impl;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.generation.swing.components.BuildListener;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.RenderPlan;
+import org.lunarray.model.generation.swing.render.RenderPlanComposer;
+import org.lunarray.model.generation.swing.render.factories.form.FormSettings;
+import org.lunarray.model.generation.swing.render.factories.form.swing.DictionaryPrefetcher;
+import org.lunarray.model.generation.swing.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prepares a component in the background and builds it on the event dispatch
+ * thread.
+ * <p>
+ * The data phase runs on a background thread. It composes the render plan,
+ * which resolves the descriptors, and starts the dictionary lookups of the
+ * select components in parallel. The Swing phase then only creates the
+ * widgets, taking the plan and the dictionaries from their caches.
+ * </p>
+ * <p>
+ * The plan is composed without a qualifier, as the builders construct
+ * components without one. The plan of a component that is qualified later is
+ * not prepared.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <S>
+ *            The model super type.
+ * @param <E>
+ *            The entity type.
+ * @param <C>
+ *            The component type.
+ */
+abstract class PrepareTask<S, E extends S, C>
+		implements Runnable {
+
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(PrepareTask.class);
+	/** The executor preparing components. */
+	private static final ExecutorService PREPARERS = Executors.newCachedThreadPool(new DaemonThreadFactory("component-prepare"));
+	/** The entity key. */
+	private final String entityKey;
+	/** The listener. */
+	private final BuildListener<? super C> listener;
+	/** The locale. */
+	private final Locale locale;
+	/** The model. */
+	private final Model<S> model;
+	/** Whether operations are composed. */
+	private final boolean operations;
+	/** The form settings. */
+	private final FormSettings settings;
+
+	/**
+	 * Constructs the task.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @param entityKey
+	 *            The entity key. May not be null.
+	 * @param locale
+	 *            The locale.
+	 * @param operations
+	 *            Whether operations are composed.
+	 * @param settings
+	 *            The form settings. May be null, if no dictionaries are
+	 *            prefetched.
+	 * @param listener
+	 *            The listener. May not be null.
+	 */
+	protected PrepareTask(final Model<S> model, final String entityKey, final Locale locale, final boolean operations,
+			final FormSettings settings, final BuildListener<? super C> listener) {
+		Validate.notNull(model, "Model may not be null.");
+		Validate.notNull(entityKey, "Entity key may not be null.");
+		Validate.notNull(listener, "Listener may not be null.");
+		this.model = model;
+		this.entityKey = entityKey;
+		this.locale = locale;
+		this.operations = operations;
+		this.settings = settings;
+		this.listener = listener;
+	}
+
+	/**
+	 * Gets the value for the entityKey field.
+	 * 
+	 * @return The value for the entityKey field.
+	 */
+	public final String getEntityKey() {
+		return this.entityKey;
+	}
+
+	/**
+	 * Gets the value for the locale field.
+	 * 
+	 * @return The value for the locale field.
+	 */
+	public final Locale getLocale() {
+		return this.locale;
+	}
+
+	/**
+	 * Gets the value for the model field.
+	 * 
+	 * @return The value for the model field.
+	 */
+	public final Model<S> getModel() {
+		return this.model;
+	}
+
+	/**
+	 * Prepares the component, and builds it on the event dispatch thread. If
+	 * preparing fails, the listener is told so instead.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public final void run() {
+		Runnable next;
+		try {
+			final EntityDescriptor<E> entityDescriptor = (EntityDescriptor<E>) this.model.getEntity(this.entityKey);
+			if (!CheckUtil.isNull(entityDescriptor)) {
+				final RenderPlan<E> plan = new RenderPlanComposer<S, E>(this.model, entityDescriptor, this.locale, null)
+						.getRenderPlan(this.operations);
+				if (!CheckUtil.isNull(this.settings)) {
+					final DictionaryPrefetcher<E> prefetcher = new DictionaryPrefetcher<E>(this.settings);
+					plan.replay(new RenderContext<E>(this.model, entityDescriptor), prefetcher);
+					prefetcher.await();
+				}
+			}
+			next = new BuildTask();
+		} catch (final Throwable e) {
+			// Reported to the listener, which decides how to recover.
+			PrepareTask.LOGGER.warn("Could not prepare component for '{}'.", this.entityKey, e);
+			next = new FailureTask(e);
+		}
+		SwingUtilities.invokeLater(next);
+	}
+
+	/**
+	 * Starts preparing the component.
+	 */
+	public final void start() {
+		PrepareTask.PREPARERS.execute(this);
+	}
+
+	/**
+	 * Builds the component.
+	 * 
+	 * @return The component.
+	 */
+	protected abstract C build();
+
+	/**
+	 * Builds the component on the event dispatch thread.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class BuildTask
+			implements Runnable {
+
+		/**
+		 * Default constructor.
+		 */
+		public BuildTask() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			C component = null;
+			Throwable failure = null;
+			try {
+				component = PrepareTask.this.build();
+			} catch (final Throwable e) {
+				// Reported to the listener, which decides how to recover.
+				PrepareTask.LOGGER.warn("Could not build component for '{}'.", PrepareTask.this.entityKey, e);
+				failure = e;
+			}
+			if (CheckUtil.isNull(failure)) {
+				PrepareTask.this.listener.componentBuilt(component);
+			} else {
+				PrepareTask.this.listener.componentFailed(failure);
+			}
+		}
+	}
+
+	/**
+	 * Reports a failure on the event dispatch thread.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class FailureTask
+			implements Runnable {
+
+		/** The failure. */
+		private final Throwable failure;
+
+		/**
+		 * Constructs the task.
+		 * 
+		 * @param failure
+		 *            The failure.
+		 */
+		public FailureTask(final Throwable failure) {
+			this.failure = failure;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			PrepareTask.this.listener.componentFailed(this.failure);
+		}
+	}
+}
@@ -18,10 +18,15 @@
 package org.lunarray.model.generation.swing.components.impl;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Locale;
 
 import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
 import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.generation.swing.components.BuildListener;
+import org.lunarray.model.generation.swing.components.DataProvider;
+import org.lunarray.model.generation.swing.components.PagedEntityList;
 import org.lunarray.model.generation.swing.components.TableComponent;
 
 /**
@@ -34,20 +39,27 @@ import org.lunarray.model.generation.swing.components.TableComponent;
  *            The entity type.
  */
 public final class TableComponentBuilder<S, E extends S> {
+	/** The data provider. */
+	private transient DataProvider<E> dataProviderBuilder;
 	/** The entity. */
 	private transient Collection<E> entitiesBuilder;
 	/** The entity key. */
 	private transient String entityKeyBuilder;
+	/** The entity stream. */
+	private transient Iterator<? extends E> entityStreamBuilder;
 	/** The locale. */
 	private transient Locale localeBuilder;
 	/** The model. */
 	private transient Model<S> modelBuilder;
+	/** The page size. */
+	private transient int pageSizeBuilder;
 
 	/**
 	 * Default constructor.
 	 */
 	private TableComponentBuilder() {
 		this.localeBuilder = Locale.getDefault();
+		this.pageSizeBuilder = PagedEntityList.DEFAULT_PAGE_SIZE;
 	}
 
 	/**
@@ -71,7 +83,47 @@ public final class TableComponentBuilder<S, E extends S> {
 	public TableComponent<E> build() {
 		Validate.notNull(this.modelBuilder, "Model may not be null.");
 		Validate.notNull(this.entityKeyBuilder, "Entity key may not be null.");
-		return new TableComponentImpl<S, E>(this.modelBuilder, this.entityKeyBuilder, this.entitiesBuilder, this.localeBuilder);
+		final TableComponent<E> result;
+		if (CheckUtil.isNull(this.dataProviderBuilder)) {
+			result = new TableComponentImpl<S, E>(this.modelBuilder, this.entityKeyBuilder, this.entitiesBuilder, this.localeBuilder);
+		} else {
+			Validate.isTrue(CheckUtil.isNull(this.entitiesBuilder), "Either entities or a data provider may be set.");
+			Validate.isTrue(CheckUtil.isNull(this.entityStreamBuilder), "Either an entity stream or a data provider may be set.");
+			result = new TableComponentImpl<S, E>(this.modelBuilder, this.entityKeyBuilder, this.dataProviderBuilder, this.pageSizeBuilder,
+					this.localeBuilder);
+		}
+		if (!CheckUtil.isNull(this.entityStreamBuilder)) {
+			result.stream(this.entityStreamBuilder);
+		}
+		return result;
+	}
+
+	/**
+	 * Builds the component in the background. The render plan is composed on
+	 * a background thread, after which the component is built on the event
+	 * dispatch thread.
+	 * 
+	 * @param listener
+	 *            The listener that receives the component, or the failure. May
+	 *            not be null.
+	 */
+	public void buildAsync(final BuildListener<? super TableComponent<E>> listener) {
+		Validate.notNull(this.modelBuilder, "Model may not be null.");
+		Validate.notNull(this.entityKeyBuilder, "Entity key may not be null.");
+		new TablePrepareTask(listener).start();
+	}
+
+	/**
+	 * Sets a new value for the dataProvider field. The table then only fetches
+	 * the entities it shows.
+	 * 
+	 * @param dataProvider
+	 *            The new value for the dataProvider field.
+	 * @return The builder.
+	 */
+	public TableComponentBuilder<S, E> dataProvider(final DataProvider<E> dataProvider) {
+		this.dataProviderBuilder = dataProvider;
+		return this;
 	}
 
 	/**
@@ -98,6 +150,20 @@ public final class TableComponentBuilder<S, E extends S> {
 		return this;
 	}
 
+	/**
+	 * Sets a new value for the entityStream field. The entities are read in
+	 * the background after building, and shown as they are read, after any
+	 * entities that were set.
+	 * 
+	 * @param entityStream
+	 *            The new value for the entityStream field.
+	 * @return The builder.
+	 */
+	public TableComponentBuilder<S, E> entityStream(final Iterator<? extends E> entityStream) {
+		this.entityStreamBuilder = entityStream;
+		return this;
+	}
+
 	/**
 	 * Sets a new value for the locale field.
 	 * 
@@ -121,4 +187,54 @@ public final class TableComponentBuilder<S, E extends S> {
 		this.modelBuilder = model;
 		return this;
 	}
+
+	/**
+	 * Sets a new value for the pageSize field. Only used with a data provider.
+	 * 
+	 * @param pageSize
+	 *            The new value for the pageSize field. Must be positive.
+	 * @return The builder.
+	 */
+	public TableComponentBuilder<S, E> pageSize(final int pageSize) {
+		Validate.isTrue(pageSize > 0, "Page size must be positive.");
+		this.pageSizeBuilder = pageSize;
+		return this;
+	}
+
+	/**
+	 * Prepares a table in the background.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class TablePrepareTask
+			extends PrepareTask<S, E, TableComponent<E>> {
+
+		/** The builder, holding the state at the time of the call. */
+		private final TableComponentBuilder<S, E> builder;
+
+		/**
+		 * Constructs the task from the current builder state.
+		 * 
+		 * @param listener
+		 *            The listener. May not be null.
+		 */
+		public TablePrepareTask(final BuildListener<? super TableComponent<E>> listener) {
+			super(TableComponentBuilder.this.modelBuilder, TableComponentBuilder.this.entityKeyBuilder,
+					TableComponentBuilder.this.localeBuilder, false, null, listener);
+			this.builder = new TableComponentBuilder<S, E>();
+			this.builder.dataProviderBuilder = TableComponentBuilder.this.dataProviderBuilder;
+			this.builder.entitiesBuilder = TableComponentBuilder.this.entitiesBuilder;
+			this.builder.entityKeyBuilder = TableComponentBuilder.this.entityKeyBuilder;
+			this.builder.entityStreamBuilder = TableComponentBuilder.this.entityStreamBuilder;
+			this.builder.localeBuilder = TableComponentBuilder.this.localeBuilder;
+			this.builder.modelBuilder = TableComponentBuilder.this.modelBuilder;
+			this.builder.pageSizeBuilder = TableComponentBuilder.this.pageSizeBuilder;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected TableComponent<E> build() {
+			return this.builder.build();
+		}
+	}
 }
@@ -20,8 +20,10 @@ package org.lunarray.model.generation.swing.components.impl;
 import java.awt.BorderLayout;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Future;
 
 import javax.swing.JComponent;
 import javax.swing.JLabel;
@@ -29,14 +31,20 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 
+import org.apache.commons.lang.Validate;
 import org.lunarray.common.check.CheckUtil;
 import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.generation.swing.components.DataProvider;
 import org.lunarray.model.generation.swing.components.DataTableModel;
+import org.lunarray.model.generation.swing.components.EntityFilter;
+import org.lunarray.model.generation.swing.components.EntityRowSorter;
+import org.lunarray.model.generation.swing.components.PagedEntityList;
 import org.lunarray.model.generation.swing.components.TableComponent;
 import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.RenderPlan;
 import org.lunarray.model.generation.swing.render.factories.table.GeneratedColumn;
 import org.lunarray.model.generation.swing.render.factories.table.swing.TablePropertyRenderStrategyFactoryImpl;
-import org.lunarray.model.generation.util.Composer;
+import org.lunarray.model.generation.swing.render.factories.table.swing.components.AbstractNumberColumnGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +67,10 @@ public final class TableComponentImpl<S, E extends S>
 	private static final long serialVersionUID = 7168781367616477749L;
 	/** The entities. */
 	private List<E> entities;
+	/** The entity feed, null for tables backed by a data provider. */
+	private final EntityFeed<E> feed;
+	/** The row sorter, null for tables backed by a data provider. */
+	private EntityRowSorter<E> rowSorter;
 	/** The table. */
 	private JPanel table;
 	/** The model. */
@@ -97,16 +109,71 @@ public final class TableComponentImpl<S, E extends S>
 		} else {
 			this.entities = new ArrayList<E>(entities);
 		}
+		this.feed = new EntityFeed<E>(this);
 		TableComponentImpl.LOGGER.debug("Showing entities: {}", entities);
 		this.init();
 	}
 
+	/**
+	 * Constructs the form component backed by a data provider. Only the rows
+	 * that are shown, and a margin around them, are fetched.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @param entityKey
+	 *            The entity key. May not be null.
+	 * @param provider
+	 *            The data provider. May not be null.
+	 * @param pageSize
+	 *            The amount of entities fetched at once.
+	 * @param locale
+	 *            The locale.
+	 */
+	protected TableComponentImpl(final Model<S> model, final String entityKey, final DataProvider<E> provider, final int pageSize,
+			final Locale locale) {
+		super(model, entityKey, locale);
+		this.entities = new PagedEntityList<E>(provider, pageSize, PagedEntityList.DEFAULT_MAX_PAGES, PagedEntityList.DEFAULT_PREFETCH_PAGES);
+		this.feed = null;
+		TableComponentImpl.LOGGER.debug("Showing entities from provider: {}", provider);
+		this.init();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public <R> void addColumn(final GeneratedColumn<E, R> column) {
 		this.tableModel.addColumn(column);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void append(final E entity) {
+		this.getFeed().append(entity);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void entitiesInserted(final int fromIndex, final int toIndex) {
+		this.tableModel.entitiesInserted(fromIndex, toIndex);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void entitiesRemoved(final int fromIndex, final int toIndex) {
+		this.tableModel.entitiesRemoved(fromIndex, toIndex);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void entitiesUpdated(final int fromIndex, final int toIndex) {
+		this.tableModel.entitiesUpdated(fromIndex, toIndex);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void entityUpdated(final E entity) {
+		this.tableModel.entityUpdated(entity);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public JComponent getComponent() {
@@ -122,6 +189,26 @@ public final class TableComponentImpl<S, E extends S>
 		return this.entities;
 	}
 
+	/**
+	 * Gets the value for the feed field.
+	 * 
+	 * @return The value for the feed field.
+	 */
+	public EntityFeed<E> getFeed() {
+		Validate.isTrue(!CheckUtil.isNull(this.feed), "Tables backed by a data provider can not be fed.");
+		return this.feed;
+	}
+
+	/**
+	 * Gets the value for the rowSorter field.
+	 * 
+	 * @return The value for the rowSorter field. Null for tables backed by a
+	 *         data provider.
+	 */
+	public EntityRowSorter<E> getRowSorter() {
+		return this.rowSorter;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public JPanel getTable() {
@@ -135,7 +222,19 @@ public final class TableComponentImpl<S, E extends S>
 	}
 
 	/**
-	 * Sets a new value for the entities field.
+	 * Drops all entities fetched from the data provider and refreshes the
+	 * table. Does nothing if the table is not backed by a data provider.
+	 */
+	public void reload() {
+		if (this.entities instanceof PagedEntityList) {
+			((PagedEntityList<E>) this.entities).refresh();
+			this.tableModel.updatedEntities();
+		}
+	}
+
+	/**
+	 * Sets a new value for the entities field. This refreshes the complete
+	 * table, use the ranged notifications for smaller changes.
 	 * 
 	 * @param entities
 	 *            The new value for the entities field.
@@ -143,9 +242,17 @@ public final class TableComponentImpl<S, E extends S>
 	public void setEntities(final List<E> entities) {
 		this.entities = entities;
 		TableComponentImpl.LOGGER.debug("Setting entities: {}", entities);
+		this.tableModel.setEntities(entities);
 		this.tableModel.updatedEntities();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void setFilter(final EntityFilter<? super E> filter) {
+		Validate.notNull(this.rowSorter, "Tables backed by a data provider can not be filtered.");
+		this.rowSorter.setFilter(filter);
+	}
+
 	/**
 	 * Sets a new value for the table field.
 	 * 
@@ -166,21 +273,36 @@ public final class TableComponentImpl<S, E extends S>
 		this.tableModel = tableModel;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Future<?> stream(final Iterator<? extends E> entities) {
+		return this.getFeed().stream(entities);
+	}
+
 	/** Initializes the table. */
 	private void init() {
-		final Composer<RenderContext<E>, S, E> composer = new Composer<RenderContext<E>, S, E>();
-		composer.setContext(new RenderContext<E>(this.getModel()));
-		composer.setPropertyRenderStrategyFactory(new TablePropertyRenderStrategyFactoryImpl<E>(this));
-		composer.setVariableResolver(new ComponentVariableResolver());
+		final RenderPlan<E> plan = this.getRenderPlan(false);
 		this.table = new JPanel(new BorderLayout());
 		final JTable content = new JTable();
-		final JLabel label = new JLabel(composer.getLabel());
+		final JLabel label = new JLabel(plan.getLabel());
 		label.setLabelFor(content);
 		this.table.add(label, BorderLayout.NORTH);
 		this.table.add(new JScrollPane(content), BorderLayout.CENTER);
 		this.tableModel = new DataTableModel<E>(this.getEntities());
-		composer.compose(false);
+		plan.replay(new RenderContext<E>(this.getModel(), this.getEntityDescriptor()), new TablePropertyRenderStrategyFactoryImpl<E>(this));
 		content.setModel(this.tableModel);
-		this.add(content);
+		for (int i = 0; i < this.tableModel.getColumnCount(); i = i + 1) {
+			final GeneratedColumn<E, ?> column = this.tableModel.getColumns().get(i);
+			if (column instanceof AbstractNumberColumnGenerator) {
+				final AbstractNumberColumnGenerator<?, ?, ?> numberColumn = (AbstractNumberColumnGenerator<?, ?, ?>) column;
+				content.getColumnModel().getColumn(i).setCellRenderer(numberColumn.createRenderer(this.getLocale()));
+			}
+		}
+		if (!(this.entities instanceof PagedEntityList)) {
+			this.rowSorter = new EntityRowSorter<E>(this.tableModel, this.getLocale());
+			content.setRowSorter(this.rowSorter);
+		}
+		this.setLayout(new BorderLayout());
+		this.add(this.table, BorderLayout.CENTER);
 	}
 }
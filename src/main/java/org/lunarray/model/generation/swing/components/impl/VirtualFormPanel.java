@@ -0,0 +1,562 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components.impl;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.KeyboardFocusManager;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.components.impl.FormComponentImpl.MessagePosition;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
+import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.swing.components.VirtualPropertyStrategy;
+
+/**
+ * A form panel that only holds the components of the rows near the viewport.
+ * <p>
+ * Rows are placed in the order they are added. Rows that were never shown
+ * are given the average height of the rows that were. Components of rows
+ * that scroll away are released, unless they hold the focus, while the
+ * strategies keep the buffered values. The panel is meant to be placed in a
+ * scroll pane. Changes of the viewport are coalesced into a single update of
+ * the rows, which adds and removes components outside of the layout.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class VirtualFormPanel
+		extends JPanel
+		implements Scrollable {
+
+	/** The default distance beyond the viewport in which rows are shown. */
+	public static final int DEFAULT_OVERSCAN = 200;
+	/** The default height of rows that were never shown, in pixels. */
+	public static final int DEFAULT_ROW_HEIGHT = 24;
+	/** Serial id. */
+	private static final long serialVersionUID = -4721390716513049383L;
+	/** The width of the content columns. */
+	private int contentWidth;
+	/** The label column width. */
+	private int labelWidth;
+	/** The sum of the heights of the measured rows. */
+	private int measuredHeight;
+	/** The amount of measured rows. */
+	private int measuredRows;
+	/** The distance beyond the viewport in which rows are shown, in pixels. */
+	private int overscan;
+	/** The placement of the rows. */
+	private final FormRowPlacement placement;
+	/** The amount of rows holding components. */
+	private int realizedRows;
+	/** The rows. */
+	private final List<Row> rows;
+	/** The subject of the handlers of the panel, may be null. */
+	private final String subject;
+	/** Whether an update of the rows is scheduled. */
+	private boolean updatePending;
+	/** The update of the rows. */
+	private final RowUpdater updater;
+	/** The viewport the panel is shown in. */
+	private JViewport viewport;
+	/** The viewport listener. */
+	private final ViewportListener viewportListener;
+
+	/**
+	 * Constructs the panel.
+	 * 
+	 * @param position
+	 *            The message position. May not be null.
+	 * @param padding
+	 *            The padding added to the preferred size of each component.
+	 *            May not be negative.
+	 * @param subject
+	 *            The entity of the form, naming the handlers of the panel
+	 *            for the watchdog. May be null.
+	 */
+	public VirtualFormPanel(final MessagePosition position, final int padding, final String subject) {
+		super(null);
+		this.subject = subject;
+		this.placement = new FormRowPlacement(position, padding);
+		this.overscan = VirtualFormPanel.DEFAULT_OVERSCAN;
+		this.rows = new ArrayList<Row>();
+		this.updater = new RowUpdater();
+		this.viewportListener = new ViewportListener();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		if (this.getParent() instanceof JViewport) {
+			this.viewport = (JViewport) this.getParent();
+			this.viewport.addChangeListener(this.viewportListener);
+		}
+		this.scheduleUpdate();
+	}
+
+	/**
+	 * Adds a row with fixed components.
+	 * 
+	 * @param label
+	 *            The label. May be null.
+	 * @param component
+	 *            The component. May be null.
+	 * @param message
+	 *            The message. May be null.
+	 */
+	public void addRow(final JComponent label, final JComponent component, final JComponent message) {
+		final Row row = new Row(null);
+		row.setLabel(label);
+		row.setComponent(component);
+		row.setMessage(message);
+		this.attach(row);
+		this.rows.add(row);
+	}
+
+	/**
+	 * Adds a row for a strategy. The components of virtual strategies are only
+	 * requested once the row is near the viewport.
+	 * 
+	 * @param strategy
+	 *            The strategy. May not be null.
+	 */
+	public void addRow(final FormPropertyRenderStrategy<?> strategy) {
+		Validate.notNull(strategy, "Strategy may not be null.");
+		if (strategy instanceof VirtualPropertyStrategy) {
+			this.rows.add(new Row((VirtualPropertyStrategy<?>) strategy));
+		} else {
+			this.addRow(strategy.getLabel(), strategy.getComponent(), strategy.getMessage());
+		}
+	}
+
+	/**
+	 * Measures and places the rows holding components. Components are not
+	 * added or removed here, see {@link #updateRows()}.
+	 */
+	@Override
+	public void doLayout() {
+		synchronized (this.getTreeLock()) {
+			final Insets insets = this.getInsets();
+			boolean resized = false;
+			int y = insets.top;
+			for (final Row row : this.rows) {
+				if (row.attached) {
+					resized = this.measure(row) || resized;
+				}
+				row.setY(y);
+				y = y + this.getRowHeight(row);
+			}
+			final int x = insets.left;
+			final int contentX = x + this.labelWidth;
+			final int width = Math.max(0, this.getWidth() - insets.left - insets.right - this.labelWidth);
+			for (final Row row : this.rows) {
+				if (row.attached) {
+					this.placement.layoutRow(row, x, this.labelWidth, contentX, width);
+				}
+			}
+			if (resized) {
+				this.revalidate();
+			}
+		}
+	}
+
+	/**
+	 * Gets the value for the overscan field.
+	 * 
+	 * @return The value for the overscan field.
+	 */
+	public int getOverscan() {
+		return this.overscan;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		return this.getPreferredSize();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Dimension getPreferredSize() {
+		int height = 0;
+		for (final Row row : this.rows) {
+			height = height + this.getRowHeight(row);
+		}
+		final int width = this.placement.width(this.labelWidth, this.contentWidth);
+		final Insets insets = this.getInsets();
+		return new Dimension(width + insets.left + insets.right, height + insets.top + insets.bottom);
+	}
+
+	/**
+	 * Gets the value for the realizedRows field.
+	 * 
+	 * @return The value for the realizedRows field.
+	 */
+	public int getRealizedRows() {
+		return this.realizedRows;
+	}
+
+	/**
+	 * Gets the amount of rows.
+	 * 
+	 * @return The amount of rows.
+	 */
+	public int getRowCount() {
+		return this.rows.size();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int getScrollableBlockIncrement(final Rectangle visibleRect, final int orientation, final int direction) {
+		int increment;
+		if (SwingConstants.VERTICAL == orientation) {
+			increment = visibleRect.height;
+		} else {
+			increment = visibleRect.width;
+		}
+		return increment;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		return false;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		return true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int getScrollableUnitIncrement(final Rectangle visibleRect, final int orientation, final int direction) {
+		return this.getEstimatedHeight();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void removeNotify() {
+		if (!CheckUtil.isNull(this.viewport)) {
+			this.viewport.removeChangeListener(this.viewportListener);
+			this.viewport = null;
+		}
+		super.removeNotify();
+	}
+
+	/**
+	 * Sets a new value for the overscan field.
+	 * 
+	 * @param overscan
+	 *            The new value for the overscan field. May not be negative.
+	 */
+	public void setOverscan(final int overscan) {
+		Validate.isTrue(overscan >= 0, "Overscan may not be negative.");
+		this.overscan = overscan;
+	}
+
+	/**
+	 * Adds the components of the rows near the viewport, removes and releases
+	 * the components of the other rows, and revalidates the panel if any row
+	 * changed.
+	 */
+	public void updateRows() {
+		synchronized (this.getTreeLock()) {
+			final Rectangle visible = this.getVisibleRect();
+			final int top = visible.y - this.overscan;
+			final int bottom = visible.y + visible.height + this.overscan;
+			final Component focusOwner = KeyboardFocusManager.getCurrentKeyboardFocusManager().getPermanentFocusOwner();
+			boolean changed = false;
+			int realized = 0;
+			int y = this.getInsets().top;
+			for (final Row row : this.rows) {
+				final boolean near = !visible.isEmpty() && ((y + this.getRowHeight(row)) >= top) && (y <= bottom);
+				if (!row.isVirtual() || near || row.holds(focusOwner)) {
+					if (!row.attached) {
+						this.attach(row);
+						changed = true;
+					}
+					realized = realized + 1;
+				} else if (row.attached) {
+					this.detach(row);
+					changed = true;
+				}
+				y = y + this.getRowHeight(row);
+			}
+			this.realizedRows = realized;
+			if (changed) {
+				this.revalidate();
+			}
+		}
+	}
+
+	/**
+	 * Adds the components of a row, creating them if needed.
+	 * 
+	 * @param row
+	 *            The row.
+	 */
+	private void attach(final Row row) {
+		if (row.isVirtual()) {
+			row.setLabel(row.strategy.getLabel());
+			row.setComponent(row.strategy.getComponent());
+			row.setMessage(row.strategy.getMessage());
+		}
+		VirtualFormPanel.add(this, row.getLabel());
+		VirtualFormPanel.add(this, row.getComponent());
+		VirtualFormPanel.add(this, row.getMessage());
+		row.attached = true;
+	}
+
+	/**
+	 * Removes the components of a row and releases them.
+	 * 
+	 * @param row
+	 *            The row.
+	 */
+	private void detach(final Row row) {
+		VirtualFormPanel.remove(this, row.getLabel());
+		VirtualFormPanel.remove(this, row.getComponent());
+		VirtualFormPanel.remove(this, row.getMessage());
+		row.setLabel(null);
+		row.setComponent(null);
+		row.setMessage(null);
+		row.strategy.release();
+		row.attached = false;
+	}
+
+	/**
+	 * Gets the height of rows that were never shown.
+	 * 
+	 * @return The average height of the shown rows.
+	 */
+	private int getEstimatedHeight() {
+		int height;
+		if (this.measuredRows == 0) {
+			height = VirtualFormPanel.DEFAULT_ROW_HEIGHT;
+		} else {
+			height = this.measuredHeight / this.measuredRows;
+		}
+		return height;
+	}
+
+	/**
+	 * Gets the height of a row.
+	 * 
+	 * @param row
+	 *            The row.
+	 * @return The measured height, or the estimated height if the row was
+	 *         never shown.
+	 */
+	private int getRowHeight(final Row row) {
+		int height;
+		if (row.getHeight() < 0) {
+			height = this.getEstimatedHeight();
+		} else {
+			height = row.getHeight();
+		}
+		return height;
+	}
+
+	/**
+	 * Measures a row.
+	 * 
+	 * @param row
+	 *            The row.
+	 * @return True if the preferred size of the panel changed.
+	 */
+	private boolean measure(final Row row) {
+		final int previous = row.getHeight();
+		final int estimated = this.getRowHeight(row);
+		this.placement.measure(row);
+		final int height = row.getHeight();
+		boolean resized = height != estimated;
+		if (previous < 0) {
+			this.measuredRows = this.measuredRows + 1;
+			this.measuredHeight = this.measuredHeight + height;
+		} else {
+			this.measuredHeight = (this.measuredHeight - previous) + height;
+		}
+		if (row.getLabelWidth() > this.labelWidth) {
+			this.labelWidth = row.getLabelWidth();
+			resized = true;
+		}
+		final int rowContentWidth = Math.max(row.getComponentWidth(), row.getMessageWidth());
+		if (rowContentWidth > this.contentWidth) {
+			this.contentWidth = rowContentWidth;
+			resized = true;
+		}
+		return resized;
+	}
+
+	/**
+	 * Schedules a single update of the rows, if none is pending.
+	 */
+	private void scheduleUpdate() {
+		if (!this.updatePending) {
+			this.updatePending = true;
+			SwingUtilities.invokeLater(this.updater);
+		}
+	}
+
+	/**
+	 * Adds a component to a panel.
+	 * 
+	 * @param panel
+	 *            The panel.
+	 * @param component
+	 *            The component. May be null.
+	 */
+	private static void add(final JPanel panel, final Component component) {
+		if (!CheckUtil.isNull(component)) {
+			panel.add(component);
+		}
+	}
+
+	/**
+	 * Removes a component from a panel.
+	 * 
+	 * @param panel
+	 *            The panel.
+	 * @param component
+	 *            The component. May be null.
+	 */
+	private static void remove(final JPanel panel, final Component component) {
+		if (!CheckUtil.isNull(component)) {
+			panel.remove(component);
+		}
+	}
+
+	/**
+	 * Updates the rows once the scheduled update runs.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class RowUpdater
+			implements Runnable {
+
+		/**
+		 * Default constructor.
+		 */
+		public RowUpdater() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			EdtWatchdog.enter(VirtualFormPanel.this.subject);
+			try {
+				VirtualFormPanel.this.updatePending = false;
+				VirtualFormPanel.this.updateRows();
+				VirtualFormPanel.this.repaint();
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * Schedules an update of the rows once the viewport scrolls or resizes.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class ViewportListener
+			implements ChangeListener {
+
+		/**
+		 * Default constructor.
+		 */
+		public ViewportListener() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void stateChanged(final ChangeEvent event) {
+			EdtWatchdog.enter(VirtualFormPanel.this.subject);
+			try {
+				VirtualFormPanel.this.scheduleUpdate();
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * A row, with the strategy of virtual rows.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class Row
+			extends FormRowPlacement.Row {
+
+		/** Whether the components are added to the panel. */
+		private boolean attached;
+		/** The strategy, null for fixed rows. */
+		private final VirtualPropertyStrategy<?> strategy;
+
+		/**
+		 * Constructs the row.
+		 * 
+		 * @param strategy
+		 *            The strategy, null for fixed rows.
+		 */
+		public Row(final VirtualPropertyStrategy<?> strategy) {
+			super();
+			this.strategy = strategy;
+		}
+
+		/**
+		 * Tests if the row holds the focus.
+		 * 
+		 * @param focusOwner
+		 *            The focus owner. May be null.
+		 * @return True if the focus owner is in the component of this row.
+		 */
+		public boolean holds(final Component focusOwner) {
+			return this.attached && !CheckUtil.isNull(focusOwner) && !CheckUtil.isNull(this.getComponent())
+					&& SwingUtilities.isDescendingFrom(focusOwner, this.getComponent());
+		}
+
+		/**
+		 * Tests if the components of the row may be released.
+		 * 
+		 * @return True if the row is backed by a virtual strategy.
+		 */
+		public boolean isVirtual() {
+			return !CheckUtil.isNull(this.strategy);
+		}
+	}
+}
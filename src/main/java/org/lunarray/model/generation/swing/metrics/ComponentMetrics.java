@@ -0,0 +1,111 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import org.lunarray.model.descriptor.presentation.RenderType;
+
+/**
+ * Records where time goes in generated components.
+ * <p>
+ * Implementations are called from the event dispatch thread and from
+ * background threads, and should not allocate when recording. Callers only
+ * measure if the metrics are enabled, but may record latencies they measure
+ * anyway, so implementations ignore records while disabled. Latencies are in
+ * nanoseconds. Columns and operations are recorded by the key given by
+ * {@link MetricsRegistry#key}.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public interface ComponentMetrics {
+
+	/**
+	 * Tests if the metrics are enabled.
+	 * 
+	 * @return True if and only if latencies should be measured.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Records the read of a column value.
+	 * 
+	 * @param column
+	 *            The key of the column.
+	 * @param latency
+	 *            The latency.
+	 */
+	void recordColumnValue(String column, long latency);
+
+	/**
+	 * Records the composition of an entity.
+	 * 
+	 * @param entity
+	 *            The entity name.
+	 * @param latency
+	 *            The latency.
+	 */
+	void recordCompose(String entity, long latency);
+
+	/**
+	 * Records a failed conversion of a column value.
+	 * 
+	 * @param column
+	 *            The key of the column.
+	 */
+	void recordConversionFailure(String column);
+
+	/**
+	 * Records a dictionary lookup.
+	 * 
+	 * @param entity
+	 *            The name of the looked up entity.
+	 * @param latency
+	 *            The latency.
+	 */
+	void recordDictionaryLookup(String entity, long latency);
+
+	/**
+	 * Records an operation invocation.
+	 * 
+	 * @param operation
+	 *            The key of the operation.
+	 * @param latency
+	 *            The latency.
+	 */
+	void recordOperation(String operation, long latency);
+
+	/**
+	 * Records the creation of a strategy.
+	 * 
+	 * @param renderType
+	 *            The render type. May be null for the default strategy.
+	 * @param latency
+	 *            The latency.
+	 */
+	void recordStrategyCreation(RenderType renderType, long latency);
+
+	/**
+	 * Records the validation of an entity.
+	 * 
+	 * @param entity
+	 *            The entity name.
+	 * @param latency
+	 *            The latency.
+	 */
+	void recordValidation(String entity, long latency);
+}
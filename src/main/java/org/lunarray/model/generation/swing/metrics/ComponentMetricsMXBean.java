@@ -0,0 +1,98 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of the JMX metrics. Latencies are summarized per
+ * key, in nanoseconds.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public interface ComponentMetricsMXBean {
+
+	/**
+	 * Gets the column value latencies.
+	 * 
+	 * @return The latencies, per column.
+	 */
+	Map<String, String> getColumnValueLatencies();
+
+	/**
+	 * Gets the compose latencies.
+	 * 
+	 * @return The latencies, per entity.
+	 */
+	Map<String, String> getComposeLatencies();
+
+	/**
+	 * Gets the conversion failures.
+	 * 
+	 * @return The failures, per column.
+	 */
+	Map<String, Long> getConversionFailures();
+
+	/**
+	 * Gets the dictionary lookup latencies.
+	 * 
+	 * @return The latencies, per entity.
+	 */
+	Map<String, String> getDictionaryLookupLatencies();
+
+	/**
+	 * Gets the operation latencies.
+	 * 
+	 * @return The latencies, per operation.
+	 */
+	Map<String, String> getOperationLatencies();
+
+	/**
+	 * Gets the strategy creation latencies.
+	 * 
+	 * @return The latencies, per render type.
+	 */
+	Map<String, String> getStrategyCreationLatencies();
+
+	/**
+	 * Gets the validation latencies.
+	 * 
+	 * @return The latencies, per entity.
+	 */
+	Map<String, String> getValidationLatencies();
+
+	/**
+	 * Tests if recording is enabled.
+	 * 
+	 * @return True if and only if recording is enabled.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Clears all recorded values.
+	 */
+	void reset();
+
+	/**
+	 * Enables or disables recording.
+	 * 
+	 * @param enabled
+	 *            True to enable recording.
+	 */
+	void setEnabled(boolean enabled);
+}
@@ -0,0 +1,80 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import org.lunarray.model.descriptor.presentation.RenderType;
+
+/**
+ * Metrics that record nothing, the default.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public enum DisabledComponentMetrics
+		implements ComponentMetrics {
+
+	/** The instance. */
+	INSTANCE;
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean isEnabled() {
+		return false;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordColumnValue(final String column, final long latency) {
+		// Disabled.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordCompose(final String entity, final long latency) {
+		// Disabled.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordConversionFailure(final String column) {
+		// Disabled.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordDictionaryLookup(final String entity, final long latency) {
+		// Disabled.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordOperation(final String operation, final long latency) {
+		// Disabled.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordStrategyCreation(final RenderType renderType, final long latency) {
+		// Disabled.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordValidation(final String entity, final long latency) {
+		// Disabled.
+	}
+}
@@ -0,0 +1,258 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects handlers that stall the event dispatch thread.
+ * <p>
+ * The listeners installed by generated components mark their dispatch with
+ * {@link #enter(String)} and {@link #exit()}, naming the entity, property or
+ * operation they handle. Once installed, a watchdog thread samples the stack
+ * of the event dispatch thread when a dispatch runs longer than the
+ * threshold, and reports it with the subjects of the running handlers.
+ * Handlers running on other threads are not tracked. The watchdog is not
+ * installed by default, marking a dispatch then costs a volatile read.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class EdtWatchdog {
+
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(EdtWatchdog.class);
+	/** The maximum tracked handler nesting. */
+	private static final int MAX_DEPTH = 16;
+	/** The minimum sample period, in nanoseconds. */
+	private static final long MIN_PERIOD = TimeUnit.MILLISECONDS.toNanos(1);
+	/** The samples per threshold. */
+	private static final int SAMPLES = 4;
+	/** The installed watchdog. */
+	private static volatile EdtWatchdog installed;
+	/** The running handler nesting, written on the event dispatch thread. */
+	private volatile int depth;
+	/** The dispatch counter, written on the event dispatch thread. */
+	private volatile long dispatch;
+	/** The event dispatch thread. */
+	private volatile Thread edt;
+	/** The listener. */
+	private final StallListener listener;
+	/** The last reported dispatch. */
+	private volatile long reported;
+	/** The sampler. */
+	private final ScheduledExecutorService sampler;
+	/** The start of the running dispatch. */
+	private volatile long start;
+	/** The subjects of the running handlers. */
+	private final String[] subjects;
+	/** The threshold, in nanoseconds. */
+	private final long threshold;
+
+	/**
+	 * Constructs the watchdog.
+	 * 
+	 * @param threshold
+	 *            The threshold, in nanoseconds.
+	 * @param listener
+	 *            The listener.
+	 */
+	private EdtWatchdog(final long threshold, final StallListener listener) {
+		this.threshold = threshold;
+		this.listener = listener;
+		this.subjects = new String[EdtWatchdog.MAX_DEPTH];
+		this.reported = -1;
+		this.sampler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("edt-watchdog"));
+	}
+
+	/**
+	 * Marks the start of a handler. Should be called on the event dispatch
+	 * thread and followed by {@link #exit()}.
+	 * 
+	 * @param subject
+	 *            The entity, property or operation handled.
+	 */
+	public static void enter(final String subject) {
+		final EdtWatchdog watchdog = EdtWatchdog.installed;
+		if (!CheckUtil.isNull(watchdog) && SwingUtilities.isEventDispatchThread()) {
+			watchdog.enterDispatch(subject);
+		}
+	}
+
+	/**
+	 * Marks the end of a handler.
+	 */
+	public static void exit() {
+		final EdtWatchdog watchdog = EdtWatchdog.installed;
+		if (!CheckUtil.isNull(watchdog) && SwingUtilities.isEventDispatchThread()) {
+			watchdog.exitDispatch();
+		}
+	}
+
+	/**
+	 * Gets the installed watchdog.
+	 * 
+	 * @return The watchdog, or null if none is installed.
+	 */
+	public static EdtWatchdog getInstalled() {
+		return EdtWatchdog.installed;
+	}
+
+	/**
+	 * Installs a watchdog that logs stalls, replacing any installed watchdog.
+	 * 
+	 * @param threshold
+	 *            The threshold, in milliseconds. Must be positive.
+	 * @return The watchdog.
+	 */
+	public static EdtWatchdog install(final long threshold) {
+		return EdtWatchdog.install(threshold, LoggingStallListener.INSTANCE);
+	}
+
+	/**
+	 * Installs a watchdog, replacing any installed watchdog.
+	 * 
+	 * @param threshold
+	 *            The threshold, in milliseconds. Must be positive.
+	 * @param listener
+	 *            The listener. May not be null.
+	 * @return The watchdog.
+	 */
+	public static synchronized EdtWatchdog install(final long threshold, final StallListener listener) {
+		Validate.isTrue(threshold > 0, "Threshold must be positive.");
+		Validate.notNull(listener, "Listener may not be null.");
+		EdtWatchdog.uninstall();
+		final EdtWatchdog watchdog = new EdtWatchdog(TimeUnit.MILLISECONDS.toNanos(threshold), listener);
+		final long period = Math.max(EdtWatchdog.MIN_PERIOD, watchdog.threshold / EdtWatchdog.SAMPLES);
+		watchdog.sampler.scheduleAtFixedRate(watchdog.new Sampler(), period, period, TimeUnit.NANOSECONDS);
+		EdtWatchdog.installed = watchdog;
+		return watchdog;
+	}
+
+	/**
+	 * Uninstalls the installed watchdog, if any.
+	 */
+	public static synchronized void uninstall() {
+		final EdtWatchdog watchdog = EdtWatchdog.installed;
+		if (!CheckUtil.isNull(watchdog)) {
+			EdtWatchdog.installed = null;
+			watchdog.sampler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gets the threshold.
+	 * 
+	 * @return The threshold, in milliseconds.
+	 */
+	public long getThreshold() {
+		return TimeUnit.NANOSECONDS.toMillis(this.threshold);
+	}
+
+	/**
+	 * Samples the running dispatch, reporting it if it stalls.
+	 */
+	public void sample() {
+		final long current = this.dispatch;
+		final int running = this.depth;
+		final long elapsed = System.nanoTime() - this.start;
+		if ((running > 0) && (elapsed > this.threshold) && (current != this.reported)) {
+			this.reported = current;
+			final List<String> names = new ArrayList<String>(running);
+			for (int i = 0; i < Math.min(running, EdtWatchdog.MAX_DEPTH); i = i + 1) {
+				names.add(this.subjects[i]);
+			}
+			final StackTraceElement[] stackTrace = this.edt.getStackTrace();
+			// Only report if the dispatch did not end while sampling.
+			if ((current == this.dispatch) && (this.depth > 0)) {
+				this.listener.stalled(new Stall(names, elapsed, stackTrace));
+			}
+		}
+	}
+
+	/**
+	 * Marks the start of a handler.
+	 * 
+	 * @param subject
+	 *            The subject.
+	 */
+	private void enterDispatch(final String subject) {
+		final int current = this.depth;
+		if (current == 0) {
+			this.edt = Thread.currentThread();
+			this.start = System.nanoTime();
+			this.dispatch = this.dispatch + 1;
+		}
+		if (current < EdtWatchdog.MAX_DEPTH) {
+			this.subjects[current] = subject;
+		}
+		this.depth = current + 1;
+	}
+
+	/**
+	 * Marks the end of a handler.
+	 */
+	private void exitDispatch() {
+		final int current = this.depth;
+		if (current > 0) {
+			if (current <= EdtWatchdog.MAX_DEPTH) {
+				this.subjects[current - 1] = null;
+			}
+			this.depth = current - 1;
+		}
+	}
+
+	/**
+	 * Samples the event dispatch thread.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class Sampler
+			implements Runnable {
+
+		/**
+		 * Default constructor.
+		 */
+		public Sampler() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			// A failure would cancel the sampling.
+			try {
+				EdtWatchdog.this.sample();
+			} catch (final RuntimeException e) {
+				EdtWatchdog.LOGGER.warn("Could not report a stall.", e);
+			}
+		}
+	}
+}
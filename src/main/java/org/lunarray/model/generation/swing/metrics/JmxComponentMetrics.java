@@ -0,0 +1,344 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.generation.swing.util.LatencyHistogram;
+
+/**
+ * Metrics exported as an MBean.
+ * <p>
+ * Latencies are kept in histograms per key. A histogram is created the first
+ * time a key is recorded, after which recording does not allocate. Nothing is
+ * recorded while the metrics are disabled.
+ * {@link #install()} registers the metrics with the platform MBean server
+ * and makes them the metrics of all generated components.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class JmxComponentMetrics
+		implements ComponentMetrics, ComponentMetricsMXBean {
+
+	/** The object name. */
+	public static final String OBJECT_NAME = "org.lunarray.model.generation.swing:type=ComponentMetrics";
+	/** The key of the default strategies. */
+	private static final String DEFAULT_KEY = "DEFAULT";
+	/** The column value latencies. */
+	private final ConcurrentMap<String, LatencyHistogram> columnValues;
+	/** The compose latencies. */
+	private final ConcurrentMap<String, LatencyHistogram> composes;
+	/** The conversion failures. */
+	private final ConcurrentMap<String, AtomicLong> conversionFailures;
+	/** The default strategy creation latencies. */
+	private final LatencyHistogram defaultStrategies;
+	/** The dictionary lookup latencies. */
+	private final ConcurrentMap<String, LatencyHistogram> dictionaryLookups;
+	/** Whether recording is enabled. */
+	private volatile boolean enabled;
+	/** The operation latencies. */
+	private final ConcurrentMap<String, LatencyHistogram> operations;
+	/** The strategy creation latencies. */
+	private final Map<RenderType, LatencyHistogram> strategies;
+	/** The validation latencies. */
+	private final ConcurrentMap<String, LatencyHistogram> validations;
+
+	/**
+	 * Default constructor. Recording is enabled.
+	 */
+	public JmxComponentMetrics() {
+		this.columnValues = new ConcurrentHashMap<String, LatencyHistogram>();
+		this.composes = new ConcurrentHashMap<String, LatencyHistogram>();
+		this.conversionFailures = new ConcurrentHashMap<String, AtomicLong>();
+		this.defaultStrategies = new LatencyHistogram();
+		this.dictionaryLookups = new ConcurrentHashMap<String, LatencyHistogram>();
+		this.operations = new ConcurrentHashMap<String, LatencyHistogram>();
+		this.strategies = new EnumMap<RenderType, LatencyHistogram>(RenderType.class);
+		for (final RenderType renderType : RenderType.values()) {
+			this.strategies.put(renderType, new LatencyHistogram());
+		}
+		this.validations = new ConcurrentHashMap<String, LatencyHistogram>();
+		this.enabled = true;
+	}
+
+	/**
+	 * Creates metrics, registers them with the platform MBean server and
+	 * makes them the metrics of all generated components.
+	 * 
+	 * @return The metrics.
+	 * @throws JMException
+	 *             Thrown if the metrics could not be registered.
+	 */
+	public static JmxComponentMetrics install() throws JMException {
+		final JmxComponentMetrics metrics = new JmxComponentMetrics();
+		ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(JmxComponentMetrics.OBJECT_NAME));
+		MetricsRegistry.setMetrics(metrics);
+		return metrics;
+	}
+
+	/**
+	 * Disables the metrics of all generated components and unregisters the
+	 * metrics from the platform MBean server.
+	 * 
+	 * @throws JMException
+	 *             Thrown if the metrics could not be unregistered.
+	 */
+	public static void uninstall() throws JMException {
+		MetricsRegistry.setMetrics(null);
+		final ObjectName name = new ObjectName(JmxComponentMetrics.OBJECT_NAME);
+		if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
+	}
+
+	/**
+	 * Gets a histogram, creating it if needed.
+	 * 
+	 * @param histograms
+	 *            The histograms.
+	 * @param key
+	 *            The key. May not be null.
+	 * @return The histogram.
+	 */
+	private static LatencyHistogram histogram(final ConcurrentMap<String, LatencyHistogram> histograms, final String key) {
+		LatencyHistogram result = histograms.get(key);
+		if (CheckUtil.isNull(result)) {
+			final LatencyHistogram created = new LatencyHistogram();
+			result = histograms.putIfAbsent(key, created);
+			if (CheckUtil.isNull(result)) {
+				result = created;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Summarizes histograms.
+	 * 
+	 * @param histograms
+	 *            The histograms.
+	 * @return The summaries, sorted by key.
+	 */
+	private static Map<String, String> summarize(final Map<String, LatencyHistogram> histograms) {
+		final Map<String, String> result = new TreeMap<String, String>();
+		for (final Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().toString());
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the latencies of a column.
+	 * 
+	 * @param column
+	 *            The column. May not be null.
+	 * @return The latencies.
+	 */
+	public LatencyHistogram getColumnValueLatencies(final String column) {
+		Validate.notNull(column, "Column may not be null.");
+		return JmxComponentMetrics.histogram(this.columnValues, column);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<String, String> getColumnValueLatencies() {
+		return JmxComponentMetrics.summarize(this.columnValues);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<String, String> getComposeLatencies() {
+		return JmxComponentMetrics.summarize(this.composes);
+	}
+
+	/**
+	 * Gets the compose latencies of an entity.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 * @return The latencies.
+	 */
+	public LatencyHistogram getComposeLatencies(final String entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		return JmxComponentMetrics.histogram(this.composes, entity);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<String, Long> getConversionFailures() {
+		final Map<String, Long> result = new TreeMap<String, Long>();
+		for (final Map.Entry<String, AtomicLong> entry : this.conversionFailures.entrySet()) {
+			result.put(entry.getKey(), Long.valueOf(entry.getValue().get()));
+		}
+		return result;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<String, String> getDictionaryLookupLatencies() {
+		return JmxComponentMetrics.summarize(this.dictionaryLookups);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<String, String> getOperationLatencies() {
+		return JmxComponentMetrics.summarize(this.operations);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<String, String> getStrategyCreationLatencies() {
+		final Map<String, String> result = new TreeMap<String, String>();
+		for (final Map.Entry<RenderType, LatencyHistogram> entry : this.strategies.entrySet()) {
+			if (entry.getValue().getCount() > 0) {
+				result.put(entry.getKey().name(), entry.getValue().toString());
+			}
+		}
+		if (this.defaultStrategies.getCount() > 0) {
+			result.put(JmxComponentMetrics.DEFAULT_KEY, this.defaultStrategies.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the strategy creation latencies of a render type.
+	 * 
+	 * @param renderType
+	 *            The render type. May be null for the default strategies.
+	 * @return The latencies.
+	 */
+	public LatencyHistogram getStrategyCreationLatencies(final RenderType renderType) {
+		final LatencyHistogram result;
+		if (CheckUtil.isNull(renderType)) {
+			result = this.defaultStrategies;
+		} else {
+			result = this.strategies.get(renderType);
+		}
+		return result;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<String, String> getValidationLatencies() {
+		return JmxComponentMetrics.summarize(this.validations);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordColumnValue(final String column, final long latency) {
+		if (this.enabled) {
+			JmxComponentMetrics.histogram(this.columnValues, column).record(latency);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordCompose(final String entity, final long latency) {
+		if (this.enabled) {
+			JmxComponentMetrics.histogram(this.composes, entity).record(latency);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordConversionFailure(final String column) {
+		if (this.enabled) {
+			AtomicLong failures = this.conversionFailures.get(column);
+			if (CheckUtil.isNull(failures)) {
+				final AtomicLong created = new AtomicLong();
+				failures = this.conversionFailures.putIfAbsent(column, created);
+				if (CheckUtil.isNull(failures)) {
+					failures = created;
+				}
+			}
+			failures.incrementAndGet();
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordDictionaryLookup(final String entity, final long latency) {
+		if (this.enabled) {
+			JmxComponentMetrics.histogram(this.dictionaryLookups, entity).record(latency);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordOperation(final String operation, final long latency) {
+		if (this.enabled) {
+			JmxComponentMetrics.histogram(this.operations, operation).record(latency);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordStrategyCreation(final RenderType renderType, final long latency) {
+		if (this.enabled) {
+			this.getStrategyCreationLatencies(renderType).record(latency);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void recordValidation(final String entity, final long latency) {
+		if (this.enabled) {
+			JmxComponentMetrics.histogram(this.validations, entity).record(latency);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void reset() {
+		this.columnValues.clear();
+		this.composes.clear();
+		this.conversionFailures.clear();
+		this.defaultStrategies.reset();
+		this.dictionaryLookups.clear();
+		this.operations.clear();
+		for (final LatencyHistogram histogram : this.strategies.values()) {
+			histogram.reset();
+		}
+		this.validations.clear();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setEnabled(final boolean enabled) {
+		this.enabled = enabled;
+	}
+}
@@ -0,0 +1,52 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs stalls as warnings, the default stall listener.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public enum LoggingStallListener
+		implements StallListener {
+
+	/** The instance. */
+	INSTANCE;
+
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoggingStallListener.class);
+
+	/** {@inheritDoc} */
+	@Override
+	public void stalled(final Stall stall) {
+		if (LoggingStallListener.LOGGER.isWarnEnabled()) {
+			final StringBuilder builder = new StringBuilder();
+			for (final StackTraceElement element : stall.getStackTrace()) {
+				builder.append("\n\tat ").append(element);
+			}
+			LoggingStallListener.LOGGER.warn("Event dispatch thread stalled for {} ms in {}, handlers {}:{}",
+					new Object[] { Long.valueOf(TimeUnit.NANOSECONDS.toMillis(stall.getElapsed())), stall.getSubject(),
+							stall.getSubjects(), builder });
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+
+/**
+ * Holds the metrics of all generated components. Metrics are disabled by
+ * default.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public enum MetricsRegistry {
+
+	/** The instance. */
+	INSTANCE;
+
+	/** The metrics. */
+	private static volatile ComponentMetrics metrics = DisabledComponentMetrics.INSTANCE;
+
+	/**
+	 * Gets the metrics.
+	 * 
+	 * @return The metrics, never null.
+	 */
+	public static ComponentMetrics getMetrics() {
+		return MetricsRegistry.metrics;
+	}
+
+	/**
+	 * Gets the key of a property or operation, qualified by its entity.
+	 * Keys are meant to be computed once, when the component is built.
+	 * 
+	 * @param entity
+	 *            The entity. May be null.
+	 * @param member
+	 *            The name of the property or operation. May not be null.
+	 * @return The key, 'entity.member', or the member if there is no
+	 *         entity.
+	 */
+	public static String key(final EntityDescriptor<?> entity, final String member) {
+		String result = member;
+		if (!CheckUtil.isNull(entity)) {
+			result = entity.getName() + '.' + member;
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the metrics.
+	 * 
+	 * @param metrics
+	 *            The metrics. Null to disable the metrics.
+	 */
+	public static void setMetrics(final ComponentMetrics metrics) {
+		if (CheckUtil.isNull(metrics)) {
+			MetricsRegistry.metrics = DisabledComponentMetrics.INSTANCE;
+		} else {
+			MetricsRegistry.metrics = metrics;
+		}
+	}
+
+	/**
+	 * Starts a measurement.
+	 * 
+	 * @param metrics
+	 *            The metrics.
+	 * @return The current time, or 0 if the metrics are disabled.
+	 */
+	public static long start(final ComponentMetrics metrics) {
+		long result = 0L;
+		if (metrics.isEnabled()) {
+			result = System.nanoTime();
+		}
+		return result;
+	}
+}
@@ -0,0 +1,107 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * A stall of the event dispatch thread, sampled while a handler was
+ * running.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class Stall {
+
+	/** The time the dispatch had been running when it was sampled. */
+	private final long elapsed;
+	/** The stack of the event dispatch thread. */
+	private final StackTraceElement[] stackTrace;
+	/** The subjects of the running handlers, outermost first. */
+	private final List<String> subjects;
+
+	/**
+	 * Constructs the stall.
+	 * 
+	 * @param subjects
+	 *            The subjects of the running handlers, outermost first. May
+	 *            not be null.
+	 * @param elapsed
+	 *            The time the dispatch had been running, in nanoseconds.
+	 * @param stackTrace
+	 *            The stack of the event dispatch thread. May not be null.
+	 */
+	public Stall(final List<String> subjects, final long elapsed, final StackTraceElement[] stackTrace) {
+		Validate.notNull(subjects, "Subjects may not be null.");
+		Validate.notNull(stackTrace, "Stack trace may not be null.");
+		this.subjects = Collections.unmodifiableList(subjects);
+		this.elapsed = elapsed;
+		this.stackTrace = stackTrace.clone();
+	}
+
+	/**
+	 * Gets the value for the elapsed field.
+	 * 
+	 * @return The value for the elapsed field, in nanoseconds.
+	 */
+	public long getElapsed() {
+		return this.elapsed;
+	}
+
+	/**
+	 * Gets the value for the stackTrace field.
+	 * 
+	 * @return A copy of the stack trace.
+	 */
+	public StackTraceElement[] getStackTrace() {
+		return this.stackTrace.clone();
+	}
+
+	/**
+	 * Gets the subject of the innermost running handler, the one most likely
+	 * responsible.
+	 * 
+	 * @return The subject, or null if it is not known.
+	 */
+	public String getSubject() {
+		String result = null;
+		if (!this.subjects.isEmpty()) {
+			result = this.subjects.get(this.subjects.size() - 1);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the value for the subjects field.
+	 * 
+	 * @return The value for the subjects field, outermost first.
+	 */
+	public List<String> getSubjects() {
+		return this.subjects;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		return String.format("Stall [subjects=%s, elapsed=%s, stackTrace=%s]", this.subjects, this.elapsed,
+				Arrays.toString(this.stackTrace));
+	}
+}
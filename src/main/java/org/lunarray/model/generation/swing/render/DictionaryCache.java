@@ -0,0 +1,546 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.dictionary.Dictionary;
+import org.lunarray.model.descriptor.dictionary.exceptions.DictionaryException;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.generation.swing.metrics.MetricsRegistry;
+import org.lunarray.model.generation.swing.util.DaemonThreadFactory;
+import org.lunarray.model.generation.swing.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches dictionary lookups, shared by all select components of a model.
+ * <p>
+ * Concurrent lookups of the same entity name share a single load. Lookups
+ * expire after a time to live, and the least recently used lookups are
+ * evicted. Components invalidate the lookups of the entities they commit,
+ * lookups of entities that changed elsewhere must be invalidated. The looked
+ * up entities are immutable lists with constant time access, so consumers
+ * may index them without copying.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class DictionaryCache {
+
+	/** The caches, per model. */
+	private static final Map<Model<?>, DictionaryCache> CACHES = new WeakHashMap<Model<?>, DictionaryCache>();
+	/** The default maximum amount of lookups. */
+	public static final int DEFAULT_MAX_SIZE = 100;
+	/** The default time to live, in milliseconds. */
+	public static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(5);
+	/** The loaders. */
+	private static final ExecutorService LOADERS = Executors.newCachedThreadPool(new DaemonThreadFactory("dictionary-load"));
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(DictionaryCache.class);
+	/** Whether select components load in the background. */
+	private boolean asynchronous;
+	/** The amount of hits. */
+	private long hits;
+	/** The lookups. */
+	private final SingleFlightMap<LoadTask> lookups;
+	/** The load times. */
+	private final LatencyHistogram loadTimes;
+	/** The amount of misses. */
+	private long misses;
+	/** The amount of lookups that joined a load in progress. */
+	private long shared;
+	/** The time to live, in milliseconds. */
+	private long ttl;
+
+	/**
+	 * Default constructor.
+	 */
+	private DictionaryCache() {
+		this.asynchronous = true;
+		this.ttl = DictionaryCache.DEFAULT_TTL;
+		this.lookups = new SingleFlightMap<LoadTask>(DictionaryCache.DEFAULT_MAX_SIZE);
+		this.loadTimes = new LatencyHistogram();
+	}
+
+	/**
+	 * Gets the cache for a model.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @return The cache.
+	 */
+	public static DictionaryCache getInstance(final Model<?> model) {
+		Validate.notNull(model, "Model may not be null.");
+		synchronized (DictionaryCache.CACHES) {
+			DictionaryCache result = DictionaryCache.CACHES.get(model);
+			if (CheckUtil.isNull(result)) {
+				result = new DictionaryCache();
+				DictionaryCache.CACHES.put(model, result);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Drops all lookups.
+	 */
+	public synchronized void clear() {
+		this.lookups.clear();
+	}
+
+	/**
+	 * Gets the value for the hits field.
+	 * 
+	 * @return The value for the hits field.
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Gets the cached entities, without loading them.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 * @return The entities, or null if they are not cached.
+	 * @param <L>
+	 *            The entity type.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <L> List<L> getIfPresent(final String name) {
+		Validate.notNull(name, "Name may not be null.");
+		final LoadTask task = this.lookups.get(name);
+		List<L> result = null;
+		if (!CheckUtil.isNull(task) && task.isSucceeded() && !this.isExpired(task)) {
+			result = (List<L>) task.getEntities();
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the load times.
+	 * 
+	 * @return The load times.
+	 */
+	public LatencyHistogram getLoadTimes() {
+		return this.loadTimes;
+	}
+
+	/**
+	 * Gets the value for the maxSize field.
+	 * 
+	 * @return The value for the maxSize field.
+	 */
+	public synchronized int getMaxSize() {
+		return this.lookups.getMaxSize();
+	}
+
+	/**
+	 * Gets the value for the misses field.
+	 * 
+	 * @return The value for the misses field.
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Gets the amount of lookups that joined a load in progress.
+	 * 
+	 * @return The amount of lookups.
+	 */
+	public synchronized long getShared() {
+		return this.shared;
+	}
+
+	/**
+	 * Gets the value for the ttl field.
+	 * 
+	 * @return The value for the ttl field, in milliseconds.
+	 */
+	public synchronized long getTtl() {
+		return this.ttl;
+	}
+
+	/**
+	 * Drops the lookup of an entity name.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 */
+	public synchronized void invalidate(final String name) {
+		Validate.notNull(name, "Name may not be null.");
+		this.lookups.remove(name);
+	}
+
+	/**
+	 * Gets the value for the asynchronous field.
+	 * 
+	 * @return True if select components load entities in the background and
+	 *         show a placeholder until they arrive.
+	 */
+	public synchronized boolean isAsynchronous() {
+		return this.asynchronous;
+	}
+
+	/**
+	 * Looks up entities, waiting for the load if they are not cached.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 * @param dictionary
+	 *            The dictionary. May not be null.
+	 * @param descriptor
+	 *            The entity descriptor. May not be null.
+	 * @return The entities.
+	 * @throws DictionaryException
+	 *             Thrown if the entities could not be looked up.
+	 * @param <L>
+	 *            The entity type.
+	 */
+	@SuppressWarnings("unchecked")
+	public <L> List<L> lookup(final String name, final Dictionary dictionary, final EntityDescriptor<L> descriptor)
+			throws DictionaryException {
+		final LoadTask task = this.acquire(name, dictionary, descriptor);
+		if (!task.isDone()) {
+			task.run();
+		}
+		boolean interrupted = false;
+		List<?> result = null;
+		try {
+			while (CheckUtil.isNull(result)) {
+				try {
+					result = task.get();
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof DictionaryException) {
+				throw (DictionaryException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw (Error) cause;
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return (List<L>) result;
+	}
+
+	/**
+	 * Looks up entities in the background.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 * @param dictionary
+	 *            The dictionary. May not be null.
+	 * @param descriptor
+	 *            The entity descriptor. May not be null.
+	 * @param listener
+	 *            The listener, notified on the event dispatch thread. May
+	 *            not be null.
+	 * @param <L>
+	 *            The entity type.
+	 */
+	public <L> void lookupLater(final String name, final Dictionary dictionary, final EntityDescriptor<L> descriptor,
+			final LookupListener<L> listener) {
+		Validate.notNull(listener, "Listener may not be null.");
+		final LoadTask task = this.acquire(name, dictionary, descriptor);
+		task.addListener(new ListenerAdapter<L>(listener));
+		if (task.start()) {
+			DictionaryCache.LOADERS.execute(task);
+		}
+	}
+
+	/**
+	 * Starts looking up entities in the background, if they are not cached.
+	 * Lookups of different entity names run in parallel.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 * @param dictionary
+	 *            The dictionary. May not be null.
+	 * @param descriptor
+	 *            The entity descriptor. May not be null.
+	 * @return The load, done once the entities are cached.
+	 */
+	public Future<?> prefetch(final String name, final Dictionary dictionary, final EntityDescriptor<?> descriptor) {
+		final LoadTask task = this.acquire(name, dictionary, descriptor);
+		if (task.start()) {
+			DictionaryCache.LOADERS.execute(task);
+		}
+		return task;
+	}
+
+	/**
+	 * Sets a new value for the asynchronous field.
+	 * 
+	 * @param asynchronous
+	 *            True if select components should load entities in the
+	 *            background and show a placeholder until they arrive.
+	 */
+	public synchronized void setAsynchronous(final boolean asynchronous) {
+		this.asynchronous = asynchronous;
+	}
+
+	/**
+	 * Sets a new value for the maxSize field.
+	 * 
+	 * @param maxSize
+	 *            The new value for the maxSize field. Must be positive.
+	 */
+	public synchronized void setMaxSize(final int maxSize) {
+		Validate.isTrue(maxSize > 0, "Maximum size must be positive.");
+		this.lookups.setMaxSize(maxSize);
+	}
+
+	/**
+	 * Sets a new value for the ttl field.
+	 * 
+	 * @param ttl
+	 *            The new value for the ttl field, in milliseconds. Must be
+	 *            positive.
+	 */
+	public synchronized void setTtl(final long ttl) {
+		Validate.isTrue(ttl > 0, "Time to live must be positive.");
+		this.ttl = ttl;
+	}
+
+	/**
+	 * Gets the amount of cached lookups, including loads in progress.
+	 * 
+	 * @return The amount of lookups.
+	 */
+	public synchronized int size() {
+		return this.lookups.size();
+	}
+
+	/**
+	 * Gets the load of an entity name, starting a new one if there is no
+	 * fresh load.
+	 * 
+	 * @param name
+	 *            The entity name.
+	 * @param dictionary
+	 *            The dictionary.
+	 * @param descriptor
+	 *            The entity descriptor.
+	 * @return The load. Must be run if it is not done.
+	 */
+	private synchronized LoadTask acquire(final String name, final Dictionary dictionary, final EntityDescriptor<?> descriptor) {
+		Validate.notNull(name, "Name may not be null.");
+		Validate.notNull(dictionary, "Dictionary may not be null.");
+		Validate.notNull(descriptor, "Descriptor may not be null.");
+		LoadTask result = this.lookups.get(name);
+		if (CheckUtil.isNull(result) || (result.isDone() && !result.isSucceeded()) || this.isExpired(result)) {
+			this.misses = this.misses + 1;
+			result = new LoadTask(name, new Load(dictionary, descriptor));
+			this.lookups.put(name, result);
+		} else if (result.isSucceeded()) {
+			this.hits = this.hits + 1;
+		} else {
+			this.shared = this.shared + 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Tests if a load expired.
+	 * 
+	 * @param task
+	 *            The load.
+	 * @return True if and only if the load completed longer than the time to
+	 *         live ago.
+	 */
+	private boolean isExpired(final LoadTask task) {
+		return task.isSucceeded() && ((System.nanoTime() - task.getCompletedAt()) > TimeUnit.MILLISECONDS.toNanos(this.ttl));
+	}
+
+	/**
+	 * Notifies a lookup listener of loaded entities.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <L>
+	 *            The entity type.
+	 */
+	private static final class ListenerAdapter<L>
+			implements SingleFlightTask.CompletionListener<List<?>> {
+
+		/** The listener. */
+		private final LookupListener<L> listener;
+
+		/**
+		 * Constructs the adapter.
+		 * 
+		 * @param listener
+		 *            The listener.
+		 */
+		public ListenerAdapter(final LookupListener<L> listener) {
+			this.listener = listener;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		@SuppressWarnings("unchecked")
+		public void loadCompleted(final List<?> result) {
+			List<L> entities = Collections.emptyList();
+			if (!CheckUtil.isNull(result)) {
+				entities = (List<L>) result;
+			}
+			this.listener.entitiesLoaded(entities);
+		}
+	}
+
+	/**
+	 * A dictionary lookup.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class Load
+			implements Callable<List<?>> {
+
+		/** The entity descriptor. */
+		private final EntityDescriptor<?> descriptor;
+		/** The dictionary. */
+		private final Dictionary dictionary;
+
+		/**
+		 * Constructs the lookup.
+		 * 
+		 * @param dictionary
+		 *            The dictionary.
+		 * @param descriptor
+		 *            The entity descriptor.
+		 */
+		public Load(final Dictionary dictionary, final EntityDescriptor<?> descriptor) {
+			this.dictionary = dictionary;
+			this.descriptor = descriptor;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public List<?> call() throws DictionaryException {
+			return this.lookup(this.descriptor);
+		}
+
+		/**
+		 * Looks up the entities.
+		 * 
+		 * @param entityDescriptor
+		 *            The entity descriptor.
+		 * @return The entities, as an immutable list with constant time
+		 *         access.
+		 * @throws DictionaryException
+		 *             Thrown if the entities could not be looked up.
+		 * @param <L>
+		 *            The entity type.
+		 */
+		private <L> List<L> lookup(final EntityDescriptor<L> entityDescriptor) throws DictionaryException {
+			final Collection<L> entities = this.dictionary.lookup(entityDescriptor);
+			List<L> result;
+			if (CheckUtil.isNull(entities)) {
+				result = Collections.emptyList();
+			} else {
+				result = Collections.unmodifiableList(new ArrayList<L>(entities));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A load, shared by all concurrent lookups of an entity name.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class LoadTask
+			extends SingleFlightTask<List<?>> {
+
+		/**
+		 * Constructs the load.
+		 * 
+		 * @param name
+		 *            The entity name.
+		 * @param load
+		 *            The lookup.
+		 */
+		public LoadTask(final String name, final Load load) {
+			super(name, load);
+		}
+
+		/**
+		 * Gets the entities of a successful load.
+		 * 
+		 * @return The entities, empty if the load failed.
+		 */
+		public List<?> getEntities() {
+			List<?> result = this.getResult();
+			if (CheckUtil.isNull(result)) {
+				result = Collections.emptyList();
+			}
+			return result;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected void completed(final long latency, final Throwable failure) {
+			DictionaryCache.this.loadTimes.record(latency);
+			MetricsRegistry.getMetrics().recordDictionaryLookup(this.getName(), latency);
+			if (!CheckUtil.isNull(failure)) {
+				DictionaryCache.LOGGER.warn("Could not look up in dictionary '{}'.", this.getName(), failure);
+			}
+		}
+	}
+
+	/**
+	 * A lookup listener.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <L>
+	 *            The entity type.
+	 */
+	public interface LookupListener<L> {
+		/**
+		 * Notifies the entities arrived.
+		 * 
+		 * @param entities
+		 *            The entities, as an immutable list. Empty if they could
+		 *            not be looked up.
+		 */
+		void entitiesLoaded(List<L> entities);
+	}
+}
@@ -0,0 +1,329 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.generation.swing.util.DaemonThreadFactory;
+import org.lunarray.model.generation.swing.util.LatencyHistogram;
+import org.lunarray.model.generation.swing.util.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches label indices, shared by all type ahead components of a model.
+ * <p>
+ * An index is built once per dictionary snapshot, the collection of entities
+ * a dictionary lookup returned, in the background. The labels are sorted in
+ * parallel runs. Concurrent requests for the index of the same snapshot share
+ * a single build. A new snapshot of an entity name replaces the index of the
+ * previous one.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class PrefixIndexCache {
+
+	/** The builders. */
+	private static final ExecutorService BUILDERS = Executors.newCachedThreadPool(new DaemonThreadFactory("prefix-index"));
+	/** The caches, per model. */
+	private static final Map<Model<?>, PrefixIndexCache> CACHES = new WeakHashMap<Model<?>, PrefixIndexCache>();
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(PrefixIndexCache.class);
+	/** The maximum amount of indices. */
+	public static final int MAX_SIZE = 100;
+	/** The amount of runs to sort in parallel. */
+	private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+	/** Sorts and merges runs of the labels. */
+	private static final ExecutorService WORKERS = Executors.newFixedThreadPool(PrefixIndexCache.PARALLELISM, new DaemonThreadFactory(
+			"prefix-index-worker"));
+	/** The build times. */
+	private final LatencyHistogram buildTimes;
+	/** The indices. */
+	private final SingleFlightMap<BuildTask> indices;
+
+	/**
+	 * Default constructor.
+	 */
+	private PrefixIndexCache() {
+		this.buildTimes = new LatencyHistogram();
+		this.indices = new SingleFlightMap<BuildTask>(PrefixIndexCache.MAX_SIZE);
+	}
+
+	/**
+	 * Gets the cache for a model.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @return The cache.
+	 */
+	public static PrefixIndexCache getInstance(final Model<?> model) {
+		Validate.notNull(model, "Model may not be null.");
+		synchronized (PrefixIndexCache.CACHES) {
+			PrefixIndexCache result = PrefixIndexCache.CACHES.get(model);
+			if (CheckUtil.isNull(result)) {
+				result = new PrefixIndexCache();
+				PrefixIndexCache.CACHES.put(model, result);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Drops all indices.
+	 */
+	public synchronized void clear() {
+		this.indices.clear();
+	}
+
+	/**
+	 * Gets the build times.
+	 * 
+	 * @return The build times.
+	 */
+	public LatencyHistogram getBuildTimes() {
+		return this.buildTimes;
+	}
+
+	/**
+	 * Gets a built index, without building it.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 * @param snapshot
+	 *            The snapshot. May not be null.
+	 * @return The index, or null if it is not built.
+	 */
+	public synchronized PrefixIndex getIfPresent(final String name, final Object snapshot) {
+		Validate.notNull(name, "Name may not be null.");
+		final BuildTask task = this.indices.get(name);
+		PrefixIndex result = null;
+		if (!CheckUtil.isNull(task) && (task.snapshot == snapshot) && task.isSucceeded()) {
+			result = task.getResult();
+		}
+		return result;
+	}
+
+	/**
+	 * Builds an index in the background, unless it is built or being built.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 * @param snapshot
+	 *            The snapshot. May not be null.
+	 * @param labels
+	 *            The labels of the entities of the snapshot, in snapshot
+	 *            order. May not be null. Must not be modified afterwards.
+	 * @param listener
+	 *            The listener, notified on the event dispatch thread. May
+	 *            not be null.
+	 */
+	public void indexLater(final String name, final Object snapshot, final String[] labels, final IndexListener listener) {
+		Validate.notNull(listener, "Listener may not be null.");
+		final BuildTask task = this.acquire(name, snapshot, labels);
+		task.addListener(new ListenerAdapter(listener));
+		if (task.start()) {
+			PrefixIndexCache.BUILDERS.execute(task);
+		}
+	}
+
+	/**
+	 * Drops the index of an entity name.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 */
+	public synchronized void invalidate(final String name) {
+		Validate.notNull(name, "Name may not be null.");
+		this.indices.remove(name);
+	}
+
+	/**
+	 * Listens for the index of a snapshot, if it is built or being built. This
+	 * allows skipping the creation of the labels.
+	 * 
+	 * @param name
+	 *            The entity name. May not be null.
+	 * @param snapshot
+	 *            The snapshot. May not be null.
+	 * @param listener
+	 *            The listener, notified on the event dispatch thread. May
+	 *            not be null.
+	 * @return True if and only if the listener was added.
+	 */
+	public boolean joinLater(final String name, final Object snapshot, final IndexListener listener) {
+		Validate.notNull(name, "Name may not be null.");
+		Validate.notNull(snapshot, "Snapshot may not be null.");
+		Validate.notNull(listener, "Listener may not be null.");
+		BuildTask task;
+		synchronized (this) {
+			task = this.indices.get(name);
+		}
+		final boolean result = !CheckUtil.isNull(task) && (task.snapshot == snapshot) && !(task.isDone() && !task.isSucceeded());
+		if (result) {
+			task.addListener(new ListenerAdapter(listener));
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the amount of cached indices, including builds in progress.
+	 * 
+	 * @return The amount of indices.
+	 */
+	public synchronized int size() {
+		return this.indices.size();
+	}
+
+	/**
+	 * Gets the build of a snapshot, creating a new one if there is none.
+	 * 
+	 * @param name
+	 *            The entity name.
+	 * @param snapshot
+	 *            The snapshot.
+	 * @param labels
+	 *            The labels.
+	 * @return The build.
+	 */
+	private synchronized BuildTask acquire(final String name, final Object snapshot, final String[] labels) {
+		Validate.notNull(name, "Name may not be null.");
+		Validate.notNull(snapshot, "Snapshot may not be null.");
+		Validate.notNull(labels, "Labels may not be null.");
+		BuildTask result = this.indices.get(name);
+		if (CheckUtil.isNull(result) || (result.snapshot != snapshot) || (result.isDone() && !result.isSucceeded())) {
+			result = new BuildTask(name, snapshot, new Build(labels));
+			this.indices.put(name, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Builds the index of labels.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class Build
+			implements Callable<PrefixIndex> {
+
+		/** The labels. */
+		private final String[] labels;
+
+		/**
+		 * Constructs the build.
+		 * 
+		 * @param labels
+		 *            The labels.
+		 */
+		public Build(final String[] labels) {
+			this.labels = labels;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public PrefixIndex call() throws InterruptedException {
+			return PrefixIndex.build(this.labels, PrefixIndexCache.WORKERS, PrefixIndexCache.PARALLELISM);
+		}
+	}
+
+	/**
+	 * A build, shared by all requests for the index of a snapshot.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class BuildTask
+			extends SingleFlightTask<PrefixIndex> {
+
+		/** The snapshot. */
+		private final Object snapshot;
+
+		/**
+		 * Constructs the build.
+		 * 
+		 * @param name
+		 *            The entity name.
+		 * @param snapshot
+		 *            The snapshot.
+		 * @param build
+		 *            The build.
+		 */
+		public BuildTask(final String name, final Object snapshot, final Build build) {
+			super(name, build);
+			this.snapshot = snapshot;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected void completed(final long latency, final Throwable failure) {
+			PrefixIndexCache.this.buildTimes.record(latency);
+			if (!CheckUtil.isNull(failure)) {
+				PrefixIndexCache.LOGGER.warn("Could not build index of '{}'.", this.getName(), failure);
+			}
+		}
+	}
+
+	/**
+	 * An index listener.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public interface IndexListener {
+		/**
+		 * Notifies the index was built.
+		 * 
+		 * @param index
+		 *            The index. Null if it could not be built.
+		 */
+		void indexBuilt(PrefixIndex index);
+	}
+
+	/**
+	 * Notifies an index listener of a built index.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class ListenerAdapter
+			implements SingleFlightTask.CompletionListener<PrefixIndex> {
+
+		/** The listener. */
+		private final IndexListener listener;
+
+		/**
+		 * Constructs the adapter.
+		 * 
+		 * @param listener
+		 *            The listener.
+		 */
+		public ListenerAdapter(final IndexListener listener) {
+			this.listener = listener;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void loadCompleted(final PrefixIndex result) {
+			this.listener.indexBuilt(result);
+		}
+	}
+}
@@ -0,0 +1,416 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
+import org.lunarray.model.descriptor.converter.ConverterTool;
+import org.lunarray.model.descriptor.converter.exceptions.ConverterException;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+
+/**
+ * Caches the display labels of related entities, shared by all tables and
+ * select components of a model.
+ * <p>
+ * Entities are identified by the value of their key property if they have
+ * one, and by identity otherwise. Entities identified by identity are only
+ * weakly referenced. The least recently used labels are evicted. Forms
+ * invalidate the labels of the entities they commit, labels of entities that
+ * changed elsewhere must be invalidated.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class RelationLabelCache {
+
+	/** The caches, per model. */
+	private static final Map<Model<?>, RelationLabelCache> CACHES = new WeakHashMap<Model<?>, RelationLabelCache>();
+	/** The default maximum amount of labels. */
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	/** The amount of hits. */
+	private long hits;
+	/** The labels. */
+	private final LabelMap labels;
+	/** The maximum amount of labels. */
+	private int maxSize;
+	/** The amount of misses. */
+	private long misses;
+	/** The queue of collected entities. */
+	private final ReferenceQueue<Object> queue;
+
+	/**
+	 * Default constructor.
+	 */
+	private RelationLabelCache() {
+		this.maxSize = RelationLabelCache.DEFAULT_MAX_SIZE;
+		this.labels = new LabelMap();
+		this.queue = new ReferenceQueue<Object>();
+	}
+
+	/**
+	 * Gets the cache for a model.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @return The cache.
+	 */
+	public static RelationLabelCache getInstance(final Model<?> model) {
+		Validate.notNull(model, "Model may not be null.");
+		synchronized (RelationLabelCache.CACHES) {
+			RelationLabelCache result = RelationLabelCache.CACHES.get(model);
+			if (CheckUtil.isNull(result)) {
+				result = new RelationLabelCache();
+				RelationLabelCache.CACHES.put(model, result);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Drops all labels.
+	 */
+	public synchronized void clear() {
+		this.labels.clear();
+	}
+
+	/**
+	 * Gets the value for the hits field.
+	 * 
+	 * @return The value for the hits field.
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Gets the label of a related entity, converting it if it is not cached.
+	 * 
+	 * @param relatedName
+	 *            The name of the related entity. May not be null.
+	 * @param displayProperty
+	 *            The display property. May not be null.
+	 * @param keyProperty
+	 *            The key property. May be null to identify the entity by
+	 *            identity.
+	 * @param format
+	 *            The format. May be null.
+	 * @param tool
+	 *            The converter tool. May not be null.
+	 * @param entity
+	 *            The related entity. May not be null.
+	 * @return The label, or null if the entity has no display value.
+	 * @throws ValueAccessException
+	 *             Thrown if a value could not be accessed.
+	 * @throws ConverterException
+	 *             Thrown if the display value could not be converted.
+	 * @param <L>
+	 *            The related entity type.
+	 */
+	public <L> String getLabel(final String relatedName, final PropertyDescriptor<Object, L> displayProperty,
+			final PropertyDescriptor<?, L> keyProperty, final String format, final ConverterTool tool, final L entity)
+			throws ValueAccessException, ConverterException {
+		Validate.notNull(relatedName, "Related name may not be null.");
+		Validate.notNull(displayProperty, "Display property may not be null.");
+		Validate.notNull(entity, "Entity may not be null.");
+		Object identity = null;
+		if (!CheckUtil.isNull(keyProperty)) {
+			identity = keyProperty.getValue(entity);
+		}
+		// Probe with a plain key, only a stored key references the entity weakly.
+		final LabelKey key;
+		if (CheckUtil.isNull(identity)) {
+			key = new LabelKey(relatedName, format, entity, true);
+		} else {
+			key = new LabelKey(relatedName, format, identity, false);
+		}
+		String result;
+		synchronized (this) {
+			this.expunge();
+			result = this.labels.get(key);
+			if (CheckUtil.isNull(result)) {
+				this.misses = this.misses + 1;
+			} else {
+				this.hits = this.hits + 1;
+			}
+		}
+		if (CheckUtil.isNull(result)) {
+			final Object displayValue = displayProperty.getValue(entity);
+			if (displayValue instanceof String) {
+				result = String.class.cast(displayValue);
+			} else if (!CheckUtil.isNull(displayValue)) {
+				result = tool.convertToString(displayProperty.getPropertyType(), displayValue, format);
+			}
+			if (!CheckUtil.isNull(result)) {
+				synchronized (this) {
+					this.labels.put(key.register(this.queue), result);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the value for the maxSize field.
+	 * 
+	 * @return The value for the maxSize field.
+	 */
+	public synchronized int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Gets the value for the misses field.
+	 * 
+	 * @return The value for the misses field.
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Drops the labels of all entities of a given name.
+	 * 
+	 * @param relatedName
+	 *            The entity name. May not be null.
+	 */
+	public synchronized void invalidate(final String relatedName) {
+		Validate.notNull(relatedName, "Related name may not be null.");
+		final Iterator<LabelKey> keys = this.labels.keySet().iterator();
+		while (keys.hasNext()) {
+			if (relatedName.equals(keys.next().relatedName)) {
+				keys.remove();
+			}
+		}
+	}
+
+	/**
+	 * Sets a new value for the maxSize field.
+	 * 
+	 * @param maxSize
+	 *            The new value for the maxSize field. Must be positive.
+	 */
+	public synchronized void setMaxSize(final int maxSize) {
+		Validate.isTrue(maxSize > 0, "Maximum size must be positive.");
+		this.maxSize = maxSize;
+		final Iterator<LabelKey> keys = this.labels.keySet().iterator();
+		while ((this.labels.size() > this.maxSize) && keys.hasNext()) {
+			keys.next();
+			keys.remove();
+		}
+	}
+
+	/**
+	 * Gets the amount of cached labels.
+	 * 
+	 * @return The amount of labels.
+	 */
+	public synchronized int size() {
+		this.expunge();
+		return this.labels.size();
+	}
+
+	/**
+	 * Drops the labels of collected entities.
+	 */
+	private void expunge() {
+		boolean collected = false;
+		while (!CheckUtil.isNull(this.queue.poll())) {
+			collected = true;
+		}
+		if (collected) {
+			final Iterator<LabelKey> keys = this.labels.keySet().iterator();
+			while (keys.hasNext()) {
+				if (keys.next().isCollected()) {
+					keys.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A label key.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class LabelKey {
+
+		/** Whether the entity is identified by identity. */
+		private final boolean byIdentity;
+		/** The format. */
+		private final String format;
+		/** The hash code. */
+		private final int hash;
+		/** The entity key, the entity or a weak reference to the entity. */
+		private final Object identity;
+		/** The related name. */
+		private final String relatedName;
+		/** Whether the identity is a weak reference to the entity. */
+		private final boolean weak;
+
+		/**
+		 * Constructs a probe key.
+		 * 
+		 * @param relatedName
+		 *            The related name.
+		 * @param format
+		 *            The format.
+		 * @param identity
+		 *            The entity key, or the entity.
+		 * @param byIdentity
+		 *            Whether the entity is identified by identity.
+		 */
+		public LabelKey(final String relatedName, final String format, final Object identity, final boolean byIdentity) {
+			this.relatedName = relatedName;
+			this.format = format;
+			this.identity = identity;
+			this.byIdentity = byIdentity;
+			this.weak = false;
+			int identityHash;
+			if (byIdentity) {
+				identityHash = System.identityHashCode(identity);
+			} else {
+				identityHash = identity.hashCode();
+			}
+			int result = relatedName.hashCode();
+			if (!CheckUtil.isNull(format)) {
+				result = (31 * result) + format.hashCode();
+			}
+			this.hash = (31 * result) + identityHash;
+		}
+
+		/**
+		 * Constructs a key that weakly references the entity of a probe key.
+		 * 
+		 * @param probe
+		 *            The probe key.
+		 * @param queue
+		 *            The queue of collected entities.
+		 */
+		private LabelKey(final LabelKey probe, final ReferenceQueue<Object> queue) {
+			this.relatedName = probe.relatedName;
+			this.format = probe.format;
+			this.identity = new WeakReference<Object>(probe.identity, queue);
+			this.byIdentity = true;
+			this.weak = true;
+			this.hash = probe.hash;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public boolean equals(final Object obj) {
+			boolean result = false;
+			if (obj instanceof LabelKey) {
+				final LabelKey other = (LabelKey) obj;
+				result = (this.hash == other.hash) && (this.byIdentity == other.byIdentity) && this.relatedName.equals(other.relatedName);
+				if (CheckUtil.isNull(this.format)) {
+					result = result && CheckUtil.isNull(other.format);
+				} else {
+					result = result && this.format.equals(other.format);
+				}
+				if (this.byIdentity) {
+					final Object entity = this.getEntity();
+					result = result && !CheckUtil.isNull(entity) && (entity == other.getEntity());
+				} else {
+					result = result && this.identity.equals(other.identity);
+				}
+			}
+			return result;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		/**
+		 * Tests if the entity of the key was collected.
+		 * 
+		 * @return True if and only if the entity is identified by identity
+		 *         and was collected.
+		 */
+		public boolean isCollected() {
+			return this.byIdentity && CheckUtil.isNull(this.getEntity());
+		}
+
+		/**
+		 * Gets a key to store. A key that identifies by identity weakly
+		 * references the entity.
+		 * 
+		 * @param queue
+		 *            The queue of collected entities.
+		 * @return The key to store.
+		 */
+		public LabelKey register(final ReferenceQueue<Object> queue) {
+			LabelKey result = this;
+			if (this.byIdentity && !this.weak) {
+				result = new LabelKey(this, queue);
+			}
+			return result;
+		}
+
+		/**
+		 * Gets the entity of a key that identifies by identity.
+		 * 
+		 * @return The entity, or null if it was collected.
+		 */
+		private Object getEntity() {
+			Object result = this.identity;
+			if (this.weak) {
+				result = ((WeakReference<?>) this.identity).get();
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A map of labels that evicts the least recently used label.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class LabelMap
+			extends LinkedHashMap<LabelKey, String> {
+
+		/** Serial id. */
+		private static final long serialVersionUID = -3183768373434216652L;
+		/** The initial capacity. */
+		private static final int INITIAL_CAPACITY = 256;
+		/** The load factor. */
+		private static final float LOAD_FACTOR = 0.75f;
+
+		/** Default constructor. */
+		public LabelMap() {
+			super(LabelMap.INITIAL_CAPACITY, LabelMap.LOAD_FACTOR, true);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<LabelKey, String> eldest) {
+			return this.size() > RelationLabelCache.this.maxSize;
+		}
+	}
+}
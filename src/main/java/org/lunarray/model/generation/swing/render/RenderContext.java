@@ -17,11 +17,14 @@
  */
 package org.lunarray.model.generation.swing.render;
 
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.apache.commons.lang.Validate;
 import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
 import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
 import org.lunarray.model.generation.util.Context;
 
@@ -35,6 +38,8 @@ import org.lunarray.model.generation.util.Context;
 public final class RenderContext<E>
 		implements Context {
 
+	/** The rendered entity, may be null. */
+	private final transient EntityDescriptor<E> entity;
 	/** The model. */
 	private final transient Model<? super E> model;
 	/** The variable prefixes. */
@@ -47,9 +52,42 @@ public final class RenderContext<E>
 	 *            The model. May not be null.
 	 */
 	public RenderContext(final Model<? super E> model) {
+		this(model, null);
+	}
+
+	/**
+	 * Constructs the context.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @param entity
+	 *            The rendered entity. May be null.
+	 */
+	public RenderContext(final Model<? super E> model, final EntityDescriptor<E> entity) {
 		Validate.notNull(model, "Model may not be null.");
 		this.variablePrefixes = new LinkedList<PropertyDescriptor<?, ?>>();
 		this.model = model;
+		this.entity = entity;
+	}
+
+	/**
+	 * Copies the context, the copy is not affected by later prefix changes.
+	 * 
+	 * @return The copy.
+	 */
+	public RenderContext<E> copy() {
+		final RenderContext<E> copy = new RenderContext<E>(this.model, this.entity);
+		copy.variablePrefixes.addAll(this.variablePrefixes);
+		return copy;
+	}
+
+	/**
+	 * Gets the value for the entity field.
+	 * 
+	 * @return The value for the entity field, may be null.
+	 */
+	public EntityDescriptor<E> getEntity() {
+		return this.entity;
 	}
 
 	/**
@@ -61,6 +99,15 @@ public final class RenderContext<E>
 		return this.model;
 	}
 
+	/**
+	 * Gets the variable prefixes.
+	 * 
+	 * @return A copy of the variable prefixes, outermost first.
+	 */
+	public List<PropertyDescriptor<?, ?>> getPrefixes() {
+		return new ArrayList<PropertyDescriptor<?, ?>>(this.variablePrefixes);
+	}
+
 	/**
 	 * Gets the property name.
 	 * 
@@ -88,4 +135,16 @@ public final class RenderContext<E>
 	public void pushPrefix(final PropertyDescriptor<?, ?> prefix) {
 		this.variablePrefixes.addLast(prefix);
 	}
+
+	/**
+	 * Replaces the variable prefixes.
+	 * 
+	 * @param prefixes
+	 *            The prefixes, outermost first. May not be null.
+	 */
+	public void setPrefixes(final List<PropertyDescriptor<?, ?>> prefixes) {
+		Validate.notNull(prefixes, "Prefixes may not be null.");
+		this.variablePrefixes.clear();
+		this.variablePrefixes.addAll(prefixes);
+	}
 }
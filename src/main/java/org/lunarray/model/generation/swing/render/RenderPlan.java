@@ -0,0 +1,539 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.CollectionParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.ParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.CollectionResultDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.ResultDescriptor;
+import org.lunarray.model.descriptor.model.property.CollectionPropertyDescriptor;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.generation.util.RenderFactory;
+
+/**
+ * A recorded composition of an entity.
+ * <p>
+ * A plan is recorded by composing with it as the render factory. Replaying it
+ * invokes another render factory with the same descriptors, render types and
+ * variable prefixes, without walking the model again. A plan should not be
+ * recorded into once it is shared.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <E>
+ *            The entity type.
+ */
+public final class RenderPlan<E>
+		implements RenderFactory<RenderContext<E>, E> {
+
+	/** Validation message. */
+	private static final String CONTEXT_NULL = "Context may not be null.";
+	/** The label. */
+	private String label;
+	/** The prefixes of the last recorded step. */
+	private List<PropertyDescriptor<?, ?>> prefixes;
+	/** The recorded steps. */
+	private final List<Step<E>> steps;
+
+	/**
+	 * Default constructor.
+	 */
+	public RenderPlan() {
+		this.steps = new ArrayList<Step<E>>();
+		this.prefixes = Collections.emptyList();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void beginOperation(final RenderContext<E> context, final OperationDescriptor<E> descriptor) {
+		this.record(context, new BeginOperationStep<E>(descriptor));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void endOperation(final RenderContext<E> context, final OperationDescriptor<E> descriptor) {
+		this.record(context, new EndOperationStep<E>(descriptor));
+	}
+
+	/**
+	 * Gets the value for the label field.
+	 * 
+	 * @return The value for the label field.
+	 */
+	public String getLabel() {
+		return this.label;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, P extends Collection<D>> void renderCollectionParameter(final RenderContext<E> context,
+			final OperationDescriptor<E> operation, final CollectionParameterDescriptor<D, P> descriptor, final RenderType renderType) {
+		this.record(context, new CollectionParameterStep<D, P, E>(operation, descriptor, renderType));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, P extends Collection<D>> void renderCollectionProperty(final RenderContext<E> context,
+			final CollectionPropertyDescriptor<D, P, E> descriptor, final RenderType renderType) {
+		this.record(context, new CollectionPropertyStep<D, P, E>(descriptor, renderType));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, R extends Collection<D>> void renderCollectionResultType(final RenderContext<E> context,
+			final OperationDescriptor<E> operation, final CollectionResultDescriptor<D, R> resultDescriptor, final RenderType renderType) {
+		this.record(context, new CollectionResultStep<D, R, E>(operation, resultDescriptor, renderType));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <P> void renderParameter(final RenderContext<E> context, final ParameterDescriptor<P> descriptor,
+			final OperationDescriptor<E> operation, final RenderType renderType) {
+		this.record(context, new ParameterStep<P, E>(operation, descriptor, renderType));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <P> void renderProperty(final RenderContext<E> context, final PropertyDescriptor<P, E> descriptor, final RenderType renderType) {
+		this.record(context, new PropertyStep<P, E>(descriptor, renderType));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <R> void renderResultType(final RenderContext<E> context, final OperationDescriptor<E> operation,
+			final ResultDescriptor<R> resultDescriptor, final RenderType renderType) {
+		this.record(context, new ResultStep<R, E>(operation, resultDescriptor, renderType));
+	}
+
+	/**
+	 * Replays the plan.
+	 * 
+	 * @param context
+	 *            The context to render in. May not be null. Its variable
+	 *            prefixes are restored afterwards.
+	 * @param factory
+	 *            The factory to render with. May not be null.
+	 */
+	public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+		Validate.notNull(context, RenderPlan.CONTEXT_NULL);
+		Validate.notNull(factory, "Factory may not be null.");
+		final List<PropertyDescriptor<?, ?>> original = context.getPrefixes();
+		List<PropertyDescriptor<?, ?>> current = original;
+		for (final Step<E> step : this.steps) {
+			if (step.prefixes != current) {
+				context.setPrefixes(step.prefixes);
+				current = step.prefixes;
+			}
+			step.replay(context, factory);
+		}
+		context.setPrefixes(original);
+	}
+
+	/**
+	 * Sets a new value for the label field.
+	 * 
+	 * @param label
+	 *            The new value for the label field.
+	 */
+	public void setLabel(final String label) {
+		this.label = label;
+	}
+
+	/**
+	 * Gets the amount of recorded steps.
+	 * 
+	 * @return The amount of steps.
+	 */
+	public int size() {
+		return this.steps.size();
+	}
+
+	/**
+	 * Records a step.
+	 * 
+	 * @param context
+	 *            The context. May not be null.
+	 * @param step
+	 *            The step.
+	 */
+	private void record(final RenderContext<E> context, final Step<E> step) {
+		Validate.notNull(context, RenderPlan.CONTEXT_NULL);
+		final List<PropertyDescriptor<?, ?>> current = context.getPrefixes();
+		if (!current.equals(this.prefixes)) {
+			this.prefixes = Collections.unmodifiableList(current);
+		}
+		step.prefixes = this.prefixes;
+		this.steps.add(step);
+	}
+
+	/**
+	 * Begins an operation.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private static final class BeginOperationStep<E>
+			extends Step<E> {
+
+		/** The operation. */
+		private final OperationDescriptor<E> operation;
+
+		/**
+		 * Constructs the step.
+		 * 
+		 * @param operation
+		 *            The operation.
+		 */
+		public BeginOperationStep(final OperationDescriptor<E> operation) {
+			super();
+			this.operation = operation;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+			factory.beginOperation(context, this.operation);
+		}
+	}
+
+	/**
+	 * Renders a collection parameter.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <D>
+	 *            The element type.
+	 * @param <P>
+	 *            The collection type.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private static final class CollectionParameterStep<D, P extends Collection<D>, E>
+			extends Step<E> {
+
+		/** The parameter. */
+		private final CollectionParameterDescriptor<D, P> descriptor;
+		/** The operation. */
+		private final OperationDescriptor<E> operation;
+		/** The render type. */
+		private final RenderType renderType;
+
+		/**
+		 * Constructs the step.
+		 * 
+		 * @param operation
+		 *            The operation.
+		 * @param descriptor
+		 *            The parameter.
+		 * @param renderType
+		 *            The render type.
+		 */
+		public CollectionParameterStep(final OperationDescriptor<E> operation, final CollectionParameterDescriptor<D, P> descriptor,
+				final RenderType renderType) {
+			super();
+			this.operation = operation;
+			this.descriptor = descriptor;
+			this.renderType = renderType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+			factory.renderCollectionParameter(context, this.operation, this.descriptor, this.renderType);
+		}
+	}
+
+	/**
+	 * Renders a collection property.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <D>
+	 *            The element type.
+	 * @param <P>
+	 *            The collection type.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private static final class CollectionPropertyStep<D, P extends Collection<D>, E>
+			extends Step<E> {
+
+		/** The property. */
+		private final CollectionPropertyDescriptor<D, P, E> descriptor;
+		/** The render type. */
+		private final RenderType renderType;
+
+		/**
+		 * Constructs the step.
+		 * 
+		 * @param descriptor
+		 *            The property.
+		 * @param renderType
+		 *            The render type.
+		 */
+		public CollectionPropertyStep(final CollectionPropertyDescriptor<D, P, E> descriptor, final RenderType renderType) {
+			super();
+			this.descriptor = descriptor;
+			this.renderType = renderType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+			factory.renderCollectionProperty(context, this.descriptor, this.renderType);
+		}
+	}
+
+	/**
+	 * Renders a collection result.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <D>
+	 *            The element type.
+	 * @param <R>
+	 *            The collection type.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private static final class CollectionResultStep<D, R extends Collection<D>, E>
+			extends Step<E> {
+
+		/** The result. */
+		private final CollectionResultDescriptor<D, R> descriptor;
+		/** The operation. */
+		private final OperationDescriptor<E> operation;
+		/** The render type. */
+		private final RenderType renderType;
+
+		/**
+		 * Constructs the step.
+		 * 
+		 * @param operation
+		 *            The operation.
+		 * @param descriptor
+		 *            The result.
+		 * @param renderType
+		 *            The render type.
+		 */
+		public CollectionResultStep(final OperationDescriptor<E> operation, final CollectionResultDescriptor<D, R> descriptor,
+				final RenderType renderType) {
+			super();
+			this.operation = operation;
+			this.descriptor = descriptor;
+			this.renderType = renderType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+			factory.renderCollectionResultType(context, this.operation, this.descriptor, this.renderType);
+		}
+	}
+
+	/**
+	 * Ends an operation.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private static final class EndOperationStep<E>
+			extends Step<E> {
+
+		/** The operation. */
+		private final OperationDescriptor<E> operation;
+
+		/**
+		 * Constructs the step.
+		 * 
+		 * @param operation
+		 *            The operation.
+		 */
+		public EndOperationStep(final OperationDescriptor<E> operation) {
+			super();
+			this.operation = operation;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+			factory.endOperation(context, this.operation);
+		}
+	}
+
+	/**
+	 * Renders a parameter.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <P>
+	 *            The parameter type.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private static final class ParameterStep<P, E>
+			extends Step<E> {
+
+		/** The parameter. */
+		private final ParameterDescriptor<P> descriptor;
+		/** The operation. */
+		private final OperationDescriptor<E> operation;
+		/** The render type. */
+		private final RenderType renderType;
+
+		/**
+		 * Constructs the step.
+		 * 
+		 * @param operation
+		 *            The operation.
+		 * @param descriptor
+		 *            The parameter.
+		 * @param renderType
+		 *            The render type.
+		 */
+		public ParameterStep(final OperationDescriptor<E> operation, final ParameterDescriptor<P> descriptor, final RenderType renderType) {
+			super();
+			this.operation = operation;
+			this.descriptor = descriptor;
+			this.renderType = renderType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+			factory.renderParameter(context, this.descriptor, this.operation, this.renderType);
+		}
+	}
+
+	/**
+	 * Renders a property.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <P>
+	 *            The property type.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private static final class PropertyStep<P, E>
+			extends Step<E> {
+
+		/** The property. */
+		private final PropertyDescriptor<P, E> descriptor;
+		/** The render type. */
+		private final RenderType renderType;
+
+		/**
+		 * Constructs the step.
+		 * 
+		 * @param descriptor
+		 *            The property.
+		 * @param renderType
+		 *            The render type.
+		 */
+		public PropertyStep(final PropertyDescriptor<P, E> descriptor, final RenderType renderType) {
+			super();
+			this.descriptor = descriptor;
+			this.renderType = renderType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+			factory.renderProperty(context, this.descriptor, this.renderType);
+		}
+	}
+
+	/**
+	 * Renders a result.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <R>
+	 *            The result type.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private static final class ResultStep<R, E>
+			extends Step<E> {
+
+		/** The result. */
+		private final ResultDescriptor<R> descriptor;
+		/** The operation. */
+		private final OperationDescriptor<E> operation;
+		/** The render type. */
+		private final RenderType renderType;
+
+		/**
+		 * Constructs the step.
+		 * 
+		 * @param operation
+		 *            The operation.
+		 * @param descriptor
+		 *            The result.
+		 * @param renderType
+		 *            The render type.
+		 */
+		public ResultStep(final OperationDescriptor<E> operation, final ResultDescriptor<R> descriptor, final RenderType renderType) {
+			super();
+			this.operation = operation;
+			this.descriptor = descriptor;
+			this.renderType = renderType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void replay(final RenderContext<E> context, final RenderFactory<RenderContext<E>, E> factory) {
+			factory.renderResultType(context, this.operation, this.descriptor, this.renderType);
+		}
+	}
+
+	/**
+	 * A recorded step.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <E>
+	 *            The entity type.
+	 */
+	private abstract static class Step<E> {
+
+		/** The variable prefixes. */
+		private List<PropertyDescriptor<?, ?>> prefixes;
+
+		/**
+		 * Default constructor.
+		 */
+		public Step() {
+			// Default constructor.
+		}
+
+		/**
+		 * Replays the step.
+		 * 
+		 * @param context
+		 *            The context.
+		 * @param factory
+		 *            The factory.
+		 */
+		public abstract void replay(RenderContext<E> context, RenderFactory<RenderContext<E>, E> factory);
+	}
+}
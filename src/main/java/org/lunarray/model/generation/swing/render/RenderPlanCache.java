@@ -0,0 +1,234 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+
+/**
+ * Caches the render plans of a model, shared by all forms and tables.
+ * <p>
+ * Plans are kept per entity, qualifier, locale and whether operations are
+ * composed. Plans must be cleared if the model changes.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class RenderPlanCache {
+
+	/** The caches, per model. */
+	private static final Map<Model<?>, RenderPlanCache> CACHES = new WeakHashMap<Model<?>, RenderPlanCache>();
+	/** Validation message. */
+	private static final String ENTITY_NULL = "Entity descriptor may not be null.";
+	/** The amount of hits. */
+	private long hits;
+	/** The amount of misses. */
+	private long misses;
+	/** The plans. */
+	private final Map<PlanKey, RenderPlan<?>> plans;
+
+	/**
+	 * Default constructor.
+	 */
+	private RenderPlanCache() {
+		this.plans = new HashMap<PlanKey, RenderPlan<?>>();
+	}
+
+	/**
+	 * Gets the cache for a model.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @return The cache.
+	 */
+	public static RenderPlanCache getInstance(final Model<?> model) {
+		Validate.notNull(model, "Model may not be null.");
+		synchronized (RenderPlanCache.CACHES) {
+			RenderPlanCache result = RenderPlanCache.CACHES.get(model);
+			if (CheckUtil.isNull(result)) {
+				result = new RenderPlanCache();
+				RenderPlanCache.CACHES.put(model, result);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Drops all plans.
+	 */
+	public synchronized void clear() {
+		this.plans.clear();
+	}
+
+	/**
+	 * Gets the value for the hits field.
+	 * 
+	 * @return The value for the hits field.
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Gets the value for the misses field.
+	 * 
+	 * @return The value for the misses field.
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Gets a plan.
+	 * 
+	 * @param entity
+	 *            The entity descriptor. May not be null.
+	 * @param qualifier
+	 *            The qualifier. May be null.
+	 * @param locale
+	 *            The locale. May be null.
+	 * @param operations
+	 *            Whether operations are composed.
+	 * @return The plan, or null if it is not cached.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <E> RenderPlan<E> getPlan(final EntityDescriptor<E> entity, final Class<?> qualifier, final Locale locale,
+			final boolean operations) {
+		Validate.notNull(entity, RenderPlanCache.ENTITY_NULL);
+		final RenderPlan<E> result = (RenderPlan<E>) this.plans.get(new PlanKey(entity, qualifier, locale, operations));
+		if (CheckUtil.isNull(result)) {
+			this.misses = this.misses + 1;
+		} else {
+			this.hits = this.hits + 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Caches a plan.
+	 * 
+	 * @param entity
+	 *            The entity descriptor. May not be null.
+	 * @param qualifier
+	 *            The qualifier. May be null.
+	 * @param locale
+	 *            The locale. May be null.
+	 * @param operations
+	 *            Whether operations are composed.
+	 * @param plan
+	 *            The recorded plan. May not be null.
+	 * @param <E>
+	 *            The entity type.
+	 */
+	public synchronized <E> void putPlan(final EntityDescriptor<E> entity, final Class<?> qualifier, final Locale locale,
+			final boolean operations, final RenderPlan<E> plan) {
+		Validate.notNull(entity, RenderPlanCache.ENTITY_NULL);
+		Validate.notNull(plan, "Plan may not be null.");
+		this.plans.put(new PlanKey(entity, qualifier, locale, operations), plan);
+	}
+
+	/**
+	 * Gets the amount of cached plans.
+	 * 
+	 * @return The amount of plans.
+	 */
+	public synchronized int size() {
+		return this.plans.size();
+	}
+
+	/**
+	 * A plan key.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class PlanKey {
+
+		/** The entity descriptor. */
+		private final EntityDescriptor<?> entity;
+		/** The hash code. */
+		private final int hash;
+		/** The locale. */
+		private final Locale locale;
+		/** Whether operations are composed. */
+		private final boolean operations;
+		/** The qualifier. */
+		private final Class<?> qualifier;
+
+		/**
+		 * Constructs the key.
+		 * 
+		 * @param entity
+		 *            The entity descriptor.
+		 * @param qualifier
+		 *            The qualifier.
+		 * @param locale
+		 *            The locale.
+		 * @param operations
+		 *            Whether operations are composed.
+		 */
+		public PlanKey(final EntityDescriptor<?> entity, final Class<?> qualifier, final Locale locale, final boolean operations) {
+			this.entity = entity;
+			this.qualifier = qualifier;
+			this.locale = locale;
+			this.operations = operations;
+			int result = System.identityHashCode(entity);
+			if (!CheckUtil.isNull(qualifier)) {
+				result = (31 * result) + qualifier.hashCode();
+			}
+			if (!CheckUtil.isNull(locale)) {
+				result = (31 * result) + locale.hashCode();
+			}
+			if (operations) {
+				result = result + 1;
+			}
+			this.hash = result;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public boolean equals(final Object obj) {
+			boolean result = false;
+			if (obj instanceof PlanKey) {
+				final PlanKey other = (PlanKey) obj;
+				result = (this.hash == other.hash) && (this.entity == other.entity) && (this.qualifier == other.qualifier)
+						&& (this.operations == other.operations);
+				if (CheckUtil.isNull(this.locale)) {
+					result = result && CheckUtil.isNull(other.locale);
+				} else {
+					result = result && this.locale.equals(other.locale);
+				}
+			}
+			return result;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+}
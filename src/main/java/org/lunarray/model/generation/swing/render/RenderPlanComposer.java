@@ -0,0 +1,138 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.util.Locale;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.generation.swing.metrics.ComponentMetrics;
+import org.lunarray.model.generation.swing.metrics.MetricsRegistry;
+import org.lunarray.model.generation.util.Composer;
+import org.lunarray.model.generation.util.VariableResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Composes render plans, taking them from the render plan cache if they were
+ * composed before. Composing does not create any Swing components and may be
+ * done on any thread.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <S>
+ *            The super type.
+ * @param <E>
+ *            The entity type.
+ */
+public final class RenderPlanComposer<S, E extends S>
+		implements VariableResolver<RenderContext<E>, S, E> {
+
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(RenderPlanComposer.class);
+	/** The entity descriptor. */
+	private final EntityDescriptor<E> entityDescriptor;
+	/** The locale. */
+	private final Locale locale;
+	/** The model. */
+	private final Model<S> model;
+	/** The qualifier. */
+	private final Class<?> qualifier;
+
+	/**
+	 * Constructs the composer.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @param entityDescriptor
+	 *            The entity descriptor. May not be null.
+	 * @param locale
+	 *            The locale. May be null.
+	 * @param qualifier
+	 *            The qualifier. May be null.
+	 */
+	public RenderPlanComposer(final Model<S> model, final EntityDescriptor<E> entityDescriptor, final Locale locale,
+			final Class<?> qualifier) {
+		Validate.notNull(model, "Model may not be null.");
+		Validate.notNull(entityDescriptor, "Entity descriptor may not be null.");
+		this.model = model;
+		this.entityDescriptor = entityDescriptor;
+		this.locale = locale;
+		this.qualifier = qualifier;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public EntityDescriptor<E> getDescriptor(final RenderContext<E> context) {
+		return this.entityDescriptor;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Locale getLocale(final RenderContext<E> context) {
+		return this.locale;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Model<S> getModel(final RenderContext<E> context) {
+		return this.model;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Class<?> getQualifier(final RenderContext<E> context) {
+		return this.qualifier;
+	}
+
+	/**
+	 * Gets the render plan, composing it if it is not cached.
+	 * 
+	 * @param operations
+	 *            Whether operations are composed.
+	 * @return The plan.
+	 */
+	public RenderPlan<E> getRenderPlan(final boolean operations) {
+		final RenderPlanCache cache = RenderPlanCache.getInstance(this.model);
+		RenderPlan<E> plan = cache.getPlan(this.entityDescriptor, this.qualifier, this.locale, operations);
+		if (CheckUtil.isNull(plan)) {
+			RenderPlanComposer.LOGGER.debug("Composing render plan for: {}", this.entityDescriptor);
+			final ComponentMetrics metrics = MetricsRegistry.getMetrics();
+			final long start = MetricsRegistry.start(metrics);
+			plan = new RenderPlan<E>();
+			final Composer<RenderContext<E>, S, E> composer = new Composer<RenderContext<E>, S, E>();
+			composer.setContext(new RenderContext<E>(this.model));
+			composer.setPropertyRenderStrategyFactory(plan);
+			composer.setVariableResolver(this);
+			plan.setLabel(composer.getLabel());
+			composer.compose(operations);
+			if (metrics.isEnabled()) {
+				metrics.recordCompose(this.entityDescriptor.getName(), System.nanoTime() - start);
+			}
+			cache.putPlan(this.entityDescriptor, this.qualifier, this.locale, operations, plan);
+		}
+		return plan;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasQualifier(final RenderContext<E> context) {
+		return !CheckUtil.isNull(this.qualifier);
+	}
+}
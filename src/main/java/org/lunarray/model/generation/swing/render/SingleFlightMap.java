@@ -0,0 +1,84 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map of loads by entry name that evicts the least recently used load.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <T>
+ *            The load type.
+ */
+final class SingleFlightMap<T extends SingleFlightTask<?>>
+		extends LinkedHashMap<String, T> {
+
+	/** Serial id. */
+	private static final long serialVersionUID = 5215394839722071416L;
+	/** The initial capacity. */
+	private static final int INITIAL_CAPACITY = 16;
+	/** The load factor. */
+	private static final float LOAD_FACTOR = 0.75f;
+	/** The maximum amount of loads. */
+	private int maxSize;
+
+	/**
+	 * Constructs the map.
+	 * 
+	 * @param maxSize
+	 *            The maximum amount of loads.
+	 */
+	public SingleFlightMap(final int maxSize) {
+		super(SingleFlightMap.INITIAL_CAPACITY, SingleFlightMap.LOAD_FACTOR, true);
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Gets the value for the maxSize field.
+	 * 
+	 * @return The value for the maxSize field.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Sets a new value for the maxSize field, evicting the least recently
+	 * used loads that no longer fit.
+	 * 
+	 * @param maxSize
+	 *            The new value for the maxSize field.
+	 */
+	public void setMaxSize(final int maxSize) {
+		this.maxSize = maxSize;
+		final Iterator<String> names = this.keySet().iterator();
+		while ((this.size() > this.maxSize) && names.hasNext()) {
+			names.next();
+			names.remove();
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean removeEldestEntry(final Map.Entry<String, T> eldest) {
+		return this.size() > this.maxSize;
+	}
+}
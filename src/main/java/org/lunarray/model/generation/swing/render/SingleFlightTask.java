@@ -0,0 +1,248 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * A load of a cache entry, shared by all concurrent requests for it. The load
+ * runs once, listeners are notified of the result on the event dispatch
+ * thread.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <V>
+ *            The result type.
+ */
+abstract class SingleFlightTask<V>
+		extends FutureTask<V> {
+
+	/** The completion time of a successful load, in nanoseconds. */
+	private volatile long completedAt;
+	/** The listeners to notify on completion. */
+	private final List<CompletionListener<V>> listeners;
+	/** The entry name. */
+	private final String name;
+	/** The creation time, in nanoseconds. */
+	private final long start;
+	/** Whether the load was started. */
+	private boolean started;
+	/** Whether the load succeeded. */
+	private volatile boolean succeeded;
+
+	/**
+	 * Constructs the load.
+	 * 
+	 * @param name
+	 *            The entry name.
+	 * @param callable
+	 *            The load.
+	 */
+	public SingleFlightTask(final String name, final Callable<V> callable) {
+		super(callable);
+		this.name = name;
+		this.listeners = new LinkedList<CompletionListener<V>>();
+		this.start = System.nanoTime();
+	}
+
+	/**
+	 * Adds a listener, notifying it later if the load already completed.
+	 * 
+	 * @param listener
+	 *            The listener.
+	 */
+	public final void addListener(final CompletionListener<V> listener) {
+		boolean done;
+		synchronized (this.listeners) {
+			done = this.isDone();
+			if (!done) {
+				this.listeners.add(listener);
+			}
+		}
+		if (done) {
+			this.notifyLater(listener);
+		}
+	}
+
+	/**
+	 * Gets the completion time of a successful load.
+	 * 
+	 * @return The completion time, in nanoseconds.
+	 */
+	public final long getCompletedAt() {
+		return this.completedAt;
+	}
+
+	/**
+	 * Gets the value for the name field.
+	 * 
+	 * @return The value for the name field.
+	 */
+	public final String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets the result of a successful load.
+	 * 
+	 * @return The result, or null if the load failed.
+	 */
+	public final V getResult() {
+		V result = null;
+		try {
+			result = this.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException e) {
+			// The failure was reported on completion.
+		}
+		return result;
+	}
+
+	/**
+	 * Tests if the load succeeded.
+	 * 
+	 * @return True if and only if the load succeeded.
+	 */
+	public final boolean isSucceeded() {
+		return this.succeeded;
+	}
+
+	/**
+	 * Marks the load started, to submit it to an executor only once.
+	 * 
+	 * @return True if and only if the load was not started before.
+	 */
+	public final synchronized boolean start() {
+		final boolean result = !this.started;
+		this.started = true;
+		return result;
+	}
+
+	/**
+	 * Notifies the load completed. Called on the loading thread, before
+	 * listeners are notified.
+	 * 
+	 * @param latency
+	 *            The time since the load was created, in nanoseconds.
+	 * @param failure
+	 *            The failure, or null if the load succeeded.
+	 */
+	protected abstract void completed(long latency, Throwable failure);
+
+	/** {@inheritDoc} */
+	@Override
+	protected final void done() {
+		final long latency = System.nanoTime() - this.start;
+		Throwable failure = null;
+		try {
+			this.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure = e;
+		} catch (final ExecutionException e) {
+			failure = e.getCause();
+		}
+		this.completed(latency, failure);
+		final List<CompletionListener<V>> notified;
+		synchronized (this.listeners) {
+			notified = new LinkedList<CompletionListener<V>>(this.listeners);
+			this.listeners.clear();
+		}
+		for (final CompletionListener<V> listener : notified) {
+			this.notifyLater(listener);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected final void set(final V value) {
+		// Recorded before the load is done, so that a done load is never seen
+		// as failed.
+		this.completedAt = System.nanoTime();
+		this.succeeded = true;
+		super.set(value);
+	}
+
+	/**
+	 * Notifies a listener on the event dispatch thread.
+	 * 
+	 * @param listener
+	 *            The listener.
+	 */
+	private void notifyLater(final CompletionListener<V> listener) {
+		SwingUtilities.invokeLater(new Notification<V>(listener, this.getResult()));
+	}
+
+	/**
+	 * A completion listener.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <V>
+	 *            The result type.
+	 */
+	public interface CompletionListener<V> {
+		/**
+		 * Notifies the load completed.
+		 * 
+		 * @param result
+		 *            The result. Null if the load failed.
+		 */
+		void loadCompleted(V result);
+	}
+
+	/**
+	 * Notifies a listener of a completed load.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <V>
+	 *            The result type.
+	 */
+	private static final class Notification<V>
+			implements Runnable {
+
+		/** The listener. */
+		private final CompletionListener<V> listener;
+		/** The result. */
+		private final V result;
+
+		/**
+		 * Constructs the notification.
+		 * 
+		 * @param listener
+		 *            The listener.
+		 * @param result
+		 *            The result.
+		 */
+		public Notification(final CompletionListener<V> listener, final V result) {
+			this.listener = listener;
+			this.result = result;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			this.listener.loadCompleted(this.result);
+		}
+	}
+}
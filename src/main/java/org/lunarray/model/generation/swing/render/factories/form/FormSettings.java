@@ -0,0 +1,258 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.model.descriptor.presentation.RenderType;
+
+/**
+ * The settings of a generated form.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class FormSettings {
+
+	/** The debounce delay of text inputs, in milliseconds. */
+	private int debounceDelay;
+	/** Whether the form layout is used instead of the grid bag layout. */
+	private boolean formLayout;
+	/** The operation executor. */
+	private ExecutorService operationExecutor;
+	/** The operation timeout, in milliseconds. */
+	private long operationTimeout;
+	/** Whether dictionaries are looked up in parallel before rendering. */
+	private boolean prefetch;
+	/** The render types rendered as type ahead selects. */
+	private Set<RenderType> typeAheadRenderTypes;
+	/** The validation on commit. */
+	private ValidationMode validationMode;
+	/** Whether only the rows near the viewport are rendered. */
+	private boolean virtual;
+
+	/**
+	 * Default constructor. Text inputs are converted on every edit, operations
+	 * run on the default executor without timeout, no render type is
+	 * rendered as type ahead select, the entity is validated on commit, the
+	 * grid bag layout is used, all rows are rendered and dictionaries are
+	 * looked up by the select components themselves.
+	 */
+	public FormSettings() {
+		this.typeAheadRenderTypes = EnumSet.noneOf(RenderType.class);
+		this.validationMode = ValidationMode.ENTITY;
+	}
+
+	/**
+	 * Copy constructor.
+	 * 
+	 * @param settings
+	 *            The settings to copy. May not be null.
+	 */
+	public FormSettings(final FormSettings settings) {
+		Validate.notNull(settings, "Settings may not be null.");
+		this.debounceDelay = settings.debounceDelay;
+		this.formLayout = settings.formLayout;
+		this.operationExecutor = settings.operationExecutor;
+		this.operationTimeout = settings.operationTimeout;
+		this.prefetch = settings.prefetch;
+		this.typeAheadRenderTypes = EnumSet.noneOf(RenderType.class);
+		this.typeAheadRenderTypes.addAll(settings.typeAheadRenderTypes);
+		this.validationMode = settings.validationMode;
+		this.virtual = settings.virtual;
+	}
+
+	/**
+	 * Gets the value for the debounceDelay field.
+	 * 
+	 * @return The value for the debounceDelay field. 0 to convert and
+	 *         validate on every edit.
+	 */
+	public int getDebounceDelay() {
+		return this.debounceDelay;
+	}
+
+	/**
+	 * Gets the value for the operationExecutor field.
+	 * 
+	 * @return The value for the operationExecutor field. Null for the default
+	 *         executor.
+	 */
+	public ExecutorService getOperationExecutor() {
+		return this.operationExecutor;
+	}
+
+	/**
+	 * Gets the value for the operationTimeout field.
+	 * 
+	 * @return The value for the operationTimeout field. 0 for no timeout.
+	 */
+	public long getOperationTimeout() {
+		return this.operationTimeout;
+	}
+
+	/**
+	 * Gets the value for the typeAheadRenderTypes field.
+	 * 
+	 * @return The value for the typeAheadRenderTypes field.
+	 */
+	public Set<RenderType> getTypeAheadRenderTypes() {
+		return this.typeAheadRenderTypes;
+	}
+
+	/**
+	 * Gets the value for the validationMode field.
+	 * 
+	 * @return The value for the validationMode field.
+	 */
+	public ValidationMode getValidationMode() {
+		return this.validationMode;
+	}
+
+	/**
+	 * Gets the value for the formLayout field.
+	 * 
+	 * @return The value for the formLayout field.
+	 */
+	public boolean isFormLayout() {
+		return this.formLayout;
+	}
+
+	/**
+	 * Gets the value for the prefetch field.
+	 * 
+	 * @return The value for the prefetch field.
+	 */
+	public boolean isPrefetch() {
+		return this.prefetch;
+	}
+
+	/**
+	 * Gets the value for the virtual field.
+	 * 
+	 * @return The value for the virtual field.
+	 */
+	public boolean isVirtual() {
+		return this.virtual;
+	}
+
+	/**
+	 * Sets a new value for the debounceDelay field.
+	 * 
+	 * @param debounceDelay
+	 *            The new value for the debounceDelay field, in milliseconds.
+	 *            0 to convert and validate on every edit. May not be negative.
+	 */
+	public void setDebounceDelay(final int debounceDelay) {
+		Validate.isTrue(debounceDelay >= 0, "Debounce delay may not be negative.");
+		this.debounceDelay = debounceDelay;
+	}
+
+	/**
+	 * Sets a new value for the formLayout field.
+	 * 
+	 * @param formLayout
+	 *            The new value for the formLayout field.
+	 */
+	public void setFormLayout(final boolean formLayout) {
+		this.formLayout = formLayout;
+	}
+
+	/**
+	 * Sets a new value for the operationExecutor field.
+	 * 
+	 * @param operationExecutor
+	 *            The new value for the operationExecutor field. Null for the
+	 *            default executor.
+	 */
+	public void setOperationExecutor(final ExecutorService operationExecutor) {
+		this.operationExecutor = operationExecutor;
+	}
+
+	/**
+	 * Sets a new value for the operationTimeout field.
+	 * 
+	 * @param operationTimeout
+	 *            The new value for the operationTimeout field, in
+	 *            milliseconds. 0 for no timeout. May not be negative.
+	 */
+	public void setOperationTimeout(final long operationTimeout) {
+		Validate.isTrue(operationTimeout >= 0, "Operation timeout may not be negative.");
+		this.operationTimeout = operationTimeout;
+	}
+
+	/**
+	 * Sets a new value for the prefetch field.
+	 * 
+	 * @param prefetch
+	 *            The new value for the prefetch field.
+	 */
+	public void setPrefetch(final boolean prefetch) {
+		this.prefetch = prefetch;
+	}
+
+	/**
+	 * Sets a new value for the typeAheadRenderTypes field.
+	 * 
+	 * @param typeAheadRenderTypes
+	 *            The new value for the typeAheadRenderTypes field. May not be
+	 *            null.
+	 */
+	public void setTypeAheadRenderTypes(final Set<RenderType> typeAheadRenderTypes) {
+		Validate.notNull(typeAheadRenderTypes, "Render types may not be null.");
+		this.typeAheadRenderTypes = typeAheadRenderTypes;
+	}
+
+	/**
+	 * Sets a new value for the validationMode field.
+	 * 
+	 * @param validationMode
+	 *            The new value for the validationMode field. May not be null.
+	 */
+	public void setValidationMode(final ValidationMode validationMode) {
+		Validate.notNull(validationMode, "Validation mode may not be null.");
+		this.validationMode = validationMode;
+	}
+
+	/**
+	 * Sets a new value for the virtual field.
+	 * 
+	 * @param virtual
+	 *            The new value for the virtual field.
+	 */
+	public void setVirtual(final boolean virtual) {
+		this.virtual = virtual;
+	}
+
+	/**
+	 * The validation on commit. Only changed values are applied on commit, and
+	 * values are validated as they are edited regardless of the mode.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public enum ValidationMode {
+		/** Validate the entity if anything changed, update changed messages. */
+		DIRTY,
+		/** Validate the entity, update all messages. */
+		ENTITY,
+		/** Do not validate the entity. */
+		NONE;
+	}
+}
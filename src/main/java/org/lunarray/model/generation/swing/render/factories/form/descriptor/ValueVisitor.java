@@ -29,6 +29,13 @@ public interface ValueVisitor {
 	 */
 	void apply();
 
+	/**
+	 * Test if the value changed since it was last applied or reverted.
+	 * 
+	 * @return True if the value changed.
+	 */
+	boolean isDirty();
+
 	/**
 	 * Revert to the original value.
 	 */
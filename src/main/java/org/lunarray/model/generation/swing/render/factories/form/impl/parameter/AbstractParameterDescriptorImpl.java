@@ -22,6 +22,7 @@ import java.util.List;
 
 import javax.swing.JLabel;
 
+import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.Validate;
 import org.lunarray.common.check.CheckUtil;
 import org.lunarray.model.descriptor.converter.ConverterTool;
@@ -33,6 +34,7 @@ import org.lunarray.model.descriptor.model.relation.RelationDescriptor;
 import org.lunarray.model.descriptor.presentation.PresentationParameterDescriptor;
 import org.lunarray.model.descriptor.util.OperationInvocationBuilder;
 import org.lunarray.model.descriptor.validator.ValueValidator;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.AccessBuffer;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.MutateBuffer;
@@ -65,10 +67,16 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 	private OperationInvocationBuilder<E> builder;
 	/** The converter. */
 	private ExtensionRef<ConverterTool> converterTool;
+	/** Whether the buffer changed since the last apply or revert. */
+	private boolean dirty;
 	/** The listeners. */
 	private List<ValueChangeListener<P>> listeners;
 	/** The parameter. */
 	private ParameterDescriptor<P> parameter;
+	/** Whether a value was set on the builder. */
+	private boolean parameterSet;
+	/** The value last set on the builder. */
+	private P parameterValue;
 	/** The presentation parameter. */
 	private PresentationParameterDescriptor<P> presentationParameter;
 	/** The relation descriptor. */
@@ -113,9 +121,22 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 	/** {@inheritDoc} */
 	@Override
 	public final void apply() {
-		this.builder.parameter(this.parameter, this.bufferValue);
-		for (final ValueChangeListener<P> listener : this.listeners) {
-			listener.valueChanged(this.bufferValue);
+		this.updateParameter();
+		this.dirty = false;
+		this.notifyListeners();
+	}
+
+	/**
+	 * Sets the value last set on the builder on another builder, for example
+	 * a snapshot of the builder for an invocation in the background.
+	 * 
+	 * @param invocation
+	 *            The builder. May not be null.
+	 */
+	public final void copyParameter(final OperationInvocationBuilder<E> invocation) {
+		Validate.notNull(invocation, "Builder may not be null.");
+		if (this.parameterSet) {
+			invocation.parameter(this.parameter, this.parameterValue);
 		}
 	}
 
@@ -281,6 +302,12 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 		return this.valueValidator;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public final boolean isDirty() {
+		return this.dirty;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public final boolean isRelation() {
@@ -313,10 +340,9 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 	/** {@inheritDoc} */
 	@Override
 	public final void revert() {
-		this.bufferValue = null;
-		for (final ValueChangeListener<P> listener : this.listeners) {
-			listener.valueChanged(this.bufferValue);
-		}
+		this.updateBuffer(null);
+		this.dirty = false;
+		this.notifyListeners();
 	}
 
 	/**
@@ -351,13 +377,13 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 		}
 		try {
 			if (this.parameter.isAssignable(value)) {
-				this.bufferValue = (P) value;
+				this.updateBuffer((P) value);
 			} else {
 				final String stringValue = tool.convertToString((Class<T>) value.getClass(), value, format);
-				this.bufferValue = tool.convertToInstance(this.parameter.getType(), stringValue, format);
+				this.updateBuffer(tool.convertToInstance(this.parameter.getType(), stringValue, format));
 			}
 			if (this.validate(message)) {
-				this.builder.parameter(this.parameter, this.bufferValue);
+				this.updateParameter();
 				message.setText("");
 			}
 		} catch (final ConverterException e) {
@@ -376,6 +402,16 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 		this.converterTool = converterTool;
 	}
 
+	/**
+	 * Sets a new value for the dirty field.
+	 * 
+	 * @param dirty
+	 *            The new value for the dirty field.
+	 */
+	public final void setDirty(final boolean dirty) {
+		this.dirty = dirty;
+	}
+
 	/**
 	 * Sets a new value for the listeners field.
 	 * 
@@ -428,12 +464,12 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 		}
 		try {
 			if (this.parameter.isAssignable(stringValue)) {
-				this.bufferValue = (P) stringValue;
+				this.updateBuffer((P) stringValue);
 			} else {
-				this.bufferValue = tool.convertToInstance(this.parameter.getType(), stringValue, format);
+				this.updateBuffer(tool.convertToInstance(this.parameter.getType(), stringValue, format));
 			}
 			if (this.validate(message)) {
-				this.builder.parameter(this.parameter, this.bufferValue);
+				this.updateParameter();
 				message.setText("");
 			}
 		} catch (final ConverterException e) {
@@ -466,9 +502,9 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 	@Override
 	public final void setValue(final JLabel message, final P value) {
 		Validate.notNull(message, AbstractParameterDescriptorImpl.MESSAGE_NULL);
-		this.bufferValue = value;
+		this.updateBuffer(value);
 		if (this.validate(message)) {
-			this.builder.parameter(this.parameter, this.bufferValue);
+			this.updateParameter();
 		} else {
 			message.setText("");
 		}
@@ -503,4 +539,40 @@ public abstract class AbstractParameterDescriptorImpl<P, E>
 		}
 		return this.validValue;
 	}
+
+	/**
+	 * Notifies the listeners of the buffer value.
+	 */
+	private void notifyListeners() {
+		EdtWatchdog.enter(this.getName());
+		try {
+			for (final ValueChangeListener<P> listener : this.listeners) {
+				listener.valueChanged(this.bufferValue);
+			}
+		} finally {
+			EdtWatchdog.exit();
+		}
+	}
+
+	/**
+	 * Updates the buffer, marking it dirty if the value changed.
+	 * 
+	 * @param value
+	 *            The new value.
+	 */
+	private void updateBuffer(final P value) {
+		if (!ObjectUtils.equals(this.bufferValue, value)) {
+			this.dirty = true;
+		}
+		this.bufferValue = value;
+	}
+
+	/**
+	 * Sets the buffer value on the builder.
+	 */
+	private void updateParameter() {
+		this.builder.parameter(this.parameter, this.bufferValue);
+		this.parameterValue = this.bufferValue;
+		this.parameterSet = true;
+	}
 }
@@ -18,6 +18,7 @@
 package org.lunarray.model.generation.swing.render.factories.form.impl.parameter;
 
 import java.util.Collection;
+import java.util.HashSet;
 
 import javax.swing.JLabel;
 
@@ -102,7 +103,11 @@ public final class CollectionParameterDescriptorImpl<C, P extends Collection<C>,
 	/** {@inheritDoc} */
 	@Override
 	public void setValues(final JLabel message, final Collection<C> values) {
-		this.getValue(message).clear();
-		this.getValue(message).addAll(values);
+		final Collection<C> current = this.getValue(message);
+		if ((current.size() != values.size()) || !new HashSet<C>(current).containsAll(values)) {
+			this.setDirty(true);
+		}
+		current.clear();
+		current.addAll(values);
 	}
 }
@@ -23,6 +23,7 @@ import java.util.List;
 
 import javax.swing.JLabel;
 
+import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.Validate;
 import org.lunarray.common.check.CheckUtil;
 import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
@@ -35,6 +36,7 @@ import org.lunarray.model.descriptor.model.relation.RelationDescriptor;
 import org.lunarray.model.descriptor.presentation.PresentationPropertyDescriptor;
 import org.lunarray.model.descriptor.validator.PropertyViolation;
 import org.lunarray.model.descriptor.validator.ValueValidator;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.AccessBuffer;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.MutateBuffer;
@@ -64,6 +66,8 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 	private P bufferValue;
 	/** The converter. */
 	private ExtensionRef<ConverterTool> converterTool;
+	/** Whether the buffer changed since the last apply or revert. */
+	private boolean dirty;
 	/** The entity. */
 	private E entity;
 	/** The listeners. */
@@ -114,9 +118,8 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 		} catch (final ValueAccessException e) {
 			AbstractPropertyDescriptorImpl.LOGGER.warn(AbstractPropertyDescriptorImpl.ACCESS_MESSAGE, e);
 		}
-		for (final ValueChangeListener<P> listener : this.listeners) {
-			listener.valueChanged(this.bufferValue);
-		}
+		this.dirty = false;
+		this.notifyListeners();
 	}
 
 	/** {@inheritDoc} */
@@ -281,6 +284,12 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 		return this.valueValidator;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public final boolean isDirty() {
+		return this.dirty;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public final boolean isRelation() {
@@ -305,6 +314,17 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 		return this.validValue;
 	}
 
+	/**
+	 * Changes the entity without reverting the buffer. The buffer should be
+	 * reverted afterwards.
+	 * 
+	 * @param entity
+	 *            The new entity.
+	 */
+	public final void rebind(final E entity) {
+		this.entity = entity;
+	}
+
 	@Override
 	public final void removeListener(final ValueChangeListener<P> listener) {
 		this.listeners.remove(listener);
@@ -318,9 +338,8 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 		} catch (final ValueAccessException e) {
 			AbstractPropertyDescriptorImpl.LOGGER.warn(AbstractPropertyDescriptorImpl.ACCESS_MESSAGE, e);
 		}
-		for (final ValueChangeListener<P> listener : this.listeners) {
-			listener.valueChanged(this.bufferValue);
-		}
+		this.dirty = false;
+		this.notifyListeners();
 	}
 
 	/**
@@ -345,10 +364,10 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 		}
 		try {
 			if (this.property.isAssignable(value)) {
-				this.bufferValue = (P) value;
+				this.updateBuffer((P) value);
 			} else {
 				final String stringValue = tool.convertToString((Class<T>) value.getClass(), value, format);
-				this.bufferValue = tool.convertToInstance(this.property.getPropertyType(), stringValue, format);
+				this.updateBuffer(tool.convertToInstance(this.property.getPropertyType(), stringValue, format));
 			}
 			this.validate(message);
 		} catch (final ConverterException e) {
@@ -367,6 +386,16 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 		this.converterTool = converterTool;
 	}
 
+	/**
+	 * Sets a new value for the dirty field.
+	 * 
+	 * @param dirty
+	 *            The new value for the dirty field.
+	 */
+	public final void setDirty(final boolean dirty) {
+		this.dirty = dirty;
+	}
+
 	/**
 	 * Sets a new value for the entity field.
 	 * 
@@ -430,9 +459,9 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 		}
 		try {
 			if (this.property.isAssignable(stringValue)) {
-				this.bufferValue = (P) stringValue;
+				this.updateBuffer((P) stringValue);
 			} else {
-				this.bufferValue = tool.convertToInstance(this.property.getPropertyType(), stringValue, format);
+				this.updateBuffer(tool.convertToInstance(this.property.getPropertyType(), stringValue, format));
 			}
 			this.validate(message);
 		} catch (final ConverterException e) {
@@ -464,7 +493,7 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 	/** {@inheritDoc} */
 	@Override
 	public final void setValue(final JLabel message, final P value) {
-		this.bufferValue = value;
+		this.updateBuffer(value);
 		this.validate(message);
 	}
 
@@ -503,4 +532,31 @@ public abstract class AbstractPropertyDescriptorImpl<P, E>
 		}
 		return this.validValue;
 	}
+
+	/**
+	 * Notifies the listeners of the buffer value.
+	 */
+	private void notifyListeners() {
+		EdtWatchdog.enter(this.getName());
+		try {
+			for (final ValueChangeListener<P> listener : this.listeners) {
+				listener.valueChanged(this.bufferValue);
+			}
+		} finally {
+			EdtWatchdog.exit();
+		}
+	}
+
+	/**
+	 * Updates the buffer, marking it dirty if the value changed.
+	 * 
+	 * @param value
+	 *            The new value.
+	 */
+	private void updateBuffer(final P value) {
+		if (!ObjectUtils.equals(this.bufferValue, value)) {
+			this.dirty = true;
+		}
+		this.bufferValue = value;
+	}
 }
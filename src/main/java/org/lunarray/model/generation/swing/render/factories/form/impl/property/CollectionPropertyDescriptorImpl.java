@@ -18,6 +18,7 @@
 package org.lunarray.model.generation.swing.render.factories.form.impl.property;
 
 import java.util.Collection;
+import java.util.HashSet;
 
 import javax.swing.JLabel;
 
@@ -98,7 +99,11 @@ public final class CollectionPropertyDescriptorImpl<C, P extends Collection<C>,
 	/** {@inheritDoc} */
 	@Override
 	public void setValues(final JLabel message, final Collection<C> values) {
-		this.getValue(message).clear();
-		this.getValue(message).addAll(values);
+		final Collection<C> current = this.getValue(message);
+		if ((current.size() != values.size()) || !new HashSet<C>(current).containsAll(values)) {
+			this.setDirty(true);
+		}
+		current.clear();
+		current.addAll(values);
 	}
 }
@@ -34,6 +34,7 @@ import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
 import org.lunarray.model.descriptor.model.operation.result.ResultDescriptor;
 import org.lunarray.model.descriptor.model.relation.RelationDescriptor;
 import org.lunarray.model.descriptor.presentation.PresentationResultDescriptor;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.AccessBuffer;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.MutateBuffer;
@@ -256,9 +257,14 @@ public final class ResultValueDescriptorImpl<R>
 	@Override
 	public void handleEvent(final OperationInvocationEvent<?, R> event) throws EventException {
 		this.bufferValue = event.getResult();
-		for (final ValueChangeListener<R> listener : this.listeners) {
-			listener.valueChanged(this.bufferValue);
-		}
+		this.notifyListeners();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean isDirty() {
+		// Read only.
+		return false;
 	}
 
 	/** {@inheritDoc} */
@@ -378,4 +384,18 @@ public final class ResultValueDescriptorImpl<R>
 	public boolean validate(final JLabel messageLabel) {
 		return true;
 	}
+
+	/**
+	 * Notifies the listeners of the buffer value.
+	 */
+	private void notifyListeners() {
+		EdtWatchdog.enter(this.getName());
+		try {
+			for (final ValueChangeListener<R> listener : this.listeners) {
+				listener.valueChanged(this.bufferValue);
+			}
+		} finally {
+			EdtWatchdog.exit();
+		}
+	}
 }
@@ -0,0 +1,192 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.dictionary.Dictionary;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.CollectionParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.ParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.CollectionResultDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.ResultDescriptor;
+import org.lunarray.model.descriptor.model.property.CollectionPropertyDescriptor;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.descriptor.model.relation.RelationDescriptor;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.generation.swing.render.DictionaryCache;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.factories.form.FormSettings;
+import org.lunarray.model.generation.util.RenderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the dictionary lookups of the select components of a form, before
+ * the form is rendered.
+ * <p>
+ * Replaying a render plan into the prefetcher starts one lookup per related
+ * entity name. The lookups run in parallel in the dictionary cache, so
+ * waiting for them takes about as long as the slowest lookup. Once they are
+ * done, the select components of the form find their entities cached.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <E>
+ *            The entity type.
+ */
+public final class DictionaryPrefetcher<E>
+		implements RenderFactory<RenderContext<E>, E> {
+
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(DictionaryPrefetcher.class);
+	/** The lookups, per related entity name. */
+	private final Map<String, Future<?>> lookups;
+	/** The render types rendered as select. */
+	private final Set<RenderType> selectTypes;
+
+	/**
+	 * Constructs the prefetcher.
+	 * 
+	 * @param settings
+	 *            The form settings. May not be null.
+	 */
+	public DictionaryPrefetcher(final FormSettings settings) {
+		Validate.notNull(settings, "Settings may not be null.");
+		this.lookups = new LinkedHashMap<String, Future<?>>();
+		this.selectTypes = EnumSet.of(RenderType.DROPDOWN, RenderType.PICKLIST, RenderType.RADIO, RenderType.SHUTTLE);
+		this.selectTypes.addAll(settings.getTypeAheadRenderTypes());
+	}
+
+	/**
+	 * Waits for all started lookups. Failed lookups are ignored, as the select
+	 * components look them up again. Stops waiting once interrupted.
+	 */
+	public void await() {
+		final Iterator<Map.Entry<String, Future<?>>> iterator = this.lookups.entrySet().iterator();
+		boolean interrupted = false;
+		while (!interrupted && iterator.hasNext()) {
+			final Map.Entry<String, Future<?>> lookup = iterator.next();
+			try {
+				lookup.getValue().get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				interrupted = true;
+			} catch (final ExecutionException e) {
+				DictionaryPrefetcher.LOGGER.debug("Could not prefetch '{}'.", lookup.getKey(), e);
+			}
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void beginOperation(final RenderContext<E> context, final OperationDescriptor<E> descriptor) {
+		// Operations have no dictionary.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void endOperation(final RenderContext<E> context, final OperationDescriptor<E> descriptor) {
+		// Operations have no dictionary.
+	}
+
+	/**
+	 * Gets the related entity names that are looked up.
+	 * 
+	 * @return The names.
+	 */
+	public Set<String> getNames() {
+		return this.lookups.keySet();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, P extends Collection<D>> void renderCollectionParameter(final RenderContext<E> context,
+			final OperationDescriptor<E> operation, final CollectionParameterDescriptor<D, P> descriptor, final RenderType renderType) {
+		this.prefetch(context, descriptor.adapt(RelationDescriptor.class));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, P extends Collection<D>> void renderCollectionProperty(final RenderContext<E> context,
+			final CollectionPropertyDescriptor<D, P, E> descriptor, final RenderType renderType) {
+		this.prefetch(context, descriptor.adapt(RelationDescriptor.class));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <D, R extends Collection<D>> void renderCollectionResultType(final RenderContext<E> context,
+			final OperationDescriptor<E> operation, final CollectionResultDescriptor<D, R> resultDescriptor, final RenderType renderType) {
+		// Results are not selected.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <P> void renderParameter(final RenderContext<E> context, final ParameterDescriptor<P> descriptor,
+			final OperationDescriptor<E> operation, final RenderType renderType) {
+		if (this.selectTypes.contains(renderType)) {
+			this.prefetch(context, descriptor.adapt(RelationDescriptor.class));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <P> void renderProperty(final RenderContext<E> context, final PropertyDescriptor<P, E> descriptor, final RenderType renderType) {
+		if (this.selectTypes.contains(renderType)) {
+			this.prefetch(context, descriptor.adapt(RelationDescriptor.class));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public <R> void renderResultType(final RenderContext<E> context, final OperationDescriptor<E> operation,
+			final ResultDescriptor<R> resultDescriptor, final RenderType renderType) {
+		// Results are not selected.
+	}
+
+	/**
+	 * Starts the lookup of a relation, if it was not started.
+	 * 
+	 * @param context
+	 *            The render context.
+	 * @param relation
+	 *            The relation. May be null.
+	 */
+	private void prefetch(final RenderContext<E> context, final RelationDescriptor relation) {
+		if (!CheckUtil.isNull(relation) && !this.lookups.containsKey(relation.getRelatedName())) {
+			final Model<? super E> model = context.getModel();
+			final Dictionary dictionary = model.getExtension(Dictionary.class);
+			final EntityDescriptor<?> entityDescriptor = model.getEntity(relation.getRelatedName());
+			if (!CheckUtil.isNull(dictionary) && !CheckUtil.isNull(entityDescriptor)) {
+				this.lookups.put(relation.getRelatedName(),
+						DictionaryCache.getInstance(model).prefetch(relation.getRelatedName(), dictionary, entityDescriptor));
+			}
+		}
+	}
+}
@@ -20,9 +20,12 @@ package org.lunarray.model.generation.swing.render.factories.form.swing;
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
 import org.lunarray.common.event.Bus;
 import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
 import org.lunarray.model.descriptor.model.operation.parameters.CollectionParameterDescriptor;
@@ -34,10 +37,17 @@ import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
 import org.lunarray.model.descriptor.presentation.RenderType;
 import org.lunarray.model.descriptor.util.OperationInvocationBuilder;
 import org.lunarray.model.generation.swing.components.FormComponent;
+import org.lunarray.model.generation.swing.metrics.ComponentMetrics;
+import org.lunarray.model.generation.swing.metrics.MetricsRegistry;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.FormSettings;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.CollectionDescriptor;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
+import org.lunarray.model.generation.swing.render.factories.form.impl.parameter.AbstractParameterDescriptorImpl;
 import org.lunarray.model.generation.swing.render.factories.form.impl.parameter.CollectionParameterDescriptorImpl;
 import org.lunarray.model.generation.swing.render.factories.form.impl.parameter.ParameterDescriptorImpl;
+import org.lunarray.model.generation.swing.render.factories.form.impl.property.AbstractPropertyDescriptorImpl;
 import org.lunarray.model.generation.swing.render.factories.form.impl.property.CollectionPropertyDescriptorImpl;
 import org.lunarray.model.generation.swing.render.factories.form.impl.property.PropertyDescriptorImpl;
 import org.lunarray.model.generation.swing.render.factories.form.impl.result.ResultValueDescriptorImpl;
@@ -50,6 +60,8 @@ import org.lunarray.model.generation.swing.render.factories.form.swing.component
 import org.lunarray.model.generation.swing.render.factories.form.swing.components.TextAreaPropertyStrategy;
 import org.lunarray.model.generation.swing.render.factories.form.swing.components.TextFieldPropertyStrategy;
 import org.lunarray.model.generation.swing.render.factories.form.swing.components.TextOutputPropertyStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.swing.components.TypeAheadSelectPropertyStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.swing.components.VirtualPropertyStrategy;
 import org.lunarray.model.generation.util.RenderFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +96,14 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 	private Bus eventBus;
 	/** The form. */
 	private FormComponent<E> form;
+	/** The operation strategies that invoke the operations. */
+	private Map<OperationDescriptor<E>, OperationOutputStrategy<E>> operations;
+	/** The parameter descriptors, per operation. */
+	private Map<OperationDescriptor<E>, List<AbstractParameterDescriptorImpl<?, E>>> parameterDescriptors;
+	/** The property descriptors. */
+	private List<AbstractPropertyDescriptorImpl<?, E>> propertyDescriptors;
+	/** The form settings. */
+	private FormSettings settings;
 
 	/**
 	 * The default constructor.
@@ -92,24 +112,49 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 	 *            The form
 	 */
 	public FormPropertyRenderStrategyFactoryImpl(final FormComponent<E> form) {
+		this(form, new FormSettings());
+	}
+
+	/**
+	 * Constructs the factory.
+	 * 
+	 * @param form
+	 *            The form
+	 * @param settings
+	 *            The form settings. May not be null.
+	 */
+	public FormPropertyRenderStrategyFactoryImpl(final FormComponent<E> form, final FormSettings settings) {
+		Validate.notNull(settings, "Settings may not be null.");
 		this.form = form;
+		this.settings = settings;
+		final int debounceDelay = settings.getDebounceDelay();
 		this.descriptorFactories = new EnumMap<RenderType, FormPropertyRenderStrategy.DescriptorFactory>(RenderType.class);
 		this.descriptorFactories.put(RenderType.CHECKBOX, new CheckboxPropertyStrategy.StrategyFactory());
-		this.descriptorFactories.put(RenderType.DATE_PICKER, new TextFieldPropertyStrategy.StrategyFactory());
-		this.descriptorFactories.put(RenderType.DATE_TIME_PICKER, new TextFieldPropertyStrategy.StrategyFactory());
+		this.descriptorFactories.put(RenderType.DATE_PICKER, new TextFieldPropertyStrategy.StrategyFactory(debounceDelay));
+		this.descriptorFactories.put(RenderType.DATE_TIME_PICKER, new TextFieldPropertyStrategy.StrategyFactory(debounceDelay));
 		this.descriptorFactories.put(RenderType.DROPDOWN, new SingleListSelectPropertyStrategy.StrategyFactory());
 		this.descriptorFactories.put(RenderType.PICKLIST, new MenuSelectPropertyStrategy.StrategyFactory());
 		this.descriptorFactories.put(RenderType.RADIO, new RadioSelectPropertyStrategy.StrategyFactory());
-		this.descriptorFactories.put(RenderType.RICH_TEXT, new TextAreaPropertyStrategy.StrategyFactory());
+		this.descriptorFactories.put(RenderType.RICH_TEXT, new TextAreaPropertyStrategy.StrategyFactory(debounceDelay));
 		this.descriptorFactories.put(RenderType.SHUTTLE, new SingleListSelectPropertyStrategy.StrategyFactory());
-		this.descriptorFactories.put(RenderType.TEXT, new TextAreaPropertyStrategy.StrategyFactory());
+		this.descriptorFactories.put(RenderType.TEXT, new TextAreaPropertyStrategy.StrategyFactory(debounceDelay));
 
-		this.descriptorFactories.put(RenderType.TEXT_AREA, new TextFieldPropertyStrategy.StrategyFactory());
+		this.descriptorFactories.put(RenderType.TEXT_AREA, new TextFieldPropertyStrategy.StrategyFactory(debounceDelay));
 		this.descriptorFactories.put(RenderType.TIME_PICKER, new TextOutputPropertyStrategy.StrategyFactory());
+		this.defaultDescriptorFactories = new TextOutputPropertyStrategy.StrategyFactory();
+		for (final RenderType renderType : settings.getTypeAheadRenderTypes()) {
+			FormPropertyRenderStrategy.DescriptorFactory fallback = this.descriptorFactories.get(renderType);
+			if (CheckUtil.isNull(fallback)) {
+				fallback = this.defaultDescriptorFactories;
+			}
+			this.descriptorFactories.put(renderType, new TypeAheadSelectPropertyStrategy.StrategyFactory(fallback));
+		}
 		this.collectionFactories = new EnumMap<RenderType, FormPropertyRenderStrategy.CollectionDescriptorFactory>(RenderType.class);
 		this.defaultCollectionFactories = new MultipleListSelectPropertyStrategy.StrategyFactory();
-		this.defaultDescriptorFactories = new TextOutputPropertyStrategy.StrategyFactory();
 		this.builders = new HashMap<OperationDescriptor<E>, OperationInvocationBuilder<E>>();
+		this.operations = new HashMap<OperationDescriptor<E>, OperationOutputStrategy<E>>();
+		this.parameterDescriptors = new HashMap<OperationDescriptor<E>, List<AbstractParameterDescriptorImpl<?, E>>>();
+		this.propertyDescriptors = new LinkedList<AbstractPropertyDescriptorImpl<?, E>>();
 		this.eventBus = new Bus();
 	}
 
@@ -122,7 +167,9 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 		final OperationInvocationBuilder<E> builder = new OperationInvocationBuilder<E>(descriptor);
 		builder.target(this.form.getEntity());
 		this.builders.put(descriptor, builder);
-		this.form.processBeginStrategy(new OperationOutputStrategy<E>(descriptor, this.builders.get(descriptor), this.eventBus));
+		this.parameterDescriptors.put(descriptor, new LinkedList<AbstractParameterDescriptorImpl<?, E>>());
+		this.form.processBeginStrategy(new OperationOutputStrategy<E>(descriptor, this.builders.get(descriptor), this.eventBus,
+				this.settings.getOperationExecutor(), this.settings.getOperationTimeout(), context.getEntity()));
 	}
 
 	/** {@inheritDoc} */
@@ -131,7 +178,14 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 		FormPropertyRenderStrategyFactoryImpl.LOGGER.debug("Rendering end operation {}", descriptor);
 		Validate.notNull(context, FormPropertyRenderStrategyFactoryImpl.CONTEXT_NULL);
 		Validate.notNull(descriptor, FormPropertyRenderStrategyFactoryImpl.DESCRIPTOR_NULL);
-		this.form.processEndStrategy(new OperationOutputStrategy<E>(descriptor, this.builders.get(descriptor), this.eventBus));
+		final OperationOutputStrategy<E> strategy = new OperationOutputStrategy<E>(descriptor, this.builders.get(descriptor), this.eventBus,
+				this.settings.getOperationExecutor(), this.settings.getOperationTimeout(), context.getEntity());
+		strategy.setTarget(this.form.getEntity());
+		for (final AbstractParameterDescriptorImpl<?, E> parameter : this.parameterDescriptors.get(descriptor)) {
+			strategy.addParameter(parameter);
+		}
+		this.operations.put(descriptor, strategy);
+		this.form.processEndStrategy(strategy);
 	}
 
 	/**
@@ -197,6 +251,66 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 		return this.form;
 	}
 
+	/**
+	 * Gets the value for the operations field.
+	 * 
+	 * @return The value for the operations field.
+	 */
+	public Map<OperationDescriptor<E>, OperationOutputStrategy<E>> getOperations() {
+		return this.operations;
+	}
+
+	/**
+	 * Gets the value for the parameterDescriptors field.
+	 * 
+	 * @return The value for the parameterDescriptors field.
+	 */
+	public Map<OperationDescriptor<E>, List<AbstractParameterDescriptorImpl<?, E>>> getParameterDescriptors() {
+		return this.parameterDescriptors;
+	}
+
+	/**
+	 * Gets the value for the propertyDescriptors field.
+	 * 
+	 * @return The value for the propertyDescriptors field.
+	 */
+	public List<AbstractPropertyDescriptorImpl<?, E>> getPropertyDescriptors() {
+		return this.propertyDescriptors;
+	}
+
+	/**
+	 * Gets the value for the settings field.
+	 * 
+	 * @return The value for the settings field.
+	 */
+	public FormSettings getSettings() {
+		return this.settings;
+	}
+
+	/**
+	 * Binds the rendered properties and operations to another entity. The
+	 * buffers of the properties are not reverted. Operations in flight are
+	 * cancelled, their results would apply to the previous entity.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 */
+	public void rebind(final E entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		FormPropertyRenderStrategyFactoryImpl.LOGGER.debug("Rebinding to entity {}", entity);
+		for (final AbstractPropertyDescriptorImpl<?, E> descriptor : this.propertyDescriptors) {
+			descriptor.rebind(entity);
+		}
+		for (final OperationInvocationBuilder<E> builder : this.builders.values()) {
+			builder.target(entity);
+		}
+		for (final OperationOutputStrategy<E> operation : this.operations.values()) {
+			operation.cancel();
+			operation.setTarget(entity);
+			operation.getMessage().setText("");
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public <D, P extends Collection<D>> void renderCollectionParameter(final RenderContext<E> context,
@@ -206,11 +320,12 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 		Validate.notNull(descriptor, FormPropertyRenderStrategyFactoryImpl.DESCRIPTOR_NULL);
 		final CollectionParameterDescriptorImpl<D, P, E> collDescriptor = new CollectionParameterDescriptorImpl<D, P, E>(descriptor,
 				this.builders.get(operation), context.getModel());
+		this.parameterDescriptors.get(operation).add(collDescriptor);
 		FormPropertyRenderStrategy<P> strategy;
 		if (this.collectionFactories.containsKey(renderType)) {
-			strategy = this.collectionFactories.get(renderType).createStrategy(context, collDescriptor);
+			strategy = this.createStrategy(this.collectionFactories.get(renderType), context, collDescriptor, renderType);
 		} else {
-			strategy = this.defaultCollectionFactories.createStrategy(context, collDescriptor);
+			strategy = this.createStrategy(this.defaultCollectionFactories, context, collDescriptor, renderType);
 		}
 		this.form.processStrategy(strategy);
 	}
@@ -225,11 +340,12 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 		final CollectionPropertyDescriptorImpl<D, P, E> collDescriptor = new CollectionPropertyDescriptorImpl<D, P, E>(descriptor,
 				context.getModel());
 		collDescriptor.setEntity(this.form.getEntity());
+		this.propertyDescriptors.add(collDescriptor);
 		FormPropertyRenderStrategy<P> strategy;
 		if (this.collectionFactories.containsKey(renderType)) {
-			strategy = this.collectionFactories.get(renderType).createStrategy(context, collDescriptor);
+			strategy = this.createStrategy(this.collectionFactories.get(renderType), context, collDescriptor, renderType);
 		} else {
-			strategy = this.defaultCollectionFactories.createStrategy(context, collDescriptor);
+			strategy = this.createStrategy(this.defaultCollectionFactories, context, collDescriptor, renderType);
 		}
 		this.form.processStrategy(strategy);
 	}
@@ -262,11 +378,12 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 		Validate.notNull(descriptor, FormPropertyRenderStrategyFactoryImpl.DESCRIPTOR_NULL);
 		final ParameterDescriptorImpl<P, E> collDescriptor = new ParameterDescriptorImpl<P, E>(descriptor, this.builders.get(operation),
 				context.getModel());
+		this.parameterDescriptors.get(operation).add(collDescriptor);
 		FormPropertyRenderStrategy<P> strategy;
 		if (this.descriptorFactories.containsKey(renderType)) {
-			strategy = this.descriptorFactories.get(renderType).createStrategy(context, collDescriptor);
+			strategy = this.createStrategy(this.descriptorFactories.get(renderType), context, collDescriptor, renderType);
 		} else {
-			strategy = this.defaultDescriptorFactories.createStrategy(context, collDescriptor);
+			strategy = this.createStrategy(this.defaultDescriptorFactories, context, collDescriptor, renderType);
 		}
 		this.form.processStrategy(strategy);
 	}
@@ -280,11 +397,12 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 		Validate.notNull(propertyDescriptor, FormPropertyRenderStrategyFactoryImpl.DESCRIPTOR_NULL);
 		final PropertyDescriptorImpl<P, E> descriptor = new PropertyDescriptorImpl<P, E>(propertyDescriptor, context.getModel());
 		descriptor.setEntity(this.form.getEntity());
+		this.propertyDescriptors.add(descriptor);
 		FormPropertyRenderStrategy<P> strategy;
 		if (this.descriptorFactories.containsKey(renderType)) {
-			strategy = this.descriptorFactories.get(renderType).createStrategy(context, descriptor);
+			strategy = this.createStrategy(this.descriptorFactories.get(renderType), context, descriptor, renderType);
 		} else {
-			strategy = this.defaultDescriptorFactories.createStrategy(context, descriptor);
+			strategy = this.createStrategy(this.defaultDescriptorFactories, context, descriptor, renderType);
 		}
 		this.form.processStrategy(strategy);
 	}
@@ -376,4 +494,111 @@ public final class FormPropertyRenderStrategyFactoryImpl<E>
 	public void setForm(final FormComponent<E> form) {
 		this.form = form;
 	}
+
+	/**
+	 * Sets a new value for the operations field.
+	 * 
+	 * @param operations
+	 *            The new value for the operations field.
+	 */
+	public void setOperations(final Map<OperationDescriptor<E>, OperationOutputStrategy<E>> operations) {
+		this.operations = operations;
+	}
+
+	/**
+	 * Sets a new value for the parameterDescriptors field.
+	 * 
+	 * @param parameterDescriptors
+	 *            The new value for the parameterDescriptors field.
+	 */
+	public void setParameterDescriptors(final Map<OperationDescriptor<E>, List<AbstractParameterDescriptorImpl<?, E>>> parameterDescriptors) {
+		this.parameterDescriptors = parameterDescriptors;
+	}
+
+	/**
+	 * Sets a new value for the propertyDescriptors field.
+	 * 
+	 * @param propertyDescriptors
+	 *            The new value for the propertyDescriptors field.
+	 */
+	public void setPropertyDescriptors(final List<AbstractPropertyDescriptorImpl<?, E>> propertyDescriptors) {
+		this.propertyDescriptors = propertyDescriptors;
+	}
+
+	/**
+	 * Sets a new value for the settings field.
+	 * 
+	 * @param settings
+	 *            The new value for the settings field.
+	 */
+	public void setSettings(final FormSettings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * Creates a strategy for a collection value, one that creates its
+	 * components on request if the form is virtual.
+	 * 
+	 * @param factory
+	 *            The factory.
+	 * @param context
+	 *            The render context.
+	 * @param descriptor
+	 *            The descriptor.
+	 * @param renderType
+	 *            The render type, for the metrics.
+	 * @return The strategy.
+	 * @param <D>
+	 *            The element type.
+	 * @param <P>
+	 *            The collection type.
+	 */
+	private <D, P extends Collection<D>> FormPropertyRenderStrategy<P> createStrategy(
+			final FormPropertyRenderStrategy.CollectionDescriptorFactory factory, final RenderContext<E> context,
+			final CollectionDescriptor<D, P> descriptor, final RenderType renderType) {
+		final ComponentMetrics metrics = MetricsRegistry.getMetrics();
+		final long start = MetricsRegistry.start(metrics);
+		FormPropertyRenderStrategy<P> strategy;
+		if (this.settings.isVirtual()) {
+			strategy = new VirtualPropertyStrategy.CollectionStrategy<D, P>(factory, context, descriptor);
+		} else {
+			strategy = factory.createStrategy(context, descriptor);
+		}
+		if (metrics.isEnabled()) {
+			metrics.recordStrategyCreation(renderType, System.nanoTime() - start);
+		}
+		return strategy;
+	}
+
+	/**
+	 * Creates a strategy for a value, one that creates its components on
+	 * request if the form is virtual.
+	 * 
+	 * @param factory
+	 *            The factory.
+	 * @param context
+	 *            The render context.
+	 * @param descriptor
+	 *            The descriptor.
+	 * @param renderType
+	 *            The render type, for the metrics.
+	 * @return The strategy.
+	 * @param <P>
+	 *            The value type.
+	 */
+	private <P> FormPropertyRenderStrategy<P> createStrategy(final FormPropertyRenderStrategy.DescriptorFactory factory,
+			final RenderContext<E> context, final Descriptor<P> descriptor, final RenderType renderType) {
+		final ComponentMetrics metrics = MetricsRegistry.getMetrics();
+		final long start = MetricsRegistry.start(metrics);
+		FormPropertyRenderStrategy<P> strategy;
+		if (this.settings.isVirtual()) {
+			strategy = new VirtualPropertyStrategy.DescriptorStrategy<P>(factory, context, descriptor);
+		} else {
+			strategy = factory.createStrategy(context, descriptor);
+		}
+		if (metrics.isEnabled()) {
+			metrics.recordStrategyCreation(renderType, System.nanoTime() - start);
+		}
+		return strategy;
+	}
 }
@@ -53,7 +53,8 @@ public abstract class AbstractFormPropertyRenderStrategy<P, J extends JComponent
 	private String name;
 
 	/**
-	 * Constructs the strategy.
+	 * Constructs the strategy. The buffer of the descriptor is reverted,
+	 * unless it holds pending edits.
 	 * 
 	 * @param descriptor
 	 *            The descriptor. May not be null.
@@ -69,7 +70,9 @@ public abstract class AbstractFormPropertyRenderStrategy<P, J extends JComponent
 		this.message = new JLabel("");
 		this.component = this.createComponent();
 		this.label = new JLabel(this.descriptor.getLabel());
-		descriptor.revert();
+		if (!descriptor.isDirty()) {
+			descriptor.revert();
+		}
 		descriptor.addListener(this);
 	}
 
@@ -125,7 +128,7 @@ public abstract class AbstractFormPropertyRenderStrategy<P, J extends JComponent
 
 	/** {@inheritDoc} */
 	@Override
-	public final ValueVisitor getVisitor() {
+	public ValueVisitor getVisitor() {
 		return this.descriptor;
 	}
 
@@ -17,14 +17,16 @@
  */
 package org.lunarray.model.generation.swing.render.factories.form.swing.components;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 
 import javax.swing.JComponent;
 
 import org.lunarray.common.check.CheckUtil;
 import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
+import org.lunarray.model.descriptor.converter.ConverterTool;
+import org.lunarray.model.descriptor.converter.exceptions.ConverterException;
 import org.lunarray.model.descriptor.dictionary.Dictionary;
 import org.lunarray.model.descriptor.dictionary.exceptions.DictionaryException;
 import org.lunarray.model.descriptor.model.Model;
@@ -32,8 +34,12 @@ import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
 import org.lunarray.model.descriptor.model.entity.KeyedEntityDescriptor;
 import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
 import org.lunarray.model.descriptor.presentation.PresentationEntityDescriptor;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
+import org.lunarray.model.generation.swing.render.DictionaryCache;
+import org.lunarray.model.generation.swing.render.RelationLabelCache;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
+import org.lunarray.model.generation.swing.util.MessageUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +59,12 @@ public abstract class AbstractSelectPropertyStrategy<P, L, J extends JComponent>
 
 	/** The logger. */
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSelectPropertyStrategy.class);
+	/** Message key. */
+	private static final String SELECT_LOADING = "select.loading";
+	/** The entity index. */
+	private EntityIndex<L> entityIndex;
+	/** Whether the items are being loaded. */
+	private boolean loading;
 
 	/**
 	 * Constructs the strategy.
@@ -66,12 +78,68 @@ public abstract class AbstractSelectPropertyStrategy<P, L, J extends JComponent>
 		super(descriptor, context);
 	}
 
+	/**
+	 * Gets the value for the entityIndex field.
+	 * 
+	 * @return The value for the entityIndex field.
+	 */
+	public final EntityIndex<L> getEntityIndex() {
+		return this.entityIndex;
+	}
+
+	/**
+	 * Tests if the items are being loaded in the background.
+	 * 
+	 * @return True if and only if the items are being loaded.
+	 */
+	public final boolean isLoading() {
+		return this.loading;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	protected final J createComponent() {
 		return this.createSelectComponent();
 	}
 
+	/**
+	 * Creates the items of entities.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 * @return The items.
+	 */
+	protected final List<Item<L>> createItems(final Collection<L> entities) {
+		final List<Item<L>> result = new ArrayList<Item<L>>();
+		if (!CheckUtil.isNull(entities)) {
+			final EntityItemFactory factory = new EntityItemFactory();
+			for (final L entity : entities) {
+				result.add(factory.createItem(entity));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a factory of items of the related entity.
+	 * 
+	 * @return The item factory.
+	 */
+	protected final ItemListModel.ItemFactory<L> createItemFactory() {
+		return new EntityItemFactory();
+	}
+
+	/**
+	 * Creates a list model that creates items on demand.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 * @return The list model.
+	 */
+	protected final ItemListModel<L> createListModel(final Collection<L> entities) {
+		return new ItemListModel<L>(entities, new EntityItemFactory());
+	}
+
 	/**
 	 * Create the select component.
 	 * 
@@ -79,26 +147,79 @@ public abstract class AbstractSelectPropertyStrategy<P, L, J extends JComponent>
 	 */
 	protected abstract J createSelectComponent();
 
+	/**
+	 * Notifies the entities arrived after being loaded in the background.
+	 * Called on the event dispatch thread.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 */
+	protected abstract void entitiesLoaded(Collection<L> entities);
+
 	/**
 	 * Gets the items.
 	 * 
 	 * @return The items.
 	 */
 	protected final List<Item<L>> getItems() {
-		final List<Item<L>> result = new LinkedList<Item<L>>();
-		@SuppressWarnings("unchecked")
-		final PropertyDescriptor<Object, L> displayProperty = (PropertyDescriptor<Object, L>) this.resolveDisplayProperty();
-		final Collection<L> entities = this.lookupEntities();
-		if (!CheckUtil.isNull(entities)) {
-			for (final L entity : entities) {
-				result.add(this.processEntity(displayProperty, entity));
+		return this.createItems(this.lookupEntities());
+	}
+
+	/**
+	 * Gets the text shown while the items are being loaded.
+	 * 
+	 * @return The text.
+	 */
+	protected final String getPlaceholder() {
+		return MessageUtil.getMessage(AbstractSelectPropertyStrategy.SELECT_LOADING);
+	}
+
+	/**
+	 * Gets the entities if they are cached or are looked up synchronously.
+	 * Otherwise the entities are looked up in the background, and
+	 * {@link #entitiesLoaded(Collection)} is called once they arrive. The
+	 * entity index is updated accordingly.
+	 * 
+	 * @return The entities, empty while loading. May be null.
+	 */
+	protected final Collection<L> loadEntities() {
+		final Model<?> model = this.getModel();
+		final Dictionary dictionary = model.getExtension(Dictionary.class);
+		Collection<L> result;
+		if (!this.getDescriptor().isRelation() || CheckUtil.isNull(dictionary)) {
+			result = this.lookupEntities();
+		} else {
+			final String relatedName = this.getDescriptor().getRelatedName();
+			final DictionaryCache cache = DictionaryCache.getInstance(model);
+			result = cache.getIfPresent(relatedName);
+			if (CheckUtil.isNull(result) && !cache.isAsynchronous()) {
+				result = this.lookupEntities();
+			} else if (CheckUtil.isNull(result)) {
+				@SuppressWarnings("unchecked")
+				final EntityDescriptor<L> entityDescriptor = (EntityDescriptor<L>) model.getEntity(relatedName);
+				this.loading = true;
+				cache.lookupLater(relatedName, dictionary, entityDescriptor, new EntityLoader());
+				result = new ArrayList<L>(0);
 			}
 		}
+		this.index(result);
 		return result;
 	}
 
 	/**
-	 * Lookup all entities for this property.
+	 * Gets the items if the entities are cached or are looked up
+	 * synchronously.
+	 * 
+	 * @return The items, empty while loading.
+	 * @see #loadEntities()
+	 */
+	protected final List<Item<L>> loadItems() {
+		return this.createItems(this.loadEntities());
+	}
+
+	/**
+	 * Lookup all entities for this property. Lookups are shared through the
+	 * dictionary cache.
 	 * 
 	 * @return The entities.
 	 */
@@ -107,43 +228,45 @@ public abstract class AbstractSelectPropertyStrategy<P, L, J extends JComponent>
 		final Dictionary dictionary = model.getExtension(Dictionary.class);
 		Collection<L> result = null;
 		if (this.getDescriptor().isRelation() && !CheckUtil.isNull(dictionary)) {
+			final String relatedName = this.getDescriptor().getRelatedName();
 			@SuppressWarnings("unchecked")
-			final EntityDescriptor<L> entityDescriptor = (EntityDescriptor<L>) model.getEntity(this.getDescriptor().getRelatedName());
+			final EntityDescriptor<L> entityDescriptor = (EntityDescriptor<L>) model.getEntity(relatedName);
 			try {
-				result = dictionary.lookup(entityDescriptor);
+				result = DictionaryCache.getInstance(model).lookup(relatedName, dictionary, entityDescriptor);
 			} catch (final DictionaryException e) {
-				AbstractSelectPropertyStrategy.LOGGER.warn("Could not look up in dictionary '{}'.", this.getDescriptor().getRelatedName(),
-						e);
+				AbstractSelectPropertyStrategy.LOGGER.warn("Could not look up in dictionary '{}'.", relatedName, e);
 			}
 		}
 		return result;
 	}
 
 	/**
-	 * Process an entity.
+	 * Process an entity. Labels are shared through the relation label cache.
 	 * 
 	 * @param displayProperty
 	 *            The display property.
+	 * @param keyProperty
+	 *            The key property. May be null.
+	 * @param tool
+	 *            The converter tool.
 	 * @param entity
 	 *            The entity.
 	 * @return The item.
 	 */
-	protected final Item<L> processEntity(final PropertyDescriptor<Object, L> displayProperty, final L entity) {
+	protected final Item<L> processEntity(final PropertyDescriptor<Object, L> displayProperty, final PropertyDescriptor<?, L> keyProperty,
+			final ConverterTool tool, final L entity) {
 		final Item<L> item = new Item<L>();
 		item.setEntity(entity);
-		if (CheckUtil.isNull(item)) {
+		if (CheckUtil.isNull(entity)) {
 			AbstractSelectPropertyStrategy.LOGGER.info("Added existing null item.");
-		}
-		if (!CheckUtil.isNull(displayProperty)) {
-			displayProperty.getName();
-			Object displayValue = null;
+		} else if (!CheckUtil.isNull(displayProperty)) {
 			try {
-				displayValue = displayProperty.getValue(entity);
+				item.setLabel(RelationLabelCache.getInstance(this.getModel()).getLabel(this.getDescriptor().getRelatedName(), displayProperty,
+						keyProperty, null, tool, entity));
 			} catch (final ValueAccessException e) {
 				AbstractSelectPropertyStrategy.LOGGER.warn("Could not access value.", e);
-			}
-			if (!CheckUtil.isNull(displayValue)) {
-				item.setLabel(displayValue.toString());
+			} catch (final ConverterException e) {
+				AbstractSelectPropertyStrategy.LOGGER.warn("Could not convert value.", e);
 			}
 		}
 		return item;
@@ -169,6 +292,24 @@ public abstract class AbstractSelectPropertyStrategy<P, L, J extends JComponent>
 		return result;
 	}
 
+	/**
+	 * Resolves the key property of the related entity, if any.
+	 * 
+	 * @return The key property, or null.
+	 */
+	protected final PropertyDescriptor<?, P> resolveKeyProperty() {
+		PropertyDescriptor<?, P> result = null;
+		if (this.getDescriptor().isRelation()) {
+			final EntityDescriptor<?> entityDescriptor = this.getModel().getEntity(this.getDescriptor().getRelatedName());
+			@SuppressWarnings("unchecked")
+			final KeyedEntityDescriptor<P, ?> keyedDescriptor = entityDescriptor.adapt(KeyedEntityDescriptor.class);
+			if (!CheckUtil.isNull(keyedDescriptor)) {
+				result = keyedDescriptor.getKeyProperty();
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Resolves what property of the related entity should be displayed, if any.
 	 * 
@@ -189,4 +330,79 @@ public abstract class AbstractSelectPropertyStrategy<P, L, J extends JComponent>
 		}
 		return result;
 	}
+
+	/**
+	 * Indexes the entities.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 */
+	private void index(final Collection<L> entities) {
+		@SuppressWarnings("unchecked")
+		final PropertyDescriptor<?, L> keyProperty = (PropertyDescriptor<?, L>) this.resolveKeyProperty();
+		this.entityIndex = new EntityIndex<L>(entities, keyProperty);
+	}
+
+	/**
+	 * Creates items of entities of the related entity.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class EntityItemFactory
+			implements ItemListModel.ItemFactory<L> {
+
+		/** The display property. */
+		private final PropertyDescriptor<Object, L> displayProperty;
+		/** The key property. */
+		private final PropertyDescriptor<?, L> keyProperty;
+		/** The converter tool. */
+		private final ConverterTool tool;
+
+		/**
+		 * Default constructor.
+		 */
+		@SuppressWarnings("unchecked")
+		public EntityItemFactory() {
+			final AbstractSelectPropertyStrategy<P, L, J> strategy = AbstractSelectPropertyStrategy.this;
+			this.displayProperty = (PropertyDescriptor<Object, L>) strategy.resolveDisplayProperty();
+			this.keyProperty = (PropertyDescriptor<?, L>) strategy.resolveKeyProperty();
+			this.tool = strategy.getModel().getExtension(ConverterTool.class);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Item<L> createItem(final L entity) {
+			return AbstractSelectPropertyStrategy.this.processEntity(this.displayProperty, this.keyProperty, this.tool, entity);
+		}
+	}
+
+	/**
+	 * Notifies of the entities once they arrive.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class EntityLoader
+			implements DictionaryCache.LookupListener<L> {
+
+		/**
+		 * Default constructor.
+		 */
+		public EntityLoader() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void entitiesLoaded(final List<L> entities) {
+			final AbstractSelectPropertyStrategy<P, L, J> strategy = AbstractSelectPropertyStrategy.this;
+			EdtWatchdog.enter(strategy.getName());
+			try {
+				strategy.loading = false;
+				strategy.index(entities);
+				strategy.entitiesLoaded(entities);
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
 }
@@ -17,15 +17,26 @@
  */
 package org.lunarray.model.generation.swing.render.factories.form.swing.components;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+
+import javax.swing.Timer;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.JTextComponent;
 
+import org.apache.commons.lang.Validate;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.ValueVisitor;
 
 /**
- * Constructs the text area.
+ * Constructs the text area. Text is either converted and validated on every
+ * edit, or, if a debounce delay is set, once after the edits have been quiet
+ * for that delay or the component loses focus.
  * 
  * @author Pal Hargitai (pal@lunarray.org)
  * @param <P>
@@ -35,8 +46,26 @@ import org.lunarray.model.generation.swing.render.factories.form.descriptor.Desc
  */
 public abstract class AbstractTextPropertyStrategy<P, J extends JTextComponent>
 		extends AbstractFormPropertyRenderStrategy<P, J> {
+	/** The debounce delay, in milliseconds. 0 to update on every edit. */
+	private final int debounceDelay;
+	/** The debounce timer. */
+	private Timer debounceTimer;
+	/** The latency of the last update. */
+	private long lastLatency;
+	/** Whether an edit has not been converted yet. */
+	private boolean pending;
+	/** The time of the first edit that has not been converted yet. */
+	private long pendingSince;
+	/** The amount of edits coalesced into a later update. */
+	private long skippedUpdates;
 	/** The text area. */
 	private J textComponent;
+	/** The amount of updates. */
+	private long updates;
+	/** Whether the text is being set from the buffer. */
+	private boolean updating;
+	/** The visitor. */
+	private final FlushingVisitor visitor;
 
 	/**
 	 * Constructs the strategy.
@@ -47,7 +76,64 @@ public abstract class AbstractTextPropertyStrategy<P, J extends JTextComponent>
 	 *            The render context.
 	 */
 	public AbstractTextPropertyStrategy(final Descriptor<P> descriptor, final RenderContext<?> context) {
+		this(descriptor, context, 0);
+	}
+
+	/**
+	 * Constructs the strategy.
+	 * 
+	 * @param descriptor
+	 *            The descriptor.
+	 * @param context
+	 *            The render context.
+	 * @param debounceDelay
+	 *            The debounce delay, in milliseconds. 0 to convert and
+	 *            validate on every edit. May not be negative.
+	 */
+	public AbstractTextPropertyStrategy(final Descriptor<P> descriptor, final RenderContext<?> context, final int debounceDelay) {
 		super(descriptor, context);
+		Validate.isTrue(debounceDelay >= 0, "Debounce delay may not be negative.");
+		this.debounceDelay = debounceDelay;
+		this.lastLatency = -1;
+		this.visitor = new FlushingVisitor();
+		this.textComponent.addFocusListener(new FocusChangeListener());
+	}
+
+	/**
+	 * Converts and validates the pending edits, if any.
+	 */
+	public final void flush() {
+		if (this.pending) {
+			this.updatedText();
+		}
+	}
+
+	/**
+	 * Gets the value for the debounceDelay field.
+	 * 
+	 * @return The value for the debounceDelay field.
+	 */
+	public final int getDebounceDelay() {
+		return this.debounceDelay;
+	}
+
+	/**
+	 * Gets the time between the first edit of the last update and the end of
+	 * its validation.
+	 * 
+	 * @return The latency, in nanoseconds, or -1 if there was no update.
+	 */
+	public final long getLastLatency() {
+		return this.lastLatency;
+	}
+
+	/**
+	 * Gets the amount of edits that were coalesced into a later update.
+	 * 
+	 * @return The amount of edits.
+	 */
+	public final long getSkippedUpdates() {
+		return this.skippedUpdates;
 	}
 
 	/**
@@ -59,6 +145,30 @@ public abstract class AbstractTextPropertyStrategy<P, J extends JTextComponent>
 		return this.textComponent;
 	}
 
+	/**
+	 * Gets the amount of conversions and validations.
+	 * 
+	 * @return The amount of updates.
+	 */
+	public final long getUpdates() {
+		return this.updates;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public final ValueVisitor getVisitor() {
+		return this.visitor;
+	}
+
+	/**
+	 * Tests if there are edits that have not been converted yet.
+	 * 
+	 * @return True if and only if there are pending edits.
+	 */
+	public final boolean isPending() {
+		return this.pending;
+	}
+
 	/**
 	 * Sets a new value for the textComponent field.
 	 * 
@@ -73,14 +183,24 @@ public abstract class AbstractTextPropertyStrategy<P, J extends JTextComponent>
 	 * Updated text event handling..
 	 */
 	public final void updatedText() {
+		final long start = this.pending ? this.pendingSince : System.nanoTime();
+		this.cancelPending();
 		final String text = this.textComponent.getText();
 		this.getDescriptor().getBufferMutator().setStringValue(this.getMessage(), text);
+		this.updates = this.updates + 1;
+		this.lastLatency = System.nanoTime() - start;
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public final void valueChanged(final P value) {
-		this.textComponent.setText(this.getDescriptor().getBufferAccessor().getStringValue(this.getMessage()));
+		this.cancelPending();
+		this.updating = true;
+		try {
+			this.textComponent.setText(this.getDescriptor().getBufferAccessor().getStringValue(this.getMessage()));
+		} finally {
+			this.updating = false;
+		}
 	}
 
 	/** {@inheritDoc} */
@@ -98,6 +218,67 @@ public abstract class AbstractTextPropertyStrategy<P, J extends JTextComponent>
 	 */
 	protected abstract J createTextComponent();
 
+	/**
+	 * Drops the pending edits.
+	 */
+	private void cancelPending() {
+		this.pending = false;
+		if (this.debounceTimer != null) {
+			this.debounceTimer.stop();
+		}
+	}
+
+	/**
+	 * Handles an edit. Converts immediately, or schedules the conversion if
+	 * debouncing.
+	 */
+	private void edited() {
+		if (this.updating) {
+			// The text is set from the buffer, not edited.
+		} else if (this.debounceDelay <= 0) {
+			this.updatedText();
+		} else {
+			if (this.pending) {
+				this.skippedUpdates = this.skippedUpdates + 1;
+			} else {
+				this.pending = true;
+				this.pendingSince = System.nanoTime();
+			}
+			if (this.debounceTimer == null) {
+				this.debounceTimer = new Timer(this.debounceDelay, new DebounceListener());
+				this.debounceTimer.setRepeats(false);
+			}
+			this.debounceTimer.restart();
+		}
+	}
+
+	/**
+	 * The debounce timer listener.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class DebounceListener
+			implements ActionListener {
+
+		/**
+		 * Default constructor.
+		 */
+		public DebounceListener() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void actionPerformed(final ActionEvent event) {
+			EdtWatchdog.enter(AbstractTextPropertyStrategy.this.getName());
+			try {
+				AbstractTextPropertyStrategy.this.flush();
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
 	/**
 	 * The document change listener.
 	 * 
@@ -116,19 +297,110 @@ public abstract class AbstractTextPropertyStrategy<P, J extends JTextComponent>
 		/** {@inheritDoc} */
 		@Override
 		public void changedUpdate(final DocumentEvent event) {
-			AbstractTextPropertyStrategy.this.updatedText();
+			EdtWatchdog.enter(AbstractTextPropertyStrategy.this.getName());
+			try {
+				AbstractTextPropertyStrategy.this.edited();
+			} finally {
+				EdtWatchdog.exit();
+			}
 		}
 
 		/** {@inheritDoc} */
 		@Override
 		public void insertUpdate(final DocumentEvent event) {
-			AbstractTextPropertyStrategy.this.updatedText();
+			EdtWatchdog.enter(AbstractTextPropertyStrategy.this.getName());
+			try {
+				AbstractTextPropertyStrategy.this.edited();
+			} finally {
+				EdtWatchdog.exit();
+			}
 		}
 
 		/** {@inheritDoc} */
 		@Override
 		public void removeUpdate(final DocumentEvent event) {
-			AbstractTextPropertyStrategy.this.updatedText();
+			EdtWatchdog.enter(AbstractTextPropertyStrategy.this.getName());
+			try {
+				AbstractTextPropertyStrategy.this.edited();
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * A visitor that converts pending edits before applying or validating.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class FlushingVisitor
+			implements ValueVisitor {
+
+		/**
+		 * Default constructor.
+		 */
+		public FlushingVisitor() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void apply() {
+			AbstractTextPropertyStrategy.this.flush();
+			AbstractTextPropertyStrategy.this.getDescriptor().apply();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public boolean isDirty() {
+			return AbstractTextPropertyStrategy.this.isPending() || AbstractTextPropertyStrategy.this.getDescriptor().isDirty();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void revert() {
+			AbstractTextPropertyStrategy.this.cancelPending();
+			AbstractTextPropertyStrategy.this.getDescriptor().revert();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public boolean valid() {
+			AbstractTextPropertyStrategy.this.flush();
+			return AbstractTextPropertyStrategy.this.getDescriptor().valid();
+		}
+	}
+
+	/**
+	 * The focus listener, converts pending edits on focus loss.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class FocusChangeListener
+			implements FocusListener {
+
+		/**
+		 * Default constructor.
+		 */
+		public FocusChangeListener() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void focusGained(final FocusEvent event) {
+			// Nothing to convert.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void focusLost(final FocusEvent event) {
+			EdtWatchdog.enter(AbstractTextPropertyStrategy.this.getName());
+			try {
+				AbstractTextPropertyStrategy.this.flush();
+			} finally {
+				EdtWatchdog.exit();
+			}
 		}
 	}
 }
@@ -22,6 +22,7 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import org.apache.commons.lang.Validate;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
@@ -74,11 +75,16 @@ public final class CheckboxPropertyStrategy<P>
 	/** {@inheritDoc} */
 	@Override
 	public void stateChanged(final ChangeEvent arg0) {
-		CheckboxPropertyStrategy.this
-				.getDescriptor()
-				.getBufferMutator()
-				.setCoerceValue(CheckboxPropertyStrategy.this.getMessage(),
-						Boolean.valueOf(CheckboxPropertyStrategy.this.getBox().isSelected()));
+		EdtWatchdog.enter(this.getName());
+		try {
+			CheckboxPropertyStrategy.this
+					.getDescriptor()
+					.getBufferMutator()
+					.setCoerceValue(CheckboxPropertyStrategy.this.getMessage(),
+							Boolean.valueOf(CheckboxPropertyStrategy.this.getBox().isSelected()));
+		} finally {
+			EdtWatchdog.exit();
+		}
 	}
 
 	/** {@inheritDoc} */
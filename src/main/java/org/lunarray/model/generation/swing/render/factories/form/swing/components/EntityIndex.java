@@ -0,0 +1,147 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing.components;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes entities by their position. Entities are identified by their key
+ * property if there is one, and by themselves otherwise. The index is built
+ * on first use.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <L>
+ *            The entity type.
+ */
+public final class EntityIndex<L> {
+
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(EntityIndex.class);
+	/** The entities. */
+	private final Collection<L> entities;
+	/** The positions, by identity. */
+	private Map<Object, Integer> indices;
+	/** The key property. */
+	private final PropertyDescriptor<?, L> keyProperty;
+
+	/**
+	 * Constructs the index.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 * @param keyProperty
+	 *            The key property. May be null.
+	 */
+	public EntityIndex(final Collection<L> entities, final PropertyDescriptor<?, L> keyProperty) {
+		this.entities = entities;
+		this.keyProperty = keyProperty;
+	}
+
+	/**
+	 * Finds the position of an entity. If an entity occurs more than once,
+	 * the last position is given.
+	 * 
+	 * @param entity
+	 *            The entity. May be null.
+	 * @return The position, or -1 if not found.
+	 */
+	public int indexOf(final Object entity) {
+		final Integer index = this.getIndices().get(this.identify(entity));
+		return CheckUtil.isNull(index) ? -1 : index.intValue();
+	}
+
+	/**
+	 * Finds the positions of entities.
+	 * 
+	 * @param selection
+	 *            The entities. May be null.
+	 * @return The positions.
+	 */
+	public BitSet select(final Collection<?> selection) {
+		final BitSet result = new BitSet(this.size());
+		if (!CheckUtil.isNull(selection)) {
+			for (final Object entity : selection) {
+				final int index = this.indexOf(entity);
+				if (index >= 0) {
+					result.set(index);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of entities.
+	 * 
+	 * @return The number of entities.
+	 */
+	public int size() {
+		return CheckUtil.isNull(this.entities) ? 0 : this.entities.size();
+	}
+
+	/**
+	 * Gets the positions, building them if needed.
+	 * 
+	 * @return The positions.
+	 */
+	private Map<Object, Integer> getIndices() {
+		if (CheckUtil.isNull(this.indices)) {
+			this.indices = new HashMap<Object, Integer>(this.size() * 2);
+			if (!CheckUtil.isNull(this.entities)) {
+				int index = 0;
+				for (final L entity : this.entities) {
+					this.indices.put(this.identify(entity), Integer.valueOf(index));
+					index = index + 1;
+				}
+			}
+		}
+		return this.indices;
+	}
+
+	/**
+	 * Identifies an entity.
+	 * 
+	 * @param entity
+	 *            The entity. May be null.
+	 * @return The key value, or the entity if it has none.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object identify(final Object entity) {
+		Object result = entity;
+		if (!CheckUtil.isNull(this.keyProperty) && !CheckUtil.isNull(entity)) {
+			try {
+				final Object key = this.keyProperty.getValue((L) entity);
+				if (!CheckUtil.isNull(key)) {
+					result = key;
+				}
+			} catch (final ValueAccessException e) {
+				EntityIndex.LOGGER.warn("Could not access key value.", e);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,249 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing.components;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import javax.swing.AbstractListModel;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+
+/**
+ * A list model that creates items on demand. Only the items of a bounded
+ * window of recently accessed indices are kept.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <L>
+ *            The entity type.
+ */
+public final class ItemListModel<L>
+		extends AbstractListModel {
+
+	/** The default window size. */
+	public static final int DEFAULT_WINDOW_SIZE = 256;
+	/** The number of items to consider for the prototype. */
+	private static final int PROTOTYPE_SAMPLE = 64;
+	/** Serial id. */
+	private static final long serialVersionUID = -3186745014526713083L;
+	/** The entities. */
+	private List<L> entities;
+	/** The item factory. */
+	private final transient ItemFactory<L> factory;
+	/** The items in the window. */
+	private final transient Map<Integer, Item<L>> window;
+	/** The window size. */
+	private final int windowSize;
+
+	/**
+	 * Constructs the list model.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 * @param factory
+	 *            The item factory. May not be null.
+	 */
+	public ItemListModel(final Collection<L> entities, final ItemFactory<L> factory) {
+		this(entities, factory, ItemListModel.DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructs the list model.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 * @param factory
+	 *            The item factory. May not be null.
+	 * @param windowSize
+	 *            The window size. Must be positive.
+	 */
+	public ItemListModel(final Collection<L> entities, final ItemFactory<L> factory, final int windowSize) {
+		super();
+		Validate.notNull(factory, "Factory may not be null.");
+		Validate.isTrue(windowSize > 0, "Window size must be positive.");
+		this.factory = factory;
+		this.windowSize = windowSize;
+		this.window = new Window();
+		this.entities = ItemListModel.toList(entities);
+	}
+
+	/**
+	 * Gets the number of items in the window.
+	 * 
+	 * @return The number of items.
+	 */
+	public int getCachedCount() {
+		return this.window.size();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Item<L> getElementAt(final int index) {
+		final Integer key = Integer.valueOf(index);
+		Item<L> item = this.window.get(key);
+		if (CheckUtil.isNull(item)) {
+			item = this.factory.createItem(this.entities.get(index));
+			this.window.put(key, item);
+		}
+		return item;
+	}
+
+	/**
+	 * Gets the entity at an index.
+	 * 
+	 * @param index
+	 *            The index.
+	 * @return The entity.
+	 */
+	public L getEntity(final int index) {
+		return this.entities.get(index);
+	}
+
+	/**
+	 * Gets a prototype item, the item with the longest label among the first
+	 * items.
+	 * 
+	 * @return The prototype, or null if there are no items.
+	 */
+	public Item<L> getPrototype() {
+		Item<L> result = null;
+		final int sample = Math.min(this.entities.size(), ItemListModel.PROTOTYPE_SAMPLE);
+		for (int i = 0; i < sample; i = i + 1) {
+			final Item<L> item = this.getElementAt(i);
+			if (CheckUtil.isNull(result) || (ItemListModel.length(item) > ItemListModel.length(result))) {
+				result = item;
+			}
+		}
+		return result;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int getSize() {
+		return this.entities.size();
+	}
+
+	/**
+	 * Gets the value for the windowSize field.
+	 * 
+	 * @return The value for the windowSize field.
+	 */
+	public int getWindowSize() {
+		return this.windowSize;
+	}
+
+	/**
+	 * Replaces the entities.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 */
+	public void setEntities(final Collection<L> entities) {
+		final int oldSize = this.entities.size();
+		this.window.clear();
+		this.entities = ItemListModel.toList(entities);
+		if (oldSize > 0) {
+			this.fireIntervalRemoved(this, 0, oldSize - 1);
+		}
+		if (!this.entities.isEmpty()) {
+			this.fireIntervalAdded(this, 0, this.entities.size() - 1);
+		}
+	}
+
+	/**
+	 * Gets the label length of an item.
+	 * 
+	 * @param item
+	 *            The item.
+	 * @return The length.
+	 */
+	private static int length(final Item<?> item) {
+		return CheckUtil.isNull(item.getLabel()) ? 0 : item.getLabel().length();
+	}
+
+	/**
+	 * Converts entities to a list with constant time access, without copying
+	 * lists that already have it.
+	 * 
+	 * @param entities
+	 *            The entities. May be null.
+	 * @param <L>
+	 *            The entity type.
+	 * @return The list.
+	 */
+	static <L> List<L> toList(final Collection<L> entities) {
+		List<L> result;
+		if (CheckUtil.isNull(entities)) {
+			result = new ArrayList<L>(0);
+		} else if ((entities instanceof List) && (entities instanceof RandomAccess)) {
+			result = (List<L>) entities;
+		} else {
+			result = new ArrayList<L>(entities);
+		}
+		return result;
+	}
+
+	/**
+	 * Creates items.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <L>
+	 *            The entity type.
+	 */
+	public interface ItemFactory<L> {
+
+		/**
+		 * Creates an item.
+		 * 
+		 * @param entity
+		 *            The entity. May be null.
+		 * @return The item.
+		 */
+		Item<L> createItem(L entity);
+	}
+
+	/**
+	 * The window of recently accessed items.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class Window
+			extends LinkedHashMap<Integer, Item<L>> {
+
+		/** Serial id. */
+		private static final long serialVersionUID = -8470173307425184190L;
+		/** The load factor. */
+		private static final float LOAD_FACTOR = 0.75f;
+
+		/** Default constructor. */
+		public Window() {
+			super(ItemListModel.this.windowSize, Window.LOAD_FACTOR, true);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Integer, Item<L>> eldest) {
+			return this.size() > ItemListModel.this.windowSize;
+		}
+	}
+}
@@ -19,11 +19,14 @@ package org.lunarray.model.generation.swing.render.factories.form.swing.componen
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Collection;
 import java.util.List;
 
+import javax.swing.DefaultComboBoxModel;
 import javax.swing.JComboBox;
 
 import org.apache.commons.lang.Validate;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
@@ -60,8 +63,13 @@ public final class MenuSelectPropertyStrategy<P>
 	/** {@inheritDoc} */
 	@Override
 	public void actionPerformed(final ActionEvent event) {
-		final Object selectedItem = MenuSelectPropertyStrategy.this.comboBox.getSelectedItem();
-		this.getDescriptor().getBufferMutator().setCoerceValue(this.getMessage(), selectedItem);
+		EdtWatchdog.enter(this.getName());
+		try {
+			final Object selectedItem = MenuSelectPropertyStrategy.this.comboBox.getSelectedItem();
+			this.getDescriptor().getBufferMutator().setCoerceValue(this.getMessage(), selectedItem);
+		} finally {
+			EdtWatchdog.exit();
+		}
 	}
 
 	/**
@@ -105,24 +113,37 @@ public final class MenuSelectPropertyStrategy<P>
 	/** {@inheritDoc} */
 	@Override
 	public void valueChanged(final P value) {
-		int index = 0;
-		for (final Item<P> item : this.selectItems) {
-			if (item.getEntity().equals(value)) {
-				this.comboBox.setSelectedIndex(index);
-			}
-			index = index + 1;
+		final int index = this.getEntityIndex().indexOf(value);
+		if (index >= 0) {
+			this.comboBox.setSelectedIndex(index);
 		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	protected JComboBox createSelectComponent() {
-		this.selectItems = this.getItems();
-		this.comboBox = new JComboBox(this.selectItems.toArray());
+		this.selectItems = this.loadItems();
+		if (this.isLoading()) {
+			this.comboBox = new JComboBox(new Object[] { this.getPlaceholder() });
+			this.comboBox.setEnabled(false);
+		} else {
+			this.comboBox = new JComboBox(this.selectItems.toArray());
+		}
 		this.comboBox.addActionListener(this);
 		return this.comboBox;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	protected void entitiesLoaded(final Collection<P> entities) {
+		this.selectItems = this.createItems(entities);
+		this.comboBox.removeActionListener(this);
+		this.comboBox.setModel(new DefaultComboBoxModel(this.selectItems.toArray()));
+		this.comboBox.setEnabled(true);
+		this.comboBox.addActionListener(this);
+		this.valueChanged(this.getDescriptor().getBufferAccessor().getValue(this.getMessage()));
+	}
+
 	/**
 	 * The factory.
 	 * 
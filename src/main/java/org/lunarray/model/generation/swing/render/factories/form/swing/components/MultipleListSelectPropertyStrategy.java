@@ -17,9 +17,9 @@
  */
 package org.lunarray.model.generation.swing.render.factories.form.swing.components;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
 
 import javax.swing.JList;
 import javax.swing.ListSelectionModel;
@@ -28,6 +28,7 @@ import javax.swing.event.ListSelectionListener;
 
 import org.apache.commons.lang.Validate;
 import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.CollectionDescriptor;
@@ -50,8 +51,8 @@ public final class MultipleListSelectPropertyStrategy<C, P extends Collection<C>
 	private CollectionDescriptor<C, P> collectionDescriptor;
 	/** The list. */
 	private JList list;
-	/** The items. */
-	private List<Item<C>> selectItems;
+	/** The list model. */
+	private ItemListModel<C> listModel;
 
 	/**
 	 * Constructs the strategy.
@@ -85,12 +86,12 @@ public final class MultipleListSelectPropertyStrategy<C, P extends Collection<C>
 	}
 
 	/**
-	 * Gets the value for the selectItems field.
+	 * Gets the value for the listModel field.
 	 * 
-	 * @return The value for the selectItems field.
+	 * @return The value for the listModel field.
 	 */
-	public List<Item<C>> getSelectItems() {
-		return this.selectItems;
+	public ItemListModel<C> getListModel() {
+		return this.listModel;
 	}
 
 	/**
@@ -114,54 +115,55 @@ public final class MultipleListSelectPropertyStrategy<C, P extends Collection<C>
 	}
 
 	/**
-	 * Sets a new value for the selectItems field.
+	 * Sets a new value for the listModel field.
 	 * 
-	 * @param selectItems
-	 *            The new value for the selectItems field.
+	 * @param listModel
+	 *            The new value for the listModel field.
 	 */
-	public void setSelectItems(final List<Item<C>> selectItems) {
-		this.selectItems = selectItems;
+	public void setListModel(final ItemListModel<C> listModel) {
+		this.listModel = listModel;
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void valueChanged(final P value) {
-		int index = 0;
-		final List<Integer> selected = new LinkedList<Integer>();
 		final Collection<C> collection = this.collectionDescriptor.getCollectionBufferAccessor().getValues(this.getMessage());
 		if (!CheckUtil.isNull(collection)) {
-			for (final Item<C> item : this.selectItems) {
-				if (collection.contains(item.getEntity())) {
-					selected.add(Integer.valueOf(index));
-				}
-				index = index + 1;
-			}
-			final int[] selectedArray = new int[selected.size()];
-			int copyIndex = 0;
-			for (final Integer select : selected) {
-				selectedArray[copyIndex] = select.intValue();
-				copyIndex = copyIndex + 1;
+			final BitSet selected = this.getEntityIndex().select(collection);
+			final ListSelectionModel selectionModel = this.list.getSelectionModel();
+			selectionModel.setValueIsAdjusting(true);
+			selectionModel.clearSelection();
+			int start = selected.nextSetBit(0);
+			while (start >= 0) {
+				final int end = selected.nextClearBit(start);
+				selectionModel.addSelectionInterval(start, end - 1);
+				start = selected.nextSetBit(end);
 			}
-			this.list.setSelectedIndices(selectedArray);
+			selectionModel.setValueIsAdjusting(false);
 		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	protected JList createSelectComponent() {
-		this.list = new JList();
-		this.selectItems = this.getItems();
-		final String[] labels = new String[this.selectItems.size()];
-		int index = 0;
-		for (final Item<C> item : this.selectItems) {
-			labels[index] = item.getLabel();
-			index = index + 1;
-		}
+		this.listModel = this.createListModel(this.loadEntities());
+		this.list = new JList(this.listModel);
+		this.list.setPrototypeCellValue(this.listModel.getPrototype());
+		this.list.setEnabled(!this.isLoading());
 		this.list.addListSelectionListener(new ListListener());
 		this.list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
 		return this.list;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	protected void entitiesLoaded(final Collection<C> entities) {
+		this.listModel.setEntities(entities);
+		this.list.setPrototypeCellValue(this.listModel.getPrototype());
+		this.list.setEnabled(true);
+		this.valueChanged(this.getDescriptor().getBufferAccessor().getValue(this.getMessage()));
+	}
+
 	/**
 	 * The list selection listener.
 	 * 
@@ -180,14 +182,21 @@ public final class MultipleListSelectPropertyStrategy<C, P extends Collection<C>
 		/** {@inheritDoc} */
 		@Override
 		public void valueChanged(final ListSelectionEvent event) {
-			@SuppressWarnings("unchecked")
-			final Item<C>[] selectedItems = (Item<C>[]) MultipleListSelectPropertyStrategy.this.list.getSelectedValues();
-			final Collection<C> collection = new LinkedList<C>();
-			for (final Item<C> item : selectedItems) {
-				collection.add(item.getEntity());
+			EdtWatchdog.enter(MultipleListSelectPropertyStrategy.this.getName());
+			try {
+				if (!event.getValueIsAdjusting()) {
+					final ItemListModel<C> model = MultipleListSelectPropertyStrategy.this.listModel;
+					final int[] indices = MultipleListSelectPropertyStrategy.this.list.getSelectedIndices();
+					final Collection<C> collection = new ArrayList<C>(indices.length);
+					for (final int index : indices) {
+						collection.add(model.getEntity(index));
+					}
+					MultipleListSelectPropertyStrategy.this.collectionDescriptor.getCollectionBufferMutator().setValues(
+							MultipleListSelectPropertyStrategy.this.getMessage(), collection);
+				}
+			} finally {
+				EdtWatchdog.exit();
 			}
-			MultipleListSelectPropertyStrategy.this.collectionDescriptor.getCollectionBufferMutator().setValues(
-					MultipleListSelectPropertyStrategy.this.getMessage(), collection);
 		}
 	}
 
@@ -20,24 +20,44 @@ package org.lunarray.model.generation.swing.render.factories.form.swing.componen
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.swing.JButton;
 import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
+import org.apache.commons.lang.Validate;
 import org.lunarray.common.check.CheckUtil;
 import org.lunarray.common.event.Bus;
 import org.lunarray.common.event.EventException;
 import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
 import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
 import org.lunarray.model.descriptor.model.operation.result.ResultDescriptor;
 import org.lunarray.model.descriptor.presentation.PresentationOperationDescriptor;
 import org.lunarray.model.descriptor.util.OperationInvocationBuilder;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
+import org.lunarray.model.generation.swing.metrics.MetricsRegistry;
+import org.lunarray.model.generation.swing.render.factories.form.impl.parameter.AbstractParameterDescriptorImpl;
 import org.lunarray.model.generation.swing.render.factories.form.swing.events.OperationInvocationEvent;
+import org.lunarray.model.generation.swing.util.DaemonThreadFactory;
+import org.lunarray.model.generation.swing.util.LatencyHistogram;
+import org.lunarray.model.generation.swing.util.MessageUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A operation output strategy.
+ * A operation output strategy. Operations are invoked on an executor, the
+ * result is published on the event dispatch thread. The button is disabled
+ * while an invocation is in flight. Every invocation uses its own builder,
+ * with the target and parameter values at the time the button was pressed,
+ * so edits made while it is in flight do not reach it.
  * 
  * @author Pal Hargitai (pal@lunarray.org)
  * @param <E>
@@ -46,22 +66,52 @@ import org.slf4j.LoggerFactory;
 public final class OperationOutputStrategy<E>
 		implements ActionListener {
 
+	/** The default executor. */
+	private static final ExecutorService DEFAULT_EXECUTOR = OperationOutputStrategy.createDefaultExecutor();
 	/** A logger. */
 	private static final Logger LOGGER = LoggerFactory.getLogger(OperationOutputStrategy.class);
+	/** Message key. */
+	private static final String OPERATION_CANCELLED = "operation.cancelled";
+	/** Message key. */
+	private static final String OPERATION_RUNNING = "operation.running";
+	/** Message key. */
+	private static final String OPERATION_TIMEOUT = "operation.timeout";
 	/** A builder. */
 	private OperationInvocationBuilder<E> builder;
 	/** An event bus. */
 	private Bus bus;
 	/** A button. */
 	private JButton button;
+	/** The amount of cancelled invocations, including timeouts. */
+	private long cancelled;
 	/** The descriptor. */
 	private OperationDescriptor<E> descriptor;
+	/** The executor. */
+	private ExecutorService executor;
+	/** The invocation generation, identifies the invocation in flight. */
+	private int generation;
+	/** The invocation in flight. */
+	private Future<?> invocation;
 	/** The label. */
 	private JLabel label;
+	/** The latencies of completed invocations. */
+	private final LatencyHistogram latencies;
+	/** The key of the operation in the metrics. */
+	private final String metricsKey;
 	/** The message. */
 	private JLabel message;
+	/** The parameters. */
+	private final List<AbstractParameterDescriptorImpl<?, E>> parameters;
 	/** The presentation descriptor. */
 	private PresentationOperationDescriptor<E> presentationDescriptor;
+	/** The target entity. */
+	private E target;
+	/** The timeout, in milliseconds. */
+	private long timeout;
+	/** The timeout timer. */
+	private Timer timeoutTimer;
+	/** The amount of timed out invocations. */
+	private long timeouts;
 
 	/**
 	 * Default constructor.
@@ -73,9 +123,36 @@ public final class OperationOutputStrategy<E>
 	 * @param bus
 	 *            The bus. May not be null.
 	 */
-	@SuppressWarnings("unchecked")
 	public OperationOutputStrategy(final OperationDescriptor<E> descriptor, final OperationInvocationBuilder<E> builder, final Bus bus) {
+		this(descriptor, builder, bus, null, 0, null);
+	}
+
+	/**
+	 * Constructs the strategy.
+	 * 
+	 * @param descriptor
+	 *            The descriptor. May not be null.
+	 * @param builder
+	 *            The builder. May not be null.
+	 * @param bus
+	 *            The bus. May not be null.
+	 * @param executor
+	 *            The executor to invoke the operation on. Null for the default
+	 *            executor, which uses virtual threads if the runtime supports
+	 *            them.
+	 * @param timeout
+	 *            The time after which an invocation is cancelled, in
+	 *            milliseconds. 0 for no timeout. May not be negative.
+	 * @param entity
+	 *            The entity of the operation, which qualifies the operation
+	 *            in the metrics. May be null.
+	 */
+	@SuppressWarnings("unchecked")
+	public OperationOutputStrategy(final OperationDescriptor<E> descriptor, final OperationInvocationBuilder<E> builder, final Bus bus,
+			final ExecutorService executor, final long timeout, final EntityDescriptor<?> entity) {
+		Validate.isTrue(timeout >= 0, "Timeout may not be negative.");
 		this.descriptor = descriptor;
+		this.metricsKey = MetricsRegistry.key(entity, descriptor.getName());
 		this.presentationDescriptor = descriptor.adapt(PresentationOperationDescriptor.class);
 		this.builder = builder;
 		String text;
@@ -92,13 +169,49 @@ public final class OperationOutputStrategy<E>
 		this.button.addActionListener(this);
 		this.bus = bus;
 		this.message = new JLabel("");
+		if (CheckUtil.isNull(executor)) {
+			this.executor = OperationOutputStrategy.DEFAULT_EXECUTOR;
+		} else {
+			this.executor = executor;
+		}
+		this.timeout = timeout;
+		this.latencies = new LatencyHistogram();
+		this.parameters = new LinkedList<AbstractParameterDescriptorImpl<?, E>>();
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void actionPerformed(final ActionEvent event) {
-		// Button pressed.
-		this.execute(this.descriptor.getResultDescriptor());
+		EdtWatchdog.enter(this.descriptor.getName());
+		try {
+			// Button pressed.
+			if (!this.isRunning()) {
+				this.execute(this.descriptor.getResultDescriptor());
+			}
+		} finally {
+			EdtWatchdog.exit();
+		}
+	}
+
+	/**
+	 * Adds a parameter, its value is passed to every invocation.
+	 * 
+	 * @param parameter
+	 *            The parameter. May not be null.
+	 */
+	public void addParameter(final AbstractParameterDescriptorImpl<?, E> parameter) {
+		Validate.notNull(parameter, "Parameter may not be null.");
+		this.parameters.add(parameter);
+	}
+
+	/**
+	 * Cancels the invocation in flight, if any. Its result is discarded.
+	 * Should be called on the event dispatch thread.
+	 */
+	public void cancel() {
+		if (this.isRunning()) {
+			this.abort(MessageUtil.getMessage(OperationOutputStrategy.OPERATION_CANCELLED));
+		}
 	}
 
 	/**
@@ -128,6 +241,15 @@ public final class OperationOutputStrategy<E>
 		return this.button;
 	}
 
+	/**
+	 * Gets the amount of cancelled invocations, including timeouts.
+	 * 
+	 * @return The amount of cancelled invocations.
+	 */
+	public long getCancelled() {
+		return this.cancelled;
+	}
+
 	/**
 	 * Gets the value for the descriptor field.
 	 * 
@@ -137,6 +259,15 @@ public final class OperationOutputStrategy<E>
 		return this.descriptor;
 	}
 
+	/**
+	 * Gets the value for the executor field.
+	 * 
+	 * @return The value for the executor field.
+	 */
+	public ExecutorService getExecutor() {
+		return this.executor;
+	}
+
 	/**
 	 * Gets the label.
 	 * 
@@ -146,6 +277,15 @@ public final class OperationOutputStrategy<E>
 		return this.label;
 	}
 
+	/**
+	 * Gets the latencies of completed invocations.
+	 * 
+	 * @return The latencies.
+	 */
+	public LatencyHistogram getLatencies() {
+		return this.latencies;
+	}
+
 	/**
 	 * Gets the value for the message field.
 	 * 
@@ -155,6 +295,15 @@ public final class OperationOutputStrategy<E>
 		return this.message;
 	}
 
+	/**
+	 * Gets the value for the metricsKey field.
+	 * 
+	 * @return The value for the metricsKey field.
+	 */
+	public String getMetricsKey() {
+		return this.metricsKey;
+	}
+
 	/**
 	 * Gets the value for the presentationDescriptor field.
 	 * 
@@ -164,6 +313,42 @@ public final class OperationOutputStrategy<E>
 		return this.presentationDescriptor;
 	}
 
+	/**
+	 * Gets the value for the target field.
+	 * 
+	 * @return The value for the target field.
+	 */
+	public E getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * Gets the value for the timeout field.
+	 * 
+	 * @return The value for the timeout field, in milliseconds.
+	 */
+	public long getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * Gets the amount of timed out invocations.
+	 * 
+	 * @return The amount of timed out invocations.
+	 */
+	public long getTimeouts() {
+		return this.timeouts;
+	}
+
+	/**
+	 * Tests if an invocation is in flight.
+	 * 
+	 * @return True if and only if an invocation is in flight.
+	 */
+	public boolean isRunning() {
+		return !CheckUtil.isNull(this.invocation);
+	}
+
 	/**
 	 * Sets a new value for the builder field.
 	 * 
@@ -204,6 +389,17 @@ public final class OperationOutputStrategy<E>
 		this.descriptor = descriptor;
 	}
 
+	/**
+	 * Sets a new value for the executor field.
+	 * 
+	 * @param executor
+	 *            The new value for the executor field. May not be null.
+	 */
+	public void setExecutor(final ExecutorService executor) {
+		Validate.notNull(executor, "Executor may not be null.");
+		this.executor = executor;
+	}
+
 	/**
 	 * Sets a new value for the label field.
 	 * 
@@ -234,6 +430,65 @@ public final class OperationOutputStrategy<E>
 		this.presentationDescriptor = presentationDescriptor;
 	}
 
+	/**
+	 * Sets a new value for the target field.
+	 * 
+	 * @param target
+	 *            The new value for the target field.
+	 */
+	public void setTarget(final E target) {
+		this.target = target;
+	}
+
+	/**
+	 * Sets a new value for the timeout field.
+	 * 
+	 * @param timeout
+	 *            The new value for the timeout field, in milliseconds. 0 for
+	 *            no timeout. May not be negative.
+	 */
+	public void setTimeout(final long timeout) {
+		Validate.isTrue(timeout >= 0, "Timeout may not be negative.");
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Creates the default executor. Uses virtual threads if the runtime
+	 * supports them, a cached pool of daemon threads otherwise.
+	 * 
+	 * @return The executor.
+	 */
+	private static ExecutorService createDefaultExecutor() {
+		ExecutorService result = null;
+		try {
+			final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			result = (ExecutorService) factory.invoke(null);
+		} catch (final NoSuchMethodException e) {
+			// Virtual threads are not supported.
+		} catch (final IllegalAccessException e) {
+			// Virtual threads are not accessible.
+		} catch (final InvocationTargetException e) {
+			// Virtual threads are not enabled.
+		}
+		if (CheckUtil.isNull(result)) {
+			result = Executors.newCachedThreadPool(new DaemonThreadFactory("form-operation"));
+		}
+		return result;
+	}
+
+	/**
+	 * Aborts the invocation in flight.
+	 * 
+	 * @param reason
+	 *            The reason shown.
+	 */
+	private void abort(final String reason) {
+		this.invocation.cancel(true);
+		this.finish();
+		this.cancelled = this.cancelled + 1;
+		this.getMessage().setText(reason);
+	}
+
 	/**
 	 * Execute operation.
 	 * 
@@ -243,21 +498,217 @@ public final class OperationOutputStrategy<E>
 	 *            The result type.
 	 */
 	private <R> void execute(final ResultDescriptor<R> descriptor) {
-		try {
-			final R result = this.builder.execute(descriptor.getResultType());
-			final OperationInvocationEvent<E, R> event = new OperationInvocationEvent<E, R>(this.descriptor, result);
-			this.bus.handleEvent(event, this.builder);
-		} catch (final ValueAccessException e) {
-			OperationOutputStrategy.LOGGER.warn("Could not access value.", e);
-			if (e.getCause() instanceof InvocationTargetException) {
-				final InvocationTargetException ite = (InvocationTargetException) e.getCause();
-				final Throwable origin = ite.getCause();
-				this.getMessage().setText(origin.getMessage());
+		this.generation = this.generation + 1;
+		this.button.setEnabled(false);
+		this.getMessage().setText(MessageUtil.getMessage(OperationOutputStrategy.OPERATION_RUNNING));
+		final OperationInvocationBuilder<E> snapshot = new OperationInvocationBuilder<E>(this.descriptor);
+		snapshot.target(this.target);
+		for (final AbstractParameterDescriptorImpl<?, E> parameter : this.parameters) {
+			parameter.copyParameter(snapshot);
+		}
+		this.invocation = this.executor.submit(new Invocation<R>(snapshot, descriptor.getResultType(), this.generation));
+		if (this.timeout > 0) {
+			this.timeoutTimer = new Timer((int) Math.min(this.timeout, Integer.MAX_VALUE), new TimeoutListener(this.generation));
+			this.timeoutTimer.setRepeats(false);
+			this.timeoutTimer.start();
+		}
+	}
+
+	/**
+	 * Ends the invocation in flight.
+	 */
+	private void finish() {
+		this.generation = this.generation + 1;
+		this.invocation = null;
+		if (!CheckUtil.isNull(this.timeoutTimer)) {
+			this.timeoutTimer.stop();
+			this.timeoutTimer = null;
+		}
+		this.button.setEnabled(true);
+		this.getMessage().setText("");
+	}
+
+	/**
+	 * Publishes the outcome of an invocation.
+	 * 
+	 * @param completion
+	 *            The completion.
+	 * @param <R>
+	 *            The result type.
+	 */
+	private <R> void publish(final Completion<R> completion) {
+		// An outdated completion was cancelled or timed out.
+		if (completion.generation == this.generation) {
+			this.finish();
+			this.latencies.record(completion.latency);
+			MetricsRegistry.getMetrics().recordOperation(this.metricsKey, completion.latency);
+			final Throwable failure = completion.failure;
+			if (CheckUtil.isNull(failure)) {
+				try {
+					final OperationInvocationEvent<E, R> event = new OperationInvocationEvent<E, R>(this.descriptor, completion.result);
+					this.bus.handleEvent(event, this.builder);
+				} catch (final EventException e) {
+					OperationOutputStrategy.LOGGER.warn("Could not process events.", e);
+				}
+			} else if (failure instanceof Error) {
+				// Errors are left to the handler of the event dispatch thread.
+				throw (Error) failure;
+			} else if (failure instanceof ValueAccessException) {
+				OperationOutputStrategy.LOGGER.warn("Could not access value.", failure);
+				if (failure.getCause() instanceof InvocationTargetException) {
+					final InvocationTargetException ite = (InvocationTargetException) failure.getCause();
+					final Throwable origin = ite.getCause();
+					this.getMessage().setText(origin.getMessage());
+				} else {
+					this.getMessage().setText(failure.getMessage());
+				}
 			} else {
-				this.getMessage().setText(e.getMessage());
+				OperationOutputStrategy.LOGGER.warn("Could not invoke operation.", failure);
+				this.getMessage().setText(failure.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * The outcome of an invocation, published on the event dispatch thread.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <R>
+	 *            The result type.
+	 */
+	private final class Completion<R>
+			implements Runnable {
+
+		/** The failure, if the invocation failed. */
+		private final Throwable failure;
+		/** The invocation generation. */
+		private final int generation;
+		/** The latency, in nanoseconds. */
+		private final long latency;
+		/** The result. */
+		private final R result;
+
+		/**
+		 * Constructs the completion.
+		 * 
+		 * @param generation
+		 *            The invocation generation.
+		 * @param latency
+		 *            The latency, in nanoseconds.
+		 * @param result
+		 *            The result.
+		 * @param failure
+		 *            The failure, if the invocation failed.
+		 */
+		public Completion(final int generation, final long latency, final R result, final Throwable failure) {
+			this.generation = generation;
+			this.latency = latency;
+			this.result = result;
+			this.failure = failure;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			EdtWatchdog.enter(OperationOutputStrategy.this.descriptor.getName());
+			try {
+				OperationOutputStrategy.this.publish(this);
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * Invokes the operation in the background.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <R>
+	 *            The result type.
+	 */
+	private final class Invocation<R>
+			implements Runnable {
+
+		/** The invocation generation. */
+		private final int generation;
+		/** The result type. */
+		private final Class<R> resultType;
+		/** The builder, only used by this invocation. */
+		private final OperationInvocationBuilder<E> snapshot;
+
+		/**
+		 * Constructs the invocation.
+		 * 
+		 * @param snapshot
+		 *            The builder, only used by this invocation.
+		 * @param resultType
+		 *            The result type.
+		 * @param generation
+		 *            The invocation generation.
+		 */
+		public Invocation(final OperationInvocationBuilder<E> snapshot, final Class<R> resultType, final int generation) {
+			this.snapshot = snapshot;
+			this.resultType = resultType;
+			this.generation = generation;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			final long start = System.nanoTime();
+			R result = null;
+			Throwable failure = null;
+			Error error = null;
+			try {
+				result = this.snapshot.execute(this.resultType);
+			} catch (final Exception e) {
+				failure = e;
+			} catch (final Error e) {
+				// Errors complete the invocation before they are rethrown.
+				failure = e;
+				error = e;
+			}
+			SwingUtilities.invokeLater(new Completion<R>(this.generation, System.nanoTime() - start, result, failure));
+			if (!CheckUtil.isNull(error)) {
+				throw error;
+			}
+		}
+	}
+
+	/**
+	 * Cancels an invocation that takes too long.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class TimeoutListener
+			implements ActionListener {
+
+		/** The invocation generation. */
+		private final int generation;
+
+		/**
+		 * Constructs the listener.
+		 * 
+		 * @param generation
+		 *            The invocation generation.
+		 */
+		public TimeoutListener(final int generation) {
+			this.generation = generation;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void actionPerformed(final ActionEvent event) {
+			EdtWatchdog.enter(OperationOutputStrategy.this.descriptor.getName());
+			try {
+				final OperationOutputStrategy<E> strategy = OperationOutputStrategy.this;
+				if (strategy.generation == this.generation && strategy.isRunning()) {
+					strategy.timeouts = strategy.timeouts + 1;
+					strategy.abort(MessageUtil.getMessage(OperationOutputStrategy.OPERATION_TIMEOUT, Long.valueOf(strategy.timeout)));
+				}
+			} finally {
+				EdtWatchdog.exit();
 			}
-		} catch (final EventException e) {
-			OperationOutputStrategy.LOGGER.warn("Could not process events.", e);
 		}
 	}
 }
@@ -20,15 +20,17 @@ package org.lunarray.model.generation.swing.render.factories.form.swing.componen
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.swing.ButtonGroup;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 
 import org.apache.commons.lang.Validate;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
@@ -123,16 +125,9 @@ public final class RadioSelectPropertyStrategy<P>
 	/** {@inheritDoc} */
 	@Override
 	public void valueChanged(final P value) {
-		final Iterator<Item<P>> itemIt = this.selectItems.iterator();
-		final Iterator<JRadioButton> buttonIt = this.buttons.iterator();
-		while (itemIt.hasNext() && buttonIt.hasNext()) {
-			final Item<P> item = itemIt.next();
-			final JRadioButton button = buttonIt.next();
-			if (item.getEntity().equals(value)) {
-				button.setSelected(true);
-			} else {
-				button.setSelected(false);
-			}
+		final int index = this.getEntityIndex().indexOf(value);
+		if ((index >= 0) && (index < this.buttons.size())) {
+			this.buttons.get(index).setSelected(true);
 		}
 	}
 
@@ -154,19 +149,46 @@ public final class RadioSelectPropertyStrategy<P>
 		panel.add(radio);
 	}
 
+	/**
+	 * Process all items.
+	 * 
+	 * @param panel
+	 *            The panel.
+	 */
+	private void processItems(final JPanel panel) {
+		final ButtonGroup group = new ButtonGroup();
+		for (final Item<P> item : this.selectItems) {
+			this.processItem(panel, group, item);
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	protected JPanel createSelectComponent() {
 		final JPanel panel = new JPanel(new GridLayout(0, 1));
-		final ButtonGroup group = new ButtonGroup();
-		this.selectItems = this.getItems();
-		this.buttons = new LinkedList<JRadioButton>();
-		for (final Item<P> item : this.selectItems) {
-			this.processItem(panel, group, item);
+		this.selectItems = this.loadItems();
+		this.buttons = new ArrayList<JRadioButton>();
+		if (this.isLoading()) {
+			panel.add(new JLabel(this.getPlaceholder()));
+		} else {
+			this.processItems(panel);
 		}
 		return panel;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	protected void entitiesLoaded(final Collection<P> entities) {
+		final JPanel panel = this.getComponent();
+		panel.removeAll();
+		this.selectItems = this.createItems(entities);
+		this.buttons = new ArrayList<JRadioButton>();
+		this.processItems(panel);
+		panel.revalidate();
+		panel.repaint();
+		this.valueChanged(this.getDescriptor().getBufferAccessor().getValue(this.getMessage()));
+	}
+
 	/**
 	 * The factory.
 	 * 
@@ -214,9 +236,14 @@ public final class RadioSelectPropertyStrategy<P>
 		/** {@inheritDoc} */
 		@Override
 		public void actionPerformed(final ActionEvent event) {
-			RadioSelectPropertyStrategy.this.getDescriptor().getBufferMutator()
-					.setValue(RadioSelectPropertyStrategy.this.getMessage(), this.value);
-			RadioSelectPropertyStrategy.this.selectedValue = this.value;
+			EdtWatchdog.enter(RadioSelectPropertyStrategy.this.getName());
+			try {
+				RadioSelectPropertyStrategy.this.getDescriptor().getBufferMutator()
+						.setValue(RadioSelectPropertyStrategy.this.getMessage(), this.value);
+				RadioSelectPropertyStrategy.this.selectedValue = this.value;
+			} finally {
+				EdtWatchdog.exit();
+			}
 		}
 
 		/**
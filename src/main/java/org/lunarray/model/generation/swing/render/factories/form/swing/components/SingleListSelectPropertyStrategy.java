@@ -17,7 +17,7 @@
  */
 package org.lunarray.model.generation.swing.render.factories.form.swing.components;
 
-import java.util.List;
+import java.util.Collection;
 
 import javax.swing.JList;
 import javax.swing.ListSelectionModel;
@@ -25,6 +25,7 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
 import org.apache.commons.lang.Validate;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
@@ -43,8 +44,8 @@ public final class SingleListSelectPropertyStrategy<P>
 
 	/** The list. */
 	private JList list;
-	/** The items. */
-	private List<Item<P>> selectItems;
+	/** The list model. */
+	private ItemListModel<P> listModel;
 
 	/**
 	 * Constructs the strategy.
@@ -68,12 +69,12 @@ public final class SingleListSelectPropertyStrategy<P>
 	}
 
 	/**
-	 * Gets the value for the selectItems field.
+	 * Gets the value for the listModel field.
 	 * 
-	 * @return The value for the selectItems field.
+	 * @return The value for the listModel field.
 	 */
-	public List<Item<P>> getSelectItems() {
-		return this.selectItems;
+	public ItemListModel<P> getListModel() {
+		return this.listModel;
 	}
 
 	/**
@@ -87,43 +88,45 @@ public final class SingleListSelectPropertyStrategy<P>
 	}
 
 	/**
-	 * Sets a new value for the selectItems field.
+	 * Sets a new value for the listModel field.
 	 * 
-	 * @param selectItems
-	 *            The new value for the selectItems field.
+	 * @param listModel
+	 *            The new value for the listModel field.
 	 */
-	public void setSelectItems(final List<Item<P>> selectItems) {
-		this.selectItems = selectItems;
+	public void setListModel(final ItemListModel<P> listModel) {
+		this.listModel = listModel;
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void valueChanged(final P value) {
-		int index = 0;
-		for (final Item<P> item : this.selectItems) {
-			if (item.getEntity().equals(value)) {
-				this.list.setSelectedIndex(index);
-			}
-			index = index + 1;
+		final int index = this.getEntityIndex().indexOf(value);
+		if (index >= 0) {
+			this.list.setSelectedIndex(index);
 		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	protected JList createSelectComponent() {
-		this.list = new JList();
-		this.selectItems = this.getItems();
-		final String[] labels = new String[this.selectItems.size()];
-		int index = 0;
-		for (final Item<P> item : this.selectItems) {
-			labels[index] = item.getLabel();
-			index = index + 1;
-		}
+		this.listModel = this.createListModel(this.loadEntities());
+		this.list = new JList(this.listModel);
+		this.list.setPrototypeCellValue(this.listModel.getPrototype());
+		this.list.setEnabled(!this.isLoading());
 		this.list.addListSelectionListener(new ListListener());
 		this.list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 		return this.list;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	protected void entitiesLoaded(final Collection<P> entities) {
+		this.listModel.setEntities(entities);
+		this.list.setPrototypeCellValue(this.listModel.getPrototype());
+		this.list.setEnabled(true);
+		this.valueChanged(this.getDescriptor().getBufferAccessor().getValue(this.getMessage()));
+	}
+
 	/**
 	 * A list listener for selections.
 	 * 
@@ -142,10 +145,16 @@ public final class SingleListSelectPropertyStrategy<P>
 		/** {@inheritDoc} */
 		@Override
 		public void valueChanged(final ListSelectionEvent event) {
-			@SuppressWarnings("unchecked")
-			final Item<P> item = (Item<P>) SingleListSelectPropertyStrategy.this.list.getSelectedValue();
-			SingleListSelectPropertyStrategy.this.getDescriptor().getBufferMutator()
-					.setValue(SingleListSelectPropertyStrategy.this.getMessage(), item.getEntity());
+			EdtWatchdog.enter(SingleListSelectPropertyStrategy.this.getName());
+			try {
+				final int index = SingleListSelectPropertyStrategy.this.list.getSelectedIndex();
+				if (index >= 0) {
+					SingleListSelectPropertyStrategy.this.getDescriptor().getBufferMutator()
+							.setValue(SingleListSelectPropertyStrategy.this.getMessage(), SingleListSelectPropertyStrategy.this.listModel.getEntity(index));
+				}
+			} finally {
+				EdtWatchdog.exit();
+			}
 		}
 	}
 
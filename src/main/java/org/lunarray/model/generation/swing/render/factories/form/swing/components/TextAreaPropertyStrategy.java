@@ -45,6 +45,21 @@ public final class TextAreaPropertyStrategy<P>
 		super(descriptor, context);
 	}
 
+	/**
+	 * Constructs the strategy.
+	 * 
+	 * @param descriptor
+	 *            The property descriptor. May not be null.
+	 * @param context
+	 *            The render context. May not be null.
+	 * @param debounceDelay
+	 *            The debounce delay, in milliseconds. 0 to convert and
+	 *            validate on every edit.
+	 */
+	protected TextAreaPropertyStrategy(final Descriptor<P> descriptor, final RenderContext<?> context, final int debounceDelay) {
+		super(descriptor, context, debounceDelay);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	protected JTextArea createTextComponent() {
@@ -59,11 +74,25 @@ public final class TextAreaPropertyStrategy<P>
 	public static final class StrategyFactory
 			implements FormPropertyRenderStrategy.DescriptorFactory {
 
+		/** The debounce delay. */
+		private final int debounceDelay;
+
 		/**
 		 * Default constructor.
 		 */
 		public StrategyFactory() {
-			// Default constructor.
+			this(0);
+		}
+
+		/**
+		 * Constructs the factory.
+		 * 
+		 * @param debounceDelay
+		 *            The debounce delay, in milliseconds. 0 to convert and
+		 *            validate on every edit.
+		 */
+		public StrategyFactory(final int debounceDelay) {
+			this.debounceDelay = debounceDelay;
 		}
 
 		/** {@inheritDoc} */
@@ -71,7 +100,7 @@ public final class TextAreaPropertyStrategy<P>
 		public <E, P> FormPropertyRenderStrategy<P> createStrategy(final RenderContext<E> context, final Descriptor<P> descriptor) {
 			Validate.notNull(descriptor, "Descriptor may not be null.");
 			Validate.notNull(context, "Context may not be null.");
-			return new TextAreaPropertyStrategy<P>(descriptor, context);
+			return new TextAreaPropertyStrategy<P>(descriptor, context, this.debounceDelay);
 		}
 	}
 }
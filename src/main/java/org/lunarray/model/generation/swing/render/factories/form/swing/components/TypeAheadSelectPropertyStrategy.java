@@ -0,0 +1,591 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing.components;
+
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.metrics.EdtWatchdog;
+import org.lunarray.model.generation.swing.render.PrefixIndexCache;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.ValueChangeListener;
+import org.lunarray.model.generation.swing.util.PrefixIndex;
+
+/**
+ * Constructs a text field that suggests matching entities as the user types,
+ * for selecting among very many entities. Suggestions are looked up in a
+ * prefix index of the labels, built once per dictionary snapshot. The labels
+ * are created on the event dispatch thread, as item creation converts and
+ * reads entity properties, in slices of a bounded amount of entities. They are
+ * not created if the index of the snapshot is already built or being built.
+ * Only sorting them into the index runs in the background.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <P>
+ *            The property type.
+ */
+public final class TypeAheadSelectPropertyStrategy<P>
+		extends AbstractSelectFieldPropertyStrategy<P, P, JTextField>
+		implements ValueChangeListener<P> {
+
+	/** The default maximum amount of suggestions. */
+	public static final int DEFAULT_LIMIT = 10;
+	/** The amount of labels created per event. */
+	public static final int LABEL_SLICE = 500;
+	/** The entities, in index order. */
+	private List<P> entities;
+	/** The text field. */
+	private JTextField field;
+	/** The maximum amount of suggestions. */
+	private int limit;
+	/** The suggestion list. */
+	private JList matchList;
+	/** The suggestions. */
+	private DefaultListModel matchModel;
+	/** The suggestion popup. */
+	private JPopupMenu popup;
+	/** The prefix index. */
+	private PrefixIndex prefixIndex;
+	/** Whether the text is being set from the buffer. */
+	private boolean updating;
+
+	/**
+	 * Constructs the strategy.
+	 * 
+	 * @param descriptor
+	 *            The property descriptor. May not be null.
+	 * @param context
+	 *            The render context. May not be null.
+	 */
+	protected TypeAheadSelectPropertyStrategy(final Descriptor<P> descriptor, final RenderContext<?> context) {
+		super(descriptor, context);
+	}
+
+	/**
+	 * Gets the value for the field field.
+	 * 
+	 * @return The value for the field field.
+	 */
+	public JTextField getField() {
+		return this.field;
+	}
+
+	/**
+	 * Gets the value for the limit field.
+	 * 
+	 * @return The value for the limit field.
+	 */
+	public int getLimit() {
+		return this.limit;
+	}
+
+	/**
+	 * Gets the value for the matchList field.
+	 * 
+	 * @return The value for the matchList field.
+	 */
+	public JList getMatchList() {
+		return this.matchList;
+	}
+
+	/**
+	 * Gets the value for the popup field.
+	 * 
+	 * @return The value for the popup field.
+	 */
+	public JPopupMenu getPopup() {
+		return this.popup;
+	}
+
+	/**
+	 * Gets the value for the prefixIndex field.
+	 * 
+	 * @return The value for the prefixIndex field. Null while it is being
+	 *         built.
+	 */
+	public PrefixIndex getPrefixIndex() {
+		return this.prefixIndex;
+	}
+
+	/**
+	 * Sets a new value for the limit field.
+	 * 
+	 * @param limit
+	 *            The new value for the limit field. Must be positive.
+	 */
+	public void setLimit(final int limit) {
+		Validate.isTrue(limit > 0, "Limit must be positive.");
+		this.limit = limit;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void valueChanged(final P value) {
+		String label = null;
+		if (!CheckUtil.isNull(value)) {
+			label = this.createItemFactory().createItem(value).getLabel();
+		}
+		this.updating = true;
+		try {
+			this.field.setText(CheckUtil.isNull(label) ? "" : label);
+		} finally {
+			this.updating = false;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected JTextField createSelectComponent() {
+		this.limit = TypeAheadSelectPropertyStrategy.DEFAULT_LIMIT;
+		this.field = new JTextField();
+		this.matchModel = new DefaultListModel();
+		this.matchList = new JList(this.matchModel);
+		this.matchList.setFocusable(false);
+		this.matchList.addMouseListener(new MatchListener());
+		this.popup = new JPopupMenu();
+		this.popup.setFocusable(false);
+		this.popup.add(this.matchList);
+		this.field.getDocument().addDocumentListener(new QueryListener());
+		this.field.addKeyListener(new NavigationListener());
+		this.field.addFocusListener(new FocusChangeListener());
+		this.index(this.loadEntities());
+		return this.field;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void entitiesLoaded(final Collection<P> entities) {
+		this.index(entities);
+	}
+
+	/**
+	 * Selects a suggestion.
+	 * 
+	 * @param item
+	 *            The suggestion.
+	 */
+	private void choose(final Item<P> item) {
+		this.popup.setVisible(false);
+		this.updating = true;
+		try {
+			this.field.setText(item.getLabel());
+		} finally {
+			this.updating = false;
+		}
+		this.getDescriptor().getBufferMutator().setValue(this.getMessage(), item.getEntity());
+	}
+
+	/**
+	 * Looks up the prefix index of the entities, building it in the
+	 * background if needed. The field is disabled until the index is
+	 * available.
+	 * 
+	 * @param snapshot
+	 *            The entities. May be null.
+	 */
+	private void index(final Collection<P> snapshot) {
+		this.prefixIndex = null;
+		this.entities = new ArrayList<P>(0);
+		if (this.isLoading()) {
+			this.field.setEnabled(false);
+		} else if (!CheckUtil.isNull(snapshot)) {
+			this.entities = ItemListModel.toList(snapshot);
+			final PrefixIndexCache cache = PrefixIndexCache.getInstance(this.getModel());
+			final String relatedName = this.getDescriptor().getRelatedName();
+			this.prefixIndex = cache.getIfPresent(relatedName, snapshot);
+			if (CheckUtil.isNull(this.prefixIndex)) {
+				this.field.setEnabled(false);
+				if (!cache.joinLater(relatedName, snapshot, new IndexLoader(this.entities))) {
+					SwingUtilities.invokeLater(new LabelCreator(snapshot, this.entities));
+				}
+			} else {
+				this.field.setEnabled(true);
+			}
+		} else {
+			this.field.setEnabled(true);
+		}
+	}
+
+	/**
+	 * Moves the selected suggestion.
+	 * 
+	 * @param offset
+	 *            The amount to move.
+	 */
+	private void moveSelection(final int offset) {
+		final int size = this.matchModel.getSize();
+		if (size > 0) {
+			final int index = Math.max(0, Math.min(size - 1, this.matchList.getSelectedIndex() + offset));
+			this.matchList.setSelectedIndex(index);
+		}
+	}
+
+	/**
+	 * Updates the suggestions to the text of the field.
+	 */
+	private void suggest() {
+		if (!this.updating && !CheckUtil.isNull(this.prefixIndex)) {
+			this.matchModel.clear();
+			for (final int index : this.prefixIndex.query(this.field.getText(), this.limit)) {
+				final Item<P> item = new Item<P>();
+				item.setEntity(this.entities.get(index));
+				item.setLabel(this.prefixIndex.getLabel(index));
+				this.matchModel.addElement(item);
+			}
+			if (this.matchModel.isEmpty() || !this.field.isShowing()) {
+				this.popup.setVisible(false);
+			} else {
+				this.matchList.setSelectedIndex(0);
+				this.matchList.setFixedCellWidth(this.field.getWidth());
+				if (this.popup.isVisible()) {
+					this.popup.pack();
+				} else {
+					this.popup.show(this.field, 0, this.field.getHeight());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Hides the suggestions and restores the text once the field loses focus.
+	 * Clearing the text clears the value.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class FocusChangeListener
+			implements FocusListener {
+
+		/**
+		 * Default constructor.
+		 */
+		public FocusChangeListener() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void focusGained(final FocusEvent event) {
+			// Nothing to suggest.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void focusLost(final FocusEvent event) {
+			EdtWatchdog.enter(TypeAheadSelectPropertyStrategy.this.getName());
+			try {
+				final TypeAheadSelectPropertyStrategy<P> strategy = TypeAheadSelectPropertyStrategy.this;
+				strategy.popup.setVisible(false);
+				if (strategy.field.getText().trim().length() == 0) {
+					strategy.getDescriptor().getBufferMutator().setValue(strategy.getMessage(), null);
+				}
+				strategy.valueChanged(strategy.getDescriptor().getBufferAccessor().getValue(strategy.getMessage()));
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * Enables the field once the index is built.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class IndexLoader
+			implements PrefixIndexCache.IndexListener {
+
+		/** The entities the index is built for. */
+		private final List<P> indexed;
+
+		/**
+		 * Constructs the listener.
+		 * 
+		 * @param indexed
+		 *            The entities the index is built for.
+		 */
+		public IndexLoader(final List<P> indexed) {
+			this.indexed = indexed;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void indexBuilt(final PrefixIndex index) {
+			final TypeAheadSelectPropertyStrategy<P> strategy = TypeAheadSelectPropertyStrategy.this;
+			if (strategy.entities == this.indexed) {
+				strategy.prefixIndex = index;
+				strategy.field.setEnabled(true);
+			}
+		}
+	}
+
+	/**
+	 * Creates the labels of a snapshot in slices, then builds its index.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private final class LabelCreator
+			implements Runnable {
+
+		/** The item factory. */
+		private final ItemListModel.ItemFactory<P> factory;
+		/** The entities the labels are created for. */
+		private final List<P> indexed;
+		/** The labels, in entity order. */
+		private final String[] labels;
+		/** The next entity to create a label for. */
+		private int next;
+		/** The snapshot. */
+		private final Object snapshot;
+
+		/**
+		 * Constructs the creator.
+		 * 
+		 * @param snapshot
+		 *            The snapshot.
+		 * @param indexed
+		 *            The entities the labels are created for.
+		 */
+		public LabelCreator(final Object snapshot, final List<P> indexed) {
+			this.snapshot = snapshot;
+			this.indexed = indexed;
+			this.factory = TypeAheadSelectPropertyStrategy.this.createItemFactory();
+			this.labels = new String[indexed.size()];
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			final TypeAheadSelectPropertyStrategy<P> strategy = TypeAheadSelectPropertyStrategy.this;
+			EdtWatchdog.enter(strategy.getName());
+			try {
+				// A replaced snapshot is no longer indexed.
+				if (strategy.entities == this.indexed) {
+					final int end = Math.min(this.labels.length, this.next + TypeAheadSelectPropertyStrategy.LABEL_SLICE);
+					for (int i = this.next; i < end; i = i + 1) {
+						this.labels[i] = this.factory.createItem(this.indexed.get(i)).getLabel();
+					}
+					this.next = end;
+					if (this.next < this.labels.length) {
+						SwingUtilities.invokeLater(this);
+					} else {
+						PrefixIndexCache.getInstance(strategy.getModel()).indexLater(strategy.getDescriptor().getRelatedName(), this.snapshot,
+								this.labels, new IndexLoader(this.indexed));
+					}
+				}
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * Selects a suggestion on click.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class MatchListener
+			extends MouseAdapter {
+
+		/**
+		 * Default constructor.
+		 */
+		public MatchListener() {
+			super();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void mouseClicked(final MouseEvent event) {
+			EdtWatchdog.enter(TypeAheadSelectPropertyStrategy.this.getName());
+			try {
+				final TypeAheadSelectPropertyStrategy<P> strategy = TypeAheadSelectPropertyStrategy.this;
+				final int index = strategy.matchList.locationToIndex(event.getPoint());
+				if (index >= 0) {
+					@SuppressWarnings("unchecked")
+					final Item<P> item = (Item<P>) strategy.matchModel.getElementAt(index);
+					strategy.choose(item);
+				}
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * Navigates the suggestions with the keyboard.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class NavigationListener
+			extends KeyAdapter {
+
+		/**
+		 * Default constructor.
+		 */
+		public NavigationListener() {
+			super();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void keyPressed(final KeyEvent event) {
+			EdtWatchdog.enter(TypeAheadSelectPropertyStrategy.this.getName());
+			try {
+				final TypeAheadSelectPropertyStrategy<P> strategy = TypeAheadSelectPropertyStrategy.this;
+				final boolean visible = strategy.popup.isVisible();
+				switch (event.getKeyCode()) {
+				case KeyEvent.VK_DOWN:
+					if (visible) {
+						strategy.moveSelection(1);
+					} else {
+						strategy.suggest();
+					}
+					event.consume();
+					break;
+				case KeyEvent.VK_UP:
+					strategy.moveSelection(-1);
+					event.consume();
+					break;
+				case KeyEvent.VK_ENTER:
+					if (visible && !strategy.matchList.isSelectionEmpty()) {
+						@SuppressWarnings("unchecked")
+						final Item<P> item = (Item<P>) strategy.matchList.getSelectedValue();
+						strategy.choose(item);
+						event.consume();
+					}
+					break;
+				case KeyEvent.VK_ESCAPE:
+					strategy.popup.setVisible(false);
+					break;
+				default:
+					break;
+				}
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * Updates the suggestions as the user types.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class QueryListener
+			implements DocumentListener {
+
+		/**
+		 * Default constructor.
+		 */
+		public QueryListener() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void changedUpdate(final DocumentEvent event) {
+			// Attribute changes do not change the query.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void insertUpdate(final DocumentEvent event) {
+			EdtWatchdog.enter(TypeAheadSelectPropertyStrategy.this.getName());
+			try {
+				TypeAheadSelectPropertyStrategy.this.suggest();
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void removeUpdate(final DocumentEvent event) {
+			EdtWatchdog.enter(TypeAheadSelectPropertyStrategy.this.getName());
+			try {
+				TypeAheadSelectPropertyStrategy.this.suggest();
+			} finally {
+				EdtWatchdog.exit();
+			}
+		}
+	}
+
+	/**
+	 * The factory. Properties that are not relations are rendered by a
+	 * fallback factory.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public static final class StrategyFactory
+			implements FormPropertyRenderStrategy.DescriptorFactory {
+
+		/** The factory for properties that are not relations. */
+		private final FormPropertyRenderStrategy.DescriptorFactory fallback;
+
+		/**
+		 * Default constructor.
+		 */
+		public StrategyFactory() {
+			this(new TextOutputPropertyStrategy.StrategyFactory());
+		}
+
+		/**
+		 * Constructs the factory.
+		 * 
+		 * @param fallback
+		 *            The factory for properties that are not relations. May
+		 *            not be null.
+		 */
+		public StrategyFactory(final FormPropertyRenderStrategy.DescriptorFactory fallback) {
+			Validate.notNull(fallback, "Fallback may not be null.");
+			this.fallback = fallback;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <E, P> FormPropertyRenderStrategy<P> createStrategy(final RenderContext<E> context, final Descriptor<P> descriptor) {
+			Validate.notNull(descriptor, "Descriptor may not be null.");
+			Validate.notNull(context, "Context may not be null.");
+			FormPropertyRenderStrategy<P> result;
+			if (descriptor.isRelation()) {
+				result = new TypeAheadSelectPropertyStrategy<P>(descriptor, context);
+			} else {
+				result = this.fallback.createStrategy(context, descriptor);
+			}
+			return result;
+		}
+	}
+}
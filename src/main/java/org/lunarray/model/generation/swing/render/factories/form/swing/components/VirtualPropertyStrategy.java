@@ -0,0 +1,317 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing.components;
+
+import java.util.Collection;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.CollectionDescriptor;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.ValueVisitor;
+
+/**
+ * A strategy that only creates its components when they are requested, and
+ * that may release them again.
+ * <p>
+ * The descriptor keeps the buffered value while no components exist. The
+ * message is kept so validation messages survive releasing the components.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <P>
+ *            The property type.
+ */
+public abstract class VirtualPropertyStrategy<P>
+		implements FormPropertyRenderStrategy<P> {
+
+	/** The render context. */
+	private final RenderContext<?> context;
+	/** The descriptor. */
+	private final Descriptor<P> descriptor;
+	/** The message. */
+	private final JLabel message;
+	/** The property name. */
+	private final String name;
+	/** The created strategy, null if released. */
+	private FormPropertyRenderStrategy<P> strategy;
+	/** The value visitor. */
+	private final ValueVisitor visitor;
+
+	/**
+	 * Constructs the strategy.
+	 * 
+	 * @param context
+	 *            The render context. May not be null.
+	 * @param descriptor
+	 *            The descriptor. May not be null.
+	 */
+	protected VirtualPropertyStrategy(final RenderContext<?> context, final Descriptor<P> descriptor) {
+		Validate.notNull(context, "Context may not be null.");
+		Validate.notNull(descriptor, "Descriptor may not be null.");
+		this.context = context.copy();
+		this.descriptor = descriptor;
+		this.name = context.getName(descriptor.getName());
+		this.message = new JLabel("");
+		this.visitor = new DelegateVisitor();
+		descriptor.revert();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public final JComponent getComponent() {
+		return this.realize().getComponent();
+	}
+
+	/**
+	 * Gets the value for the descriptor field.
+	 * 
+	 * @return The value for the descriptor field.
+	 */
+	public final Descriptor<P> getDescriptor() {
+		return this.descriptor;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public final JLabel getLabel() {
+		return this.realize().getLabel();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public final JLabel getMessage() {
+		return this.message;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets the value for the strategy field.
+	 * 
+	 * @return The value for the strategy field. Null if released.
+	 */
+	public final FormPropertyRenderStrategy<P> getStrategy() {
+		return this.strategy;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public final ValueVisitor getVisitor() {
+		return this.visitor;
+	}
+
+	/**
+	 * Tests if the components exist.
+	 * 
+	 * @return True if the components exist.
+	 */
+	public final boolean isRealized() {
+		return !CheckUtil.isNull(this.strategy);
+	}
+
+	/**
+	 * Creates the components, if they do not exist. A changed buffered value
+	 * is kept, along with its dirty state, and shown in the created
+	 * components.
+	 * 
+	 * @return The strategy holding the components.
+	 */
+	public final FormPropertyRenderStrategy<P> realize() {
+		if (CheckUtil.isNull(this.strategy)) {
+			this.strategy = this.createStrategy(this.context, this.descriptor);
+			if (this.strategy instanceof AbstractFormPropertyRenderStrategy) {
+				final AbstractFormPropertyRenderStrategy<P, ?> formStrategy = (AbstractFormPropertyRenderStrategy<P, ?>) this.strategy;
+				formStrategy.setMessage(this.message);
+				if (this.descriptor.isDirty()) {
+					formStrategy.valueChanged(this.descriptor.getBufferAccessor().getValue(this.message));
+				}
+			}
+		}
+		return this.strategy;
+	}
+
+	/**
+	 * Releases the components, pending edits are converted first.
+	 */
+	public final void release() {
+		if (this.strategy instanceof AbstractTextPropertyStrategy) {
+			((AbstractTextPropertyStrategy<P, ?>) this.strategy).flush();
+		}
+		if (this.strategy instanceof AbstractFormPropertyRenderStrategy) {
+			this.descriptor.removeListener((AbstractFormPropertyRenderStrategy<P, ?>) this.strategy);
+		}
+		this.strategy = null;
+	}
+
+	/**
+	 * Creates the strategy holding the components.
+	 * 
+	 * @param createContext
+	 *            The render context.
+	 * @param createDescriptor
+	 *            The descriptor.
+	 * @return The strategy.
+	 */
+	protected abstract FormPropertyRenderStrategy<P> createStrategy(final RenderContext<?> createContext,
+			final Descriptor<P> createDescriptor);
+
+	/**
+	 * A virtual strategy for collection values.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <C>
+	 *            The element type.
+	 * @param <P>
+	 *            The collection type.
+	 */
+	public static final class CollectionStrategy<C, P extends Collection<C>>
+			extends VirtualPropertyStrategy<P> {
+
+		/** The collection descriptor. */
+		private final CollectionDescriptor<C, P> collectionDescriptor;
+		/** The factory. */
+		private final FormPropertyRenderStrategy.CollectionDescriptorFactory factory;
+
+		/**
+		 * Constructs the strategy.
+		 * 
+		 * @param factory
+		 *            The factory creating the components. May not be null.
+		 * @param context
+		 *            The render context. May not be null.
+		 * @param descriptor
+		 *            The descriptor. May not be null.
+		 */
+		public CollectionStrategy(final FormPropertyRenderStrategy.CollectionDescriptorFactory factory, final RenderContext<?> context,
+				final CollectionDescriptor<C, P> descriptor) {
+			super(context, descriptor);
+			Validate.notNull(factory, "Factory may not be null.");
+			this.factory = factory;
+			this.collectionDescriptor = descriptor;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected FormPropertyRenderStrategy<P> createStrategy(final RenderContext<?> createContext, final Descriptor<P> createDescriptor) {
+			return this.factory.createStrategy(createContext, this.collectionDescriptor);
+		}
+	}
+
+	/**
+	 * A virtual strategy for single values.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <P>
+	 *            The property type.
+	 */
+	public static final class DescriptorStrategy<P>
+			extends VirtualPropertyStrategy<P> {
+
+		/** The factory. */
+		private final FormPropertyRenderStrategy.DescriptorFactory factory;
+
+		/**
+		 * Constructs the strategy.
+		 * 
+		 * @param factory
+		 *            The factory creating the components. May not be null.
+		 * @param context
+		 *            The render context. May not be null.
+		 * @param descriptor
+		 *            The descriptor. May not be null.
+		 */
+		public DescriptorStrategy(final FormPropertyRenderStrategy.DescriptorFactory factory, final RenderContext<?> context,
+				final Descriptor<P> descriptor) {
+			super(context, descriptor);
+			Validate.notNull(factory, "Factory may not be null.");
+			this.factory = factory;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected FormPropertyRenderStrategy<P> createStrategy(final RenderContext<?> createContext, final Descriptor<P> createDescriptor) {
+			return this.factory.createStrategy(createContext, createDescriptor);
+		}
+	}
+
+	/**
+	 * Applies and reverts through the components if they exist, and through
+	 * the descriptor otherwise.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class DelegateVisitor
+			implements ValueVisitor {
+
+		/**
+		 * Default constructor.
+		 */
+		public DelegateVisitor() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void apply() {
+			this.getTarget().apply();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public boolean isDirty() {
+			return this.getTarget().isDirty();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void revert() {
+			this.getTarget().revert();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public boolean valid() {
+			return this.getTarget().valid();
+		}
+
+		/**
+		 * Gets the visitor to delegate to.
+		 * 
+		 * @return The visitor.
+		 */
+		private ValueVisitor getTarget() {
+			ValueVisitor target;
+			if (CheckUtil.isNull(VirtualPropertyStrategy.this.strategy)) {
+				target = VirtualPropertyStrategy.this.descriptor;
+			} else {
+				target = VirtualPropertyStrategy.this.strategy.getVisitor();
+			}
+			return target;
+		}
+	}
+}
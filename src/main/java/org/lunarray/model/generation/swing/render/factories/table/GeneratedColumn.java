@@ -42,6 +42,17 @@ public interface GeneratedColumn<E, R> {
 	 */
 	Class<R> getRenderType();
 
+	/**
+	 * Gets the value to sort on. This is the typed value of the property, or
+	 * of the displayed property for relations, rather than the rendered value.
+	 * May be called outside of the event dispatch thread.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 * @return The sort value.
+	 */
+	Object getSortValue(E entity);
+
 	/**
 	 * Gets the value.
 	 * 
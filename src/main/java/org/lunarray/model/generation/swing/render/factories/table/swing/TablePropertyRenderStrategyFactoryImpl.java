@@ -19,6 +19,8 @@ package org.lunarray.model.generation.swing.render.factories.table.swing;
 
 import java.util.Collection;
 import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.commons.lang.Validate;
 import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
@@ -30,9 +32,12 @@ import org.lunarray.model.descriptor.model.property.CollectionPropertyDescriptor
 import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
 import org.lunarray.model.descriptor.presentation.RenderType;
 import org.lunarray.model.generation.swing.components.TableComponent;
+import org.lunarray.model.generation.swing.metrics.ComponentMetrics;
+import org.lunarray.model.generation.swing.metrics.MetricsRegistry;
 import org.lunarray.model.generation.swing.render.RenderContext;
 import org.lunarray.model.generation.swing.render.factories.table.TablePropertyRenderStrategy;
 import org.lunarray.model.generation.swing.render.factories.table.swing.components.CheckboxOutputPropertyStrategy;
+import org.lunarray.model.generation.swing.render.factories.table.swing.components.NumberOutputPropertyStrategy;
 import org.lunarray.model.generation.swing.render.factories.table.swing.components.TextOutputPropertyStrategy;
 import org.lunarray.model.generation.util.RenderFactory;
 import org.slf4j.Logger;
@@ -60,6 +65,8 @@ public final class TablePropertyRenderStrategyFactoryImpl<E>
 	private EnumMap<RenderType, TablePropertyRenderStrategy.Factory> factoryMap;
 	/** The table. */
 	private TableComponent<E> table;
+	/** The factories, per property type. */
+	private Map<Class<?>, TablePropertyRenderStrategy.Factory> typeFactoryMap;
 
 	/**
 	 * The default constructor.
@@ -73,6 +80,15 @@ public final class TablePropertyRenderStrategyFactoryImpl<E>
 		this.defaultFactory = new TextOutputPropertyStrategy.StrategyFactory();
 		this.factoryMap = new EnumMap<RenderType, TablePropertyRenderStrategy.Factory>(RenderType.class);
 		this.factoryMap.put(RenderType.CHECKBOX, new CheckboxOutputPropertyStrategy.StrategyFactory());
+		this.typeFactoryMap = new HashMap<Class<?>, TablePropertyRenderStrategy.Factory>();
+		final TablePropertyRenderStrategy.Factory numberFactory = new NumberOutputPropertyStrategy.StrategyFactory();
+		for (final Class<?> type : new Class<?>[] { Byte.class, Byte.TYPE, Short.class, Short.TYPE, Integer.class, Integer.TYPE,
+				Long.class, Long.TYPE, Float.class, Float.TYPE, Double.class, Double.TYPE }) {
+			this.typeFactoryMap.put(type, numberFactory);
+		}
+		final TablePropertyRenderStrategy.Factory booleanFactory = new CheckboxOutputPropertyStrategy.StrategyFactory();
+		this.typeFactoryMap.put(Boolean.class, booleanFactory);
+		this.typeFactoryMap.put(Boolean.TYPE, booleanFactory);
 	}
 
 	/** {@inheritDoc} */
@@ -105,6 +121,15 @@ public final class TablePropertyRenderStrategyFactoryImpl<E>
 		return this.factoryMap;
 	}
 
+	/**
+	 * Gets the value for the typeFactoryMap field.
+	 * 
+	 * @return The value for the typeFactoryMap field.
+	 */
+	public Map<Class<?>, TablePropertyRenderStrategy.Factory> getTypeFactoryMap() {
+		return this.typeFactoryMap;
+	}
+
 	/**
 	 * Gets the value for the table field.
 	 * 
@@ -128,11 +153,12 @@ public final class TablePropertyRenderStrategyFactoryImpl<E>
 		TablePropertyRenderStrategyFactoryImpl.LOGGER.debug("Rendering for render type {} collection property: {}", renderType, descriptor);
 		Validate.notNull(context, TablePropertyRenderStrategyFactoryImpl.CONTEXT_NULL);
 		Validate.notNull(descriptor, TablePropertyRenderStrategyFactoryImpl.DESCRIPTOR_NULL);
-		TablePropertyRenderStrategy<P, E> strategy;
-		if (this.factoryMap.containsKey(renderType)) {
-			strategy = this.factoryMap.get(renderType).createStrategy(context, descriptor);
-		} else {
-			strategy = this.defaultFactory.createStrategy(context, descriptor);
+		final ComponentMetrics metrics = MetricsRegistry.getMetrics();
+		final long start = MetricsRegistry.start(metrics);
+		final TablePropertyRenderStrategy<P, E> strategy = this.resolveFactory(renderType, descriptor.getPropertyType()).createStrategy(
+				context, descriptor);
+		if (metrics.isEnabled()) {
+			metrics.recordStrategyCreation(renderType, System.nanoTime() - start);
 		}
 		this.table.addColumn(strategy.getGenerator());
 	}
@@ -157,11 +183,12 @@ public final class TablePropertyRenderStrategyFactoryImpl<E>
 		TablePropertyRenderStrategyFactoryImpl.LOGGER.debug("Rendering for render type {} property: {}", renderType, descriptor);
 		Validate.notNull(context, TablePropertyRenderStrategyFactoryImpl.CONTEXT_NULL);
 		Validate.notNull(descriptor, TablePropertyRenderStrategyFactoryImpl.DESCRIPTOR_NULL);
-		TablePropertyRenderStrategy<P, E> strategy;
-		if (this.factoryMap.containsKey(renderType)) {
-			strategy = this.factoryMap.get(renderType).createStrategy(context, descriptor);
-		} else {
-			strategy = this.defaultFactory.createStrategy(context, descriptor);
+		final ComponentMetrics metrics = MetricsRegistry.getMetrics();
+		final long start = MetricsRegistry.start(metrics);
+		final TablePropertyRenderStrategy<P, E> strategy = this.resolveFactory(renderType, descriptor.getPropertyType()).createStrategy(
+				context, descriptor);
+		if (metrics.isEnabled()) {
+			metrics.recordStrategyCreation(renderType, System.nanoTime() - start);
 		}
 		this.table.addColumn(strategy.getGenerator());
 	}
@@ -193,6 +220,16 @@ public final class TablePropertyRenderStrategyFactoryImpl<E>
 		this.factoryMap = factoryMap;
 	}
 
+	/**
+	 * Sets a new value for the typeFactoryMap field.
+	 * 
+	 * @param typeFactoryMap
+	 *            The new value for the typeFactoryMap field.
+	 */
+	public void setTypeFactoryMap(final Map<Class<?>, TablePropertyRenderStrategy.Factory> typeFactoryMap) {
+		this.typeFactoryMap = typeFactoryMap;
+	}
+
 	/**
 	 * Sets a new value for the table field.
 	 * 
@@ -202,4 +239,26 @@ public final class TablePropertyRenderStrategyFactoryImpl<E>
 	public void setTable(final TableComponent<E> table) {
 		this.table = table;
 	}
+
+	/**
+	 * Resolves the factory for a property. Explicit render types take
+	 * precedence, then the property type, then the default factory.
+	 * 
+	 * @param renderType
+	 *            The render type.
+	 * @param propertyType
+	 *            The property type.
+	 * @return The factory.
+	 */
+	private TablePropertyRenderStrategy.Factory resolveFactory(final RenderType renderType, final Class<?> propertyType) {
+		TablePropertyRenderStrategy.Factory result;
+		if (this.factoryMap.containsKey(renderType)) {
+			result = this.factoryMap.get(renderType);
+		} else if (this.typeFactoryMap.containsKey(propertyType)) {
+			result = this.typeFactoryMap.get(propertyType);
+		} else {
+			result = this.defaultFactory;
+		}
+		return result;
+	}
 }
@@ -19,6 +19,7 @@ package org.lunarray.model.generation.swing.render.factories.table.swing.compone
 
 import org.apache.commons.lang.Validate;
 import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
 import org.lunarray.model.descriptor.model.Model;
 import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
 import org.lunarray.model.descriptor.model.entity.KeyedEntityDescriptor;
@@ -26,6 +27,8 @@ import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
 import org.lunarray.model.descriptor.model.relation.RelationDescriptor;
 import org.lunarray.model.descriptor.presentation.PresentationEntityDescriptor;
 import org.lunarray.model.generation.swing.render.factories.table.GeneratedColumn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A column generator.
@@ -40,6 +43,10 @@ import org.lunarray.model.generation.swing.render.factories.table.GeneratedColum
  */
 public abstract class AbstractGeneratedColumn<P, E, R>
 		implements GeneratedColumn<E, R> {
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractGeneratedColumn.class);
+	/** The accessor. */
+	private ColumnAccessor<P, E> accessor;
 	/** The property strategy. */
 	private OutputPropertyStrategy<P, E> outputPropertyStrategy;
 
@@ -52,6 +59,16 @@ public abstract class AbstractGeneratedColumn<P, E, R>
 	public AbstractGeneratedColumn(final OutputPropertyStrategy<P, E> outputPropertyStrategy) {
 		Validate.notNull(outputPropertyStrategy, "Output strategy may not be null.");
 		this.outputPropertyStrategy = outputPropertyStrategy;
+		this.accessor = new ColumnAccessor<P, E>(outputPropertyStrategy, this.resolveDisplayProperty(), this.resolveKeyProperty());
+	}
+
+	/**
+	 * Gets the value for the accessor field.
+	 * 
+	 * @return The value for the accessor field.
+	 */
+	public final ColumnAccessor<P, E> getAccessor() {
+		return this.accessor;
 	}
 
 	/** {@inheritDoc} */
@@ -60,6 +77,19 @@ public abstract class AbstractGeneratedColumn<P, E, R>
 		return this.outputPropertyStrategy.getPropertyLabel();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public final Object getSortValue(final E entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		Object result = null;
+		try {
+			result = this.accessor.getDisplayValue(entity);
+		} catch (final ValueAccessException e) {
+			AbstractGeneratedColumn.LOGGER.warn("Could not access.", e);
+		}
+		return result;
+	}
+
 	/**
 	 * Gets the value for the outputPropertyStrategy field.
 	 * 
@@ -76,12 +106,14 @@ public abstract class AbstractGeneratedColumn<P, E, R>
 	 *            The new value for the outputPropertyStrategy field.
 	 */
 	public final void setOutputPropertyStrategy(final OutputPropertyStrategy<P, E> outputPropertyStrategy) {
+		Validate.notNull(outputPropertyStrategy, "Output strategy may not be null.");
 		this.outputPropertyStrategy = outputPropertyStrategy;
+		this.accessor = new ColumnAccessor<P, E>(outputPropertyStrategy, this.resolveDisplayProperty(), this.resolveKeyProperty());
 	}
 
 	/**
 	 * Resolves what property of the relation entity should be displayed, if
-	 * any.
+	 * any. This is done once, when compiling the accessor.
 	 * 
 	 * @return The property name, or null.
 	 */
@@ -94,6 +126,26 @@ public abstract class AbstractGeneratedColumn<P, E, R>
 		return result;
 	}
 
+	/**
+	 * Resolves the key property of the relation entity, if any. This is done
+	 * once, when compiling the accessor.
+	 * 
+	 * @return The key property, or null.
+	 */
+	protected final PropertyDescriptor<?, P> resolveKeyProperty() {
+		final RelationDescriptor relationDescrptor = this.outputPropertyStrategy.getProperty().adapt(RelationDescriptor.class);
+		PropertyDescriptor<?, P> result = null;
+		if (!CheckUtil.isNull(relationDescrptor)) {
+			final EntityDescriptor<?> entityDescriptor = this.outputPropertyStrategy.getModel().getEntity(relationDescrptor.getRelatedName());
+			@SuppressWarnings("unchecked")
+			final KeyedEntityDescriptor<P, ?> keyedDescriptor = entityDescriptor.adapt(KeyedEntityDescriptor.class);
+			if (!CheckUtil.isNull(keyedDescriptor)) {
+				result = keyedDescriptor.getKeyProperty();
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Resolve for a relation descriptor.
 	 * 
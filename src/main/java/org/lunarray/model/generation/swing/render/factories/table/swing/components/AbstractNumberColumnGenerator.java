@@ -0,0 +1,98 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.table.swing.components;
+
+import java.util.Locale;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A column generator for numbers. Values are passed on as read, without
+ * converting them to text, and are formatted by a {@link NumberCellRenderer}.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <P>
+ *            The property type.
+ * @param <E>
+ *            The entity type.
+ * @param <R>
+ *            The render type.
+ */
+public abstract class AbstractNumberColumnGenerator<P, E, R extends Number>
+		extends AbstractGeneratedColumn<P, E, R> {
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractNumberColumnGenerator.class);
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param strategy
+	 *            The output strategy. May not be null.
+	 */
+	public AbstractNumberColumnGenerator(final NumberOutputPropertyStrategy<P, E> strategy) {
+		super(strategy);
+	}
+
+	/**
+	 * Creates the renderer for this column.
+	 * 
+	 * @param locale
+	 *            The locale. May be null.
+	 * @return The renderer.
+	 */
+	public final NumberCellRenderer createRenderer(final Locale locale) {
+		return new NumberCellRenderer(this.isIntegral(), this.getAccessor().getFormat(), locale);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public final R getValue(final E entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		R result = null;
+		try {
+			final P value = this.getAccessor().getProperty().getValue(entity);
+			if (this.getRenderType().isInstance(value)) {
+				result = this.getRenderType().cast(value);
+			} else if (value instanceof Number) {
+				result = this.convert((Number) value);
+			}
+		} catch (final ValueAccessException e) {
+			AbstractNumberColumnGenerator.LOGGER.warn("Could not access.", e);
+		}
+		return result;
+	}
+
+	/**
+	 * Tests if the values are integral.
+	 * 
+	 * @return True if and only if the values are integral.
+	 */
+	public abstract boolean isIntegral();
+
+	/**
+	 * Converts a number of another type.
+	 * 
+	 * @param value
+	 *            The number. May not be null.
+	 * @return The converted number.
+	 */
+	protected abstract R convert(Number value);
+}
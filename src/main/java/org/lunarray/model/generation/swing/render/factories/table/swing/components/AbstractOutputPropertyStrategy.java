@@ -19,6 +19,7 @@ package org.lunarray.model.generation.swing.render.factories.table.swing.compone
 
 import org.lunarray.model.descriptor.converter.ConverterTool;
 import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
 import org.lunarray.model.descriptor.model.extension.ExtensionRef;
 import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
 import org.lunarray.model.descriptor.presentation.PresentationPropertyDescriptor;
@@ -39,8 +40,12 @@ public abstract class AbstractOutputPropertyStrategy<P, E>
 
 	/** The converter tool. */
 	private ExtensionRef<ConverterTool> converterTool;
+	/** The rendered entity, may be null. */
+	private final EntityDescriptor<?> entity;
 	/** The model. */
 	private Model<?> model;
+	/** The presentation property, null if the property is not presentable. */
+	private PresentationPropertyDescriptor<P, E> presentationProperty;
 	/** The property. */
 	private PropertyDescriptor<P, E> property;
 
@@ -53,8 +58,9 @@ public abstract class AbstractOutputPropertyStrategy<P, E>
 	 *            The render context. May not be null.
 	 */
 	public AbstractOutputPropertyStrategy(final PropertyDescriptor<P, E> propertyDescriptor, final RenderContext<E> context) {
-		this.property = propertyDescriptor;
+		this.setProperty(propertyDescriptor);
 		this.model = context.getModel();
+		this.entity = context.getEntity();
 		this.converterTool = this.model.getExtensionRef(ConverterTool.class);
 	}
 
@@ -64,6 +70,12 @@ public abstract class AbstractOutputPropertyStrategy<P, E>
 		return this.converterTool;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public final EntityDescriptor<?> getEntity() {
+		return this.entity;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public final Model<?> getModel() {
@@ -72,9 +84,8 @@ public abstract class AbstractOutputPropertyStrategy<P, E>
 
 	/** {@inheritDoc} */
 	@Override
-	@SuppressWarnings("unchecked")
 	public final PresentationPropertyDescriptor<P, E> getPresentationProperty() {
-		return this.property.adapt(PresentationPropertyDescriptor.class);
+		return this.presentationProperty;
 	}
 
 	/** {@inheritDoc} */
@@ -101,7 +112,7 @@ public abstract class AbstractOutputPropertyStrategy<P, E>
 	 * @return The property.
 	 */
 	public final boolean hasPresentationProperty() {
-		return this.property.adapt(PresentationPropertyDescriptor.class) != null;
+		return this.presentationProperty != null;
 	}
 
 	/**
@@ -130,7 +141,9 @@ public abstract class AbstractOutputPropertyStrategy<P, E>
 	 * @param property
 	 *            The new value for the property field.
 	 */
+	@SuppressWarnings("unchecked")
 	public final void setProperty(final PropertyDescriptor<P, E> property) {
 		this.property = property;
+		this.presentationProperty = property.adapt(PresentationPropertyDescriptor.class);
 	}
 }
@@ -18,12 +18,9 @@
 package org.lunarray.model.generation.swing.render.factories.table.swing.components;
 
 import org.apache.commons.lang.Validate;
-import org.lunarray.common.check.CheckUtil;
 import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
 import org.lunarray.model.descriptor.converter.ConverterTool;
 import org.lunarray.model.descriptor.converter.exceptions.ConverterException;
-import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
-import org.lunarray.model.descriptor.presentation.PresentationPropertyDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,20 +60,14 @@ public final class CheckboxColumnGenerator<P, E>
 		Validate.notNull(entity, "Entity may not be null.");
 		Boolean result = null;
 		try {
-			final OutputPropertyStrategy<P, E> strategy = this.getOutputPropertyStrategy();
-			final PropertyDescriptor<P, E> property = strategy.getProperty();
-			final P value = property.getValue(entity);
-			final ConverterTool tool = strategy.getConverterTool().get();
+			final ColumnAccessor<P, E> accessor = this.getAccessor();
+			final P value = accessor.getProperty().getValue(entity);
 			if (value instanceof Boolean) {
 				result = Boolean.class.cast(value);
 			} else {
-				String format = null;
-				final PresentationPropertyDescriptor<P, E> presentationProperty = strategy.getPresentationProperty();
-				if (!CheckUtil.isNull(presentationProperty)) {
-					format = presentationProperty.getFormat();
-				}
-				final String stringValue = tool.convertToString(property.getPropertyType(), value, format);
-				result = tool.convertToInstance(Boolean.class, stringValue, format);
+				final ConverterTool tool = accessor.getConverterTool();
+				final String stringValue = tool.convertToString(accessor.getPropertyType(), value, accessor.getFormat());
+				result = tool.convertToInstance(Boolean.class, stringValue, accessor.getFormat());
 			}
 		} catch (final ValueAccessException e) {
 			CheckboxColumnGenerator.LOGGER.warn("Could not access.", e);
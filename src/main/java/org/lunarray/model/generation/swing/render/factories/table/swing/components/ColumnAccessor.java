@@ -0,0 +1,248 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.table.swing.components;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
+import org.lunarray.model.descriptor.converter.ConverterTool;
+import org.lunarray.model.descriptor.converter.exceptions.ConverterException;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.descriptor.model.relation.RelationDescriptor;
+import org.lunarray.model.descriptor.presentation.PresentationPropertyDescriptor;
+import org.lunarray.model.generation.swing.metrics.ComponentMetrics;
+import org.lunarray.model.generation.swing.metrics.MetricsRegistry;
+import org.lunarray.model.generation.swing.render.RelationLabelCache;
+
+/**
+ * An immutable plan to access the values of a column, resolved once when the
+ * column is constructed so that reading a cell does no descriptor lookups.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <P>
+ *            The property type.
+ * @param <E>
+ *            The entity type.
+ */
+public final class ColumnAccessor<P, E> {
+
+	/** The converter tool. */
+	private final ConverterTool converterTool;
+	/** The display property of the related entity, null if not a relation. */
+	private final PropertyDescriptor<Object, P> displayProperty;
+	/** The format. */
+	private final String format;
+	/** The key property of the related entity, may be null. */
+	private final PropertyDescriptor<?, P> keyProperty;
+	/** The label cache, null if not a relation. */
+	private final RelationLabelCache labelCache;
+	/** The key of the column in the metrics. */
+	private final String metricsKey;
+	/** The property. */
+	private final PropertyDescriptor<P, E> property;
+	/** The property type. */
+	private final Class<P> propertyType;
+	/** The name of the related entity, null if not a relation. */
+	private final String relatedName;
+	/** The type of the displayed value. */
+	private final Class<Object> valueType;
+
+	/**
+	 * Constructs the accessor.
+	 * 
+	 * @param strategy
+	 *            The output strategy. May not be null.
+	 * @param displayProperty
+	 *            The display property of the related entity. May be null.
+	 * @param keyProperty
+	 *            The key property of the related entity. May be null.
+	 */
+	@SuppressWarnings("unchecked")
+	public ColumnAccessor(final OutputPropertyStrategy<P, E> strategy, final PropertyDescriptor<?, P> displayProperty,
+			final PropertyDescriptor<?, P> keyProperty) {
+		Validate.notNull(strategy, "Output strategy may not be null.");
+		this.property = strategy.getProperty();
+		Validate.notNull(this.property, "Property may not be null.");
+		this.propertyType = this.property.getPropertyType();
+		this.metricsKey = MetricsRegistry.key(strategy.getEntity(), this.property.getName());
+		this.converterTool = strategy.getConverterTool().get();
+		final PresentationPropertyDescriptor<P, E> presentationProperty = strategy.getPresentationProperty();
+		if (CheckUtil.isNull(presentationProperty)) {
+			this.format = null;
+		} else {
+			this.format = presentationProperty.getFormat();
+		}
+		if (this.property.isRelation() && !CheckUtil.isNull(displayProperty)) {
+			this.displayProperty = (PropertyDescriptor<Object, P>) displayProperty;
+			this.valueType = this.displayProperty.getPropertyType();
+			this.keyProperty = keyProperty;
+			this.relatedName = this.property.adapt(RelationDescriptor.class).getRelatedName();
+			this.labelCache = RelationLabelCache.getInstance(strategy.getModel());
+		} else {
+			this.displayProperty = null;
+			this.valueType = (Class<Object>) this.propertyType;
+			this.keyProperty = null;
+			this.relatedName = null;
+			this.labelCache = null;
+		}
+	}
+
+	/**
+	 * Gets the value for the converterTool field.
+	 * 
+	 * @return The value for the converterTool field.
+	 */
+	public ConverterTool getConverterTool() {
+		return this.converterTool;
+	}
+
+	/**
+	 * Gets the value for the displayProperty field.
+	 * 
+	 * @return The value for the displayProperty field.
+	 */
+	public PropertyDescriptor<Object, P> getDisplayProperty() {
+		return this.displayProperty;
+	}
+
+	/**
+	 * Gets the displayed text of an entity. The labels of related entities
+	 * are shared through the relation label cache.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 * @return The text, or null if there is no value.
+	 * @throws ValueAccessException
+	 *             Thrown if the value could not be accessed.
+	 * @throws ConverterException
+	 *             Thrown if the value could not be converted.
+	 */
+	public String getDisplayText(final E entity) throws ValueAccessException, ConverterException {
+		final ComponentMetrics metrics = MetricsRegistry.getMetrics();
+		final P value = this.getValue(metrics, entity);
+		String result = null;
+		try {
+			if (this.isRelation() && !CheckUtil.isNull(value)) {
+				result = this.labelCache.getLabel(this.relatedName, this.displayProperty, this.keyProperty, this.format,
+						this.converterTool, value);
+			} else if (value instanceof String) {
+				result = String.class.cast(value);
+			} else if (!CheckUtil.isNull(value)) {
+				result = this.converterTool.convertToString(this.propertyType, value, this.format);
+			}
+		} catch (final ConverterException e) {
+			metrics.recordConversionFailure(this.metricsKey);
+			throw e;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the displayed value of an entity. This is the property value, or
+	 * the value of the display property for relations.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 * @return The value.
+	 * @throws ValueAccessException
+	 *             Thrown if the value could not be accessed.
+	 */
+	public Object getDisplayValue(final E entity) throws ValueAccessException {
+		final P value = this.getValue(MetricsRegistry.getMetrics(), entity);
+		Object result = value;
+		if (this.isRelation() && !CheckUtil.isNull(value)) {
+			result = this.displayProperty.getValue(value);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the value for the format field.
+	 * 
+	 * @return The value for the format field.
+	 */
+	public String getFormat() {
+		return this.format;
+	}
+
+	/**
+	 * Gets the value for the metricsKey field.
+	 * 
+	 * @return The value for the metricsKey field.
+	 */
+	public String getMetricsKey() {
+		return this.metricsKey;
+	}
+
+	/**
+	 * Gets the value for the property field.
+	 * 
+	 * @return The value for the property field.
+	 */
+	public PropertyDescriptor<P, E> getProperty() {
+		return this.property;
+	}
+
+	/**
+	 * Gets the value for the propertyType field.
+	 * 
+	 * @return The value for the propertyType field.
+	 */
+	public Class<P> getPropertyType() {
+		return this.propertyType;
+	}
+
+	/**
+	 * Gets the value for the valueType field.
+	 * 
+	 * @return The value for the valueType field.
+	 */
+	public Class<Object> getValueType() {
+		return this.valueType;
+	}
+
+	/**
+	 * Tests if the values are read through a related entity.
+	 * 
+	 * @return True if and only if the property is a relation with a display
+	 *         property.
+	 */
+	public boolean isRelation() {
+		return !CheckUtil.isNull(this.displayProperty);
+	}
+
+	/**
+	 * Reads the property value, recording the latency.
+	 * 
+	 * @param metrics
+	 *            The metrics.
+	 * @param entity
+	 *            The entity.
+	 * @return The value.
+	 * @throws ValueAccessException
+	 *             Thrown if the value could not be accessed.
+	 */
+	private P getValue(final ComponentMetrics metrics, final E entity) throws ValueAccessException {
+		final long start = MetricsRegistry.start(metrics);
+		final P value = this.property.getValue(entity);
+		if (metrics.isEnabled()) {
+			metrics.recordColumnValue(this.metricsKey, System.nanoTime() - start);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,59 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.table.swing.components;
+
+/**
+ * A column generator for floating point properties.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @param <P>
+ *            The property type.
+ * @param <E>
+ *            The entity type.
+ */
+public final class DoubleColumnGenerator<P, E>
+		extends AbstractNumberColumnGenerator<P, E, Double> {
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param strategy
+	 *            The output strategy. May not be null.
+	 */
+	public DoubleColumnGenerator(final NumberOutputPropertyStrategy<P, E> strategy) {
+		super(strategy);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Class<Double> getRenderType() {
+		return Double.class;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean isIntegral() {
+		return false;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected Double convert(final Number value) {
+		return Double.valueOf(value.doubleValue());
+	}
+}
@@ -0,0 +1,280 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.table.swing.components;
+
+import java.awt.Component;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.FieldPosition;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.UIManager;
+import javax.swing.border.Border;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.TableCellRenderer;
+
+import org.lunarray.common.check.CheckUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Renders numbers without allocating per cell.
+ * <p>
+ * Numbers are read as primitives and formatted into a reused character
+ * buffer, which is painted directly. Integral numbers without a format are
+ * written digit by digit.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class NumberCellRenderer
+		extends JComponent
+		implements TableCellRenderer {
+
+	/** The initial buffer size. */
+	private static final int BUFFER_SIZE = 32;
+	/** The pattern for decimals without a format. */
+	private static final String DEFAULT_DECIMAL_PATTERN = "0.################";
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(NumberCellRenderer.class);
+	/** The decimal radix. */
+	private static final int RADIX = 10;
+	/** Serial id. */
+	private static final long serialVersionUID = -1962453237015066232L;
+	/** The no focus border. */
+	private static final Border NO_FOCUS_BORDER = new EmptyBorder(1, 1, 1, 1);
+	/** The painting bounds. */
+	private final Rectangle bounds;
+	/** The characters to paint. */
+	private char[] chars;
+	/** The format, null to write integral numbers directly. */
+	private final NumberFormat format;
+	/** Whether the numbers are integral. */
+	private final boolean integral;
+	/** The amount of characters to paint. */
+	private int length;
+	/** The field position. */
+	private final FieldPosition position;
+	/** The format buffer. */
+	private final StringBuffer text;
+
+	/**
+	 * Constructs the renderer.
+	 * 
+	 * @param integral
+	 *            Whether the numbers are integral.
+	 * @param pattern
+	 *            The number format pattern. May be null.
+	 * @param locale
+	 *            The locale. May be null.
+	 */
+	public NumberCellRenderer(final boolean integral, final String pattern, final Locale locale) {
+		super();
+		this.integral = integral;
+		Locale formatLocale = locale;
+		if (CheckUtil.isNull(formatLocale)) {
+			formatLocale = Locale.getDefault();
+		}
+		NumberFormat numberFormat = null;
+		if (!CheckUtil.isNull(pattern)) {
+			try {
+				numberFormat = new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(formatLocale));
+			} catch (final IllegalArgumentException e) {
+				NumberCellRenderer.LOGGER.warn("Format '{}' is not a number pattern, using the default format.", pattern, e);
+			}
+		}
+		if (CheckUtil.isNull(numberFormat) && !integral) {
+			numberFormat = new DecimalFormat(NumberCellRenderer.DEFAULT_DECIMAL_PATTERN, DecimalFormatSymbols.getInstance(formatLocale));
+		}
+		this.format = numberFormat;
+		this.chars = new char[NumberCellRenderer.BUFFER_SIZE];
+		this.text = new StringBuffer(NumberCellRenderer.BUFFER_SIZE);
+		this.position = new FieldPosition(0);
+		this.bounds = new Rectangle();
+		this.setOpaque(true);
+		this.setBorder(NumberCellRenderer.NO_FOCUS_BORDER);
+	}
+
+	/**
+	 * Overridden for performance reasons.
+	 * 
+	 * @param propertyName
+	 *            The property name.
+	 * @param oldValue
+	 *            The old value.
+	 * @param newValue
+	 *            The new value.
+	 */
+	@Override
+	public void firePropertyChange(final String propertyName, final boolean oldValue, final boolean newValue) {
+		// Overridden for performance reasons.
+	}
+
+	/**
+	 * Gets the painted text.
+	 * 
+	 * @return The text.
+	 */
+	public String getText() {
+		return new String(this.chars, 0, this.length);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Component getTableCellRendererComponent(final JTable table, final Object value, final boolean isSelected,
+			final boolean hasFocus, final int row, final int column) {
+		if (isSelected) {
+			this.setForeground(table.getSelectionForeground());
+			this.setBackground(table.getSelectionBackground());
+		} else {
+			this.setForeground(table.getForeground());
+			this.setBackground(table.getBackground());
+		}
+		this.setFont(table.getFont());
+		if (hasFocus) {
+			this.setBorder(UIManager.getBorder("Table.focusCellHighlightBorder"));
+		} else {
+			this.setBorder(NumberCellRenderer.NO_FOCUS_BORDER);
+		}
+		this.length = 0;
+		if (value instanceof Number) {
+			final Number number = (Number) value;
+			if (CheckUtil.isNull(this.format)) {
+				this.writeLong(number.longValue());
+			} else {
+				this.text.setLength(0);
+				if (this.integral) {
+					this.format.format(number.longValue(), this.text, this.position);
+				} else {
+					this.format.format(number.doubleValue(), this.text, this.position);
+				}
+				this.ensureCapacity(this.text.length());
+				this.text.getChars(0, this.text.length(), this.chars, 0);
+				this.length = this.text.length();
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Overridden for performance reasons.
+	 */
+	@Override
+	public void invalidate() {
+		// Overridden for performance reasons.
+	}
+
+	/**
+	 * Overridden for performance reasons.
+	 * 
+	 * @param tm
+	 *            Ignored.
+	 * @param x
+	 *            Ignored.
+	 * @param y
+	 *            Ignored.
+	 * @param width
+	 *            Ignored.
+	 * @param height
+	 *            Ignored.
+	 */
+	@Override
+	public void repaint(final long tm, final int x, final int y, final int width, final int height) {
+		// Overridden for performance reasons.
+	}
+
+	/**
+	 * Overridden for performance reasons.
+	 */
+	@Override
+	public void revalidate() {
+		// Overridden for performance reasons.
+	}
+
+	/**
+	 * Overridden for performance reasons.
+	 */
+	@Override
+	public void validate() {
+		// Overridden for performance reasons.
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void paintComponent(final Graphics graphics) {
+		final Insets insets = this.getInsets();
+		this.bounds.setBounds(insets.left, insets.top, this.getWidth() - insets.left - insets.right, this.getHeight() - insets.top
+				- insets.bottom);
+		if (this.isOpaque()) {
+			graphics.setColor(this.getBackground());
+			graphics.fillRect(0, 0, this.getWidth(), this.getHeight());
+		}
+		if (this.length > 0) {
+			graphics.setColor(this.getForeground());
+			graphics.setFont(this.getFont());
+			final FontMetrics metrics = graphics.getFontMetrics();
+			final int x = (this.bounds.x + this.bounds.width) - metrics.charsWidth(this.chars, 0, this.length);
+			final int y = this.bounds.y + (((this.bounds.height - metrics.getHeight()) + 1) / 2) + metrics.getAscent();
+			graphics.drawChars(this.chars, 0, this.length, x, y);
+		}
+	}
+
+	/**
+	 * Ensures the character buffer can hold a given amount of characters.
+	 * 
+	 * @param capacity
+	 *            The capacity.
+	 */
+	private void ensureCapacity(final int capacity) {
+		if (this.chars.length < capacity) {
+			this.chars = new char[Math.max(capacity, this.chars.length * 2)];
+		}
+	}
+
+	/**
+	 * Writes a number digit by digit.
+	 * 
+	 * @param value
+	 *            The number.
+	 */
+	private void writeLong(final long value) {
+		int index = this.chars.length;
+		long remainder = value;
+		if (remainder > 0) {
+			remainder = -remainder;
+		}
+		do {
+			index = index - 1;
+			this.chars[index] = (char) ('0' - (remainder % NumberCellRenderer.RADIX));
+			remainder = remainder / NumberCellRenderer.RADIX;
+		} while (remainder != 0);
+		if (value < 0) {
+			index = index - 1;
+			this.chars[index] = '-';
+		}
+		this.length = this.chars.length - index;
+		System.arraycopy(this.chars, index, this.chars, 0, this.length);
+	}
+}
@@ -19,6 +19,7 @@ package org.lunarray.model.generation.swing.render.factories.table.swing.compone
 
 import org.lunarray.model.descriptor.converter.ConverterTool;
 import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
 import org.lunarray.model.descriptor.model.extension.ExtensionRef;
 import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
 import org.lunarray.model.descriptor.presentation.PresentationPropertyDescriptor;
@@ -41,6 +42,13 @@ public interface OutputPropertyStrategy<P, E> {
 	 */
 	ExtensionRef<ConverterTool> getConverterTool();
 
+	/**
+	 * Gets the rendered entity.
+	 * 
+	 * @return The entity, may be null.
+	 */
+	EntityDescriptor<?> getEntity();
+
 	/**
 	 * Gets the model.
 	 * 
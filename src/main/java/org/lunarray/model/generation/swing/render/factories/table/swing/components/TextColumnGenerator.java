@@ -18,12 +18,8 @@
 package org.lunarray.model.generation.swing.render.factories.table.swing.components;
 
 import org.apache.commons.lang.Validate;
-import org.lunarray.common.check.CheckUtil;
 import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
-import org.lunarray.model.descriptor.converter.ConverterTool;
 import org.lunarray.model.descriptor.converter.exceptions.ConverterException;
-import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
-import org.lunarray.model.descriptor.presentation.PresentationPropertyDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,59 +59,9 @@ public final class TextColumnGenerator<P, E>
 		Validate.notNull(entity, "Entity may not be null.");
 		String result = null;
 		try {
-			final OutputPropertyStrategy<P, E> strategy = this.getOutputPropertyStrategy();
-			final PropertyDescriptor<P, E> property = strategy.getProperty();
-			final P value = property.getValue(entity);
-			final ConverterTool tool = strategy.getConverterTool().get();
-			if (value instanceof String) {
-				result = String.class.cast(value);
-			} else {
-				String format = null;
-				final PresentationPropertyDescriptor<P, E> presentationProperty = strategy.getPresentationProperty();
-				if (!CheckUtil.isNull(presentationProperty)) {
-					format = presentationProperty.getFormat();
-				}
-				result = this.processRelated(entity, value, property, tool, format);
-			}
+			result = this.getAccessor().getDisplayText(entity);
 		} catch (final ValueAccessException e) {
 			TextColumnGenerator.LOGGER.warn("Could not access.", e);
-		}
-		return result;
-	}
-
-	/**
-	 * Process as a related property.
-	 * 
-	 * @param entity
-	 *            The entity type.
-	 * @param value
-	 *            The property value.
-	 * @param property
-	 *            The property.
-	 * @param tool
-	 *            The converter tool.
-	 * @param format
-	 *            The message format.
-	 * @return The result.
-	 * @throws ValueAccessException
-	 *             Thrown if the value could not be accessed.
-	 */
-	private String processRelated(final E entity, final P value, final PropertyDescriptor<P, E> property, final ConverterTool tool,
-			final String format) throws ValueAccessException {
-		String result = null;
-		try {
-			if (property.isRelation()) {
-				@SuppressWarnings("unchecked")
-				final PropertyDescriptor<Object, P> displayProperty = (PropertyDescriptor<Object, P>) this.resolveDisplayProperty();
-				final Object innerValue = displayProperty.getValue(property.getValue(entity));
-				if (value instanceof String) {
-					result = String.class.cast(innerValue);
-				} else {
-					result = tool.convertToString(displayProperty.getPropertyType(), innerValue, format);
-				}
-			} else {
-				result = tool.convertToString(property.getPropertyType(), value, format);
-			}
 		} catch (final ConverterException e) {
 			TextColumnGenerator.LOGGER.warn("Could not convert.", e);
 		}
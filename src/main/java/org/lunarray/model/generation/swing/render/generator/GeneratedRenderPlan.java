@@ -0,0 +1,332 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.generator;
+
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.descriptor.model.property.CollectionPropertyDescriptor;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.descriptor.presentation.PresentationPropertyDescriptor;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.RenderPlan;
+import org.lunarray.model.generation.swing.render.RenderPlanCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A render plan generated at build time.
+ * <p>
+ * Generated plans are subclasses written by the {@code RenderPlanGenerator}
+ * of the generator module, which is only needed during the build. Installing
+ * one looks up the recorded properties by name and caches the plan, so forms
+ * and tables of the entity are rendered without composing. Rendering replays
+ * the plan with the same strategies as a composed plan. The fingerprint of
+ * each recorded entity, covering the names, types and presentation of its
+ * properties, is checked, so a plan generated from an older model is not
+ * installed and the entity is composed as usual.
+ * </p>
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public abstract class GeneratedRenderPlan {
+
+	/** The fingerprint hash offset. */
+	private static final long FINGERPRINT_OFFSET = 0xcbf29ce484222325L;
+	/** The fingerprint hash prime. */
+	private static final long FINGERPRINT_PRIME = 0x100000001b3L;
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedRenderPlan.class);
+	/** The entity key. */
+	private final String entityKey;
+	/** The fingerprint of the entity. */
+	private final long fingerprint;
+	/** Whether the plan may be used for forms. */
+	private final boolean forms;
+	/** The label. */
+	private final String label;
+	/** The locale. */
+	private final Locale locale;
+
+	/**
+	 * Constructs the plan.
+	 * 
+	 * @param entityKey
+	 *            The entity key. May not be null.
+	 * @param locale
+	 *            The locale the plan was composed for. May be null.
+	 * @param label
+	 *            The label.
+	 * @param forms
+	 *            Whether the plan may be used for forms, which is the case
+	 *            if the entity has no operations.
+	 * @param fingerprint
+	 *            The fingerprint of the entity the plan was composed for.
+	 */
+	protected GeneratedRenderPlan(final String entityKey, final Locale locale, final String label, final boolean forms,
+			final long fingerprint) {
+		Validate.notNull(entityKey, "Entity key may not be null.");
+		this.entityKey = entityKey;
+		this.locale = locale;
+		this.label = label;
+		this.forms = forms;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Computes the fingerprint of an entity. It covers the name, type, render
+	 * type, order, visibility and format of every property, so it changes if
+	 * the composed plan of the entity may change.
+	 * 
+	 * @param entity
+	 *            The entity. May not be null.
+	 * @return The fingerprint.
+	 */
+	public static long fingerprint(final EntityDescriptor<?> entity) {
+		Validate.notNull(entity, "Entity may not be null.");
+		final Map<String, PropertyDescriptor<?, ?>> properties = new TreeMap<String, PropertyDescriptor<?, ?>>();
+		for (final PropertyDescriptor<?, ?> property : entity.getProperties()) {
+			properties.put(property.getName(), property);
+		}
+		final StringBuilder description = new StringBuilder(entity.getName());
+		for (final PropertyDescriptor<?, ?> property : properties.values()) {
+			description.append(';').append(property.getName()).append(':').append(property.getPropertyType().getName());
+			final PresentationPropertyDescriptor<?, ?> presentation = property.adapt(PresentationPropertyDescriptor.class);
+			if (!CheckUtil.isNull(presentation)) {
+				description.append(':').append(presentation.getRenderType()).append(':').append(presentation.order()).append(':')
+						.append(presentation.isVisible()).append(':').append(presentation.getFormat());
+			}
+		}
+		long result = GeneratedRenderPlan.FINGERPRINT_OFFSET;
+		for (int i = 0; i < description.length(); i = i + 1) {
+			result = (result ^ description.charAt(i)) * GeneratedRenderPlan.FINGERPRINT_PRIME;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the value for the entityKey field.
+	 * 
+	 * @return The value for the entityKey field.
+	 */
+	public final String getEntityKey() {
+		return this.entityKey;
+	}
+
+	/**
+	 * Gets the value for the fingerprint field.
+	 * 
+	 * @return The value for the fingerprint field.
+	 */
+	public final long getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Gets the value for the label field.
+	 * 
+	 * @return The value for the label field.
+	 */
+	public final String getLabel() {
+		return this.label;
+	}
+
+	/**
+	 * Gets the value for the locale field.
+	 * 
+	 * @return The value for the locale field.
+	 */
+	public final Locale getLocale() {
+		return this.locale;
+	}
+
+	/**
+	 * Installs the plan in the render plan cache of the model. The plan is
+	 * not installed if the model no longer matches it, in which case the
+	 * entity is composed as usual.
+	 * 
+	 * @param model
+	 *            The model. May not be null.
+	 * @return True if the plan was installed.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public final boolean install(final Model<?> model) {
+		Validate.notNull(model, "Model may not be null.");
+		final EntityDescriptor entity = model.getEntity(this.entityKey);
+		boolean result = false;
+		if (CheckUtil.isNull(entity)) {
+			GeneratedRenderPlan.LOGGER.warn("No entity descriptor for key '{}' found.", this.entityKey);
+		} else {
+			try {
+				final Recorder recorder = new Recorder(model, entity);
+				this.record(recorder);
+				final RenderPlanCache cache = RenderPlanCache.getInstance(model);
+				cache.putPlan(entity, null, this.locale, false, recorder.plan);
+				if (this.forms) {
+					cache.putPlan(entity, null, this.locale, true, recorder.plan);
+				}
+				result = true;
+			} catch (final IllegalArgumentException e) {
+				GeneratedRenderPlan.LOGGER.warn("Generated plan for '{}' does not match the model.", this.entityKey, e);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the value for the forms field.
+	 * 
+	 * @return The value for the forms field.
+	 */
+	public final boolean isForms() {
+		return this.forms;
+	}
+
+	/**
+	 * Records the plan.
+	 * 
+	 * @param recorder
+	 *            The recorder.
+	 */
+	protected abstract void record(Recorder recorder);
+
+	/**
+	 * Records a plan, looking up properties by name.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public final class Recorder {
+
+		/** Validation message. */
+		private static final String NO_PROPERTY = "No property '%s' found.";
+		/** Validation message. */
+		private static final String PROPERTIES_CHANGED = "The properties of '%s' changed.";
+		/** The context. */
+		private final RenderContext<Object> context;
+		/** The entities, the current entity last. */
+		private final Deque<EntityDescriptor<?>> entities;
+		/** The model. */
+		private final Model<?> model;
+		/** The plan. */
+		private final RenderPlan<Object> plan;
+
+		/**
+		 * Constructs the recorder.
+		 * 
+		 * @param model
+		 *            The model.
+		 * @param entity
+		 *            The entity.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Recorder(final Model<?> model, final EntityDescriptor<?> entity) {
+			this.model = model;
+			this.context = new RenderContext<Object>((Model) model);
+			this.entities = new LinkedList<EntityDescriptor<?>>();
+			Recorder.checkFingerprint(entity, GeneratedRenderPlan.this.fingerprint);
+			this.entities.addLast(entity);
+			this.plan = new RenderPlan<Object>();
+			this.plan.setLabel(GeneratedRenderPlan.this.label);
+		}
+
+		/**
+		 * Checks the fingerprint of an entity.
+		 * 
+		 * @param entity
+		 *            The entity.
+		 * @param fingerprint
+		 *            The fingerprint the plan was composed for.
+		 */
+		private static void checkFingerprint(final EntityDescriptor<?> entity, final long fingerprint) {
+			Validate.isTrue(GeneratedRenderPlan.fingerprint(entity) == fingerprint,
+					String.format(Recorder.PROPERTIES_CHANGED, entity.getName()));
+		}
+
+		/**
+		 * Records a collection property.
+		 * 
+		 * @param name
+		 *            The property name.
+		 * @param type
+		 *            The property type.
+		 * @param renderType
+		 *            The render type.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public void collection(final String name, final Class<?> type, final RenderType renderType) {
+			final PropertyDescriptor<?, ?> property = this.entities.getLast().getProperty(name, type);
+			Validate.isTrue(property instanceof CollectionPropertyDescriptor, String.format(Recorder.NO_PROPERTY, name));
+			this.plan.renderCollectionProperty(this.context, (CollectionPropertyDescriptor) property, renderType);
+		}
+
+		/**
+		 * Ends the properties of an embedded entity.
+		 */
+		public void popPrefix() {
+			this.context.popPrefix();
+			this.entities.removeLast();
+		}
+
+		/**
+		 * Records a property.
+		 * 
+		 * @param name
+		 *            The property name.
+		 * @param type
+		 *            The property type.
+		 * @param renderType
+		 *            The render type.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public void property(final String name, final Class<?> type, final RenderType renderType) {
+			final PropertyDescriptor<?, ?> property = this.entities.getLast().getProperty(name, type);
+			Validate.notNull(property, String.format(Recorder.NO_PROPERTY, name));
+			this.plan.renderProperty(this.context, (PropertyDescriptor) property, renderType);
+		}
+
+		/**
+		 * Starts the properties of an embedded entity.
+		 * 
+		 * @param name
+		 *            The name of the embedding property.
+		 * @param type
+		 *            The embedded entity type.
+		 * @param fingerprint
+		 *            The fingerprint of the embedded entity the plan was
+		 *            composed for.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public void pushPrefix(final String name, final Class<?> type, final long fingerprint) {
+			final PropertyDescriptor<?, ?> property = this.entities.getLast().getProperty(name, type);
+			Validate.notNull(property, String.format(Recorder.NO_PROPERTY, name));
+			final EntityDescriptor<?> embedded = ((Model) this.model).getEntity(type);
+			Validate.notNull(embedded, String.format("No entity descriptor for type '%s' found.", type));
+			Recorder.checkFingerprint(embedded, fingerprint);
+			this.context.pushPrefix(property);
+			this.entities.addLast(embedded);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Creates named daemon threads, so background work never keeps an
+ * application alive.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class DaemonThreadFactory
+		implements ThreadFactory {
+
+	/** The thread counter. */
+	private final AtomicInteger counter;
+	/** The name prefix. */
+	private final String prefix;
+
+	/**
+	 * Constructs the factory.
+	 * 
+	 * @param prefix
+	 *            The thread name prefix. May not be null.
+	 */
+	public DaemonThreadFactory(final String prefix) {
+		Validate.notNull(prefix, "Prefix may not be null.");
+		this.prefix = prefix;
+		this.counter = new AtomicInteger();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Thread newThread(final Runnable runnable) {
+		final Thread thread = new Thread(runnable, String.format("%s-%s", this.prefix, this.counter.incrementAndGet()));
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -0,0 +1,182 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * A lock free latency histogram with power of two buckets. Bucket {@code i}
+ * counts latencies below {@code 2^i} nanoseconds, that were not counted by a
+ * lower bucket.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class LatencyHistogram {
+
+	/** The amount of buckets, one per bit length of a latency. */
+	private static final int BUCKETS = Long.SIZE;
+	/** The percentage scale. */
+	private static final double HUNDRED = 100d;
+
+	/** The bucket counts. */
+	private final AtomicLongArray buckets;
+	/** The amount of recorded latencies. */
+	private final AtomicLong count;
+	/** The maximum latency. */
+	private final AtomicLong max;
+	/** The sum of latencies. */
+	private final AtomicLong sum;
+
+	/**
+	 * Default constructor.
+	 */
+	public LatencyHistogram() {
+		this.buckets = new AtomicLongArray(LatencyHistogram.BUCKETS);
+		this.count = new AtomicLong();
+		this.max = new AtomicLong();
+		this.sum = new AtomicLong();
+	}
+
+	/**
+	 * Gets the bucket counts.
+	 * 
+	 * @return A copy of the bucket counts.
+	 */
+	public long[] getBuckets() {
+		final long[] result = new long[LatencyHistogram.BUCKETS];
+		for (int i = 0; i < LatencyHistogram.BUCKETS; i = i + 1) {
+			result[i] = this.buckets.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the amount of recorded latencies.
+	 * 
+	 * @return The amount.
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/**
+	 * Gets the maximum latency.
+	 * 
+	 * @return The maximum, in nanoseconds.
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Gets the mean latency.
+	 * 
+	 * @return The mean, in nanoseconds, or 0 if nothing was recorded.
+	 */
+	public long getMean() {
+		final long recorded = this.count.get();
+		long result = 0;
+		if (recorded > 0) {
+			result = this.sum.get() / recorded;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets an upper bound of a percentile.
+	 * 
+	 * @param percentile
+	 *            The percentile, between 0 and 100.
+	 * @return The upper bound of the bucket holding the percentile, in
+	 *         nanoseconds, capped by the maximum. 0 if nothing was recorded.
+	 */
+	public long getPercentile(final double percentile) {
+		Validate.isTrue(percentile >= 0 && percentile <= LatencyHistogram.HUNDRED, "Percentile must be between 0 and 100.");
+		final long recorded = this.count.get();
+		long result = 0;
+		if (recorded > 0) {
+			final long target = Math.max(1, (long) Math.ceil(recorded * percentile / LatencyHistogram.HUNDRED));
+			result = this.max.get();
+			long seen = 0;
+			int bucket = 0;
+			while ((bucket < LatencyHistogram.BUCKETS) && (seen < target)) {
+				seen = seen + this.buckets.get(bucket);
+				if (seen >= target) {
+					result = Math.min(LatencyHistogram.upperBound(bucket), result);
+				}
+				bucket = bucket + 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Records a latency.
+	 * 
+	 * @param latency
+	 *            The latency, in nanoseconds. Negative latencies are
+	 *            recorded as 0.
+	 */
+	public void record(final long latency) {
+		final long value = Math.max(0, latency);
+		this.buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+		this.count.incrementAndGet();
+		this.sum.addAndGet(value);
+		long current = this.max.get();
+		while (value > current && !this.max.compareAndSet(current, value)) {
+			current = this.max.get();
+		}
+	}
+
+	/**
+	 * Resets the histogram. Latencies recorded concurrently may be lost.
+	 */
+	public void reset() {
+		for (int i = 0; i < LatencyHistogram.BUCKETS; i = i + 1) {
+			this.buckets.set(i, 0);
+		}
+		this.count.set(0);
+		this.max.set(0);
+		this.sum.set(0);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		return String.format("LatencyHistogram [count=%s, mean=%s, p50=%s, p99=%s, max=%s]", this.getCount(), this.getMean(),
+				this.getPercentile(50), this.getPercentile(99), this.getMax());
+	}
+
+	/**
+	 * Gets the exclusive upper bound of a bucket.
+	 * 
+	 * @param bucket
+	 *            The bucket.
+	 * @return The upper bound, in nanoseconds.
+	 */
+	private static long upperBound(final int bucket) {
+		long result = Long.MAX_VALUE;
+		if (bucket < LatencyHistogram.BUCKETS - 1) {
+			result = 1L << bucket;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,256 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * A stable merge sort of index arrays, that sorts and merges runs in
+ * parallel for large inputs.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public enum ParallelMergeSort {
+
+	/** The instance. */
+	INSTANCE;
+
+	/** Ranges up to this size are insertion sorted. */
+	private static final int INSERTION_THRESHOLD = 16;
+	/** Ranges of this size check for interruption. */
+	private static final int INTERRUPT_THRESHOLD = 4096;
+	/** Inputs of this size are sorted in parallel. */
+	public static final int PARALLEL_THRESHOLD = 8192;
+
+	/**
+	 * Sorts indices.
+	 * 
+	 * @param indices
+	 *            The indices to sort. May not be null.
+	 * @param comparator
+	 *            The comparator. May not be null.
+	 * @param executor
+	 *            The executor to sort runs with, or null to sort in the
+	 *            calling thread.
+	 * @param parallelism
+	 *            The amount of runs to sort in parallel.
+	 * @throws InterruptedException
+	 *             Thrown if the sort was interrupted.
+	 */
+	public static void sort(final int[] indices, final IndexComparator comparator, final ExecutorService executor,
+			final int parallelism) throws InterruptedException {
+		Validate.notNull(indices, "Indices may not be null.");
+		Validate.notNull(comparator, "Comparator may not be null.");
+		final int[] buffer = indices.clone();
+		if ((executor == null) || (parallelism < 2) || (indices.length < ParallelMergeSort.PARALLEL_THRESHOLD)) {
+			ParallelMergeSort.mergeSort(buffer, indices, 0, indices.length, comparator);
+		} else {
+			ParallelMergeSort.parallelSort(indices, buffer, comparator, executor, parallelism);
+		}
+	}
+
+	/**
+	 * Awaits tasks.
+	 * 
+	 * @param futures
+	 *            The futures to await.
+	 * @throws InterruptedException
+	 *             Thrown if the sort was interrupted.
+	 */
+	private static void await(final List<Future<Void>> futures) throws InterruptedException {
+		try {
+			for (final Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof InterruptedException) {
+				throw (InterruptedException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException("Could not sort.", cause);
+		} finally {
+			for (final Future<Void> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Merges two adjacent sorted ranges.
+	 * 
+	 * @param source
+	 *            The source.
+	 * @param target
+	 *            The target.
+	 * @param from
+	 *            The start of the first range.
+	 * @param middle
+	 *            The start of the second range.
+	 * @param to
+	 *            The end of the second range, exclusive.
+	 * @param comparator
+	 *            The comparator.
+	 */
+	private static void merge(final int[] source, final int[] target, final int from, final int middle, final int to,
+			final IndexComparator comparator) {
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i = i + 1) {
+			if ((right >= to) || ((left < middle) && (comparator.compare(source[left], source[right]) <= 0))) {
+				target[i] = source[left];
+				left = left + 1;
+			} else {
+				target[i] = source[right];
+				right = right + 1;
+			}
+		}
+	}
+
+	/**
+	 * Sorts a range, top down.
+	 * 
+	 * @param source
+	 *            The source, holds the same values as the target.
+	 * @param target
+	 *            The target.
+	 * @param from
+	 *            The start of the range.
+	 * @param to
+	 *            The end of the range, exclusive.
+	 * @param comparator
+	 *            The comparator.
+	 * @throws InterruptedException
+	 *             Thrown if the sort was interrupted.
+	 */
+	private static void mergeSort(final int[] source, final int[] target, final int from, final int to,
+			final IndexComparator comparator) throws InterruptedException {
+		final int length = to - from;
+		if (length <= ParallelMergeSort.INSERTION_THRESHOLD) {
+			for (int i = from + 1; i < to; i = i + 1) {
+				final int value = target[i];
+				int j = i - 1;
+				while ((j >= from) && (comparator.compare(target[j], value) > 0)) {
+					target[j + 1] = target[j];
+					j = j - 1;
+				}
+				target[j + 1] = value;
+			}
+		} else {
+			if ((length >= ParallelMergeSort.INTERRUPT_THRESHOLD) && Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			final int middle = (from + to) >>> 1;
+			ParallelMergeSort.mergeSort(target, source, from, middle, comparator);
+			ParallelMergeSort.mergeSort(target, source, middle, to, comparator);
+			if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+				System.arraycopy(source, from, target, from, length);
+			} else {
+				ParallelMergeSort.merge(source, target, from, middle, to, comparator);
+			}
+		}
+	}
+
+	/**
+	 * Sorts runs in parallel and merges them pairwise in parallel.
+	 * 
+	 * @param indices
+	 *            The indices.
+	 * @param buffer
+	 *            A buffer holding the same values.
+	 * @param comparator
+	 *            The comparator.
+	 * @param executor
+	 *            The executor.
+	 * @param parallelism
+	 *            The amount of runs.
+	 * @throws InterruptedException
+	 *             Thrown if the sort was interrupted.
+	 */
+	private static void parallelSort(final int[] indices, final int[] buffer, final IndexComparator comparator,
+			final ExecutorService executor, final int parallelism) throws InterruptedException {
+		final int runLength = (indices.length + parallelism - 1) / parallelism;
+		final List<Future<Void>> runs = new ArrayList<Future<Void>>();
+		for (int from = 0; from < indices.length; from += runLength) {
+			final int start = from;
+			final int end = Math.min(from + runLength, indices.length);
+			runs.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws InterruptedException {
+					ParallelMergeSort.mergeSort(buffer, indices, start, end, comparator);
+					return null;
+				}
+			}));
+		}
+		ParallelMergeSort.await(runs);
+		int[] source = indices;
+		int[] target = buffer;
+		for (int width = runLength; width < indices.length; width *= 2) {
+			final List<Future<Void>> merges = new ArrayList<Future<Void>>();
+			for (int from = 0; from < indices.length; from += 2 * width) {
+				final int start = from;
+				final int middle = Math.min(from + width, indices.length);
+				final int end = Math.min(from + (2 * width), indices.length);
+				final int[] mergeSource = source;
+				final int[] mergeTarget = target;
+				merges.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						ParallelMergeSort.merge(mergeSource, mergeTarget, start, middle, end, comparator);
+						return null;
+					}
+				}));
+			}
+			ParallelMergeSort.await(merges);
+			final int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != indices) {
+			System.arraycopy(source, 0, indices, 0, indices.length);
+		}
+	}
+
+	/**
+	 * Compares indices.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	public interface IndexComparator {
+
+		/**
+		 * Compares two indices.
+		 * 
+		 * @param left
+		 *            The left index.
+		 * @param right
+		 *            The right index.
+		 * @return Negative, zero or positive if the left index orders before,
+		 *         the same as or after the right index.
+		 */
+		int compare(int left, int right);
+	}
+}
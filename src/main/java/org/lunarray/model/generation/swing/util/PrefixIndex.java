@@ -0,0 +1,486 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.Validate;
+import org.lunarray.common.check.CheckUtil;
+import org.lunarray.model.generation.swing.util.ParallelMergeSort.IndexComparator;
+
+/**
+ * An immutable index of the word prefixes of labels. Every word of every
+ * label is an entry, entries are sorted by the remainder of the label from
+ * the word onwards. A query finds the first entry starting with the query by
+ * binary search, and collects the labels of the following matching entries.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ */
+public final class PrefixIndex {
+
+	/** The maximum amount of entries inspected per query pass. */
+	public static final int MAX_SCAN = 4096;
+	/** No words. */
+	private static final String[] NO_WORDS = new String[0];
+	/** Word separators. */
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	/** The labels. */
+	private final String[] labels;
+	/** The label of each entry, in entry order. */
+	private final int[] entryLabels;
+	/** The offset in the label of each entry, in entry order. */
+	private final int[] entryOffsets;
+	/** The normalized labels. */
+	private final String[] normalized;
+
+	/**
+	 * Constructs the index.
+	 * 
+	 * @param labels
+	 *            The labels.
+	 * @param normalized
+	 *            The normalized labels.
+	 * @param entryLabels
+	 *            The entry labels.
+	 * @param entryOffsets
+	 *            The entry offsets.
+	 */
+	private PrefixIndex(final String[] labels, final String[] normalized, final int[] entryLabels, final int[] entryOffsets) {
+		this.labels = labels;
+		this.normalized = normalized;
+		this.entryLabels = entryLabels;
+		this.entryOffsets = entryOffsets;
+	}
+
+	/**
+	 * Builds an index.
+	 * 
+	 * @param labels
+	 *            The labels. May not be null, but may contain null labels.
+	 * @param executor
+	 *            The executor to sort with, or null to sort in the calling
+	 *            thread.
+	 * @param parallelism
+	 *            The amount of runs to sort in parallel.
+	 * @return The index.
+	 * @throws InterruptedException
+	 *             Thrown if building was interrupted.
+	 */
+	public static PrefixIndex build(final String[] labels, final ExecutorService executor, final int parallelism)
+			throws InterruptedException {
+		Validate.notNull(labels, "Labels may not be null.");
+		final String[] normalized = new String[labels.length];
+		int entryCount = 0;
+		for (int i = 0; i < labels.length; i = i + 1) {
+			normalized[i] = PrefixIndex.normalize(labels[i]);
+			entryCount = entryCount + PrefixIndex.countWords(normalized[i]);
+		}
+		final int[] entryLabels = new int[entryCount];
+		final int[] entryOffsets = new int[entryCount];
+		int entry = 0;
+		for (int i = 0; i < normalized.length; i = i + 1) {
+			final String label = normalized[i];
+			for (int offset = 0; offset < label.length(); offset = offset + 1) {
+				if (PrefixIndex.isWordStart(label, offset)) {
+					entryLabels[entry] = i;
+					entryOffsets[entry] = offset;
+					entry = entry + 1;
+				}
+			}
+		}
+		final int[] order = new int[entryCount];
+		for (int i = 0; i < entryCount; i = i + 1) {
+			order[i] = i;
+		}
+		ParallelMergeSort.sort(order, new EntryComparator(normalized, entryLabels, entryOffsets), executor, parallelism);
+		final int[] sortedLabels = new int[entryCount];
+		final int[] sortedOffsets = new int[entryCount];
+		for (int i = 0; i < entryCount; i = i + 1) {
+			sortedLabels[i] = entryLabels[order[i]];
+			sortedOffsets[i] = entryOffsets[order[i]];
+		}
+		return new PrefixIndex(labels.clone(), normalized, sortedLabels, sortedOffsets);
+	}
+
+	/**
+	 * Normalizes text for matching.
+	 * 
+	 * @param text
+	 *            The text. May be null.
+	 * @return The normalized text, lower case and with whitespace trimmed and
+	 *         collapsed.
+	 */
+	public static String normalize(final String text) {
+		final StringBuilder builder = new StringBuilder();
+		if (!CheckUtil.isNull(text)) {
+			boolean space = false;
+			for (int i = 0; i < text.length(); i = i + 1) {
+				final char character = text.charAt(i);
+				if (Character.isWhitespace(character)) {
+					space = builder.length() > 0;
+				} else {
+					if (space) {
+						builder.append(' ');
+						space = false;
+					}
+					builder.append(Character.toLowerCase(character));
+				}
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Compares the remainder of a text from an offset with a prefix, up to
+	 * the length of the prefix.
+	 * 
+	 * @param text
+	 *            The text.
+	 * @param offset
+	 *            The offset.
+	 * @param prefix
+	 *            The prefix.
+	 * @return Negative, zero or positive if the remainder orders before,
+	 *         starts with or orders after the prefix.
+	 */
+	private static int comparePrefix(final String text, final int offset, final String prefix) {
+		final int length = Math.min(text.length() - offset, prefix.length());
+		int result = 0;
+		for (int i = 0; (i < length) && (result == 0); i = i + 1) {
+			result = text.charAt(offset + i) - prefix.charAt(i);
+		}
+		if ((result == 0) && (length < prefix.length())) {
+			result = -1;
+		}
+		return result;
+	}
+
+	/**
+	 * Tests if a match was already found.
+	 * 
+	 * @param matches
+	 *            The matches.
+	 * @param count
+	 *            The amount of matches.
+	 * @param label
+	 *            The label index.
+	 * @return True if and only if the label was found.
+	 */
+	private static boolean contains(final int[] matches, final int count, final int label) {
+		boolean result = false;
+		for (int i = 0; (i < count) && !result; i = i + 1) {
+			result = matches[i] == label;
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the words of a normalized label.
+	 * 
+	 * @param label
+	 *            The label.
+	 * @return The amount of words.
+	 */
+	private static int countWords(final String label) {
+		int result = 0;
+		for (int offset = 0; offset < label.length(); offset = offset + 1) {
+			if (PrefixIndex.isWordStart(label, offset)) {
+				result = result + 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Tests if a text has a word starting with a prefix.
+	 * 
+	 * @param text
+	 *            The normalized text.
+	 * @param prefix
+	 *            The prefix.
+	 * @return True if and only if a word starts with the prefix.
+	 */
+	private static boolean hasWord(final String text, final String prefix) {
+		boolean result = false;
+		int offset = text.indexOf(prefix);
+		while ((offset >= 0) && !result) {
+			result = (prefix.length() == 0) || PrefixIndex.isWordStart(text, offset);
+			offset = text.indexOf(prefix, offset + 1);
+		}
+		return result;
+	}
+
+	/**
+	 * Tests if a word starts at an offset.
+	 * 
+	 * @param label
+	 *            The label.
+	 * @param offset
+	 *            The offset.
+	 * @return True if and only if a word starts at the offset.
+	 */
+	private static boolean isWordStart(final String label, final int offset) {
+		return Character.isLetterOrDigit(label.charAt(offset))
+				&& ((offset == 0) || !Character.isLetterOrDigit(label.charAt(offset - 1)));
+	}
+
+	/**
+	 * Gets a label.
+	 * 
+	 * @param index
+	 *            The label index.
+	 * @return The label. May be null.
+	 */
+	public String getLabel(final int index) {
+		return this.labels[index];
+	}
+
+	/**
+	 * Finds labels that have a word starting with each of the words of the
+	 * query. Labels that contain the query as a phrase come first, followed by
+	 * labels that contain the words apart. At most {@link #MAX_SCAN} entries
+	 * are inspected per pass, so queries take time independent of the amount
+	 * of labels.
+	 * 
+	 * @param query
+	 *            The query. May be null.
+	 * @param limit
+	 *            The maximum amount of matches. Must be positive.
+	 * @return The label indices of the matches.
+	 */
+	public int[] query(final String query, final int limit) {
+		Validate.isTrue(limit > 0, "Limit must be positive.");
+		final String phrase = PrefixIndex.normalize(query);
+		final String[] words = PrefixIndex.SEPARATORS.split(phrase);
+		final int[] matches = new int[Math.min(limit, this.labels.length)];
+		int count = 0;
+		if (phrase.length() == 0) {
+			while (count < matches.length) {
+				matches[count] = count;
+				count = count + 1;
+			}
+		} else {
+			count = this.collect(phrase, PrefixIndex.NO_WORDS, matches, count);
+			final String probe = this.selectProbe(words);
+			if ((count < matches.length) && !CheckUtil.isNull(probe) && !probe.equals(phrase)) {
+				count = this.collect(probe, words, matches, count);
+			}
+		}
+		final int[] result = new int[count];
+		System.arraycopy(matches, 0, result, 0, count);
+		return result;
+	}
+
+	/**
+	 * Gets the amount of labels.
+	 * 
+	 * @return The amount of labels.
+	 */
+	public int size() {
+		return this.labels.length;
+	}
+
+	/**
+	 * Collects the labels of entries starting with a prefix.
+	 * 
+	 * @param prefix
+	 *            The prefix.
+	 * @param words
+	 *            The words the labels must also have.
+	 * @param matches
+	 *            The matches.
+	 * @param count
+	 *            The amount of matches so far.
+	 * @return The amount of matches.
+	 */
+	private int collect(final String prefix, final String[] words, final int[] matches, final int count) {
+		int result = count;
+		int entry = this.lowerBound(prefix);
+		final int end = Math.min(this.entryLabels.length, entry + PrefixIndex.MAX_SCAN);
+		while ((entry < end) && (result < matches.length) && this.matchesEntry(entry, prefix)) {
+			final int label = this.entryLabels[entry];
+			if (!PrefixIndex.contains(matches, result, label) && this.matchesAll(label, words)) {
+				matches[result] = label;
+				result = result + 1;
+			}
+			entry = entry + 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Compares an entry with a prefix.
+	 * 
+	 * @param entry
+	 *            The entry.
+	 * @param prefix
+	 *            The prefix.
+	 * @return Negative, zero or positive if the entry orders before, starts
+	 *         with or orders after the prefix.
+	 */
+	private int compareEntry(final int entry, final String prefix) {
+		return PrefixIndex.comparePrefix(this.normalized[this.entryLabels[entry]], this.entryOffsets[entry], prefix);
+	}
+
+	/**
+	 * Finds the first entry that does not order before a prefix.
+	 * 
+	 * @param prefix
+	 *            The prefix.
+	 * @return The entry.
+	 */
+	private int lowerBound(final String prefix) {
+		int low = 0;
+		int high = this.entryLabels.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (this.compareEntry(middle, prefix) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Tests if a label has a word starting with each of the query words.
+	 * 
+	 * @param label
+	 *            The label index.
+	 * @param words
+	 *            The query words.
+	 * @return True if and only if all words match.
+	 */
+	private boolean matchesAll(final int label, final String[] words) {
+		final String text = this.normalized[label];
+		boolean result = true;
+		for (int i = 0; (i < words.length) && result; i = i + 1) {
+			result = PrefixIndex.hasWord(text, words[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Tests if an entry starts with a prefix.
+	 * 
+	 * @param entry
+	 *            The entry.
+	 * @param prefix
+	 *            The prefix.
+	 * @return True if and only if the entry starts with the prefix.
+	 */
+	private boolean matchesEntry(final int entry, final String prefix) {
+		return this.compareEntry(entry, prefix) == 0;
+	}
+
+	/**
+	 * Selects the word with the fewest entries, to scan the fewest entries.
+	 * 
+	 * @param words
+	 *            The words.
+	 * @return The word, or null if there are no words.
+	 */
+	private String selectProbe(final String[] words) {
+		String result = null;
+		int fewest = Integer.MAX_VALUE;
+		for (final String word : words) {
+			if (word.length() > 0) {
+				final int entries = this.upperBound(word) - this.lowerBound(word);
+				if (entries < fewest) {
+					fewest = entries;
+					result = word;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the first entry that orders after a prefix.
+	 * 
+	 * @param prefix
+	 *            The prefix.
+	 * @return The entry.
+	 */
+	private int upperBound(final String prefix) {
+		int low = 0;
+		int high = this.entryLabels.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (this.compareEntry(middle, prefix) <= 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Compares entries by the remainder of their label.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class EntryComparator
+			implements IndexComparator {
+
+		/** The entry labels. */
+		private final int[] entryLabels;
+		/** The entry offsets. */
+		private final int[] entryOffsets;
+		/** The normalized labels. */
+		private final String[] normalized;
+
+		/**
+		 * Constructs the comparator.
+		 * 
+		 * @param normalized
+		 *            The normalized labels.
+		 * @param entryLabels
+		 *            The entry labels.
+		 * @param entryOffsets
+		 *            The entry offsets.
+		 */
+		public EntryComparator(final String[] normalized, final int[] entryLabels, final int[] entryOffsets) {
+			this.normalized = normalized;
+			this.entryLabels = entryLabels;
+			this.entryOffsets = entryOffsets;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int compare(final int left, final int right) {
+			final String leftLabel = this.normalized[this.entryLabels[left]];
+			final String rightLabel = this.normalized[this.entryLabels[right]];
+			int leftOffset = this.entryOffsets[left];
+			int rightOffset = this.entryOffsets[right];
+			int result = 0;
+			while ((result == 0) && (leftOffset < leftLabel.length()) && (rightOffset < rightLabel.length())) {
+				result = leftLabel.charAt(leftOffset) - rightLabel.charAt(rightOffset);
+				leftOffset = leftOffset + 1;
+				rightOffset = rightOffset + 1;
+			}
+			if (result == 0) {
+				result = (leftLabel.length() - leftOffset) - (rightLabel.length() - rightOffset);
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lunarray.model.generation.swing.render.factories.table.GeneratedColumn;
+
+/**
+ * Tests the data table model cell cache.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see DataTableModel
+ */
+public class DataTableModelTest {
+	/** The first column. */
+	private CountingColumn firstColumn;
+	/** The model. */
+	private DataTableModel<String> model;
+	/** The second column. */
+	private CountingColumn secondColumn;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() {
+		final List<String> entities = new ArrayList<String>();
+		for (int i = 0; i < 100; i = i + 1) {
+			entities.add("entity" + i);
+		}
+		this.model = new DataTableModel<String>(entities, 16);
+		this.firstColumn = new CountingColumn();
+		this.secondColumn = new CountingColumn();
+		this.model.addColumn(this.firstColumn);
+		this.model.addColumn(this.secondColumn);
+	}
+
+	/**
+	 * Test a disabled cache.
+	 * 
+	 * @see DataTableModel#setCacheSize(int)
+	 */
+	@Test
+	public void testDisabledCache() {
+		this.model.setCacheSize(0);
+		this.model.getValueAt(1, 0);
+		this.model.getValueAt(1, 0);
+		Assert.assertEquals(2, this.firstColumn.count);
+		Assert.assertEquals(0, this.model.getCacheHits());
+	}
+
+	/**
+	 * Test inserting entities.
+	 * 
+	 * @see DataTableModel#entitiesInserted(int, int)
+	 */
+	@Test
+	public void testEntitiesInserted() {
+		final TableModelListener listener = EasyMock.createMock(TableModelListener.class);
+		final Capture<TableModelEvent> event = new Capture<TableModelEvent>();
+		listener.tableChanged(EasyMock.capture(event));
+		EasyMock.expectLastCall();
+		EasyMock.replay(listener);
+		this.model.addTableModelListener(listener);
+		this.model.getValueAt(2, 0);
+		this.model.getValueAt(5, 0);
+		this.model.getEntities().add(4, "inserted");
+		this.model.entitiesInserted(4, 4);
+		EasyMock.verify(listener);
+		Assert.assertEquals(TableModelEvent.INSERT, event.getValue().getType());
+		Assert.assertEquals(4, event.getValue().getFirstRow());
+		Assert.assertEquals(4, event.getValue().getLastRow());
+		Assert.assertEquals("entity2", this.model.getValueAt(2, 0));
+		Assert.assertEquals("entity4", this.model.getValueAt(5, 0));
+		Assert.assertEquals(3, this.firstColumn.count);
+	}
+
+	/**
+	 * Test updating a single entity.
+	 * 
+	 * @see DataTableModel#entityUpdated(Object)
+	 */
+	@Test
+	public void testEntityUpdated() {
+		final TableModelListener listener = EasyMock.createMock(TableModelListener.class);
+		final Capture<TableModelEvent> event = new Capture<TableModelEvent>();
+		listener.tableChanged(EasyMock.capture(event));
+		EasyMock.expectLastCall();
+		EasyMock.replay(listener);
+		this.model.addTableModelListener(listener);
+		this.model.entityUpdated("entity7");
+		EasyMock.verify(listener);
+		Assert.assertEquals(TableModelEvent.UPDATE, event.getValue().getType());
+		Assert.assertEquals(7, event.getValue().getFirstRow());
+		Assert.assertEquals(7, event.getValue().getLastRow());
+	}
+
+	/**
+	 * Test evicting rows that share a slot.
+	 * 
+	 * @see DataTableModel#getValueAt(int, int)
+	 */
+	@Test
+	public void testEviction() {
+		this.model.getValueAt(1, 0);
+		this.model.getValueAt(17, 0);
+		Assert.assertEquals("entity1", this.model.getValueAt(1, 0));
+		Assert.assertEquals(3, this.firstColumn.count);
+	}
+
+	/**
+	 * Test repeated access.
+	 * 
+	 * @see DataTableModel#getValueAt(int, int)
+	 */
+	@Test
+	public void testHit() {
+		Assert.assertEquals("entity3", this.model.getValueAt(3, 0));
+		Assert.assertEquals("entity3", this.model.getValueAt(3, 0));
+		Assert.assertEquals(1, this.firstColumn.count);
+		Assert.assertEquals(1, this.model.getCacheHits());
+		Assert.assertEquals(1, this.model.getCacheMisses());
+	}
+
+	/**
+	 * Test invalidating everything.
+	 * 
+	 * @see DataTableModel#invalidateAll()
+	 */
+	@Test
+	public void testInvalidateAll() {
+		this.model.getValueAt(3, 0);
+		this.model.getValueAt(4, 1);
+		this.model.invalidateAll();
+		this.model.getValueAt(3, 0);
+		this.model.getValueAt(4, 1);
+		Assert.assertEquals(2, this.firstColumn.count);
+		Assert.assertEquals(2, this.secondColumn.count);
+	}
+
+	/**
+	 * Test invalidating a column.
+	 * 
+	 * @see DataTableModel#invalidateColumn(int)
+	 */
+	@Test
+	public void testInvalidateColumn() {
+		this.model.getValueAt(3, 0);
+		this.model.getValueAt(3, 1);
+		this.model.invalidateColumn(1);
+		this.model.getValueAt(3, 0);
+		this.model.getValueAt(3, 1);
+		Assert.assertEquals(1, this.firstColumn.count);
+		Assert.assertEquals(2, this.secondColumn.count);
+	}
+
+	/**
+	 * Test invalidating a row.
+	 * 
+	 * @see DataTableModel#invalidateRow(int)
+	 */
+	@Test
+	public void testInvalidateRow() {
+		this.model.getValueAt(3, 0);
+		this.model.getValueAt(4, 0);
+		this.model.invalidateRow(3);
+		this.model.getValueAt(3, 0);
+		this.model.getValueAt(4, 0);
+		Assert.assertEquals(3, this.firstColumn.count);
+	}
+
+	/**
+	 * A column that counts value resolutions.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static final class CountingColumn
+			implements GeneratedColumn<String, String> {
+		/** The amount of resolved values. */
+		private int count;
+
+		/** Default constructor. */
+		public CountingColumn() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public String getLabel() {
+			return "column";
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Class<String> getRenderType() {
+			return String.class;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Object getSortValue(final String entity) {
+			return entity;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public String getValue(final String entity) {
+			this.count = this.count + 1;
+			return entity;
+		}
+	}
+}
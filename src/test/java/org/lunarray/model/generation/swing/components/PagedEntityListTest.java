@@ -0,0 +1,197 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the paged entity list.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see PagedEntityList
+ */
+public class PagedEntityListTest {
+	/** The list. */
+	private PagedEntityList<String> list;
+	/** The provider. */
+	private CountingProvider provider;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() {
+		this.provider = new CountingProvider(95);
+		this.list = new PagedEntityList<String>(this.provider, 10, 3, 1);
+	}
+
+	/**
+	 * Test reading the last, partial, page.
+	 * 
+	 * @see PagedEntityList#get(int)
+	 */
+	@Test
+	public void testLastPage() {
+		Assert.assertEquals(95, this.list.size());
+		Assert.assertEquals("entity94", this.list.get(94));
+		Assert.assertEquals(1, this.provider.fetches);
+		Assert.assertEquals(5, this.provider.lastLimit);
+	}
+
+	/**
+	 * Test fetching the next page along with the requested page.
+	 * 
+	 * @see PagedEntityList#get(int)
+	 */
+	@Test
+	public void testPrefetch() {
+		Assert.assertEquals("entity3", this.list.get(3));
+		Assert.assertEquals("entity15", this.list.get(15));
+		Assert.assertEquals(1, this.provider.fetches);
+		Assert.assertEquals(20, this.provider.lastLimit);
+		Assert.assertEquals(2, this.list.getLoadedPages());
+	}
+
+	/**
+	 * Test updating an entity only searches the loaded pages.
+	 * 
+	 * @see DataTableModel#entityUpdated(Object)
+	 * @see PagedEntityList#indexesOfLoaded(Object)
+	 */
+	@Test
+	public void testEntityUpdated() {
+		final DataTableModel<String> model = new DataTableModel<String>(this.list);
+		final RecordingListener listener = new RecordingListener();
+		model.addTableModelListener(listener);
+		this.list.get(3);
+		final long fetches = this.list.getFetches();
+		Assert.assertEquals(Arrays.asList(Integer.valueOf(15)), this.list.indexesOfLoaded("entity15"));
+		model.entityUpdated("entity15");
+		model.entityUpdated("entity50");
+		Assert.assertEquals(fetches, this.list.getFetches());
+		Assert.assertEquals(2, this.list.getLoadedPages());
+		Assert.assertEquals(1, listener.events.size());
+		Assert.assertEquals(15, listener.events.get(0).getFirstRow());
+	}
+
+	/**
+	 * Test evicting the least recently used pages.
+	 * 
+	 * @see PagedEntityList#get(int)
+	 */
+	@Test
+	public void testEviction() {
+		this.list.get(0);
+		this.list.get(40);
+		Assert.assertEquals(3, this.list.getLoadedPages());
+		this.list.get(5);
+		Assert.assertEquals(2, this.provider.fetches);
+		this.list.get(15);
+		Assert.assertEquals(3, this.provider.fetches);
+	}
+
+	/**
+	 * Test dropping all pages.
+	 * 
+	 * @see PagedEntityList#refresh()
+	 */
+	@Test
+	public void testRefresh() {
+		this.list.get(0);
+		this.provider.size = 5;
+		this.list.refresh();
+		Assert.assertEquals(0, this.list.getLoadedPages());
+		Assert.assertEquals(5, this.list.size());
+		this.list.get(0);
+		Assert.assertEquals(2, this.provider.fetches);
+	}
+
+	/**
+	 * A provider that counts fetches.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class CountingProvider
+			implements DataProvider<String> {
+		/** The amount of fetches. */
+		private int fetches;
+		/** The last limit. */
+		private int lastLimit;
+		/** The size. */
+		private int size;
+
+		/**
+		 * Constructs the provider.
+		 * 
+		 * @param size
+		 *            The size.
+		 */
+		public CountingProvider(final int size) {
+			this.size = size;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public List<String> fetch(final int offset, final int limit) {
+			this.fetches = this.fetches + 1;
+			this.lastLimit = limit;
+			final List<String> result = new ArrayList<String>();
+			for (int i = offset; (i < offset + limit) && (i < this.size); i = i + 1) {
+				result.add("entity" + i);
+			}
+			return result;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+
+	/**
+	 * A listener that records events.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class RecordingListener
+			implements TableModelListener {
+		/** The events. */
+		private final List<TableModelEvent> events = new ArrayList<TableModelEvent>();
+
+		/**
+		 * Default constructor.
+		 */
+		public RecordingListener() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void tableChanged(final TableModelEvent event) {
+			this.events.add(event);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components.impl;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.lang.reflect.InvocationTargetException;
+
+import javax.swing.SwingUtilities;
+
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.generation.swing.components.FormComponent;
+import org.lunarray.model.generation.swing.model.Sample01;
+
+/**
+ * Tests the form component pool.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see FormComponentPool
+ */
+public class FormComponentPoolTest {
+	/** The time to wait for background builds, in milliseconds. */
+	private static final long TIMEOUT = 10000;
+	/** The pool. */
+	private FormComponentPool<Object, Sample01> pool;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() {
+		@SuppressWarnings("unchecked")
+		final Model<Object> model = EasyMock.createNiceMock(Model.class);
+		EasyMock.replay(model);
+		final FormComponentBuilder<Object, Sample01> builder = FormComponentBuilder.createBuilder();
+		builder.model(model).entityKey("unknown").entity(Sample01.SAMPLE_01).bottomMessages();
+		this.pool = builder.pool(1);
+	}
+
+	/**
+	 * Test refilling the pool after building a form failed.
+	 * 
+	 * @see FormComponentPool#warm()
+	 * @see FormComponentPool.PoolListener#componentFailed(Throwable)
+	 */
+	@Test
+	public void testRefillAfterFailedBuild() throws Exception {
+		final PoolProbe probe = new PoolProbe(true);
+		SwingUtilities.invokeAndWait(probe);
+		Assert.assertEquals(1, probe.pending);
+		Assert.assertEquals(0, this.awaitBuilds().idle);
+		SwingUtilities.invokeAndWait(probe);
+		Assert.assertEquals(1, probe.pending);
+		this.awaitBuilds();
+	}
+
+	/**
+	 * Test releasing a form removes the action listeners added to it.
+	 * 
+	 * @see FormComponentPool#release(FormComponent)
+	 */
+	@Test
+	public void testReleaseRemovesActionListeners() {
+		final ActionListener listener = new NoopListener();
+		@SuppressWarnings("unchecked")
+		final FormComponent<Sample01> form = EasyMock.createNiceMock(FormComponent.class);
+		EasyMock.expect(form.getActionListeners()).andReturn(new ActionListener[] { listener });
+		form.removeActionListener(listener);
+		EasyMock.expectLastCall();
+		EasyMock.replay(form);
+		this.pool.release(form);
+		EasyMock.verify(form);
+		Assert.assertEquals(1, this.pool.getIdle());
+	}
+
+	/**
+	 * Waits until no forms are being prepared.
+	 * 
+	 * @return The probe holding the state of the pool.
+	 * @throws InterruptedException
+	 *             Thrown if interrupted.
+	 * @throws InvocationTargetException
+	 *             Thrown if the probe failed.
+	 */
+	private PoolProbe awaitBuilds() throws InterruptedException, InvocationTargetException {
+		final PoolProbe probe = new PoolProbe(false);
+		final long deadline = System.currentTimeMillis() + FormComponentPoolTest.TIMEOUT;
+		SwingUtilities.invokeAndWait(probe);
+		while ((probe.pending > 0) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(10);
+			SwingUtilities.invokeAndWait(probe);
+		}
+		Assert.assertEquals(0, probe.pending);
+		return probe;
+	}
+
+	/**
+	 * Does nothing.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class NoopListener
+			implements ActionListener {
+
+		/** Default constructor. */
+		public NoopListener() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void actionPerformed(final ActionEvent event) {
+			// Does nothing.
+		}
+	}
+
+	/**
+	 * Reads, and optionally warms, the pool on the event dispatch thread.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private class PoolProbe
+			implements Runnable {
+
+		/** The idle forms. */
+		private int idle;
+		/** The forms being prepared. */
+		private int pending;
+		/** Whether the pool is warmed. */
+		private final boolean warm;
+
+		/**
+		 * Constructs the probe.
+		 * 
+		 * @param warm
+		 *            Whether the pool is warmed.
+		 */
+		public PoolProbe(final boolean warm) {
+			this.warm = warm;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			if (this.warm) {
+				FormComponentPoolTest.this.pool.warm();
+			}
+			this.idle = FormComponentPoolTest.this.pool.getIdle();
+			this.pending = FormComponentPoolTest.this.pool.getPending();
+		}
+	}
+}
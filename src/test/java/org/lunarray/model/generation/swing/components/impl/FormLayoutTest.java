@@ -0,0 +1,113 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.components.impl;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lunarray.model.generation.swing.components.impl.FormComponentImpl.MessagePosition;
+
+/**
+ * Tests the form layout.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see FormLayout
+ */
+public class FormLayoutTest {
+	/** The amount of rows. */
+	private static final int ROWS = 3;
+	/** The components. */
+	private JTextField[] components;
+	/** The labels. */
+	private JLabel[] labels;
+	/** The layout. */
+	private FormLayout layout;
+	/** The panel. */
+	private JPanel panel;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() {
+		this.layout = new FormLayout(MessagePosition.BOTTOM);
+		this.panel = new JPanel(this.layout);
+		this.labels = new JLabel[FormLayoutTest.ROWS];
+		this.components = new JTextField[FormLayoutTest.ROWS];
+		for (int i = 0; i < FormLayoutTest.ROWS; i = i + 1) {
+			this.labels[i] = new JLabel("Label " + i);
+			this.components[i] = new JTextField("Value " + i);
+			this.panel.add(this.labels[i], new FormLayout.Constraint(i, FormLayout.Cell.LABEL));
+			this.panel.add(this.components[i], new FormLayout.Constraint(i, FormLayout.Cell.COMPONENT));
+			this.panel.add(new JLabel(), new FormLayout.Constraint(i, FormLayout.Cell.MESSAGE));
+		}
+		// Lightweight peers let the panel validate without a window.
+		this.panel.addNotify();
+		this.panel.setSize(400, 300);
+		this.panel.validate();
+	}
+
+	/**
+	 * Test laying out all rows once a label changes the label column width.
+	 * 
+	 * @see FormLayout#layoutContainer(java.awt.Container)
+	 */
+	@Test
+	public void testLabelWidthChange() {
+		final int before = this.components[0].getX();
+		this.labels[1].setText("A considerably longer label");
+		this.labels[1].invalidate();
+		this.panel.validate();
+		Assert.assertEquals(FormLayoutTest.ROWS, this.layout.getLaidOutRows());
+		final int labelWidth = this.labels[1].getPreferredSize().width + this.layout.getPadding();
+		Assert.assertTrue(this.components[0].getX() > before);
+		for (int i = 0; i < FormLayoutTest.ROWS; i = i + 1) {
+			Assert.assertEquals(labelWidth, this.components[i].getX());
+			Assert.assertEquals(labelWidth, this.labels[i].getWidth());
+		}
+	}
+
+	/**
+	 * Test laying out only the rows that changed.
+	 * 
+	 * @see FormLayout#layoutContainer(java.awt.Container)
+	 */
+	@Test
+	public void testLayoutChangedRows() {
+		Assert.assertEquals(FormLayoutTest.ROWS, this.layout.getLaidOutRows());
+		this.panel.doLayout();
+		Assert.assertEquals(0, this.layout.getLaidOutRows());
+		this.components[2].invalidate();
+		this.panel.validate();
+		Assert.assertEquals(1, this.layout.getLaidOutRows());
+	}
+
+	/**
+	 * Test laying out all rows on a resize.
+	 * 
+	 * @see FormLayout#layoutContainer(java.awt.Container)
+	 */
+	@Test
+	public void testResize() {
+		this.panel.setSize(500, 300);
+		this.panel.validate();
+		Assert.assertEquals(FormLayoutTest.ROWS, this.layout.getLaidOutRows());
+	}
+}
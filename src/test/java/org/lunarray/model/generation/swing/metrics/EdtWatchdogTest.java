@@ -0,0 +1,181 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the event dispatch thread watchdog.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see EdtWatchdog
+ */
+public class EdtWatchdogTest {
+	/** The stall duration, in milliseconds. */
+	private static final long DURATION = 100;
+	/** The threshold, in milliseconds. */
+	private static final long THRESHOLD = 10;
+
+	/** Tears down the test. */
+	@After
+	public void teardown() {
+		EdtWatchdog.uninstall();
+	}
+
+	/**
+	 * Test a throwing listener does not cancel the sampling.
+	 * 
+	 * @see EdtWatchdog.Sampler#run()
+	 * @throws Exception
+	 *             Thrown if the dispatch could not run.
+	 */
+	@Test
+	public void testFailingListener() throws Exception {
+		final RecordingListener listener = new RecordingListener(true);
+		EdtWatchdog.install(EdtWatchdogTest.THRESHOLD, listener);
+		SwingUtilities.invokeAndWait(new StallingHandler("Sample01"));
+		SwingUtilities.invokeAndWait(new StallingHandler("Sample01"));
+		EdtWatchdog.uninstall();
+		Assert.assertEquals(2, listener.getStalls().size());
+	}
+
+	/**
+	 * Test a handler marked outside the event dispatch thread is not tracked.
+	 * 
+	 * @see EdtWatchdog#enter(String)
+	 */
+	@Test
+	public void testOtherThread() {
+		final RecordingListener listener = new RecordingListener(false);
+		EdtWatchdog.install(EdtWatchdogTest.THRESHOLD, listener);
+		new StallingHandler("Sample01").run();
+		EdtWatchdog.uninstall();
+		Assert.assertTrue(listener.getStalls().isEmpty());
+	}
+
+	/**
+	 * Test a stall is reported once, with the subjects of the running
+	 * handlers.
+	 * 
+	 * @see EdtWatchdog#sample()
+	 * @throws Exception
+	 *             Thrown if the dispatch could not run.
+	 */
+	@Test
+	public void testStall() throws Exception {
+		final RecordingListener listener = new RecordingListener(false);
+		EdtWatchdog.install(EdtWatchdogTest.THRESHOLD, listener);
+		SwingUtilities.invokeAndWait(new StallingHandler("Sample01", "testValue"));
+		EdtWatchdog.uninstall();
+		Assert.assertEquals(1, listener.getStalls().size());
+		final Stall stall = listener.getStalls().get(0);
+		Assert.assertEquals(Arrays.asList("Sample01", "testValue"), stall.getSubjects());
+		Assert.assertEquals("testValue", stall.getSubject());
+		Assert.assertTrue(stall.getElapsed() > 0);
+	}
+
+	/**
+	 * A listener that records stalls.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class RecordingListener
+			implements StallListener {
+
+		/** Whether to fail after recording. */
+		private final boolean failing;
+		/** The recorded stalls. */
+		private final List<Stall> stalls;
+
+		/**
+		 * Constructs the listener.
+		 * 
+		 * @param failing
+		 *            Whether to fail after recording.
+		 */
+		public RecordingListener(final boolean failing) {
+			this.failing = failing;
+			this.stalls = new ArrayList<Stall>();
+		}
+
+		/**
+		 * Gets the value for the stalls field.
+		 * 
+		 * @return The value for the stalls field.
+		 */
+		public synchronized List<Stall> getStalls() {
+			return new ArrayList<Stall>(this.stalls);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public synchronized void stalled(final Stall stall) {
+			this.stalls.add(stall);
+			if (this.failing) {
+				throw new IllegalStateException("Failing listener.");
+			}
+		}
+	}
+
+	/**
+	 * A handler that stalls past the threshold.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class StallingHandler
+			implements Runnable {
+
+		/** The subjects. */
+		private final String[] subjects;
+
+		/**
+		 * Constructs the handler.
+		 * 
+		 * @param subjects
+		 *            The subjects.
+		 */
+		public StallingHandler(final String... subjects) {
+			this.subjects = subjects;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			for (final String subject : this.subjects) {
+				EdtWatchdog.enter(subject);
+			}
+			try {
+				Thread.sleep(EdtWatchdogTest.DURATION);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				for (int i = 0; i < this.subjects.length; i = i + 1) {
+					EdtWatchdog.exit();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.metrics;
+
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.descriptor.presentation.RenderType;
+
+/**
+ * Tests the JMX metrics.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see JmxComponentMetrics
+ */
+public class JmxComponentMetricsTest {
+	/** The metrics. */
+	private JmxComponentMetrics metrics;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() {
+		this.metrics = new JmxComponentMetrics();
+		MetricsRegistry.setMetrics(this.metrics);
+	}
+
+	/** Tears down the test. */
+	@After
+	public void teardown() {
+		MetricsRegistry.setMetrics(null);
+	}
+
+	/**
+	 * Test disabled metrics do not record.
+	 * 
+	 * @see JmxComponentMetrics#setEnabled(boolean)
+	 */
+	@Test
+	public void testDisabled() {
+		this.metrics.setEnabled(false);
+		Assert.assertEquals(0L, MetricsRegistry.start(MetricsRegistry.getMetrics()));
+		this.record();
+		Assert.assertTrue(this.metrics.getColumnValueLatencies().isEmpty());
+		Assert.assertTrue(this.metrics.getComposeLatencies().isEmpty());
+		Assert.assertTrue(this.metrics.getConversionFailures().isEmpty());
+		Assert.assertTrue(this.metrics.getDictionaryLookupLatencies().isEmpty());
+		Assert.assertTrue(this.metrics.getOperationLatencies().isEmpty());
+		Assert.assertTrue(this.metrics.getStrategyCreationLatencies().isEmpty());
+		Assert.assertTrue(this.metrics.getValidationLatencies().isEmpty());
+	}
+
+	/**
+	 * Test enabled metrics record.
+	 * 
+	 * @see JmxComponentMetrics#isEnabled()
+	 */
+	@Test
+	public void testEnabled() {
+		Assert.assertTrue(MetricsRegistry.start(MetricsRegistry.getMetrics()) > 0L);
+		this.record();
+		Assert.assertEquals(1L, this.metrics.getColumnValueLatencies("Sample01.testValue").getCount());
+		Assert.assertEquals(1L, this.metrics.getComposeLatencies("Sample01").getCount());
+		Assert.assertEquals(Long.valueOf(1L), this.metrics.getConversionFailures().get("Sample01.testValue"));
+		Assert.assertEquals(1, this.metrics.getDictionaryLookupLatencies().size());
+		Assert.assertEquals(1, this.metrics.getOperationLatencies().size());
+		Assert.assertEquals(1L, this.metrics.getStrategyCreationLatencies(RenderType.TEXT).getCount());
+		Assert.assertEquals(1L, this.metrics.getStrategyCreationLatencies(null).getCount());
+		Assert.assertEquals(1, this.metrics.getValidationLatencies().size());
+	}
+
+	/**
+	 * Test keys are qualified by the entity.
+	 * 
+	 * @see MetricsRegistry#key(EntityDescriptor, String)
+	 */
+	@Test
+	public void testKey() {
+		final EntityDescriptor<?> entity = EasyMock.createMock(EntityDescriptor.class);
+		EasyMock.expect(entity.getName()).andReturn("Sample01");
+		EasyMock.replay(entity);
+		Assert.assertEquals("Sample01.testValue", MetricsRegistry.key(entity, "testValue"));
+		Assert.assertEquals("testValue", MetricsRegistry.key(null, "testValue"));
+		EasyMock.verify(entity);
+	}
+
+	/**
+	 * Records once in every category.
+	 */
+	private void record() {
+		final ComponentMetrics current = MetricsRegistry.getMetrics();
+		current.recordColumnValue("Sample01.testValue", 10L);
+		current.recordCompose("Sample01", 10L);
+		current.recordConversionFailure("Sample01.testValue");
+		current.recordDictionaryLookup("Sample02", 10L);
+		current.recordOperation("Sample01.operation", 10L);
+		current.recordStrategyCreation(RenderType.TEXT, 10L);
+		current.recordStrategyCreation(null, 10L);
+		current.recordValidation("Sample01", 10L);
+	}
+}
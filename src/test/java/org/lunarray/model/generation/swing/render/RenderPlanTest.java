@@ -0,0 +1,190 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lunarray.model.descriptor.builder.annotation.presentation.builder.PresQualBuilder;
+import org.lunarray.model.descriptor.converter.ConverterTool;
+import org.lunarray.model.descriptor.converter.def.DefaultConverterTool;
+import org.lunarray.model.descriptor.dictionary.enumeration.EnumDictionary;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.entity.EntityDescriptor;
+import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.CollectionParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.parameters.ParameterDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.CollectionResultDescriptor;
+import org.lunarray.model.descriptor.model.operation.result.ResultDescriptor;
+import org.lunarray.model.descriptor.model.property.CollectionPropertyDescriptor;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.descriptor.presentation.RenderType;
+import org.lunarray.model.descriptor.resource.simpleresource.SimpleClazzResource;
+import org.lunarray.model.descriptor.validator.beanvalidation.BeanValidationValidator;
+import org.lunarray.model.generation.swing.model.Sample01;
+import org.lunarray.model.generation.swing.model.Sample02;
+import org.lunarray.model.generation.swing.model.SampleEnum;
+import org.lunarray.model.generation.util.Composer;
+import org.lunarray.model.generation.util.RenderFactory;
+
+/**
+ * Tests the render plan.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see RenderPlan
+ */
+public class RenderPlanTest {
+	/** The entity. */
+	private EntityDescriptor<Sample01> entity;
+	/** The model. */
+	private Model<Object> model;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() throws Exception {
+		@SuppressWarnings("unchecked")
+		final SimpleClazzResource<Object> resource = new SimpleClazzResource<Object>(Sample01.class, Sample02.class, SampleEnum.class);
+		final BeanValidationValidator validator = new BeanValidationValidator();
+		final EnumDictionary dictionary = new EnumDictionary(null);
+		final ConverterTool converter = new DefaultConverterTool();
+		this.model = PresQualBuilder.createBuilder().resources(resource).extensions(validator, dictionary, converter).build();
+		this.entity = this.model.getEntity(Sample01.class);
+	}
+
+	/**
+	 * Test replaying a plan renders the same as composing.
+	 * 
+	 * @see RenderPlan#replay(RenderContext, RenderFactory)
+	 * @see RenderPlanComposer#getRenderPlan(boolean)
+	 */
+	@Test
+	public void testReplayEqualsCompose() {
+		final RenderPlanComposer<Object, Sample01> planComposer = new RenderPlanComposer<Object, Sample01>(this.model, this.entity,
+				Locale.ENGLISH, null);
+		final RecordingFactory composed = new RecordingFactory();
+		final Composer<RenderContext<Sample01>, Object, Sample01> composer = new Composer<RenderContext<Sample01>, Object, Sample01>();
+		composer.setContext(new RenderContext<Sample01>(this.model));
+		composer.setPropertyRenderStrategyFactory(composed);
+		composer.setVariableResolver(planComposer);
+		composer.compose(true);
+		final RenderPlan<Sample01> plan = planComposer.getRenderPlan(true);
+		Assert.assertEquals(composer.getLabel(), plan.getLabel());
+		Assert.assertEquals(composed.calls.size(), plan.size());
+		Assert.assertFalse(composed.calls.isEmpty());
+		final RecordingFactory replayed = new RecordingFactory();
+		plan.replay(new RenderContext<Sample01>(this.model), replayed);
+		Assert.assertEquals(composed.calls, replayed.calls);
+		final RecordingFactory cached = new RecordingFactory();
+		Assert.assertSame(plan, planComposer.getRenderPlan(true));
+		plan.replay(new RenderContext<Sample01>(this.model), cached);
+		Assert.assertEquals(composed.calls, cached.calls);
+	}
+
+	/**
+	 * Test replaying restores the prefixes of the context.
+	 * 
+	 * @see RenderPlan#replay(RenderContext, RenderFactory)
+	 */
+	@Test
+	public void testReplayRestoresPrefixes() {
+		final RenderPlan<Sample01> plan = new RenderPlanComposer<Object, Sample01>(this.model, this.entity, Locale.ENGLISH, null)
+				.getRenderPlan(false);
+		final RenderContext<Sample01> context = new RenderContext<Sample01>(this.model);
+		final List<PropertyDescriptor<?, ?>> prefixes = context.getPrefixes();
+		plan.replay(context, new RecordingFactory());
+		Assert.assertEquals(prefixes, context.getPrefixes());
+	}
+
+	/**
+	 * A factory that records the calls made to it, with the variable names
+	 * they resolve to.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class RecordingFactory
+			implements RenderFactory<RenderContext<Sample01>, Sample01> {
+		/** The calls. */
+		private final List<String> calls;
+
+		/** Default constructor. */
+		public RecordingFactory() {
+			this.calls = new ArrayList<String>();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void beginOperation(final RenderContext<Sample01> context, final OperationDescriptor<Sample01> descriptor) {
+			this.calls.add("begin " + context.getName(descriptor.getName()));
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void endOperation(final RenderContext<Sample01> context, final OperationDescriptor<Sample01> descriptor) {
+			this.calls.add("end " + context.getName(descriptor.getName()));
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <D, P extends Collection<D>> void renderCollectionParameter(final RenderContext<Sample01> context,
+				final OperationDescriptor<Sample01> operation, final CollectionParameterDescriptor<D, P> descriptor,
+				final RenderType renderType) {
+			this.calls.add("collection parameter " + operation.getName() + " " + descriptor.getIndex() + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <D, P extends Collection<D>> void renderCollectionProperty(final RenderContext<Sample01> context,
+				final CollectionPropertyDescriptor<D, P, Sample01> descriptor, final RenderType renderType) {
+			this.calls.add("collection property " + context.getName(descriptor.getName()) + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <D, R extends Collection<D>> void renderCollectionResultType(final RenderContext<Sample01> context,
+				final OperationDescriptor<Sample01> operation, final CollectionResultDescriptor<D, R> resultDescriptor,
+				final RenderType renderType) {
+			this.calls.add("collection result " + operation.getName() + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <P> void renderParameter(final RenderContext<Sample01> context, final ParameterDescriptor<P> descriptor,
+				final OperationDescriptor<Sample01> operation, final RenderType renderType) {
+			this.calls.add("parameter " + operation.getName() + " " + descriptor.getIndex() + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <P> void renderProperty(final RenderContext<Sample01> context, final PropertyDescriptor<P, Sample01> descriptor,
+				final RenderType renderType) {
+			this.calls.add("property " + context.getName(descriptor.getName()) + " " + renderType);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <R> void renderResultType(final RenderContext<Sample01> context, final OperationDescriptor<Sample01> operation,
+				final ResultDescriptor<R> resultDescriptor, final RenderType renderType) {
+			this.calls.add("result " + operation.getName() + " " + renderType);
+		}
+	}
+}
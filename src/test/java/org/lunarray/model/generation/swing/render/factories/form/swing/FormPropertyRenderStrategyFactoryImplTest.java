@@ -0,0 +1,143 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lunarray.model.descriptor.builder.annotation.simple.SimpleBuilder;
+import org.lunarray.model.descriptor.converter.ConverterTool;
+import org.lunarray.model.descriptor.converter.def.DefaultConverterTool;
+import org.lunarray.model.descriptor.dictionary.enumeration.EnumDictionary;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.operation.OperationDescriptor;
+import org.lunarray.model.descriptor.resource.simpleresource.SimpleClazzResource;
+import org.lunarray.model.descriptor.validator.beanvalidation.BeanValidationValidator;
+import org.lunarray.model.generation.swing.components.FormComponent;
+import org.lunarray.model.generation.swing.model.Sample01;
+import org.lunarray.model.generation.swing.model.Sample02;
+import org.lunarray.model.generation.swing.model.SampleEnum;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.factories.form.FormSettings;
+import org.lunarray.model.generation.swing.render.factories.form.swing.components.OperationOutputStrategy;
+
+/**
+ * Tests the form property render strategy factory.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see FormPropertyRenderStrategyFactoryImpl
+ */
+public class FormPropertyRenderStrategyFactoryImplTest {
+	/** Holds back the operations. */
+	private CountDownLatch blocker;
+	/** The operation executor. */
+	private ExecutorService executor;
+	/** The factory. */
+	private FormPropertyRenderStrategyFactoryImpl<Sample01> factory;
+	/** The model. */
+	private Model<Object> model;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() throws Exception {
+		@SuppressWarnings("unchecked")
+		final SimpleClazzResource<Object> resource = new SimpleClazzResource<Object>(Sample01.class, Sample02.class, SampleEnum.class);
+		final BeanValidationValidator validator = new BeanValidationValidator();
+		final EnumDictionary dictionary = new EnumDictionary(null);
+		final ConverterTool converter = new DefaultConverterTool();
+		this.model = SimpleBuilder.createBuilder().resources(resource).extensions(validator, dictionary, converter).build();
+		this.blocker = new CountDownLatch(1);
+		this.executor = Executors.newSingleThreadExecutor();
+		this.executor.execute(new Blocker(this.blocker));
+		@SuppressWarnings("unchecked")
+		final FormComponent<Sample01> form = EasyMock.createNiceMock(FormComponent.class);
+		EasyMock.expect(form.getEntity()).andReturn(Sample01.SAMPLE_01).anyTimes();
+		EasyMock.replay(form);
+		final FormSettings settings = new FormSettings();
+		settings.setOperationExecutor(this.executor);
+		this.factory = new FormPropertyRenderStrategyFactoryImpl<Sample01>(form, settings);
+	}
+
+	/** Tears down the test. */
+	@After
+	public void teardown() {
+		this.blocker.countDown();
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Test rebinding cancels an operation in flight.
+	 * 
+	 * @see FormPropertyRenderStrategyFactoryImpl#rebind(Object)
+	 */
+	@Test
+	public void testRebindPendingOperation() {
+		final OperationDescriptor<Sample01> operation = this.model.getEntity(Sample01.class).getOperation("echoMethod");
+		final RenderContext<Sample01> context = new RenderContext<Sample01>(this.model);
+		this.factory.beginOperation(context, operation);
+		this.factory.endOperation(context, operation);
+		final OperationOutputStrategy<Sample01> strategy = this.factory.getOperations().get(operation);
+		Assert.assertSame(Sample01.SAMPLE_01, strategy.getTarget());
+		strategy.getButton().doClick();
+		Assert.assertTrue(strategy.isRunning());
+		Assert.assertFalse(strategy.getButton().isEnabled());
+		this.factory.rebind(Sample01.SAMPLE_02);
+		Assert.assertFalse(strategy.isRunning());
+		Assert.assertTrue(strategy.getButton().isEnabled());
+		Assert.assertEquals(1, strategy.getCancelled());
+		Assert.assertEquals("", strategy.getMessage().getText());
+		Assert.assertSame(Sample01.SAMPLE_02, strategy.getTarget());
+	}
+
+	/**
+	 * Blocks the executor until released.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class Blocker
+			implements Runnable {
+		/** The latch. */
+		private final CountDownLatch latch;
+
+		/**
+		 * Constructs the blocker.
+		 * 
+		 * @param latch
+		 *            The latch.
+		 */
+		public Blocker(final CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void run() {
+			try {
+				this.latch.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+import org.lunarray.model.descriptor.accessor.exceptions.ValueAccessException;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+
+/**
+ * Tests the entity index.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see EntityIndex
+ */
+public class EntityIndexTest {
+
+	/**
+	 * Test finding entities by themselves.
+	 * 
+	 * @see EntityIndex#indexOf(Object)
+	 */
+	@Test
+	public void testIndexOf() {
+		final EntityIndex<String> index = new EntityIndex<String>(Arrays.asList("a", "b", "c", "b"), null);
+		Assert.assertEquals(0, index.indexOf("a"));
+		Assert.assertEquals(3, index.indexOf("b"));
+		Assert.assertEquals(-1, index.indexOf("d"));
+		Assert.assertEquals(-1, index.indexOf(null));
+		Assert.assertEquals(-1, new EntityIndex<String>(null, null).indexOf("a"));
+	}
+
+	/**
+	 * Test finding entities by their key.
+	 * 
+	 * @throws ValueAccessException
+	 *             Not expected.
+	 * @see EntityIndex#indexOf(Object)
+	 */
+	@Test
+	public void testIndexOfKey() throws ValueAccessException {
+		@SuppressWarnings("unchecked")
+		final PropertyDescriptor<Integer, String> keyProperty = EasyMock.createMock(PropertyDescriptor.class);
+		EasyMock.expect(keyProperty.getValue("first")).andReturn(Integer.valueOf(1)).anyTimes();
+		EasyMock.expect(keyProperty.getValue("second")).andReturn(Integer.valueOf(2)).anyTimes();
+		EasyMock.expect(keyProperty.getValue("other first")).andReturn(Integer.valueOf(1)).anyTimes();
+		EasyMock.replay(keyProperty);
+		final EntityIndex<String> index = new EntityIndex<String>(Arrays.asList("first", "second"), keyProperty);
+		Assert.assertEquals(1, index.indexOf("second"));
+		Assert.assertEquals(0, index.indexOf("other first"));
+	}
+
+	/**
+	 * Test selecting entities.
+	 * 
+	 * @see EntityIndex#select(java.util.Collection)
+	 */
+	@Test
+	public void testSelect() {
+		final List<Integer> entities = new ArrayList<Integer>();
+		final List<Integer> selection = new LinkedList<Integer>();
+		for (int i = 0; i < 1000; i = i + 1) {
+			entities.add(Integer.valueOf(i));
+			if (i % 3 == 0) {
+				selection.add(Integer.valueOf(i));
+			}
+		}
+		selection.add(Integer.valueOf(-1));
+		final BitSet selected = new EntityIndex<Integer>(entities, null).select(selection);
+		Assert.assertEquals(334, selected.cardinality());
+		for (int i = 0; i < 1000; i = i + 1) {
+			Assert.assertEquals(i % 3 == 0, selected.get(i));
+		}
+		Assert.assertTrue(new EntityIndex<Integer>(entities, null).select(null).isEmpty());
+	}
+}
@@ -0,0 +1,133 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the item list model.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see ItemListModel
+ */
+public class ItemListModelTest {
+	/** The factory. */
+	private CountingFactory factory;
+	/** The model. */
+	private ItemListModel<String> model;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() {
+		final List<String> entities = new ArrayList<String>();
+		for (int i = 0; i < 100; i = i + 1) {
+			entities.add("entity" + i);
+		}
+		this.factory = new CountingFactory();
+		this.model = new ItemListModel<String>(entities, this.factory, 10);
+	}
+
+	/**
+	 * Test creating items once while they are in the window.
+	 * 
+	 * @see ItemListModel#getElementAt(int)
+	 */
+	@Test
+	public void testWindow() {
+		final Item<String> item = this.model.getElementAt(5);
+		Assert.assertEquals("entity5", item.getEntity());
+		Assert.assertEquals("label entity5", item.getLabel());
+		Assert.assertSame(item, this.model.getElementAt(5));
+		Assert.assertEquals(1, this.factory.created);
+		Assert.assertEquals(1, this.model.getCachedCount());
+	}
+
+	/**
+	 * Test evicting the least recently accessed items.
+	 * 
+	 * @see ItemListModel#getElementAt(int)
+	 */
+	@Test
+	public void testEviction() {
+		for (int i = 0; i < 10; i = i + 1) {
+			this.model.getElementAt(i);
+		}
+		this.model.getElementAt(0);
+		this.model.getElementAt(50);
+		Assert.assertEquals(10, this.model.getCachedCount());
+		Assert.assertEquals(11, this.factory.created);
+		this.model.getElementAt(0);
+		Assert.assertEquals(11, this.factory.created);
+		this.model.getElementAt(1);
+		Assert.assertEquals(12, this.factory.created);
+		for (int i = 0; i < 100; i = i + 1) {
+			this.model.getElementAt(i);
+		}
+		Assert.assertEquals(10, this.model.getCachedCount());
+	}
+
+	/**
+	 * Test dropping the window when the entities are replaced.
+	 * 
+	 * @see ItemListModel#setEntities(java.util.Collection)
+	 */
+	@Test
+	public void testSetEntities() {
+		this.model.getElementAt(0);
+		final List<String> entities = Arrays.asList("other");
+		this.model.setEntities(entities);
+		Assert.assertEquals(0, this.model.getCachedCount());
+		Assert.assertEquals(1, this.model.getSize());
+		Assert.assertEquals("other", this.model.getElementAt(0).getEntity());
+		Assert.assertEquals(2, this.factory.created);
+		this.model.setEntities(null);
+		Assert.assertEquals(0, this.model.getSize());
+	}
+
+	/**
+	 * A factory that counts created items.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class CountingFactory
+			implements ItemListModel.ItemFactory<String> {
+		/** The amount of created items. */
+		private int created;
+
+		/** Default constructor. */
+		public CountingFactory() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Item<String> createItem(final String entity) {
+			this.created = this.created + 1;
+			final Item<String> item = new Item<String>();
+			item.setEntity(entity);
+			item.setLabel("label " + entity);
+			return item;
+		}
+	}
+}
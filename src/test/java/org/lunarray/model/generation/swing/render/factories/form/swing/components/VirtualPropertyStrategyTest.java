@@ -0,0 +1,203 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.render.factories.form.swing.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JLabel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lunarray.model.descriptor.builder.annotation.simple.SimpleBuilder;
+import org.lunarray.model.descriptor.converter.ConverterTool;
+import org.lunarray.model.descriptor.converter.def.DefaultConverterTool;
+import org.lunarray.model.descriptor.dictionary.enumeration.EnumDictionary;
+import org.lunarray.model.descriptor.model.Model;
+import org.lunarray.model.descriptor.model.property.PropertyDescriptor;
+import org.lunarray.model.descriptor.resource.simpleresource.SimpleClazzResource;
+import org.lunarray.model.descriptor.validator.beanvalidation.BeanValidationValidator;
+import org.lunarray.model.generation.swing.model.Sample01;
+import org.lunarray.model.generation.swing.model.Sample02;
+import org.lunarray.model.generation.swing.model.SampleEnum;
+import org.lunarray.model.generation.swing.render.RenderContext;
+import org.lunarray.model.generation.swing.render.factories.form.FormPropertyRenderStrategy;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
+import org.lunarray.model.generation.swing.render.factories.form.descriptor.ValueChangeListener;
+import org.lunarray.model.generation.swing.render.factories.form.impl.property.PropertyDescriptorImpl;
+
+/**
+ * Tests the virtual property strategy.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see VirtualPropertyStrategy
+ */
+public class VirtualPropertyStrategyTest {
+	/** The descriptor. */
+	private PropertyDescriptorImpl<Integer, Sample01> descriptor;
+	/** The factory. */
+	private RecordingFactory factory;
+	/** The strategy. */
+	private VirtualPropertyStrategy<Integer> strategy;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() throws Exception {
+		@SuppressWarnings("unchecked")
+		final SimpleClazzResource<Object> resource = new SimpleClazzResource<Object>(Sample01.class, Sample02.class, SampleEnum.class);
+		final BeanValidationValidator validator = new BeanValidationValidator();
+		final EnumDictionary dictionary = new EnumDictionary(null);
+		final ConverterTool converter = new DefaultConverterTool();
+		final Model<Object> model = SimpleBuilder.createBuilder().resources(resource).extensions(validator, dictionary, converter).build();
+		final PropertyDescriptor<Integer, Sample01> property = model.getEntity(Sample01.class).getProperty("testValue4", Integer.class);
+		this.descriptor = new PropertyDescriptorImpl<Integer, Sample01>(property, model);
+		this.descriptor.setEntity(new Sample01());
+		this.factory = new RecordingFactory();
+		this.strategy = new VirtualPropertyStrategy.DescriptorStrategy<Integer>(this.factory, new RenderContext<Object>(model), this.descriptor);
+	}
+
+	/**
+	 * Test realizing a released strategy keeps the edited value, without
+	 * reverting the descriptor.
+	 * 
+	 * @see VirtualPropertyStrategy#realize()
+	 * @see VirtualPropertyStrategy#release()
+	 */
+	@Test
+	public void testRealizeReleaseKeepsDirty() {
+		this.strategy.realize();
+		this.descriptor.getBufferMutator().setStringValue(new JLabel(), "100");
+		this.strategy.release();
+		Assert.assertFalse(this.strategy.isRealized());
+		final RecordingStrategy<?> before = this.factory.last;
+		final RecordingListener listener = new RecordingListener();
+		this.descriptor.addListener(listener);
+		this.strategy.realize();
+		Assert.assertNotSame(before, this.factory.last);
+		Assert.assertTrue(this.descriptor.isDirty());
+		Assert.assertTrue(this.strategy.getVisitor().isDirty());
+		Assert.assertEquals(Integer.valueOf(100), this.descriptor.getBufferAccessor().getValue(new JLabel()));
+		Assert.assertTrue(listener.values.isEmpty());
+		Assert.assertEquals(1, this.factory.last.values.size());
+		Assert.assertEquals(Integer.valueOf(100), this.factory.last.values.get(0));
+	}
+
+	/**
+	 * Test realizing a strategy without edits reverts the descriptor.
+	 * 
+	 * @see VirtualPropertyStrategy#realize()
+	 */
+	@Test
+	public void testRealizeReverts() {
+		final RecordingListener listener = new RecordingListener();
+		this.descriptor.addListener(listener);
+		this.strategy.realize();
+		Assert.assertFalse(this.descriptor.isDirty());
+		Assert.assertEquals(1, listener.values.size());
+		Assert.assertEquals(Integer.valueOf(5), listener.values.get(0));
+		Assert.assertTrue(this.factory.last.values.isEmpty());
+	}
+
+	/**
+	 * Creates recording strategies.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class RecordingFactory
+			implements FormPropertyRenderStrategy.DescriptorFactory {
+
+		/** The last created strategy. */
+		private RecordingStrategy<?> last;
+
+		/** Default constructor. */
+		public RecordingFactory() {
+			// Default constructor.
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public <E, P> FormPropertyRenderStrategy<P> createStrategy(final RenderContext<E> context, final Descriptor<P> descriptor) {
+			final RecordingStrategy<P> result = new RecordingStrategy<P>(descriptor, context);
+			this.last = result;
+			return result;
+		}
+	}
+
+	/**
+	 * Records the values a descriptor notifies.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 */
+	private static class RecordingListener
+			implements ValueChangeListener<Integer> {
+
+		/** The values. */
+		private final List<Integer> values;
+
+		/** Default constructor. */
+		public RecordingListener() {
+			this.values = new ArrayList<Integer>();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void valueChanged(final Integer value) {
+			this.values.add(value);
+		}
+	}
+
+	/**
+	 * A strategy recording the values it shows.
+	 * 
+	 * @author Pal Hargitai (pal@lunarray.org)
+	 * @param <P>
+	 *            The property type.
+	 */
+	private static class RecordingStrategy<P>
+			extends AbstractFormPropertyRenderStrategy<P, JLabel> {
+
+		/** The values. */
+		private final List<P> values;
+
+		/**
+		 * Constructs the strategy.
+		 * 
+		 * @param descriptor
+		 *            The descriptor.
+		 * @param context
+		 *            The render context.
+		 */
+		public RecordingStrategy(final Descriptor<P> descriptor, final RenderContext<?> context) {
+			super(descriptor, context);
+			this.values = new ArrayList<P>();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void valueChanged(final P value) {
+			this.values.add(value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected JLabel createComponent() {
+			return new JLabel();
+		}
+	}
+}
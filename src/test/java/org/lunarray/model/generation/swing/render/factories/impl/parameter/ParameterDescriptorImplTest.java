@@ -41,6 +41,7 @@ import org.lunarray.model.generation.swing.model.SampleEnum;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.MutateBuffer;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.ValueChangeListener;
+import org.lunarray.model.generation.swing.render.factories.form.impl.parameter.AbstractParameterDescriptorImpl;
 import org.lunarray.model.generation.swing.render.factories.form.impl.parameter.ParameterDescriptorImpl;
 
 /**
@@ -71,6 +72,23 @@ public class ParameterDescriptorImplTest {
 		EasyMock.reset(this.valueChangeListener);
 	}
 
+	/**
+	 * Test setting a value marks the descriptor dirty, and reverting clears it.
+	 * 
+	 * @see MutateBuffer#setStringValue(JLabel, String)
+	 * @see Descriptor#revert()
+	 * @see AbstractParameterDescriptorImpl#isDirty()
+	 */
+	@Test
+	public void testDirtyRevertSimple() {
+		final AbstractParameterDescriptorImpl<?, ?> descriptor = (AbstractParameterDescriptorImpl<?, ?>) this.getSimpleIntegerDescriptor();
+		Assert.assertFalse(descriptor.isDirty());
+		descriptor.getBufferMutator().setStringValue(new JLabel(), "100");
+		Assert.assertTrue(descriptor.isDirty());
+		descriptor.revert();
+		Assert.assertFalse(descriptor.isDirty());
+	}
+
 	/**
 	 * Test getting the label.
 	 * 
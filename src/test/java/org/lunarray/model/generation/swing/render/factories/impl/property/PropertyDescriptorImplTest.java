@@ -39,6 +39,7 @@ import org.lunarray.model.generation.swing.model.SampleEnum;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.Descriptor;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.MutateBuffer;
 import org.lunarray.model.generation.swing.render.factories.form.descriptor.ValueChangeListener;
+import org.lunarray.model.generation.swing.render.factories.form.impl.property.AbstractPropertyDescriptorImpl;
 import org.lunarray.model.generation.swing.render.factories.form.impl.property.PropertyDescriptorImpl;
 
 /**
@@ -72,6 +73,23 @@ public class PropertyDescriptorImplTest {
 		EasyMock.reset(this.valueChangeListener);
 	}
 
+	/**
+	 * Test setting a value marks the descriptor dirty, and reverting clears it.
+	 * 
+	 * @see MutateBuffer#setStringValue(JLabel, String)
+	 * @see Descriptor#revert()
+	 * @see AbstractPropertyDescriptorImpl#isDirty()
+	 */
+	@Test
+	public void testDirtyRevertSimple() {
+		final AbstractPropertyDescriptorImpl<?, ?> descriptor = (AbstractPropertyDescriptorImpl<?, ?>) this.getSimpleIntegerDescriptor();
+		Assert.assertFalse(descriptor.isDirty());
+		descriptor.getBufferMutator().setStringValue(new JLabel(), "100");
+		Assert.assertTrue(descriptor.isDirty());
+		descriptor.revert();
+		Assert.assertFalse(descriptor.isDirty());
+	}
+
 	/**
 	 * Test getting the label.
 	 * 
@@ -0,0 +1,109 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.util;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lunarray.model.generation.swing.util.ParallelMergeSort.IndexComparator;
+
+/**
+ * Tests the parallel merge sort.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see ParallelMergeSort
+ */
+public class ParallelMergeSortTest {
+	/** The executor. */
+	private ExecutorService executor;
+
+	/** Sets up the test. */
+	@Before
+	public void setup() {
+		this.executor = Executors.newFixedThreadPool(4, new DaemonThreadFactory("test"));
+	}
+
+	/** Tears down the test. */
+	@After
+	public void teardown() {
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Test sorting in parallel.
+	 * 
+	 * @throws InterruptedException
+	 *             Not expected.
+	 * @see ParallelMergeSort#sort(int[], IndexComparator, ExecutorService, int)
+	 */
+	@Test
+	public void testParallel() throws InterruptedException {
+		this.assertSorted(ParallelMergeSort.PARALLEL_THRESHOLD * 3 + 7, 3);
+	}
+
+	/**
+	 * Test sorting in the calling thread.
+	 * 
+	 * @throws InterruptedException
+	 *             Not expected.
+	 * @see ParallelMergeSort#sort(int[], IndexComparator, ExecutorService, int)
+	 */
+	@Test
+	public void testSequential() throws InterruptedException {
+		this.assertSorted(1000, 1);
+	}
+
+	/**
+	 * Sorts random keys and asserts a stable order.
+	 * 
+	 * @param size
+	 *            The amount of keys.
+	 * @param parallelism
+	 *            The parallelism.
+	 * @throws InterruptedException
+	 *             Not expected.
+	 */
+	private void assertSorted(final int size, final int parallelism) throws InterruptedException {
+		final Random random = new Random(size);
+		final int[] keys = new int[size];
+		final int[] indices = new int[size];
+		for (int i = 0; i < size; i = i + 1) {
+			keys[i] = random.nextInt(size / 10);
+			indices[i] = i;
+		}
+		ParallelMergeSort.sort(indices, new IndexComparator() {
+			@Override
+			public int compare(final int left, final int right) {
+				return Integer.valueOf(keys[left]).compareTo(Integer.valueOf(keys[right]));
+			}
+		}, this.executor, parallelism);
+		for (int i = 1; i < size; i = i + 1) {
+			final int previous = keys[indices[i - 1]];
+			final int current = keys[indices[i]];
+			Assert.assertTrue(previous <= current);
+			if (previous == current) {
+				Assert.assertTrue(indices[i - 1] < indices[i]);
+			}
+		}
+	}
+}
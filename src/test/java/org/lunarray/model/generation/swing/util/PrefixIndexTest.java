@@ -0,0 +1,82 @@
+/* 
+ * Model Tools.
+ * Copyright (C) 2013 Pal Hargitai (pal@lunarray.org)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.lunarray.model.generation.swing.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the prefix index.
+ * 
+ * @author Pal Hargitai (pal@lunarray.org)
+ * @see PrefixIndex
+ */
+public class PrefixIndexTest {
+	/** The index. */
+	private PrefixIndex index;
+
+	/**
+	 * Sets up the test.
+	 * 
+	 * @throws InterruptedException
+	 *             Not expected.
+	 */
+	@Before
+	public void setup() throws InterruptedException {
+		this.index = PrefixIndex.build(new String[] { "Alpha Beta", "beta-gamma", null, "Gamma  Alpha", "Delta" }, null, 1);
+	}
+
+	/**
+	 * Test querying single words.
+	 * 
+	 * @see PrefixIndex#query(String, int)
+	 */
+	@Test
+	public void testWord() {
+		Assert.assertArrayEquals(new int[] { 3, 0 }, this.index.query("al", 10));
+		Assert.assertArrayEquals(new int[] { 0, 1 }, this.index.query(" BETA ", 10));
+		Assert.assertArrayEquals(new int[] { 4 }, this.index.query("delta", 10));
+		Assert.assertArrayEquals(new int[0], this.index.query("lpha", 10));
+		Assert.assertArrayEquals(new int[] { 3 }, this.index.query("a", 1));
+	}
+
+	/**
+	 * Test querying phrases and separate words.
+	 * 
+	 * @see PrefixIndex#query(String, int)
+	 */
+	@Test
+	public void testWords() {
+		Assert.assertArrayEquals(new int[] { 3 }, this.index.query("gamma   al", 10));
+		Assert.assertArrayEquals(new int[] { 1 }, this.index.query("gam bet", 10));
+		Assert.assertArrayEquals(new int[0], this.index.query("delta alpha", 10));
+	}
+
+	/**
+	 * Test the empty query.
+	 * 
+	 * @see PrefixIndex#query(String, int)
+	 */
+	@Test
+	public void testEmpty() {
+		Assert.assertArrayEquals(new int[] { 0, 1 }, this.index.query(null, 2));
+		Assert.assertEquals(5, this.index.size());
+		Assert.assertNull(this.index.getLabel(2));
+	}
+}